@@ -26,7 +26,10 @@
 package telematik.ws.conn;
 
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
 import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
 
 /** Pseudo API for the retrieval of the connection information (connector.sds) from the Konnektor */
@@ -35,4 +38,20 @@ public interface SdsApi {
   @Path("connector.sds")
   @GET
   ConnectorServices getConnectorSds();
+
+  /**
+   * Conditional retrieval of the connection information.<br>
+   * If the connection information did not change, since the given validators were issued, the
+   * response has the status 304 (Not Modified) and no entity.
+   *
+   * @param ifNoneMatch ETag of the connection information known to the caller, may be null
+   * @param ifModifiedSince Last-Modified of the connection information known to the caller, may be
+   *     null
+   * @return the response with the connection information as XML entity
+   */
+  @Path("connector.sds")
+  @GET
+  Response getConnectorSds(
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+      @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) String ifModifiedSince);
 }
@@ -25,7 +25,9 @@
 package de.gematik.epa.api.testdriver;
 
 import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentsRequest;
 import de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse;
+import de.gematik.epa.api.testdriver.dto.response.SignDocumentsResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -59,4 +61,28 @@ public interface SignatureApi {
             content = @Content(schema = @Schema(implementation = SignDocumentResponse.class)))
       })
   SignDocumentResponse signDocument(SignDocumentRequest request);
+
+  @POST
+  @Path("/signDocuments")
+  @Consumes({"application/json"})
+  @Produces({"application/json"})
+  @Operation(
+      summary = "Mehrere Dokumente signieren",
+      description =
+          "Mehrere Dokumente mit derselben Karte durch den Konnektor signieren lassen. "
+              + "Die Dokumente werden mit möglichst wenigen SignDocument Aufrufen an den Konnektor übertragen. "
+              + "Gegenwärtig wird nur CMS Signatur mit eingebettetem Dokument unterstützt",
+      requestBody =
+          @RequestBody(
+              required = true,
+              description = "Dokumente welche signiert werden sollen, sowie Signaturparameter",
+              content = @Content(schema = @Schema(implementation = SignDocumentsRequest.class))),
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description =
+                "Erstellte Signaturen bzw. Fehlerinformationen je Dokument, oder Fehlerinformationen, wenn die Operation insgesamt fehlgeschlagen ist",
+            content = @Content(schema = @Schema(implementation = SignDocumentsResponse.class)))
+      })
+  SignDocumentsResponse signDocuments(SignDocumentsRequest request);
 }
@@ -0,0 +1,52 @@
+/*-
+ * #%L
+ * epa-ps-sim-api
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.api.testdriver.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest.SignatureAlgorithm;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest.SignatureType;
+import de.gematik.epa.ihe.model.simple.ByteArray;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(
+    description =
+        "Request Objekt um die Erstellung von Signaturen für mehrere Dokumente durch den Konnektor auszulösen. "
+            + "Alle Dokumente werden mit derselben Karte und denselben Signaturparametern signiert")
+public record SignDocumentsRequest(
+    @JsonProperty @Schema(description = "Dokumente welche signiert werden sollen")
+        List<ByteArray> documents,
+    @JsonProperty
+        @Schema(
+            description =
+                "Soll eine QES Signatur erstellt werden? true=ja (verwendet HBA), false=nein (verwendet SM-B)")
+        boolean performQES,
+    @JsonProperty @Schema(description = "Algorithmus für die Signatur (RSA oder ECC)")
+        SignatureAlgorithm signatureAlgorithm) {
+
+  public SignatureType signatureType() {
+    return SignatureType.CMS;
+  }
+}
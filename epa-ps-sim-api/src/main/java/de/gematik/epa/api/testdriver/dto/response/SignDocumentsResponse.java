@@ -0,0 +1,61 @@
+/*-
+ * #%L
+ * epa-ps-sim-api
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.api.testdriver.dto.response;
+
+import static de.gematik.epa.constants.Documentation.STATUS_MSG_DESCRIPTION;
+import static de.gematik.epa.constants.Documentation.SUCCESS_DESCRIPTION;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Response der signDocuments Operation mit den erzeugten Signaturen")
+public record SignDocumentsResponse(
+    @JsonProperty(required = true)
+        @Schema(
+            description = SUCCESS_DESCRIPTION + " (true nur, wenn alle Dokumente signiert wurden)")
+        Boolean success,
+    @Schema(description = STATUS_MSG_DESCRIPTION) String statusMessage,
+    @Schema(
+            description =
+                "Ergebnis je Dokument, in der Reihenfolge der Dokumente des Requests. Leer, wenn die Operation insgesamt fehlgeschlagen ist")
+        List<SignDocumentResponse> signatures) {
+
+  public SignDocumentsResponse(List<SignDocumentResponse> signatures) {
+    this(
+        signatures.stream().allMatch(signature -> Boolean.TRUE.equals(signature.success())),
+        String.format(
+            "%d of %d documents signed",
+            signatures.stream()
+                .filter(signature -> Boolean.TRUE.equals(signature.success()))
+                .count(),
+            signatures.size()),
+        signatures);
+  }
+
+  public SignDocumentsResponse(ResponseDTO responseBase) {
+    this(responseBase.success(), responseBase.statusMessage(), List.of());
+  }
+}
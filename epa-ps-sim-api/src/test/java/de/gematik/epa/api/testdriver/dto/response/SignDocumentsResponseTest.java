@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * epa-ps-sim-api
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.api.testdriver.dto.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse.SignatureForm;
+import de.gematik.epa.ihe.model.simple.ByteArray;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SignDocumentsResponseTest {
+
+  @Test
+  void signDocumentsResponseTest() {
+    var signed =
+        new SignDocumentResponse(
+            true, "OK", ByteArray.of(new byte[] {1}), SignatureForm.DOCUMENT_WITH_SIGNATURE);
+    var failed = new SignDocumentResponse(false, "Card locked", (ByteArray) null, null);
+
+    var allSigned = assertDoesNotThrow(() -> new SignDocumentsResponse(List.of(signed, signed)));
+    var partlySigned = assertDoesNotThrow(() -> new SignDocumentsResponse(List.of(signed, failed)));
+
+    assertTrue(allSigned.success());
+    assertFalse(partlySigned.success());
+    assertEquals("1 of 2 documents signed", partlySigned.statusMessage());
+    assertEquals(List.of(signed, failed), partlySigned.signatures());
+  }
+
+  @Test
+  void signDocumentsResponseFromResponseDTOTest() {
+    var response = new SignDocumentsResponse(new ResponseDTO(false, "No card"));
+
+    assertFalse(response.success());
+    assertEquals("No card", response.statusMessage());
+    assertTrue(response.signatures().isEmpty());
+  }
+}
@@ -24,12 +24,12 @@
  */
 package de.gematik.epa.ps;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.jakarta.rs.json.JacksonJsonProvider;
+import de.gematik.epa.api.testdriver.audit.dto.GetAuditEventResponseDTO;
+import de.gematik.epa.api.testdriver.information.dto.GetRecordStatusResponseDTO;
+import de.gematik.epa.api.testdriver.medication.dto.GetMedicationListAsFhirResponseDTO;
+import de.gematik.epa.api.testdriver.medication.dto.GetMedicationListAsPdfResponseDTO;
+import de.gematik.epa.client.SharedJsonProvider;
 import java.security.Security;
 import java.util.Set;
 import org.apache.cxf.jaxrs.openapi.OpenApiFeature;
@@ -87,20 +87,19 @@ public class EpaPsSimApplication {
 
   /**
    * Create the JsonProvider as Bean, which is then used to serialize and deserialize the data,
-   * which are processed at the implemented API interfaces.
+   * which are processed at the implemented API interfaces.<br>
+   * It is the {@link SharedJsonProvider} also used by the clients. The serialization of the large
+   * response types is prepared in advance.
    *
    * @return {@link JacksonJsonProvider}
    */
   @Bean
   public JacksonJsonProvider jsonProvider() {
-    final ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.setSerializationInclusion(Include.NON_ABSENT);
-    objectMapper.registerModule(new JavaTimeModule());
-
-    final JacksonJsonProvider provider = new JacksonJsonProvider();
-    provider.setMapper(objectMapper);
-    provider.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
-    provider.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    return provider;
+    SharedJsonProvider.warmUp(
+        GetAuditEventResponseDTO.class,
+        GetMedicationListAsFhirResponseDTO.class,
+        GetMedicationListAsPdfResponseDTO.class,
+        GetRecordStatusResponseDTO.class);
+    return SharedJsonProvider.jsonProvider();
   }
 }
@@ -27,6 +27,7 @@ package de.gematik.epa.ps.endpoint;
 import de.gematik.epa.api.testdriver.impl.SignatureApiImpl;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -39,7 +40,9 @@ public final class SignatureApiEndpoint extends SignatureApiImpl {
 
   public SignatureApiEndpoint(
       final KonnektorContextProvider contextProvider,
-      final KonnektorInterfaceAssembly konnektorInterfaceAssembly) {
+      final KonnektorInterfaceAssembly konnektorInterfaceAssembly,
+      @Value("${konnektor.signature.maxDocumentsPerRequest:20}") final int maxDocumentsPerRequest) {
     super(contextProvider, konnektorInterfaceAssembly);
+    maxDocumentsPerRequest(maxDocumentsPerRequest);
   }
 }
@@ -33,9 +33,11 @@ import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.SmbInformationProvider;
 import de.gematik.epa.konnektor.client.VSDServiceClient;
 import de.gematik.epa.ps.entitlement.config.EntitlementServerConfiguration;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +51,9 @@ public class EntitlementClientProvider {
 
   private final EntitlementServerConfiguration entitlementServerConfiguration;
 
+  @Value("${konnektor.vsd.readSessionTimeToLive:10s}")
+  private Duration vsdReadSessionTimeToLive = VSDServiceClient.DEFAULT_READ_SESSION_TIME_TO_LIVE;
+
   String getServerUrl() {
     return entitlementServerConfiguration.getProtocol()
         + "://"
@@ -69,6 +74,7 @@ public class EntitlementClientProvider {
     final var blockingClientWrapper =
         new JaxRsClientWrapper<>(
             getServerUrl(), entitlementServerConfiguration.getUserAgent(), UserBlockingApi.class);
+    vsdServiceClient.readSessionTimeToLive(vsdReadSessionTimeToLive);
     return new EntitlementService(
         entitlementClientWrapper,
         blockingClientWrapper,
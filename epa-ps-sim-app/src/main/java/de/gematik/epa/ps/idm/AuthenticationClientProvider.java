@@ -26,12 +26,14 @@ package de.gematik.epa.ps.idm;
 
 import static de.gematik.epa.utils.LoggingFeatureUtil.newLoggingFeature;
 
-import com.fasterxml.jackson.jakarta.rs.json.JacksonJsonProvider;
 import de.gematik.epa.api.authorization.client.AuthorizationSmcBApi;
 import de.gematik.epa.api.vau.client.VauApi;
 import de.gematik.epa.authentication.AuthenticationService;
+import de.gematik.epa.authentication.IdpClientCache;
+import de.gematik.epa.authentication.VauSessionRegistry;
 import de.gematik.epa.client.JaxRsClientWrapper;
 import de.gematik.epa.client.JaxRsOutgoingRequestInterceptor;
+import de.gematik.epa.client.SharedJsonProvider;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.SmbInformationProvider;
@@ -41,6 +43,9 @@ import de.gematik.epa.ps.idm.config.IdpServerConfiguration;
 import de.gematik.epa.ps.kob.config.VauProxyConfiguration;
 import de.gematik.idp.client.AuthenticatorClient;
 import de.gematik.idp.client.IdpClient;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
 import kong.unirest.core.Proxy;
 import kong.unirest.core.Unirest;
 import kong.unirest.core.UnirestInstance;
@@ -70,7 +75,7 @@ public class AuthenticationClientProvider {
   private final IdpServerConfiguration idpServerConfiguration;
   private final EpaProxyConfiguration epaProxyConfiguration;
   private final VauProxyConfiguration vauProxyConfiguration;
-  private final IdpClient.IdpClientBuilder idpClientBuilder;
+  private final IdpClientCache idpClients;
   private final AuthorizationSmcBApi authorizationSmcBApi;
   private final LoggingFeature loggingFeature = newLoggingFeature(Level.INFO);
 
@@ -83,10 +88,17 @@ public class AuthenticationClientProvider {
     this.idpServerConfiguration = idpServerConfiguration;
     this.epaProxyConfiguration = epaProxyConfiguration;
     this.vauProxyConfiguration = vauProxyConfiguration;
-    this.idpClientBuilder =
-        IdpClient.builder()
-            .discoveryDocumentUrl(getIdmServerUrl())
-            .authenticatorClient(new AuthenticatorClient(getIdpUnirestInstance()));
+    final var idmServerUrl = getIdmServerUrl();
+    final var authenticatorClient = new AuthenticatorClient(getIdpUnirestInstance());
+    this.idpClients =
+        new IdpClientCache(
+            () ->
+                IdpClient.builder()
+                    .discoveryDocumentUrl(idmServerUrl)
+                    .authenticatorClient(authenticatorClient));
+    if (idpServerConfiguration.getDiscoveryDocumentTimeToLive() != null) {
+      this.idpClients.timeToLive(idpServerConfiguration.getDiscoveryDocumentTimeToLive());
+    }
     this.authorizationSmcBApi = initializeApiClient(getAuthServerUrl());
   }
 
@@ -134,10 +146,13 @@ public class AuthenticationClientProvider {
     var factoryBean = new JAXRSClientFactoryBean();
     factoryBean.setServiceClass(AuthorizationSmcBApi.class);
     factoryBean.setAddress(serverUrl);
-    factoryBean.setProvider(new JacksonJsonProvider());
+    factoryBean.setProvider(SharedJsonProvider.jsonProvider());
     factoryBean.getFeatures().add(loggingFeature);
+    // the login steps call this proxy concurrently (nonce and authorization request)
+    factoryBean.setThreadSafe(true);
+    // part of the configuration, as a header set on the proxy applies to the calling thread only
+    factoryBean.setHeaders(Map.of(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON));
     var api = factoryBean.create(AuthorizationSmcBApi.class);
-    WebClient.client(api).accept("application/json");
     // don't follow redirects
     ClientConfiguration config = WebClient.getConfig(api);
     config.getRequestContext().put("http.redirect.relative.uri", "false");
@@ -152,7 +167,10 @@ public class AuthenticationClientProvider {
       final SmbInformationProvider smbInformationProvider) {
     return new AuthenticationService(
         this.authorizationSmcBApi,
-        this.idpClientBuilder,
+        this.idpClients,
+        new VauSessionRegistry()
+            .sessionLifetime(vauProxyConfiguration.getSessionLifetime())
+            .reLoginLeadTime(vauProxyConfiguration.getReLoginLeadTime()),
         contextProvider,
         konnektorInterfaceAssembly,
         smbInformationProvider,
@@ -24,6 +24,7 @@
  */
 package de.gematik.epa.ps.idm.config;
 
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -36,4 +37,7 @@ public class IdpServerConfiguration {
   private String path;
   private boolean verifySsl;
   private boolean followRedirects;
+
+  /** Time the discovery document and the keys of the IdP are used, before they are fetched again */
+  private Duration discoveryDocumentTimeToLive;
 }
@@ -27,11 +27,16 @@ package de.gematik.epa.ps.information;
 import de.gematik.epa.api.information.client.AccountInformationApi;
 import de.gematik.epa.api.information.client.ConsentDecisionsApi;
 import de.gematik.epa.api.information.client.UserExperienceApi;
+import de.gematik.epa.client.JaxRsClientRegistry;
 import de.gematik.epa.client.JaxRsClientWrapper;
 import de.gematik.epa.information.InformationService;
 import de.gematik.epa.ps.config.EpaProxyConfiguration;
 import de.gematik.epa.ps.information.config.InformationServerConfiguration;
 import de.gematik.epa.ps.information.config.InformationServers;
+import de.gematik.epa.utils.BoundedHealthRecordLocationCache;
+import de.gematik.epa.utils.HealthRecordProvider;
+import java.nio.file.Path;
+import java.time.Clock;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
@@ -58,6 +63,18 @@ public class InformationClientProvider {
   }
 
   @Bean
+  public BoundedHealthRecordLocationCache healthRecordLocationCache() {
+    var config = informationServersConfiguration.getHealthRecordCache();
+    var file =
+        config.getFile() == null || config.getFile().isBlank() ? null : Path.of(config.getFile());
+    var cache =
+        new BoundedHealthRecordLocationCache(
+            config.getMaxEntries(), config.getTimeToLive(), config.getMissingTimeToLive(), file);
+    HealthRecordProvider.setLocationCache(cache);
+    return cache;
+  }
+
+  @Bean(destroyMethod = "close")
   public InformationService informationService() {
     var accountInformationClientWrapper =
         informationServersConfiguration.getServers().stream()
@@ -72,10 +89,30 @@ public class InformationClientProvider {
             .map(server -> this.createInformationClientWrapper(server, UserExperienceApi.class))
             .toList();
 
-    return new InformationService(
-        accountInformationClientWrapper,
-        consentDecisionsClientWrapper,
-        userExperienceClientWrapper);
+    var informationService =
+        new InformationService(
+            accountInformationClientWrapper,
+            consentDecisionsClientWrapper,
+            userExperienceClientWrapper,
+            informationClientRegistry());
+    HealthRecordProvider.setRecordLookup(informationService::getRecordStatus);
+    return informationService;
+  }
+
+  private JaxRsClientRegistry informationClientRegistry() {
+    var servers = informationServersConfiguration.getServers();
+    var userAgent = servers.isEmpty() ? null : servers.getFirst().getUserAgent();
+    return new JaxRsClientRegistry(
+        (url, apiClass) ->
+            new JaxRsClientWrapper<>(
+                    url,
+                    userAgent,
+                    apiClass,
+                    epaProxyConfiguration.getHost(),
+                    epaProxyConfiguration.getPort())
+                .makeInsecureTlsClient(),
+        informationServersConfiguration.getClientIdleTimeout(),
+        Clock.systemUTC());
   }
 
   private <T> JaxRsClientWrapper<T> createInformationClientWrapper(
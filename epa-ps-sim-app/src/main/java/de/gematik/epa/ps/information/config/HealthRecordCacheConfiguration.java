@@ -0,0 +1,48 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.information.config;
+
+import de.gematik.epa.utils.BoundedHealthRecordLocationCache;
+import java.time.Duration;
+import lombok.Data;
+
+@Data
+public class HealthRecordCacheConfiguration {
+
+  /** Maximum number of insurants, whose health record location is cached */
+  private int maxEntries = BoundedHealthRecordLocationCache.DEFAULT_MAX_ENTRIES;
+
+  /**
+   * Time the location of a health record is used, before it is looked up again, 0 to use it until
+   * it is replaced
+   */
+  private Duration timeToLive = BoundedHealthRecordLocationCache.DEFAULT_TIME_TO_LIVE;
+
+  /** Time a missing health record is remembered, 0 to always ask the information servers */
+  private Duration missingTimeToLive = Duration.ZERO;
+
+  /** File the cache is persisted in, empty to keep it in memory only */
+  private String file;
+}
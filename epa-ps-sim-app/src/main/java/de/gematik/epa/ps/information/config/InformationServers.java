@@ -24,6 +24,8 @@
  */
 package de.gematik.epa.ps.information.config;
 
+import de.gematik.epa.client.JaxRsClientRegistry;
+import java.time.Duration;
 import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -32,4 +34,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "information-servers")
 public class InformationServers {
   private List<InformationServerConfiguration> servers;
+  private HealthRecordCacheConfiguration healthRecordCache = new HealthRecordCacheConfiguration();
+
+  /** Time after which an unused client of a not configured health record system is dropped */
+  private Duration clientIdleTimeout = JaxRsClientRegistry.DEFAULT_IDLE_TIMEOUT;
 }
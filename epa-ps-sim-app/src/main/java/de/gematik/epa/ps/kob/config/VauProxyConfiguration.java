@@ -24,6 +24,8 @@
  */
 package de.gematik.epa.ps.kob.config;
 
+import de.gematik.epa.authentication.VauSessionRegistry;
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -36,6 +38,12 @@ public class VauProxyConfiguration {
   private String port;
   private String userAgent;
 
+  /** Time a user session in the VAU is known to be valid after its login */
+  private Duration sessionLifetime = VauSessionRegistry.DEFAULT_SESSION_LIFETIME;
+
+  /** Time before the expiry of a user session, at which the login is repeated */
+  private Duration reLoginLeadTime = VauSessionRegistry.DEFAULT_RE_LOGIN_LEAD_TIME;
+
   public String getVauHostUrl() {
     return "http://" + getHost() + ":" + getPort();
   }
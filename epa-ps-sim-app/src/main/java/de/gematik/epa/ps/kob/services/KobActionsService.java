@@ -28,6 +28,7 @@ import de.gematik.epa.api.psTestdriver.dto.Action;
 import de.gematik.epa.api.psTestdriver.dto.ErrorMessage;
 import de.gematik.epa.api.psTestdriver.dto.Status;
 import de.gematik.epa.ps.kob.util.KobTestdriverAction;
+import de.gematik.epa.utils.TelematikIdHolder;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
@@ -85,7 +86,8 @@ public class KobActionsService {
   public KobTestdriverAction createTestdriverAction(KobTestdriverAction action) {
     actions.put(action.getId(), action);
     action.setStatus(Status.PROCESSING);
-    executors.submit(action);
+    // the pooled thread runs the action for the institution of the request creating it
+    executors.submit(TelematikIdHolder.wrap(action));
     return action;
   }
 
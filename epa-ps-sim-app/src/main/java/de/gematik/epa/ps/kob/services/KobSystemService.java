@@ -32,6 +32,7 @@ import de.gematik.epa.api.psTestdriver.dto.Action.TypeEnum;
 import de.gematik.epa.api.psTestdriver.dto.ErrorMessage;
 import de.gematik.epa.api.psTestdriver.dto.ResetPrimaersystem;
 import de.gematik.epa.api.testdriver.impl.AuthenticationApiImpl;
+import de.gematik.epa.authentication.AuthenticationService;
 import de.gematik.epa.data.SmbInformation;
 import de.gematik.epa.konnektor.SmbInformationProvider;
 import de.gematik.epa.ps.kob.config.VauProxyConfiguration;
@@ -73,6 +74,7 @@ public class KobSystemService {
 
   private final KobActionsService kobActionsService;
   private final AuthenticationApiImpl authenticationApi;
+  private final AuthenticationService authenticationService;
   private final SmbInformationProvider smbInformationProvider;
   private final VauProxyConfiguration vauProxyConfiguration;
 
@@ -92,7 +94,9 @@ public class KobSystemService {
   private Optional<ErrorMessage> doResetVAUSession() {
     log.info("Resetting the VAU session ...");
     try (final HttpClient client = HttpClient.newHttpClient()) {
-      var telematikId = TelematikIdHolder.getTelematikId();
+      // the KOB flows log in with the SMC-B of determineSmcb, unless the request names its actor
+      var telematikId =
+          Optional.ofNullable(TelematikIdHolder.getTelematikId()).orElseGet(this::findSmcb);
       if (telematikId == null) {
         log.warn("No telematik ID found, cannot destroy VAU session, that's okay for now.");
         return empty();
@@ -103,6 +107,7 @@ public class KobSystemService {
               .header(X_ACTOR_ID, telematikId)
               .POST(BodyPublishers.noBody());
       var response = client.send(requestBuilder.build(), BodyHandlers.ofString());
+      authenticationService.invalidateSessions(telematikId);
 
       if (response.statusCode() == 200) {
         log.info("Successfully destroyed VAU session for telematik ID: {}", telematikId);
@@ -124,8 +129,7 @@ public class KobSystemService {
 
   private Optional<ErrorMessage> doResetCachedHealthRecords() {
     log.info("Resetting the cached health records ...");
-    HealthRecordProvider.getAllHealthRecords()
-        .forEach((recordKey, fqdn) -> HealthRecordProvider.clearHealthRecord(recordKey));
+    HealthRecordProvider.clearAllHealthRecords();
     return Optional.empty();
   }
 
@@ -146,6 +150,15 @@ public class KobSystemService {
     return "http://" + vauProxyConfiguration.getHost() + ":" + vauProxyConfiguration.getPort();
   }
 
+  private String findSmcb() {
+    try {
+      return determineSmcb();
+    } catch (RuntimeException e) {
+      log.warn("No SMC-B found to reset the VAU session for: {}", e.getMessage());
+      return null;
+    }
+  }
+
   public String determineSmcb() {
     return smbInformationProvider.getCardsInformations().stream()
         .filter(smbInfo -> smbInfo.professionOids().stream().anyMatch(allowedOids::contains))
@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.konnektor;
+
+import de.gematik.epa.konnektor.CardPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+
+/**
+ * Metrics of the operations, which are scheduled on the cards by the {@link CardPool}:
+ *
+ * <ul>
+ *   <li>{@value #QUEUE_DEPTH}: number of operations running on or waiting for a card, summed up
+ *       over all cards
+ *   <li>{@value #MAX_QUEUE_DEPTH}: the deepest queue of a single card
+ *   <li>{@value #OPERATIONS}: number of operations run on the cards
+ * </ul>
+ */
+public class CardPoolMetrics implements MeterBinder {
+
+  static final String QUEUE_DEPTH = "konnektor.cards.queue.depth";
+  static final String MAX_QUEUE_DEPTH = "konnektor.cards.queue.depth.max";
+  static final String OPERATIONS = "konnektor.cards.operations";
+
+  private final CardPool cardPool;
+
+  public CardPoolMetrics(@NonNull CardPool cardPool) {
+    this.cardPool = cardPool;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Gauge.builder(
+            QUEUE_DEPTH,
+            cardPool,
+            pool -> pool.queueDepths().values().stream().mapToInt(Integer::intValue).sum())
+        .description("Operations running on or waiting for the cards")
+        .register(registry);
+    Gauge.builder(
+            MAX_QUEUE_DEPTH,
+            cardPool,
+            pool ->
+                pool.queueDepths().values().stream().mapToInt(Integer::intValue).max().orElse(0))
+        .description("Operations running on or waiting for the busiest card")
+        .register(registry);
+
+    FunctionCounter.builder(OPERATIONS, cardPool, CardPool::operations)
+        .description("Operations run on the cards")
+        .register(registry);
+  }
+}
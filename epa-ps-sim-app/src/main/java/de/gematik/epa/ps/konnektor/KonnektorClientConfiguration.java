@@ -24,22 +24,35 @@
  */
 package de.gematik.epa.ps.konnektor;
 
+import de.gematik.epa.konnektor.CardEventSubscription;
+import de.gematik.epa.konnektor.CardInventory;
+import de.gematik.epa.konnektor.CardPool;
+import de.gematik.epa.konnektor.JobNumberPool;
 import de.gematik.epa.konnektor.KonnektorConfigurationProvider;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
+import de.gematik.epa.konnektor.PinStatusKeeper;
+import de.gematik.epa.konnektor.client.CardServiceClient;
+import de.gematik.epa.konnektor.cxf.ConnectorServicesCache;
 import de.gematik.epa.konnektor.cxf.KonnektorInterfacesCxfImpl;
 import de.gematik.epa.ps.konnektor.config.KonnektorConfigurationData;
 import de.gematik.epa.ps.utils.SpringUtils;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Optional;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ResourceLoader;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
 
 /**
  * This is the Konnektor specific configuration class for the epa-ps-sim-app.<br>
@@ -59,6 +72,45 @@ public class KonnektorClientConfiguration {
   @Value("${konnektor.connection.connectOnStartup:true}")
   protected boolean connectOnStartup;
 
+  @Value("${konnektor.connection.preWarmProxies:false}")
+  protected boolean preWarmProxies;
+
+  @Value("${konnektor.connection.sdsCacheDirectory:}")
+  protected String sdsCacheDirectory;
+
+  @Value("${konnektor.pinVerification.parallelism:8}")
+  protected int pinVerificationParallelism = CardServiceClient.DEFAULT_PIN_VERIFICATION_PARALLELISM;
+
+  @Value("${konnektor.pinVerification.timeout:60s}")
+  protected Duration pinVerificationTimeout = CardServiceClient.DEFAULT_PIN_VERIFICATION_TIMEOUT;
+
+  @Value("${konnektor.pinStatusKeeper.interval:60s}")
+  protected Duration pinStatusKeeperInterval = PinStatusKeeper.DEFAULT_INTERVAL;
+
+  @Value("${konnektor.pinStatusKeeper.hba:false}")
+  protected boolean pinStatusKeeperHba;
+
+  @Value("${konnektor.cardPool.operationsPerCard:1}")
+  protected int cardPoolOperationsPerCard = CardPool.DEFAULT_OPERATIONS_PER_CARD;
+
+  @Value("${konnektor.cardPool.queueTimeout:60s}")
+  protected Duration cardPoolQueueTimeout = CardPool.DEFAULT_QUEUE_TIMEOUT;
+
+  @Value("${konnektor.signature.jobNumberPool.size:4}")
+  protected int jobNumberPoolSize = JobNumberPool.DEFAULT_SIZE;
+
+  @Value("${konnektor.signature.jobNumberPool.timeToLive:5m}")
+  protected Duration jobNumberPoolTimeToLive = JobNumberPool.DEFAULT_TIME_TO_LIVE;
+
+  @Value("${konnektor.cardInventory.timeToLive:30s}")
+  protected Duration cardInventoryTimeToLive = CardInventory.DEFAULT_TIME_TO_LIVE;
+
+  @Value("${konnektor.cardInventory.cetp.port:9017}")
+  protected int cetpPort;
+
+  @Value("${konnektor.cardInventory.cetp.eventTo:}")
+  protected String cetpEventTo;
+
   private KonnektorConfigurationProvider konnektorConfigurationProvider;
   private KonnektorInterfacesCxfImpl konnektorInterfaceAssembly;
   private KonnektorContextProvider konnektorContextProvider;
@@ -93,15 +145,79 @@ public class KonnektorClientConfiguration {
                 konnektorContextProvider =
                     new KonnektorContextProvider(
                         konnektorConfigurationProvider(), konnektorInterfaceAssembly()));
+    konnektorContextProvider1.cardInventory().timeToLive(cardInventoryTimeToLive);
+    konnektorContextProvider1
+        .cardPool()
+        .operationsPerCard(cardPoolOperationsPerCard)
+        .queueTimeout(cardPoolQueueTimeout);
+    konnektorContextProvider1
+        .jobNumberPool()
+        .size(jobNumberPoolSize)
+        .timeToLive(jobNumberPoolTimeToLive);
     konnektorInterfaceAssembly().unlockSmbs(konnektorContextProvider1);
     return konnektorContextProvider1;
   }
 
+  @Bean
+  public CardPoolMetrics cardPoolMetrics() {
+    return new CardPoolMetrics(konnektorContextProvider().cardPool());
+  }
+
+  @Bean
+  public SignatureMetrics signatureMetrics() {
+    return new SignatureMetrics(
+        konnektorContextProvider().signatureTimings(), konnektorContextProvider().jobNumberPool());
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty("konnektor.cardInventory.cetp.enabled")
+  public CardEventSubscription cardEventSubscription() throws IOException {
+    // the Konnektor cannot reach a default like localhost, so the address has to be configured
+    if (cetpEventTo == null || cetpEventTo.isBlank()) {
+      throw new IllegalStateException(
+          "konnektor.cardInventory.cetp.eventTo must be set to the address, under which the"
+              + " Konnektor reaches the CETP port of this application");
+    }
+    return new CardEventSubscription(
+            konnektorContextProvider(), konnektorInterfaceAssembly(), cetpPort, cetpEventTo)
+        .start();
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty("konnektor.pinStatusKeeper.enabled")
+  public PinStatusKeeper pinStatusKeeper() {
+    var pinTypes = new EnumMap<CardTypeType, String>(CardTypeType.class);
+    pinTypes.put(CardTypeType.SM_B, CardServiceClient.PIN_SMC);
+    if (pinStatusKeeperHba) {
+      pinTypes.put(CardTypeType.HBA, CardServiceClient.PIN_CH);
+    }
+    return new PinStatusKeeper(konnektorContextProvider(), pinTypes, pinStatusKeeperInterval)
+        .start();
+  }
+
+  @Bean
+  @ConditionalOnProperty("konnektor.pinStatusKeeper.enabled")
+  public PinStatusHealthIndicator pinStatusHealthIndicator(PinStatusKeeper pinStatusKeeper) {
+    return new PinStatusHealthIndicator(pinStatusKeeper);
+  }
+
+  @Bean
+  @ConditionalOnProperty("konnektor.pinStatusKeeper.enabled")
+  public PinStatusMetrics pinStatusMetrics(PinStatusKeeper pinStatusKeeper) {
+    return new PinStatusMetrics(pinStatusKeeper);
+  }
+
   protected KonnektorInterfacesCxfImpl createNewKonnektorInterfaceAssembly() {
     var impl =
         new KonnektorInterfacesCxfImpl(
             filePath ->
                 SpringUtils.findReadableResource(resourceLoader, filePath).getInputStream());
+    impl.preWarmProxies(preWarmProxies)
+        .pinVerificationParallelism(pinVerificationParallelism)
+        .pinVerificationTimeout(pinVerificationTimeout)
+        .connectorServicesCache(
+            new ConnectorServicesCache(
+                sdsCacheDirectory.isBlank() ? null : Path.of(sdsCacheDirectory)));
     if (connectOnStartup) {
       impl = impl.update(konnektorConfiguration.connection());
     }
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.konnektor;
+
+import de.gematik.epa.konnektor.PinStatusKeeper;
+import de.gematik.epa.konnektor.PinStatusKeeper.CardPinState;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import lombok.NonNull;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+
+/**
+ * Health of the cards, whose PINs are kept verified by the {@link PinStatusKeeper}.<br>
+ * The health is DOWN, if there are cards of a kept card type, but none of them is ready. A single
+ * card with an unverified PIN does not make the application unhealthy, it is listed in the details
+ * though.
+ */
+public class PinStatusHealthIndicator implements HealthIndicator {
+
+  private final PinStatusKeeper pinStatusKeeper;
+
+  public PinStatusHealthIndicator(@NonNull PinStatusKeeper pinStatusKeeper) {
+    this.pinStatusKeeper = pinStatusKeeper;
+  }
+
+  @Override
+  public Health health() {
+    var lastPoll = pinStatusKeeper.lastPoll();
+    if (lastPoll.isEmpty()) {
+      return Health.unknown().withDetail("reason", "PIN status was not polled yet").build();
+    }
+
+    var states = pinStatusKeeper.states();
+    var cardTypeWithoutReadyCard =
+        pinStatusKeeper.pinTypes().keySet().stream()
+            .filter(
+                cardType ->
+                    states.stream().anyMatch(state -> state.cardType() == cardType)
+                        && states.stream()
+                            .noneMatch(state -> state.cardType() == cardType && state.isReady()))
+            .findFirst();
+
+    var cards = new LinkedHashMap<String, String>();
+    states.forEach(state -> cards.put(state.cardHandle(), describe(state)));
+
+    return (cardTypeWithoutReadyCard.isPresent() ? Health.down() : Health.up())
+        .withDetail("lastPoll", lastPoll.get().toString())
+        .withDetail("ready", states.stream().filter(CardPinState::isReady).count())
+        .withDetail("cards", cards)
+        .build();
+  }
+
+  private static String describe(CardPinState state) {
+    var description = state.cardType().value() + " " + state.pinStatus();
+    return Objects.isNull(state.error()) ? description : description + " - " + state.error();
+  }
+}
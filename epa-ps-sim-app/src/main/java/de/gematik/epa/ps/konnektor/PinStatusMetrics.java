@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.konnektor;
+
+import de.gematik.epa.konnektor.PinStatusKeeper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+
+/**
+ * Metrics of the cards, whose PINs are kept verified by the {@link PinStatusKeeper}:
+ *
+ * <ul>
+ *   <li>{@value #CARDS}: number of cards per card type, tagged with whether they are ready
+ *   <li>{@value #VERIFICATIONS}: number of PIN verifications done in the background
+ *   <li>{@value #FAILED_VERIFICATIONS}: number of those verifications, which failed
+ * </ul>
+ */
+public class PinStatusMetrics implements MeterBinder {
+
+  static final String CARDS = "konnektor.cards";
+  static final String VERIFICATIONS = "konnektor.cards.pin.verifications";
+  static final String FAILED_VERIFICATIONS = "konnektor.cards.pin.verifications.failed";
+
+  private final PinStatusKeeper pinStatusKeeper;
+
+  public PinStatusMetrics(@NonNull PinStatusKeeper pinStatusKeeper) {
+    this.pinStatusKeeper = pinStatusKeeper;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    for (var cardType : pinStatusKeeper.pinTypes().keySet()) {
+      registerCards(registry, cardType, true);
+      registerCards(registry, cardType, false);
+    }
+
+    FunctionCounter.builder(VERIFICATIONS, pinStatusKeeper, PinStatusKeeper::verifications)
+        .description("PIN verifications done in the background")
+        .register(registry);
+    FunctionCounter.builder(
+            FAILED_VERIFICATIONS, pinStatusKeeper, PinStatusKeeper::failedVerifications)
+        .description("Failed PIN verifications done in the background")
+        .register(registry);
+  }
+
+  private void registerCards(MeterRegistry registry, CardTypeType cardType, boolean ready) {
+    Gauge.builder(
+            CARDS,
+            pinStatusKeeper,
+            keeper ->
+                keeper.states().stream()
+                    .filter(state -> state.cardType() == cardType)
+                    .filter(state -> state.isReady() == ready)
+                    .count())
+        .description("Cards of the Konnektor, whose PIN is kept verified")
+        .tag("cardType", cardType.value())
+        .tag("ready", String.valueOf(ready))
+        .register(registry);
+  }
+}
@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.konnektor;
+
+import de.gematik.epa.konnektor.JobNumberPool;
+import de.gematik.epa.konnektor.client.SignatureTimings;
+import de.gematik.epa.konnektor.client.SignatureTimings.Phase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+
+/**
+ * Metrics of the signatures created by the Konnektor:
+ *
+ * <ul>
+ *   <li>{@value #PHASES}: latency of the phases of a signature, tagged with the phase
+ *   <li>{@value #JOB_NUMBERS}: job numbers used, tagged with whether they were taken from the
+ *       {@link JobNumberPool} or had to be fetched for the signature
+ * </ul>
+ */
+public class SignatureMetrics implements MeterBinder {
+
+  static final String PHASES = "konnektor.signature.phase";
+  static final String JOB_NUMBERS = "konnektor.signature.jobnumbers";
+
+  private final SignatureTimings signatureTimings;
+
+  private final JobNumberPool jobNumberPool;
+
+  public SignatureMetrics(
+      @NonNull SignatureTimings signatureTimings, @NonNull JobNumberPool jobNumberPool) {
+    this.signatureTimings = signatureTimings;
+    this.jobNumberPool = jobNumberPool;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    for (var phase : Phase.values()) {
+      FunctionTimer.builder(
+              PHASES,
+              signatureTimings,
+              timings -> timings.count(phase),
+              timings -> timings.totalTime(phase, TimeUnit.NANOSECONDS),
+              TimeUnit.NANOSECONDS)
+          .description("Latency of the phases of a signature")
+          .tag("phase", phase.tagValue())
+          .register(registry);
+    }
+
+    FunctionCounter.builder(JOB_NUMBERS, jobNumberPool, JobNumberPool::hits)
+        .description("Job numbers used for signatures")
+        .tag("prefetched", "true")
+        .register(registry);
+    FunctionCounter.builder(JOB_NUMBERS, jobNumberPool, JobNumberPool::misses)
+        .description("Job numbers used for signatures")
+        .tag("prefetched", "false")
+        .register(registry);
+  }
+}
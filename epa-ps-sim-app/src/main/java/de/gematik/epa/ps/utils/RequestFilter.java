@@ -26,43 +26,51 @@ package de.gematik.epa.ps.utils;
 
 import de.gematik.epa.utils.InsurantIdHolder;
 import de.gematik.epa.utils.MiscUtils;
+import de.gematik.epa.utils.TelematikIdHolder;
 import jakarta.annotation.Nullable;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.Provider;
+import java.util.List;
 
 @Provider
 public class RequestFilter implements ContainerRequestFilter {
 
   @Override
   public void filter(ContainerRequestContext requestContext) {
-    var insurantId = getInsurantId(requestContext);
+    var insurantId = getParameter(requestContext, MiscUtils.INSURANT_ID_KEYS);
     if (insurantId != null) {
       InsurantIdHolder.setInsurantId(insurantId);
     }
+    // the institution the request is made for, so that concurrent requests of several
+    // institutions do not get mixed up
+    var telematikId = getParameter(requestContext, MiscUtils.ACTOR_ID_KEYS);
+    if (telematikId != null) {
+      TelematikIdHolder.setTelematikId(telematikId);
+    }
   }
 
   @Nullable
-  private static String getInsurantId(ContainerRequestContext requestContext) {
-    for (String key : MiscUtils.INSURANT_ID_KEYS) {
+  private static String getParameter(ContainerRequestContext requestContext, List<String> keys) {
+    for (String key : keys) {
       // check header parameters
-      String insurantId = requestContext.getHeaderString(key);
+      String value = requestContext.getHeaderString(key);
 
       // check path parameters
-      if (insurantId == null) {
+      if (value == null) {
         final UriInfo uriInfo = requestContext.getUriInfo();
-        insurantId = uriInfo.getPathParameters().getFirst(key);
+        value = uriInfo.getPathParameters().getFirst(key);
       }
 
       // check query parameters
-      if (insurantId == null) {
+      if (value == null) {
         final UriInfo uriInfo = requestContext.getUriInfo();
-        insurantId = uriInfo.getQueryParameters().getFirst(key);
+        value = uriInfo.getQueryParameters().getFirst(key);
       }
 
-      if (insurantId != null) {
-        return insurantId;
+      if (value != null) {
+        return value;
       }
     }
 
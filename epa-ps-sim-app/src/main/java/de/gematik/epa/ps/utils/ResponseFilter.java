@@ -25,6 +25,7 @@
 package de.gematik.epa.ps.utils;
 
 import de.gematik.epa.utils.InsurantIdHolder;
+import de.gematik.epa.utils.TelematikIdHolder;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
 import jakarta.ws.rs.container.ContainerResponseFilter;
@@ -37,5 +38,6 @@ public class ResponseFilter implements ContainerResponseFilter {
       ContainerRequestContext containerRequestContext,
       ContainerResponseContext containerResponseContext) {
     InsurantIdHolder.clear();
+    TelematikIdHolder.clearTelematikId();
   }
 }
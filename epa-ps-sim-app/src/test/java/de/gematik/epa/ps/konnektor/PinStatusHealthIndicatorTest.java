@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * epa-ps-sim-app
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.ps.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.konnektor.PinStatusKeeper;
+import de.gematik.epa.konnektor.PinStatusKeeper.CardPinState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+
+class PinStatusHealthIndicatorTest {
+
+  private final PinStatusKeeper pinStatusKeeper = mock(PinStatusKeeper.class);
+
+  @BeforeEach
+  void beforeEach() {
+    when(pinStatusKeeper.pinTypes()).thenReturn(Map.of(CardTypeType.SM_B, "PIN.SMC"));
+    when(pinStatusKeeper.lastPoll()).thenReturn(Optional.of(Instant.now()));
+  }
+
+  @Test
+  void healthIsUnknownBeforeFirstPollTest() {
+    when(pinStatusKeeper.lastPoll()).thenReturn(Optional.empty());
+
+    assertThat(new PinStatusHealthIndicator(pinStatusKeeper).health().getStatus())
+        .isEqualTo(Status.UNKNOWN);
+  }
+
+  @Test
+  void healthIsUpIfOneCardIsReadyTest() {
+    when(pinStatusKeeper.states())
+        .thenReturn(
+            List.of(state("SMB1", PinStatusEnum.VERIFIED), state("SMB2", PinStatusEnum.BLOCKED)));
+
+    var health = new PinStatusHealthIndicator(pinStatusKeeper).health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails()).containsEntry("ready", 1L);
+  }
+
+  @Test
+  void healthIsDownIfNoCardIsReadyTest() {
+    when(pinStatusKeeper.states()).thenReturn(List.of(state("SMB1", PinStatusEnum.BLOCKED)));
+
+    assertThat(new PinStatusHealthIndicator(pinStatusKeeper).health().getStatus())
+        .isEqualTo(Status.DOWN);
+  }
+
+  @Test
+  void metricsCountCardsByReadinessTest() {
+    when(pinStatusKeeper.states())
+        .thenReturn(
+            List.of(
+                state("SMB1", PinStatusEnum.VERIFIED), state("SMB2", PinStatusEnum.VERIFIABLE)));
+    when(pinStatusKeeper.verifications()).thenReturn(3L);
+    var registry = new SimpleMeterRegistry();
+
+    new PinStatusMetrics(pinStatusKeeper).bindTo(registry);
+
+    assertThat(registry.get(PinStatusMetrics.CARDS).tag("ready", "true").gauge().value())
+        .isEqualTo(1.0);
+    assertThat(registry.get(PinStatusMetrics.CARDS).tag("ready", "false").gauge().value())
+        .isEqualTo(1.0);
+    assertThat(registry.get(PinStatusMetrics.VERIFICATIONS).functionCounter().count())
+        .isEqualTo(3.0);
+  }
+
+  private static CardPinState state(String cardHandle, PinStatusEnum pinStatus) {
+    return new CardPinState(cardHandle, CardTypeType.SM_B, pinStatus, Instant.now(), null);
+  }
+}
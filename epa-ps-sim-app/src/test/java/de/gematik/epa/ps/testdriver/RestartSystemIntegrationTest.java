@@ -32,7 +32,6 @@ import de.gematik.epa.api.psTestdriver.dto.ResetPrimaersystem;
 import de.gematik.epa.api.psTestdriver.dto.Status;
 import de.gematik.epa.ps.kob.services.KobActionsService;
 import de.gematik.epa.utils.HealthRecordProvider;
-import de.gematik.epa.utils.TelematikIdHolder;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -59,7 +58,6 @@ class RestartSystemIntegrationTest extends AbstractTestdriverIntegrationTest {
   @Test
   void e2eTest_resetEpaSessions() {
     // when
-    TelematikIdHolder.setTelematikId(MY_HAPPY_LITTLE_KVNR);
     mockVauProxyServer.stubFor(
         post(urlEqualTo("/destroy")).willReturn(aResponse().withStatus(200)));
     final var insertEgkResponse =
@@ -96,7 +94,6 @@ class RestartSystemIntegrationTest extends AbstractTestdriverIntegrationTest {
   @Test
   void e2eTest_resetEpaSessionsRandomTelematikId() {
     // when
-    TelematikIdHolder.setTelematikId(MY_HAPPY_LITTLE_KVNR + UUID.randomUUID());
     mockVauProxyServer.stubFor(
         post(urlEqualTo("/destroy"))
             .willReturn(aResponse().withStatus(404).withBody("VAU identity not found.")));
@@ -132,8 +129,7 @@ class RestartSystemIntegrationTest extends AbstractTestdriverIntegrationTest {
 
   @Test
   void e2eTest_resetEpaSessionsNoTelematikId() {
-    //    TelematikIdHolder.setTelematikId(MY_HAPPY_LITTLE_KVNR); omitted on purpose to test the
-    // case without TelematikId
+    // no telematik-ID of the request, the session of the SMC-B of the KOB flows is destroyed
     mockVauProxyServer.stubFor(
         post(urlEqualTo("/destroy")).willReturn(aResponse().withStatus(200)));
     final var insertEgkResponse =
@@ -147,7 +143,6 @@ class RestartSystemIntegrationTest extends AbstractTestdriverIntegrationTest {
   @Test
   void e2eTest_failShouldPropagate() {
     // when
-    TelematikIdHolder.setTelematikId(MY_HAPPY_LITTLE_KVNR);
     mockVauProxyServer.stubFor(
         post(urlEqualTo("/destroy"))
             .willReturn(aResponse().withStatus(400).withBody("My horrible error message")));
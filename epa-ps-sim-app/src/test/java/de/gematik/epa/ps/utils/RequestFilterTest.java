@@ -29,6 +29,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import de.gematik.epa.utils.InsurantIdHolder;
+import de.gematik.epa.utils.MiscUtils;
+import de.gematik.epa.utils.TelematikIdHolder;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
@@ -54,6 +56,7 @@ class RequestFilterTest {
   @AfterEach
   void clear() {
     InsurantIdHolder.clear();
+    TelematikIdHolder.clearTelematikId();
   }
 
   @Test
@@ -94,4 +97,24 @@ class RequestFilterTest {
 
     assertThat(InsurantIdHolder.getInsurantId()).isNull();
   }
+
+  @Test
+  void shouldSetTelematikIdOfRequestFromActorHeader() {
+    var telematikId = "1-SMC-B-Testkarte-883110000118994";
+    when(requestContext.getHeaderString(MiscUtils.X_ACTOR_ID)).thenReturn(telematikId);
+
+    requestFilter.filter(requestContext);
+    assertThat(TelematikIdHolder.getTelematikId()).isEqualTo(telematikId);
+  }
+
+  @Test
+  void shouldSetTelematikIdOfRequestFromQueryParameters() {
+    MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+    var telematikId = "1-SMC-B-Testkarte-883110000118994";
+    queryParameters.add("telematikId", telematikId);
+    when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+
+    requestFilter.filter(requestContext);
+    assertThat(TelematikIdHolder.getTelematikId()).isEqualTo(telematikId);
+  }
 }
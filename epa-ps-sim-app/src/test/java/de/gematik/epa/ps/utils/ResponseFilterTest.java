@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.mock;
 
 import de.gematik.epa.utils.InsurantIdHolder;
+import de.gematik.epa.utils.TelematikIdHolder;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
 import org.junit.jupiter.api.Test;
@@ -54,4 +55,13 @@ class ResponseFilterTest {
 
     assertDoesNotThrow(() -> responseFilter.filter(requestContext, responseContext));
   }
+
+  @Test
+  void shouldClearTelematikIdOfRequestAfterResponse() {
+    TelematikIdHolder.setTelematikId("request");
+
+    responseFilter.filter(requestContext, responseContext);
+
+    assertThat(TelematikIdHolder.getTelematikId()).isNull();
+  }
 }
@@ -48,14 +48,24 @@ public class ConfigurationApiImpl implements ConfigurationApi {
   public ResponseDTO configureKonnektor(KonnektorConfigurationRequestDTO request) {
     try {
       log.info("Running operation configureKonnektor");
+      // running operations are not held up, they complete with the proxies they already use
       configurationProvider
           .configurationChangeSynchronizer()
-          .runBlocking(
+          .runChange(
               () -> {
+                // everything, which can fail, is done before the configuration in use is changed
+                var connection =
+                    konnektorInterfacesCxf.connect(
+                        configurationProvider.connectionAfterUpdate(request));
                 configurationProvider.updateKonnektorConfigurations(request);
-                konnektorInterfacesCxf.update(configurationProvider.connection());
-                konnektorInterfacesCxf.unlockSmb(contextProvider);
+                konnektorInterfacesCxf.publish(connection);
+                // invalidated within the change, so no operation admitted after it sees entries
+                // of the previous configuration
+                contextProvider.cardInventory().invalidateAll();
+                contextProvider.jobNumberPool().invalidateAll();
+                contextProvider.clientRegistry().invalidateAll();
               });
+      konnektorInterfacesCxf.unlockSmb(contextProvider);
       return new ResponseDTO(true, "Konnektor configuration update completed");
     } catch (Exception e) {
       log.error("Operation configureKonnektor failed with an exception", e);
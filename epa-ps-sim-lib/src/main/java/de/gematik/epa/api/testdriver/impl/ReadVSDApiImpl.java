@@ -30,7 +30,6 @@ import de.gematik.epa.api.testdriver.dto.response.ReadVSDResponseDTO;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.KonnektorUtils;
-import de.gematik.epa.konnektor.client.VSDServiceClient;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
@@ -47,8 +46,11 @@ public class ReadVSDApiImpl implements ReadVSDApi {
   @Override
   public ReadVSDResponseDTO readVSD(ReadVSDRequest request) {
     log.info("Running operation readVSD");
-    try (var vsdServiceClient = new VSDServiceClient(contextProvider, konnektorInterfaceAssembly)) {
-      return vsdServiceClient.readVSDAndConvertToDto(request.kvnr(), request.telematikId());
+    try {
+      return contextProvider
+          .clientRegistry()
+          .vsdService()
+          .readVSDAndConvertToDto(request.kvnr(), request.telematikId());
     } catch (Exception e) {
       log.error("Operation ReadVSD failed with an exception", e);
       return new ReadVSDResponseDTO(KonnektorUtils.fromThrowable(e));
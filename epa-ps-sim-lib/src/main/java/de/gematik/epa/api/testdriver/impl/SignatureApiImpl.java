@@ -26,14 +26,18 @@ package de.gematik.epa.api.testdriver.impl;
 
 import de.gematik.epa.api.testdriver.SignatureApi;
 import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentsRequest;
 import de.gematik.epa.api.testdriver.dto.response.ResponseDTO;
 import de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse;
+import de.gematik.epa.api.testdriver.dto.response.SignDocumentsResponse;
 import de.gematik.epa.ihe.model.simple.ByteArray;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.KonnektorUtils;
 import de.gematik.epa.konnektor.client.SignatureServiceClient;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
@@ -47,11 +51,15 @@ public class SignatureApiImpl implements SignatureApi {
 
   private final KonnektorInterfaceAssembly konnektorInterfaceAssembly;
 
+  /** Maximum number of documents, which are signed with one SignDocument call to the Konnektor */
+  @Getter @Setter
+  private int maxDocumentsPerRequest = SignatureServiceClient.DEFAULT_MAX_DOCUMENTS_PER_REQUEST;
+
   @Override
   public SignDocumentResponse signDocument(final SignDocumentRequest request) {
     log.info("Running operation signDocument");
-    try (final var signatureServiceClient =
-        new SignatureServiceClient(contextProvider, konnektorInterfaceAssembly)) {
+    try {
+      final var signatureServiceClient = contextProvider.clientRegistry().signatureService();
       final var konRequest = signatureServiceClient.transformRequest(request);
 
       final var konResponse = signatureServiceClient.signDocument(konRequest);
@@ -63,6 +71,20 @@ public class SignatureApiImpl implements SignatureApi {
     }
   }
 
+  @Override
+  public SignDocumentsResponse signDocuments(final SignDocumentsRequest request) {
+    log.info("Running operation signDocuments");
+    try {
+      final var signatureServiceClient = contextProvider.clientRegistry().signatureService();
+
+      return new SignDocumentsResponse(
+          signatureServiceClient.signDocuments(request, maxDocumentsPerRequest));
+    } catch (final Exception e) {
+      log.error("Operation signDocuments failed with an exception", e);
+      return new SignDocumentsResponse(KonnektorUtils.fromThrowable(e));
+    }
+  }
+
   private SignDocumentResponse toSignDocumentResponse(final ResponseDTO responseDTO) {
     return new SignDocumentResponse(
         responseDTO.success(), responseDTO.statusMessage(), (ByteArray) null, null);
@@ -31,6 +31,8 @@ import de.gematik.epa.api.authorization.client.dto.SendAuthCodeSC200Response;
 import de.gematik.epa.api.authorization.client.dto.SendAuthCodeSCtype;
 import de.gematik.epa.api.vau.client.VauApi;
 import de.gematik.epa.api.vau.client.dto.VauStatus;
+import de.gematik.epa.authentication.IdpClientCache.IdpClientSettings;
+import de.gematik.epa.authentication.LoginResult.Step;
 import de.gematik.epa.authentication.exception.TelematikIdNotFoundException;
 import de.gematik.epa.client.JaxRsClientWrapper;
 import de.gematik.epa.konnektor.CardAuthenticationService;
@@ -38,22 +40,33 @@ import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.SmbInformationProvider;
 import de.gematik.epa.konnektor.client.AuthSignatureServiceClient;
+import de.gematik.epa.utils.HealthRecordProvider;
+import de.gematik.epa.utils.InsurantIdHolder;
 import de.gematik.epa.utils.TelematikIdHolder;
 import de.gematik.idp.client.AuthorizationCodeResult;
 import de.gematik.idp.client.IdpClient;
 import de.gematik.idp.client.IdpClientRuntimeException;
 import de.gematik.idp.field.ClaimName;
-import de.gematik.idp.field.CodeChallengeMethod;
 import jakarta.annotation.Nullable;
 import jakarta.ws.rs.core.Response;
 import java.net.URI;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -74,28 +87,37 @@ public class AuthenticationService {
 
   private static final List<Integer> AUTHZ_SERVER_ERROR_CODES = List.of(400, 403, 409, 500);
   private final AuthorizationSmcBApi authorizationSmcBApi;
-  private final IdpClient.IdpClientBuilder idpClientBuilder;
+  private final IdpClientCache idpClients;
+  private final VauSessionRegistry vauSessions;
   private final JaxRsClientWrapper<VauApi> vauApiJaxRsClientWrapper;
   private final String authServiceUserAgent;
 
+  private final Map<LoginKey, CompletableFuture<LoginResult>> loginsInFlight =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder coalescedLogins = new LongAdder();
+
   @Setter private CardAuthenticationService cardAuthenticationService;
 
   public AuthenticationService(
       final AuthorizationSmcBApi authorizationSmcBApi,
-      final IdpClient.IdpClientBuilder idpClientBuilder,
+      final IdpClientCache idpClients,
+      final VauSessionRegistry vauSessions,
       final KonnektorContextProvider contextProvider,
       final KonnektorInterfaceAssembly konnektorInterfaceAssembly,
       final SmbInformationProvider smbInformationProvider,
       final JaxRsClientWrapper<VauApi> vauApiJaxRsClientWrapper,
       final String authServiceUserAgent) {
     this.authorizationSmcBApi = authorizationSmcBApi;
-    this.idpClientBuilder = idpClientBuilder;
+    this.idpClients = idpClients;
+    this.vauSessions = vauSessions;
     this.vauApiJaxRsClientWrapper = vauApiJaxRsClientWrapper;
     this.authServiceUserAgent = authServiceUserAgent;
     this.cardAuthenticationService =
         new CardAuthenticationService(
             smbInformationProvider,
-            new AuthSignatureServiceClient(contextProvider, konnektorInterfaceAssembly));
+            new AuthSignatureServiceClient(contextProvider, konnektorInterfaceAssembly),
+            contextProvider.cardPool());
   }
 
   private static String createErrorMessage(final ErrorType errorType) {
@@ -106,19 +128,292 @@ public class AuthenticationService {
     return login(telematikId, "<unused parameters>");
   }
 
+  /**
+   * Login at the authorization service of the health record system with the SMC-B of the given
+   * telematik-ID.<br>
+   * Concurrent logins for the same telematik-ID and health record system are coalesced: only the
+   * first caller runs the login flow (including the card signatures), all others wait for it and
+   * get a copy of its result. A login started after the first one completed runs the flow again.
+   * <br>
+   * The health record system is the one the login is sent to, i.e. the x-target-fqdn resolved for
+   * the insurant of the current thread, not the given FQDN.<br>
+   * While the session of a former login is known to be valid (see {@link VauSessionRegistry}),
+   * neither the VAU status is requested nor the login flow run.
+   *
+   * @param telematikId telematik-ID of the SMC-B to login with
+   * @param fqdn FQDN of the health record system, as reported in the result
+   * @return the result of the login
+   */
   public LoginResult login(final String telematikId, final String fqdn) {
-    // 0. check /VAU-Status for user-session
-    // 1. auhtzclient.getNonce() (A_24881)
-    // 2. authzclient.sendAuthzRequest() -> liefert u.a. , scope, codecChallenge, clientID (A_24760)
-    // 3. idpclient.login() (A_24760)
-    // 4. sign nonce (A_24883)
-    // 5. authzclient.sendAuthCode() (A_20668)
-
-    // else -> continue
-    final var loginResult = new LoginResult().telematikId(telematikId).fqdn(fqdn).success(true);
+    // also for coalesced logins, the following operations of the caller run for this institution
     TelematikIdHolder.setTelematikId(telematikId);
+    final var targetFqdn = targetFqdn();
+    final var session = vauSessions.find(telematikId, targetFqdn);
+    if (session.isPresent()) {
+      log.info(
+          "VAU session of telematikId {} valid until {}, no login required",
+          telematikId,
+          session.get().expires());
+      return new LoginResult()
+          .telematikId(telematikId)
+          .fqdn(fqdn)
+          .httpStatusCode(200)
+          .success(true);
+    }
+    return coalescedLogin(telematikId, fqdn, targetFqdn, false);
+  }
+
+  /**
+   * Number of logins, which did not run the login flow themselves, but shared the result of a
+   * concurrent login for the same telematik-ID and health record system.
+   *
+   * @return the number of coalesced logins
+   */
+  public long coalescedLogins() {
+    return coalescedLogins.sum();
+  }
+
+  /**
+   * Forget the VAU sessions of the telematik-ID, e.g. because they were destroyed. The next login
+   * asks the VAU for its status again.
+   *
+   * @param telematikId telematik-ID of the logins
+   */
+  public void invalidateSessions(final String telematikId) {
+    vauSessions.invalidate(telematikId);
+  }
+
+  /**
+   * The health record system the login is sent to: the x-target-fqdn, which the outgoing
+   * interceptor resolves for the insurant of the current thread.
+   *
+   * @return the FQDN of the health record system, or null if no target is sent
+   */
+  @Nullable
+  private static String targetFqdn() {
+    final var insurantId = InsurantIdHolder.getInsurantId();
+    if (insurantId == null) {
+      return null;
+    }
+    try {
+      return HealthRecordProvider.resolveHealthRecordUrl(insurantId);
+    } catch (final IllegalStateException e) {
+      // the login steps fail on their own, when the interceptor does not find the health record
+      return null;
+    }
+  }
+
+  private LoginResult coalescedLogin(
+      final String telematikId,
+      final String fqdn,
+      @Nullable final String targetFqdn,
+      final boolean reLogin) {
+    final var key = new LoginKey(telematikId, targetFqdn);
+    final var ownLogin = new CompletableFuture<LoginResult>();
+    final var runningLogin = loginsInFlight.putIfAbsent(key, ownLogin);
+    if (runningLogin != null) {
+      coalescedLogins.increment();
+      log.info("Login for telematikId {} already running, waiting for its result", telematikId);
+      return awaitLogin(runningLogin).copy();
+    }
+
+    try {
+      final var loginResult = runLogin(key, fqdn, reLogin);
+      ownLogin.complete(loginResult.copy());
+      return loginResult;
+    } catch (final RuntimeException e) {
+      ownLogin.completeExceptionally(e);
+      throw e;
+    } finally {
+      loginsInFlight.remove(key, ownLogin);
+    }
+  }
+
+  /**
+   * Renew the session of a former login, before it expires.<br>
+   * The renewal runs in the background, so it takes the insurant of the former login along, for the
+   * login to be sent to the same health record system.
+   */
+  private void reLogin(
+      final String telematikId,
+      final String fqdn,
+      @Nullable final String insurantId,
+      @Nullable final String targetFqdn) {
+    TelematikIdHolder.setTelematikId(telematikId);
+    InsurantIdHolder.setInsurantId(insurantId);
+    try {
+      final var loginResult = coalescedLogin(telematikId, fqdn, targetFqdn, true);
+      if (!loginResult.success()) {
+        log.warn(
+            "Renewing the VAU session of telematikId {} failed: {}",
+            telematikId,
+            loginResult.errorMessage());
+        vauSessions.invalidate(telematikId, targetFqdn);
+      }
+    } catch (final RuntimeException e) {
+      log.warn("Renewing the VAU session of telematikId {} failed", telematikId, e);
+      vauSessions.invalidate(telematikId, targetFqdn);
+    } finally {
+      TelematikIdHolder.clearTelematikId();
+      InsurantIdHolder.clear();
+    }
+  }
+
+  private LoginResult awaitLogin(final CompletableFuture<LoginResult> runningLogin) {
+    try {
+      return runningLogin.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * The login flow as graph of its steps. Steps, which do not depend on each other, run
+   * concurrently on virtual threads:
+   *
+   * <ol>
+   *   <li>VAU status (decides, whether a login is required at all), skipped for the renewal of a
+   *       session
+   *   <li>nonce, card handle followed by the certificate of the card, and the authorization request
+   *   <li>IdP login and clientAttest, both signed by the card
+   *   <li>sendAuthCodeSC
+   * </ol>
+   *
+   * Each step works on its own result, the outcomes are taken over in the order of the sequential
+   * flow, so the reported error does not depend on which step failed first. The duration of each
+   * step is recorded in the {@link LoginResult}.
+   */
+  private LoginResult runLogin(final LoginKey key, final String fqdn, final boolean reLogin) {
+    final var loginStart = System.nanoTime();
+    final var loginResult =
+        new LoginResult().telematikId(key.telematikId()).fqdn(fqdn).success(true);
+    try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      runLoginSteps(key, fqdn, reLogin, loginResult, executor);
+    } finally {
+      loginResult.duration(Duration.ofNanos(System.nanoTime() - loginStart));
+    }
+    return loginResult;
+  }
 
+  private void runLoginSteps(
+      final LoginKey key,
+      final String fqdn,
+      final boolean reLogin,
+      final LoginResult loginResult,
+      final ExecutorService executor) {
+    final var telematikId = key.telematikId();
     // 0. check /VAU-Status for user-session
+    if (!reLogin) {
+      final var loginRequired =
+          runStep(Step.VAU_STATUS, loginResult, r -> isLoginRequired(telematikId, r));
+      if (!takeOver(loginRequired, loginResult)) {
+        return;
+      }
+    }
+
+    // 1. A_24881
+    final var nonce =
+        startStep(
+            Step.NONCE,
+            loginResult,
+            executor,
+            r -> {
+              fetchNonce(r);
+              return r;
+            });
+    // the certificate is read from the card, which also signs for this login
+    final var cardHandle =
+        startStep(Step.CARD_HANDLE, loginResult, executor, r -> getCardHandle(telematikId, r));
+    final var certificate =
+        CompletableFuture.supplyAsync(
+            inLoginContext(
+                () -> {
+                  final var handle = cardHandle.join();
+                  return Objects.isNull(handle.value())
+                      ? new StepOutcome<X509Certificate>(null, handle.result())
+                      : runStep(
+                          Step.CERTIFICATE,
+                          loginResult,
+                          r ->
+                              cardAuthenticationService.getX509Certificate(
+                                  new CardInfoType().withCardHandle(handle.value())));
+                }),
+            executor);
+    // 2. A_24760
+    final Map<String, String> paramsFromAuthzResponse = new HashMap<>();
+    final var idpClient =
+        startStep(
+            Step.AUTHORIZATION_REQUEST,
+            loginResult,
+            executor,
+            r -> createIdpClient(paramsFromAuthzResponse, r));
+
+    if (!takeOver(nonce.join(), loginResult)
+        || !takeOver(cardHandle.join(), loginResult)
+        || !takeOver(idpClient.join(), loginResult)
+        || !takeOver(certificate.join(), loginResult)) {
+      return;
+    }
+    loginResult.nonce(nonce.join().value().nonce());
+
+    final UnaryOperator<byte[]> contentSigner =
+        getContentSigner(cardHandle.join().value(), loginResult);
+    if (null == contentSigner) {
+      return;
+    }
+
+    // 3. A_24760 and 4. sign nonce A_24883 (create clientAttest)
+    final var x509Certificate = certificate.join().value();
+    final var authorizationCode =
+        startStep(
+            Step.IDP_LOGIN,
+            loginResult,
+            executor,
+            r ->
+                doIdpLogin(
+                    idpClient.join().value(),
+                    x509Certificate,
+                    contentSigner,
+                    paramsFromAuthzResponse,
+                    r));
+    final var clientAttest =
+        startStep(
+            Step.CLIENT_ATTEST,
+            loginResult,
+            executor,
+            r -> createSignedJwt(x509Certificate, contentSigner, r.nonce(loginResult.nonce())));
+
+    if (!takeOver(authorizationCode.join(), loginResult)
+        || !takeOver(clientAttest.join(), loginResult)) {
+      return;
+    }
+
+    // 5. A_24886 und A_20668
+    final var sentAuthCode =
+        runStep(
+            Step.SEND_AUTH_CODE,
+            loginResult,
+            r -> {
+              sendAuthCodeSC(authorizationCode.join().value(), clientAttest.join().value(), r);
+              return r;
+            });
+    if (takeOver(sentAuthCode, loginResult)) {
+      final var insurantId = InsurantIdHolder.getInsurantId();
+      vauSessions.register(
+          telematikId,
+          key.targetFqdn(),
+          () -> reLogin(telematikId, fqdn, insurantId, key.targetFqdn()));
+      log.info(
+          "Login successful for telematikId: {}, step durations: {}",
+          telematikId,
+          loginResult.stepDurations());
+    }
+  }
+
+  private boolean isLoginRequired(final String telematikId, final LoginResult loginResult) {
     final Response vauResponse =
         vauApiJaxRsClientWrapper.getServiceApi().getVauStatus(this.authServiceUserAgent);
     int vauResponseStatus = vauResponse.getStatus();
@@ -131,63 +426,75 @@ public class AuthenticationService {
         log.info(
             "VAU-Status, no login required, matching telematikID: {}",
             vauStatus.getUserAuthentication());
-        return loginResult.httpStatusCode(200);
+        loginResult.httpStatusCode(200);
+        return false;
       }
-    } else {
-      log.warn("Unexpected error while getting VAU-Status: {}", vauResponse);
-      return loginResult
-          .httpStatusCode(vauResponseStatus)
-          .success(false)
-          .errorMessage("Unexpected error while getting VAU-Status");
-    }
-
-    // 1. A_24881
-    fetchNonce(loginResult);
-    if (!loginResult.success()) {
-      return loginResult;
-    }
-
-    final String cardHandle = getCardHandle(telematikId, loginResult);
-    if (null == cardHandle) {
-      return loginResult;
-    }
-
-    final CardInfoType cardInfo = new CardInfoType().withCardHandle(cardHandle);
-
-    // 2. A_24760
-    final Map<String, String> paramsFromAuthzResponse = new HashMap<>();
-    final IdpClient idpClient = createIdpClient(paramsFromAuthzResponse, loginResult);
-    if (idpClient == null) {
-      return loginResult;
+      return true;
     }
+    log.warn("Unexpected error while getting VAU-Status: {}", vauResponse);
+    loginResult
+        .httpStatusCode(vauResponseStatus)
+        .success(false)
+        .errorMessage("Unexpected error while getting VAU-Status");
+    return false;
+  }
 
-    // 3. A_24760
-    final X509Certificate certificate = cardAuthenticationService.getX509Certificate(cardInfo);
+  private <T> CompletableFuture<StepOutcome<T>> startStep(
+      final Step step,
+      final LoginResult loginResult,
+      final ExecutorService executor,
+      final Function<LoginResult, T> action) {
+    return CompletableFuture.supplyAsync(
+        inLoginContext(() -> runStep(step, loginResult, action)), executor);
+  }
 
-    final UnaryOperator<byte[]> contentSigner = getContentSigner(cardHandle, loginResult);
-    if (null == contentSigner) {
-      return loginResult;
-    }
+  /**
+   * The steps send the insurant and the actor of the login as headers (e.g. x-target-fqdn and
+   * x-actorId), so they run with the IDs of the thread starting the login, not of the thread
+   * running the step.
+   */
+  private static <T> Supplier<T> inLoginContext(final Supplier<T> step) {
+    return InsurantIdHolder.wrap(TelematikIdHolder.wrap(step));
+  }
 
-    final String authorizationCode =
-        doIdpLogin(idpClient, certificate, contentSigner, paramsFromAuthzResponse, loginResult);
-    if (null == authorizationCode) {
-      return loginResult;
+  /**
+   * Run a step of the login on a result of its own and record its duration.<br>
+   * Exceptions of the step fail the step, like the errors the step reports itself.
+   */
+  private <T> StepOutcome<T> runStep(
+      final Step step, final LoginResult loginResult, final Function<LoginResult, T> action) {
+    final var stepResult =
+        new LoginResult()
+            .telematikId(loginResult.telematikId())
+            .fqdn(loginResult.fqdn())
+            .success(true);
+    final var start = System.nanoTime();
+    try {
+      return new StepOutcome<>(action.apply(stepResult), stepResult);
+    } catch (final RuntimeException e) {
+      stepResult.errorMessage("Error in login step " + step + ": " + e.getMessage()).success(false);
+      logResult(stepResult);
+      return new StepOutcome<>(null, stepResult);
+    } finally {
+      loginResult.stepDuration(step, Duration.ofNanos(System.nanoTime() - start));
     }
+  }
 
-    // 4. sign nonce A_24883 (create clientAttest)
-    final String clientAttest = createSignedJwt(certificate, contentSigner, loginResult);
-    if (null == clientAttest) {
-      return loginResult;
+  /**
+   * Take over the outcome of a step into the result of the login.
+   *
+   * @return true, if the login goes on after the step
+   */
+  private boolean takeOver(final StepOutcome<?> outcome, final LoginResult loginResult) {
+    final var stepResult = outcome.result();
+    if (stepResult.httpStatusCode() != 0) {
+      loginResult.httpStatusCode(stepResult.httpStatusCode());
     }
-
-    // 5. A_24886 und A_20668
-    sendAuthCodeSC(authorizationCode, clientAttest, loginResult);
-    if (loginResult.success()) {
-      log.info("Login successful for telematikId: {}", telematikId);
+    if (!stepResult.success()) {
+      loginResult.errorMessage(stepResult.errorMessage()).success(false);
+      return false;
     }
-
-    return loginResult;
+    return Objects.nonNull(outcome.value()) && !Boolean.FALSE.equals(outcome.value());
   }
 
   private void sendAuthCodeSC(
@@ -252,7 +559,6 @@ public class AuthenticationService {
       final Map<String, String> paramsFromAuthzResponse,
       final LoginResult loginResult) {
 
-    idpClient.initialize();
     final AuthorizationCodeResult authorizationCodeResult;
     try {
       authorizationCodeResult =
@@ -263,6 +569,7 @@ public class AuthenticationService {
               paramsFromAuthzResponse.get("state"),
               paramsFromAuthzResponse.get("nonce"));
     } catch (final IdpClientRuntimeException e) {
+      idpClients.invalidate(idpClient);
       loginResult.errorMessage(e.toString()).success(false);
       logResult(loginResult);
       return null;
@@ -291,6 +598,7 @@ public class AuthenticationService {
 
   private IdpClient createIdpClient(
       final Map<String, String> paramsFromAuthzResponse, final LoginResult loginResult) {
+    final IdpClientSettings settings;
     try (final Response result =
         this.authorizationSmcBApi.sendAuthorizationRequestSC(this.authServiceUserAgent)) {
 
@@ -301,11 +609,11 @@ public class AuthenticationService {
           final Set<String> scopes =
               Arrays.stream(paramsFromAuthzResponse.get("scope").split("[+]"))
                   .collect(Collectors.toSet());
-          this.idpClientBuilder
-              .scopes(scopes)
-              .redirectUrl(paramsFromAuthzResponse.get("redirect_uri"))
-              .codeChallengeMethod(CodeChallengeMethod.S256)
-              .clientId(paramsFromAuthzResponse.get("client_id"));
+          settings =
+              new IdpClientSettings(
+                  scopes,
+                  paramsFromAuthzResponse.get("redirect_uri"),
+                  paramsFromAuthzResponse.get("client_id"));
         } catch (final Exception e) {
           log.error(ERROR_WHILE_PARSING_REDIRECT_URL, e);
           loginResult.errorMessage(ERROR_WHILE_PARSING_REDIRECT_URL).success(false);
@@ -317,7 +625,7 @@ public class AuthenticationService {
         return null;
       }
     }
-    return idpClientBuilder.build();
+    return idpClients.get(settings);
   }
 
   private String getCardHandle(final String telematikId, final LoginResult loginResult) {
@@ -388,4 +696,8 @@ public class AuthenticationService {
       throw new IllegalArgumentException("No query parameters found in URL");
     }
   }
+
+  private record LoginKey(String telematikId, String targetFqdn) {}
+
+  private record StepOutcome<T>(T value, LoginResult result) {}
 }
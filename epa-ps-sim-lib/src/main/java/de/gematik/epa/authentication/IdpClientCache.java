@@ -0,0 +1,236 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.authentication;
+
+import de.gematik.idp.client.IdpClient;
+import de.gematik.idp.field.CodeChallengeMethod;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of initialized {@link IdpClient}s.<br>
+ * Initializing an IdpClient fetches the discovery document and the keys of the IdP. The cache keeps
+ * one initialized client per set of {@link IdpClientSettings}, so that a login does not have to
+ * wait for these round-trips. Each client is built with its own builder and is not changed after
+ * its initialization, so concurrent logins can use it.<br>
+ * A client older than half of the {@code timeToLive} is still handed out, while a new one is
+ * initialized in the background. A client older than the time to live is replaced right away. A
+ * client, whose login failed, is dropped, so that the next login fetches the discovery document and
+ * the keys of the IdP again.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class IdpClientCache {
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+  /** Time an initialized client, i.e. its discovery document and keys, is used */
+  @Getter @Setter private volatile Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+  private final Map<IdpClientSettings, CompletableFuture<CachedClient>> clients =
+      new ConcurrentHashMap<>();
+
+  private final Set<IdpClientSettings> refreshing = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Supplier<IdpClient.IdpClientBuilder> builderFactory;
+
+  private final Clock clock;
+
+  private final Executor executor;
+
+  /**
+   * @param builderFactory creates a new builder for each client, preset with the discovery document
+   *     URL and the authenticator client
+   */
+  public IdpClientCache(@NonNull Supplier<IdpClient.IdpClientBuilder> builderFactory) {
+    this(
+        builderFactory,
+        Clock.systemUTC(),
+        runnable -> Thread.ofVirtual().name("idp-client-refresh").start(runnable));
+  }
+
+  public IdpClientCache(
+      @NonNull Supplier<IdpClient.IdpClientBuilder> builderFactory,
+      @NonNull Clock clock,
+      @NonNull Executor executor) {
+    this.builderFactory = builderFactory;
+    this.clock = clock;
+    this.executor = executor;
+  }
+
+  /**
+   * Get an initialized client for the given settings.<br>
+   * Concurrent calls for the same settings share one initialization. If the initialization fails,
+   * nothing is cached and the next call tries again.
+   *
+   * @param settings the settings of the client, as given by the authorization server
+   * @return the initialized client
+   */
+  public IdpClient get(@NonNull IdpClientSettings settings) {
+    var loading = new CompletableFuture<CachedClient>();
+    var cached = clients.compute(settings, (key, current) -> isValid(current) ? current : loading);
+    if (cached == loading) {
+      load(settings, loading);
+    }
+    var client = join(cached);
+    if (client.initialized().isBefore(clock.instant().minus(timeToLive.dividedBy(2)))) {
+      refresh(settings, cached);
+    }
+    return client.idpClient();
+  }
+
+  /** Number of cached clients */
+  public int size() {
+    return clients.size();
+  }
+
+  /**
+   * Drop the given client, e.g. because a login with it failed and the IdP may have changed its
+   * keys.<br>
+   * The next call for its settings initializes a new client. A refresh running for the client at
+   * that time is discarded.
+   *
+   * @param idpClient a client returned by {@link #get(IdpClientSettings)}
+   */
+  public void invalidate(@NonNull IdpClient idpClient) {
+    clients
+        .values()
+        .removeIf(
+            cached ->
+                cached.isDone()
+                    && !cached.isCompletedExceptionally()
+                    && cached.join().idpClient() == idpClient);
+  }
+
+  /** Drop all clients. Refreshes running at that time are discarded. */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    clients.clear();
+  }
+
+  /**
+   * Settings of an IdpClient, which are given by the authorization server in its authorization
+   * response.
+   *
+   * @param scopes the requested scopes
+   * @param redirectUrl the redirect URL of the authorization server
+   * @param clientId the client id of the authorization server at the IdP
+   */
+  public record IdpClientSettings(Set<String> scopes, String redirectUrl, String clientId) {
+
+    public IdpClientSettings {
+      scopes = Set.copyOf(scopes);
+    }
+  }
+
+  // region private
+
+  private boolean isValid(CompletableFuture<CachedClient> current) {
+    if (current == null || current.isCompletedExceptionally()) {
+      return false;
+    }
+    return !current.isDone()
+        || current.join().initialized().isAfter(clock.instant().minus(timeToLive));
+  }
+
+  private void load(IdpClientSettings settings, CompletableFuture<CachedClient> loading) {
+    try {
+      loading.complete(initialize(settings));
+    } catch (RuntimeException e) {
+      clients.remove(settings, loading);
+      loading.completeExceptionally(e);
+    }
+  }
+
+  private void refresh(IdpClientSettings settings, CompletableFuture<CachedClient> stale) {
+    if (!refreshing.add(settings)) {
+      return;
+    }
+    var refreshGeneration = generation.get();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              var refreshed = CompletableFuture.completedFuture(initialize(settings));
+              if (generation.get() == refreshGeneration) {
+                clients.replace(settings, stale, refreshed);
+              }
+            } catch (RuntimeException e) {
+              log.warn("Refreshing the IdP client failed, the current one is used further", e);
+            } finally {
+              refreshing.remove(settings);
+            }
+          });
+    } catch (RuntimeException e) {
+      refreshing.remove(settings);
+      log.debug("Refreshing the IdP client could not be started", e);
+    }
+  }
+
+  private CachedClient initialize(IdpClientSettings settings) {
+    var idpClient =
+        builderFactory
+            .get()
+            .scopes(settings.scopes())
+            .redirectUrl(settings.redirectUrl())
+            .codeChallengeMethod(CodeChallengeMethod.S256)
+            .clientId(settings.clientId())
+            .build();
+    idpClient.initialize();
+    log.debug("Initialized IdP client for client id {}", settings.clientId());
+    return new CachedClient(idpClient, clock.instant());
+  }
+
+  private static CachedClient join(CompletableFuture<CachedClient> cached) {
+    try {
+      return cached.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  private record CachedClient(IdpClient idpClient, Instant initialized) {}
+
+  // endregion private
+}
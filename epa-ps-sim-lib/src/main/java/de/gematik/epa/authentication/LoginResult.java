@@ -24,7 +24,13 @@
  */
 package de.gematik.epa.authentication;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 
@@ -38,4 +44,66 @@ public class LoginResult {
   private boolean success;
   private String telematikId;
   private String fqdn;
+
+  /** Duration of the whole login, including the check of the VAU status. */
+  private Duration duration;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Step, Duration> stepDurations =
+      Collections.synchronizedMap(new EnumMap<>(Step.class));
+
+  /**
+   * Copy of this result, e.g. to hand the result of one login to several callers.
+   *
+   * @return a new LoginResult with the same values
+   */
+  public LoginResult copy() {
+    return new LoginResult()
+        .nonce(nonce)
+        .httpStatusCode(httpStatusCode)
+        .errorMessage(errorMessage)
+        .success(success)
+        .telematikId(telematikId)
+        .fqdn(fqdn)
+        .duration(duration)
+        .stepDurations(stepDurations());
+  }
+
+  /**
+   * Durations of the executed steps of the login.<br>
+   * Steps, which were not executed (e.g. because no login was required or a prior step failed), are
+   * missing. Independent steps run concurrently, so the durations may add up to more than the
+   * duration of the whole login.
+   *
+   * @return copy of the step durations in the order of the login flow
+   */
+  public Map<Step, Duration> stepDurations() {
+    final var durations = new EnumMap<Step, Duration>(Step.class);
+    synchronized (stepDurations) {
+      durations.putAll(stepDurations);
+    }
+    return durations;
+  }
+
+  public LoginResult stepDuration(final Step step, final Duration stepDuration) {
+    stepDurations.put(step, stepDuration);
+    return this;
+  }
+
+  private LoginResult stepDurations(final Map<Step, Duration> durations) {
+    stepDurations.putAll(durations);
+    return this;
+  }
+
+  /** Steps of the login flow, for which the duration is reported. */
+  public enum Step {
+    VAU_STATUS,
+    NONCE,
+    CARD_HANDLE,
+    CERTIFICATE,
+    AUTHORIZATION_REQUEST,
+    IDP_LOGIN,
+    CLIENT_ATTEST,
+    SEND_AUTH_CODE
+  }
 }
@@ -0,0 +1,225 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the user sessions in the VAU, which were created by a login of this application.<br>
+ * A session is known to be valid for the {@code sessionLifetime} after its login, so a further
+ * login for the same telematik-ID and health record system within this time does not need to ask
+ * the VAU for its status. The health record system is the FQDN the login was sent to
+ * (x-target-fqdn).<br>
+ * The VAU proxy is shared by all actors, a login of another telematik-ID may replace the user
+ * session. So a registered session removes the sessions of all other telematik-IDs, whose next
+ * login asks the VAU for its status again. The {@code reLoginLeadTime} before the session expires,
+ * the login is repeated in the background, so that the session is renewed before a test step needs
+ * it. Only sessions, which were found since their login, are renewed, idle sessions expire.<br>
+ * The VAU does not report the expiry of a session, so the lifetime has to be configured to match
+ * the health record system.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class VauSessionRegistry {
+
+  public static final Duration DEFAULT_SESSION_LIFETIME = Duration.ofMinutes(20);
+
+  public static final Duration DEFAULT_RE_LOGIN_LEAD_TIME = Duration.ofMinutes(2);
+
+  /** Time a session is known to be valid after its login. 0 disables the registry */
+  @Getter @Setter private volatile Duration sessionLifetime = DEFAULT_SESSION_LIFETIME;
+
+  /** Time before the expiry of a session, at which it is renewed. 0 disables the renewal */
+  @Getter @Setter private volatile Duration reLoginLeadTime = DEFAULT_RE_LOGIN_LEAD_TIME;
+
+  private final Map<SessionKey, RegisteredSession> sessions = new ConcurrentHashMap<>();
+
+  private final LongAdder reusedSessions = new LongAdder();
+
+  private final Clock clock;
+
+  private final ScheduledExecutorService scheduler;
+
+  public VauSessionRegistry() {
+    this(
+        Clock.systemUTC(),
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("vau-session-relogin").daemon().factory()));
+  }
+
+  public VauSessionRegistry(@NonNull Clock clock, @NonNull ScheduledExecutorService scheduler) {
+    this.clock = clock;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Register the session created by a successful login.<br>
+   * A session already registered for the telematik-ID and FQDN is replaced, the sessions of other
+   * telematik-IDs are removed. Their renewals are cancelled.
+   *
+   * @param telematikId telematik-ID of the login
+   * @param fqdn FQDN of the health record system the login was sent to
+   * @param reLogin repeats the login, runs on a virtual thread before the session expires, if the
+   *     session was found in the meantime
+   */
+  public void register(String telematikId, String fqdn, @NonNull Runnable reLogin) {
+    var lifetime = sessionLifetime;
+    if (lifetime.isZero() || lifetime.isNegative()) {
+      return;
+    }
+    var key = new SessionKey(telematikId, fqdn);
+    var created = clock.instant();
+    var session = new VauSession(telematikId, fqdn, created, created.plus(lifetime));
+    var renewal = scheduleReLogin(key, session, reLogin);
+    var previous = sessions.put(key, new RegisteredSession(session, renewal, new AtomicBoolean()));
+    if (previous != null) {
+      previous.cancelRenewal();
+    }
+    sessions.keySet().stream()
+        .filter(other -> !Objects.equals(other.telematikId(), telematikId))
+        .forEach(other -> invalidate(other.telematikId(), other.fqdn()));
+  }
+
+  /**
+   * Find the session of the telematik-ID at the given health record system.<br>
+   * A found session is renewed before it expires.
+   *
+   * @param telematikId telematik-ID of the login
+   * @param fqdn FQDN of the health record system the login was sent to
+   * @return the session, if one is registered and not expired
+   */
+  public Optional<VauSession> find(String telematikId, String fqdn) {
+    var registered = sessions.get(new SessionKey(telematikId, fqdn));
+    if (registered == null || !registered.session().expires().isAfter(clock.instant())) {
+      return Optional.empty();
+    }
+    registered.used().set(true);
+    reusedSessions.increment();
+    return Optional.of(registered.session());
+  }
+
+  /**
+   * Remove the session of the telematik-ID at the given health record system, e.g. because its
+   * renewal failed.
+   *
+   * @param telematikId telematik-ID of the login
+   * @param fqdn FQDN of the health record system
+   */
+  public void invalidate(String telematikId, String fqdn) {
+    var registered = sessions.remove(new SessionKey(telematikId, fqdn));
+    if (registered != null) {
+      registered.cancelRenewal();
+    }
+  }
+
+  /**
+   * Remove all sessions of the telematik-ID, e.g. because its VAU sessions were destroyed.
+   *
+   * @param telematikId telematik-ID of the logins
+   */
+  public void invalidate(String telematikId) {
+    sessions.keySet().stream()
+        .filter(key -> Objects.equals(key.telematikId(), telematikId))
+        .forEach(key -> invalidate(key.telematikId(), key.fqdn()));
+  }
+
+  /** Remove all sessions */
+  public void invalidateAll() {
+    sessions.keySet().forEach(key -> invalidate(key.telematikId(), key.fqdn()));
+  }
+
+  /** Number of logins, which used a registered session instead of asking the VAU */
+  public long reusedSessions() {
+    return reusedSessions.sum();
+  }
+
+  /**
+   * A user session in the VAU.
+   *
+   * @param telematikId telematik-ID of the login
+   * @param fqdn FQDN of the health record system
+   * @param created time of the login
+   * @param expires time, until which the session is known to be valid
+   */
+  public record VauSession(String telematikId, String fqdn, Instant created, Instant expires) {}
+
+  // region private
+
+  private Future<?> scheduleReLogin(SessionKey key, VauSession session, Runnable reLogin) {
+    var leadTime = reLoginLeadTime;
+    var delay = Duration.between(clock.instant(), session.expires()).minus(leadTime);
+    if (leadTime.isZero() || leadTime.isNegative() || delay.isNegative()) {
+      return null;
+    }
+    return scheduler.schedule(
+        () -> {
+          var registered = sessions.get(key);
+          if (registered == null || registered.session() != session) {
+            return;
+          }
+          if (registered.used().get()) {
+            log.info(
+                "Renewing the VAU session of telematikId {} before it expires", key.telematikId());
+            Thread.ofVirtual().name("vau-session-relogin-" + key.telematikId()).start(reLogin);
+          } else {
+            log.debug(
+                "VAU session of telematikId {} was not used since its login, it expires",
+                key.telematikId());
+          }
+        },
+        delay.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private record SessionKey(String telematikId, String fqdn) {}
+
+  private record RegisteredSession(VauSession session, Future<?> renewal, AtomicBoolean used) {
+
+    void cancelRenewal() {
+      if (renewal != null) {
+        renewal.cancel(false);
+      }
+    }
+  }
+
+  // endregion private
+}
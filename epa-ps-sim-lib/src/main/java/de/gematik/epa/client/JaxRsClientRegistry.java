@@ -0,0 +1,222 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.cxf.jaxrs.client.WebClient;
+
+/**
+ * Registry of the {@link JaxRsClientWrapper}s of the servers of the health record systems, by URL
+ * and API.<br>
+ * Configured clients are registered once and kept. Clients for further URLs, e.g. a health record
+ * system set by the test driver, are created on first use by the given factory and reused
+ * afterwards. Created clients, which were not used for the {@code idleTimeout}, are dropped, when
+ * the next client is created.<br>
+ * A client is marked as used and dropped within the update of its key, so a client handed out is
+ * never dropped by an eviction running concurrently.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class JaxRsClientRegistry {
+
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+  private final ConcurrentHashMap<ClientKey, Registration> clients = new ConcurrentHashMap<>();
+
+  private final BiFunction<String, Class<?>, JaxRsClientWrapper<?>> clientFactory;
+
+  private final Clock clock;
+
+  /** Time after which a created client, which was not used, is dropped */
+  @Getter private final Duration idleTimeout;
+
+  /**
+   * Create a registry.
+   *
+   * @param clientFactory creates the client for a URL and API
+   */
+  public JaxRsClientRegistry(
+      @NonNull BiFunction<String, Class<?>, JaxRsClientWrapper<?>> clientFactory) {
+    this(clientFactory, DEFAULT_IDLE_TIMEOUT, Clock.systemUTC());
+  }
+
+  public JaxRsClientRegistry(
+      @NonNull BiFunction<String, Class<?>, JaxRsClientWrapper<?>> clientFactory,
+      @NonNull Duration idleTimeout,
+      @NonNull Clock clock) {
+    this.clientFactory = clientFactory;
+    this.idleTimeout = idleTimeout;
+    this.clock = clock;
+  }
+
+  /**
+   * Register a configured client. It is never dropped.
+   *
+   * @param client the client
+   * @param serviceClass API of the client
+   * @return the client
+   */
+  public <T> JaxRsClientWrapper<T> register(
+      @NonNull JaxRsClientWrapper<T> client, @NonNull Class<T> serviceClass) {
+    clients.put(
+        new ClientKey(client.getUrl(), serviceClass), new Registration(client, true, clock));
+    return client;
+  }
+
+  /**
+   * Get the client for the URL and API, creating it, if there is none yet.<br>
+   * Concurrent calls for the same URL and API create only one client.
+   *
+   * @param url URL of the server
+   * @param serviceClass API of the client
+   * @return the client
+   */
+  @SuppressWarnings("unchecked")
+  public <T> JaxRsClientWrapper<T> get(@NonNull String url, @NonNull Class<T> serviceClass) {
+    var key = new ClientKey(url, serviceClass);
+    var registration = markUsed(key);
+    if (registration == null) {
+      evictIdle();
+      registration =
+          clients.compute(
+              key,
+              (newKey, current) -> {
+                if (current != null) {
+                  return current.used(clock.instant());
+                }
+                log.info("Creating client of {} for {}", serviceClass.getSimpleName(), url);
+                return new Registration(clientFactory.apply(url, serviceClass), false, clock);
+              });
+    }
+    return (JaxRsClientWrapper<T>) registration.client();
+  }
+
+  /**
+   * @param url URL of the server
+   * @param serviceClass API of the client
+   * @return the client for the URL and API, if there is one already
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Optional<JaxRsClientWrapper<T>> find(String url, Class<T> serviceClass) {
+    return Optional.ofNullable(markUsed(new ClientKey(url, serviceClass)))
+        .map(registration -> (JaxRsClientWrapper<T>) registration.client());
+  }
+
+  /**
+   * Drop the created clients, which were not used for the {@code idleTimeout}.
+   *
+   * @return number of dropped clients
+   */
+  public int evictIdle() {
+    var idleSince = clock.instant().minus(idleTimeout);
+    var evicted = new ArrayList<Registration>();
+    for (var key : clients.keySet()) {
+      // checked within the update of the key, so a client marked as used meanwhile is kept
+      clients.computeIfPresent(
+          key,
+          (idleKey, registration) -> {
+            if (registration.configured() || !registration.lastUsed().isBefore(idleSince)) {
+              return registration;
+            }
+            log.info("Dropping idle client of {}", idleKey);
+            evicted.add(registration);
+            return null;
+          });
+    }
+    evicted.forEach(registration -> close(registration.client()));
+    return evicted.size();
+  }
+
+  /** Number of registered and created clients */
+  public int size() {
+    return clients.size();
+  }
+
+  // region private
+
+  private Registration markUsed(ClientKey key) {
+    return clients.computeIfPresent(key, (usedKey, current) -> current.used(clock.instant()));
+  }
+
+  private static void close(JaxRsClientWrapper<?> client) {
+    try {
+      var webClient = WebClient.client(client.getServiceApi());
+      if (webClient != null) {
+        webClient.close();
+      }
+    } catch (RuntimeException e) {
+      log.debug("Closing the client for {} failed", client.getUrl(), e);
+    }
+  }
+
+  private record ClientKey(String url, Class<?> serviceClass) {
+    @Override
+    public String toString() {
+      return serviceClass.getSimpleName() + " for " + url;
+    }
+  }
+
+  private static final class Registration {
+
+    private final JaxRsClientWrapper<?> client;
+    private final boolean configured;
+    private volatile Instant lastUsed;
+
+    private Registration(JaxRsClientWrapper<?> client, boolean configured, Clock clock) {
+      this.client = client;
+      this.configured = configured;
+      this.lastUsed = clock.instant();
+    }
+
+    JaxRsClientWrapper<?> client() {
+      return client;
+    }
+
+    boolean configured() {
+      return configured;
+    }
+
+    Instant lastUsed() {
+      return lastUsed;
+    }
+
+    Registration used(Instant instant) {
+      lastUsed = instant;
+      return this;
+    }
+  }
+
+  // endregion private
+}
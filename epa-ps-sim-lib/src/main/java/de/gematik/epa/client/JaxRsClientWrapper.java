@@ -26,16 +26,13 @@ package de.gematik.epa.client;
 
 import static org.apache.cxf.transport.https.InsecureTrustManager.getNoOpX509TrustManagers;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.jakarta.rs.json.JacksonJsonProvider;
 import de.gematik.epa.utils.LoggingFeatureUtil;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Map;
 import javax.net.ssl.SSLContext;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -81,19 +78,14 @@ public class JaxRsClientWrapper<T> {
     factoryBean.setServiceClass(serviceClass);
     factoryBean.setAddress(serverUrl);
 
-    var provider = new JacksonJsonProvider();
-    var om = new ObjectMapper();
-    om.registerModule(new JavaTimeModule());
-    om.setSerializationInclusion(JsonInclude.Include.NON_ABSENT);
-    provider.setMapper(om);
-    provider.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
-    provider.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    factoryBean.setProvider(provider);
+    factoryBean.setProvider(SharedJsonProvider.jsonProvider());
     factoryBean.getFeatures().add(loggingFeature);
     factoryBean.getOutInterceptors().add(new JaxRsOutgoingRequestInterceptor());
+    // the client is called concurrently, so each thread needs its own request and response state
+    factoryBean.setThreadSafe(true);
+    factoryBean.setHeaders(Map.of(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON));
 
     var api = factoryBean.create(serviceClass);
-    WebClient.client(api).accept("application/json");
     WebClient.getConfig(api)
         .getHttpConduit()
         .getClient()
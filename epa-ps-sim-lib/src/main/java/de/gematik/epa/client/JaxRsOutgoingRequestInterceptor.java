@@ -61,7 +61,7 @@ public class JaxRsOutgoingRequestInterceptor extends AbstractPhaseInterceptor<Me
     // localisation logic
     final String targetEndpoint = (String) message.get(Message.ENDPOINT_ADDRESS);
     if (insurantId != null && ENDPOINTS_TO_IGNORE.stream().noneMatch(targetEndpoint::contains)) {
-      headers.put(X_TARGET_FQDN, List.of(HealthRecordProvider.getHealthRecordUrl(insurantId)));
+      headers.put(X_TARGET_FQDN, List.of(HealthRecordProvider.resolveHealthRecordUrl(insurantId)));
     } else {
       log.warn("No insurantId found in message exchange for: {}", targetEndpoint);
     }
@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.jakarta.rs.json.JacksonJsonProvider;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The JSON serialization used by all JAX-RS clients and the endpoints of the application.<br>
+ * All share one {@link ObjectMapper}, so the serializers and deserializers of the DTOs are created
+ * once and cached in one place, instead of once per client. The mapper is configured on creation
+ * and must not be reconfigured afterwards, use {@link ObjectMapper#copy()} for a different
+ * configuration.
+ */
+@Slf4j
+@UtilityClass
+public class SharedJsonProvider {
+
+  private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+
+  private static final JacksonJsonProvider JSON_PROVIDER = createJsonProvider(OBJECT_MAPPER);
+
+  /**
+   * @return the shared {@link ObjectMapper}
+   */
+  public static ObjectMapper objectMapper() {
+    return OBJECT_MAPPER;
+  }
+
+  /**
+   * @return the shared {@link JacksonJsonProvider} using the {@link #objectMapper()}
+   */
+  public static JacksonJsonProvider jsonProvider() {
+    return JSON_PROVIDER;
+  }
+
+  /**
+   * Create the serializers and deserializers of the given types in advance, so that the first
+   * request using them does not wait for it.
+   *
+   * @param types the types to prepare
+   */
+  public static void warmUp(Class<?>... types) {
+    for (var type : types) {
+      try {
+        OBJECT_MAPPER.writerFor(type);
+        OBJECT_MAPPER.readerFor(type);
+      } catch (RuntimeException e) {
+        log.warn("JSON serialization of {} could not be prepared", type.getName(), e);
+      }
+    }
+  }
+
+  // region private
+
+  private static ObjectMapper createObjectMapper() {
+    var om = new ObjectMapper();
+    om.registerModule(new JavaTimeModule());
+    om.setSerializationInclusion(JsonInclude.Include.NON_ABSENT);
+    om.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+    om.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    return om;
+  }
+
+  private static JacksonJsonProvider createJsonProvider(ObjectMapper objectMapper) {
+    var provider = new JacksonJsonProvider();
+    provider.setMapper(objectMapper);
+    provider.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+    provider.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    return provider;
+  }
+
+  // endregion private
+}
@@ -74,7 +74,8 @@ public class EntitlementService {
     this.cardAuthenticationService =
         new CardAuthenticationService(
             smbInformationProvider,
-            new AuthSignatureServiceClient(contextProvider, konnektorInterfaceAssembly));
+            new AuthSignatureServiceClient(contextProvider, konnektorInterfaceAssembly),
+            contextProvider.cardPool());
     this.vsdServiceClient = vsdServiceClient;
   }
 
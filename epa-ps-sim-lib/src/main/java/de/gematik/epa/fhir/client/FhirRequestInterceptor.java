@@ -52,7 +52,7 @@ public class FhirRequestInterceptor implements IClientInterceptor {
     String targetEndpoint = theRequest.getUri();
     String telematikId = TelematikIdHolder.getTelematikId();
     if (insurantId != null && ENDPOINTS_TO_IGNORE.stream().noneMatch(targetEndpoint::contains)) {
-      theRequest.addHeader(X_TARGET_FQDN, HealthRecordProvider.getHealthRecordUrl(insurantId));
+      theRequest.addHeader(X_TARGET_FQDN, HealthRecordProvider.resolveHealthRecordUrl(insurantId));
       theRequest.addHeader(X_INSURANT_ID, insurantId);
     } else {
       log.warn("No insurantId found in FHIR call!");
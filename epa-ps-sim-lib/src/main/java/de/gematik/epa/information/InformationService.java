@@ -30,15 +30,23 @@ import de.gematik.epa.api.information.client.UserExperienceApi;
 import de.gematik.epa.api.information.client.dto.ErrorType;
 import de.gematik.epa.api.information.client.dto.GetConsentDecisionInformation200Response;
 import de.gematik.epa.api.testdriver.information.dto.*;
+import de.gematik.epa.client.JaxRsClientRegistry;
 import de.gematik.epa.client.JaxRsClientWrapper;
 import de.gematik.epa.utils.HealthRecordProvider;
+import de.gematik.epa.utils.TelematikIdHolder;
 import jakarta.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class InformationService {
+public class InformationService implements AutoCloseable {
 
   public static final String UNKNOWN_ERROR = "unknownError";
   public static final String NO_RECORD_FOUND = "noRecordFound";
@@ -47,17 +55,44 @@ public class InformationService {
 
   private static final String NO_ERROR_MESSAGE_AVAILABLE = "No error message available.";
 
+  private static final String SET_FQDN_USER_AGENT = "Testsuite";
+
   private final List<JaxRsClientWrapper<AccountInformationApi>> accountInformationApiClients;
-  private final List<JaxRsClientWrapper<ConsentDecisionsApi>> consentDecisionsApiClients;
   private final List<JaxRsClientWrapper<UserExperienceApi>> userExperienceApiClients;
+  private final JaxRsClientRegistry clientRegistry;
+  private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
   public InformationService(
       final List<JaxRsClientWrapper<AccountInformationApi>> accountInformationApiClients,
       final List<JaxRsClientWrapper<ConsentDecisionsApi>> consentDecisionsApiClients,
       final List<JaxRsClientWrapper<UserExperienceApi>> userExperienceApiClients) {
+    this(
+        accountInformationApiClients,
+        consentDecisionsApiClients,
+        userExperienceApiClients,
+        new JaxRsClientRegistry(
+            (url, serviceClass) ->
+                new JaxRsClientWrapper<>(url, SET_FQDN_USER_AGENT, serviceClass)));
+  }
+
+  /**
+   * Create the service.<br>
+   * The given clients of the configured information servers are registered in the client registry.
+   * Clients for further servers, e.g. set by {@link #setFqdn(SetFqdnRequestDTO)}, are created by
+   * the registry on first use.
+   */
+  public InformationService(
+      final List<JaxRsClientWrapper<AccountInformationApi>> accountInformationApiClients,
+      final List<JaxRsClientWrapper<ConsentDecisionsApi>> consentDecisionsApiClients,
+      final List<JaxRsClientWrapper<UserExperienceApi>> userExperienceApiClients,
+      final JaxRsClientRegistry clientRegistry) {
     this.accountInformationApiClients = accountInformationApiClients;
-    this.consentDecisionsApiClients = consentDecisionsApiClients;
     this.userExperienceApiClients = userExperienceApiClients;
+    this.clientRegistry = clientRegistry;
+    accountInformationApiClients.forEach(
+        client -> clientRegistry.register(client, AccountInformationApi.class));
+    consentDecisionsApiClients.forEach(
+        client -> clientRegistry.register(client, ConsentDecisionsApi.class));
   }
 
   private static String calculateErrorMessage(Response response) {
@@ -71,50 +106,137 @@ public class InformationService {
     result.statusMessage(statusMessage);
   }
 
+  /**
+   * Look up the health record of the insurant at all information servers.<br>
+   * The servers are asked concurrently. The first server knowing the health record (204) wins and
+   * the lookups still running at the other servers are cancelled, i.e. interrupted and not waited
+   * for. If no server knows the health record, the responses are evaluated in the order of the
+   * configured servers. <br>
+   * The result reports the lookup at each server, including its latency.<br>
+   * If all servers answer 404, the missing health record is remembered by the {@link
+   * HealthRecordProvider} and the servers are not asked again, as long as it is remembered.
+   *
+   * @param insurantId KVNR of the insurant
+   * @return the result of the lookup, with the FQDN of the health record system, if found
+   */
   public GetRecordStatusResponseDTO getRecordStatus(String insurantId) {
-    var result = new GetRecordStatusResponseDTO().success(false);
+    if (HealthRecordProvider.isHealthRecordMissing(insurantId)) {
+      log.debug("No information server knew a health record of {} recently", insurantId);
+      return new GetRecordStatusResponseDTO().success(false).statusMessage(NO_RECORD_FOUND);
+    }
+    var found = new CompletableFuture<RecordStatusLookup>();
+    var lookups = new ArrayList<CompletableFuture<RecordStatusLookup>>();
+    var running = new ArrayList<Future<?>>();
+    var start = System.nanoTime();
     for (JaxRsClientWrapper<AccountInformationApi> client : accountInformationApiClients) {
-      try {
-        final Response response =
-            client.getServiceApi().getRecordStatus(insurantId, client.getUserAgent());
-
-        int status = response.getStatus();
-        switch (status) {
-          case 204 -> {
-            HealthRecordProvider.addHealthRecord(insurantId, client.getUrl());
-            return result
-                .success(true)
-                .fqdn(HealthRecordProvider.getHealthRecordUrl(insurantId))
-                .statusMessage(null);
-          }
-          case 400, 404, 409, 500 -> {
-            var message = calculateErrorMessage(response);
-            log.warn("Could not get record: {}, {}", status, message);
-            result.setStatusMessage(message);
-          }
-          default -> {
-            return new GetRecordStatusResponseDTO().success(false).statusMessage(NO_RECORD_FOUND);
-          }
-        }
+      var lookup = new CompletableFuture<RecordStatusLookup>();
+      lookups.add(lookup);
+      running.add(
+          lookupExecutor.submit(
+              TelematikIdHolder.wrap(
+                  () -> {
+                    var result = lookupRecordStatus(client, insurantId, start);
+                    lookup.complete(result);
+                    if (result.status() == 204) {
+                      found.complete(result);
+                    }
+                  })));
+    }
+    CompletableFuture.anyOf(
+            found, CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)))
+        .join();
+    // the lookups still running are reported as cancelled, before they are interrupted
+    lookups.forEach(lookup -> lookup.complete(null));
+    running.forEach(lookup -> lookup.cancel(true));
+
+    var serverLookups = serverLookups(accountInformationApiClients, lookups);
+    // taken from the lookups, as found may not be completed yet, when all lookups are
+    var recordServer =
+        lookups.stream()
+            .map(lookup -> lookup.getNow(null))
+            .filter(lookup -> lookup != null && lookup.status() == 204)
+            .findFirst();
+    if (recordServer.isPresent()) {
+      HealthRecordProvider.addHealthRecord(insurantId, recordServer.get().client().getUrl());
+      return new GetRecordStatusResponseDTO()
+          .success(true)
+          .fqdn(HealthRecordProvider.getHealthRecordUrl(insurantId))
+          .statusMessage(null)
+          .serverLookups(serverLookups);
+    }
 
-      } catch (Exception e) {
-        log.error("Error while getting record status, {}", e.getMessage());
+    var result = new GetRecordStatusResponseDTO().success(false).serverLookups(serverLookups);
+    for (var lookup : lookups) {
+      var recordStatus = lookup.join();
+      if (recordStatus.exception() != null) {
+        log.error("Error while getting record status, {}", recordStatus.exception().getMessage());
         setStatusMessage(result.success(false), UNKNOWN_ERROR);
+        continue;
+      }
+      switch (recordStatus.status()) {
+        case 400, 404, 409, 500 -> {
+          log.warn(
+              "Could not get record: {}, {}", recordStatus.status(), recordStatus.errorMessage());
+          result.setStatusMessage(recordStatus.errorMessage());
+        }
+        default -> {
+          return result.success(false).statusMessage(NO_RECORD_FOUND);
+        }
       }
     }
 
+    if (lookups.stream().allMatch(lookup -> lookup.join().status() == 404)) {
+      HealthRecordProvider.addMissingHealthRecord(insurantId);
+    }
     return result;
   }
 
+  private RecordStatusLookup lookupRecordStatus(
+      JaxRsClientWrapper<AccountInformationApi> client, String insurantId, long start) {
+    try {
+      final Response response =
+          client.getServiceApi().getRecordStatus(insurantId, client.getUserAgent());
+      int status = response.getStatus();
+      var errorMessage =
+          switch (status) {
+            case 400, 404, 409, 500 -> calculateErrorMessage(response);
+            default -> null;
+          };
+      return new RecordStatusLookup(client, status, errorMessage, null, latency(start));
+    } catch (Exception e) {
+      return new RecordStatusLookup(client, 0, null, e, latency(start));
+    }
+  }
+
+  private static List<RecordStatusLookupType> serverLookups(
+      List<JaxRsClientWrapper<AccountInformationApi>> clients,
+      List<CompletableFuture<RecordStatusLookup>> lookups) {
+    return IntStream.range(0, lookups.size())
+        .mapToObj(
+            i -> {
+              var recordStatus = lookups.get(i).getNow(null);
+              if (recordStatus == null) {
+                return new RecordStatusLookupType().fqdn(clients.get(i).getUrl()).cancelled(true);
+              }
+              return new RecordStatusLookupType()
+                  .fqdn(recordStatus.client().getUrl())
+                  .httpStatusCode(recordStatus.exception() == null ? recordStatus.status() : null)
+                  .latencyMillis(recordStatus.latency().toMillis())
+                  .cancelled(false);
+            })
+        .toList();
+  }
+
+  private static Duration latency(long start) {
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+
   public GetConsentDecisionInformationResponseDTO getConsentDecisionInformation(
       final String insurantId) {
 
     final String url = HealthRecordProvider.getHealthRecordUrl(insurantId);
     final JaxRsClientWrapper<ConsentDecisionsApi> client =
-        consentDecisionsApiClients.stream()
-            .filter(clientWrapper -> clientWrapper.getUrl().equals(url))
-            .findFirst()
-            .orElseThrow(() -> new IllegalStateException("No client found for url: " + url));
+        clientRegistry.get(url, ConsentDecisionsApi.class);
     final Response response =
         client.getServiceApi().getConsentDecisionInformation(insurantId, client.getUserAgent());
 
@@ -197,7 +319,7 @@ public class InformationService {
 
     try {
       final JaxRsClientWrapper<AccountInformationApi> informationApiClient =
-          new JaxRsClientWrapper<>(requestDTO.getFqdn(), "Testsuite", AccountInformationApi.class);
+          clientRegistry.get(requestDTO.getFqdn(), AccountInformationApi.class);
 
       HealthRecordProvider.addHealthRecord(
           requestDTO.getInsurantId(), informationApiClient.getUrl());
@@ -207,4 +329,17 @@ public class InformationService {
       return responseDTO.success(false).statusMessage(e.getMessage());
     }
   }
+
+  /** Stop the record status lookups still running */
+  @Override
+  public void close() {
+    lookupExecutor.shutdownNow();
+  }
+
+  private record RecordStatusLookup(
+      JaxRsClientWrapper<AccountInformationApi> client,
+      int status,
+      String errorMessage,
+      Exception exception,
+      Duration latency) {}
 }
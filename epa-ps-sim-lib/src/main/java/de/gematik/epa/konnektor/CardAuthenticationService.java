@@ -51,22 +51,43 @@ import telematik.ws.conn.certificateservice.xsd.v6_0.CryptType;
 public class CardAuthenticationService {
   private final SmbInformationProvider smbInformationProvider;
   private final AuthSignatureServiceClient authSignatureServiceClient;
+  private final CardPool cardPool;
 
   public CardAuthenticationService(
       SmbInformationProvider smbInformationProvider,
       AuthSignatureServiceClient authSignatureServiceClient) {
+    this(smbInformationProvider, authSignatureServiceClient, new CardPool());
+  }
+
+  public CardAuthenticationService(
+      SmbInformationProvider smbInformationProvider,
+      AuthSignatureServiceClient authSignatureServiceClient,
+      CardPool cardPool) {
     this.smbInformationProvider = smbInformationProvider;
     this.authSignatureServiceClient = authSignatureServiceClient;
+    this.cardPool = cardPool;
   }
 
+  /**
+   * Get the handle of an SMC-B with the given telematikId.<br>
+   * If there are several SMC-Bs with this telematikId, the one with the shortest queue in the
+   * {@link CardPool} is chosen. All following operations of a use case must use the same card, as
+   * the certificate differs between the cards.
+   *
+   * @param telematikId telematikId of the SMC-B
+   * @return the card handle
+   * @throws TelematikIdNotFoundException if there is no SMC-B with the telematikId
+   */
   public String getCardHandle(String telematikId) {
-    return smbInformationProvider
-        .getSmbInformationForTelematikId(telematikId)
-        .map(SmbInformation::cardHandle)
-        .orElseThrow(
-            () ->
-                new TelematikIdNotFoundException(
-                    "TelematikId " + telematikId + " was not found in connector slots"));
+    var cardHandles =
+        smbInformationProvider.getSmbInformationsForTelematikId(telematikId).stream()
+            .map(SmbInformation::cardHandle)
+            .toList();
+    if (cardHandles.isEmpty()) {
+      throw new TelematikIdNotFoundException(
+          "TelematikId " + telematikId + " was not found in connector slots");
+    }
+    return cardPool.select(cardHandles);
   }
 
   public UnaryOperator<byte[]> getContentSigner(String cardHandle) {
@@ -93,9 +114,12 @@ public class CardAuthenticationService {
   }
 
   public X509Certificate getX509Certificate(CardInfoType cardInfo) {
-    return smbInformationProvider
-        .certificateServiceClient()
-        .getX509Certificate(cardInfo, CryptType.ECC);
+    return cardPool.execute(
+        cardInfo.getCardHandle(),
+        () ->
+            smbInformationProvider
+                .certificateServiceClient()
+                .getX509Certificate(cardInfo, CryptType.ECC));
   }
 
   public String createSignedJwt(
@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import de.gematik.epa.konnektor.client.EventServiceClient;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.xml.datatype.XMLGregorianCalendar;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptionsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscriptionRenewal;
+
+/**
+ * Subscription for the card and card terminal events of the Konnektor, which keeps the {@link
+ * CardInventory} of the {@link KonnektorContextProvider} up to date.<br>
+ * The events are received by a {@link CetpEventReceiver}. Subscriptions are renewed before the
+ * Konnektor terminates them and are terminated when this object is closed. If the subscription
+ * fails, the card inventory still works, but relies on the expiry of its entries only.
+ */
+@Slf4j
+public class CardEventSubscription implements AutoCloseable {
+
+  static final List<String> TOPICS =
+      List.of(CardInventory.CARD_TOPIC, CardInventory.CARD_TERMINAL_TOPIC);
+
+  private final KonnektorContextProvider konnektorContextProvider;
+
+  private final KonnektorInterfaceAssembly konnektorInterfaceAssembly;
+
+  private final CetpEventReceiver eventReceiver;
+
+  private final String eventTo;
+
+  private final List<String> subscriptionIds = new CopyOnWriteArrayList<>();
+
+  private final ScheduledExecutorService renewalScheduler =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+
+  public CardEventSubscription(
+      @NonNull KonnektorContextProvider konnektorContextProvider,
+      @NonNull KonnektorInterfaceAssembly konnektorInterfaceAssembly,
+      @NonNull CetpEventReceiver eventReceiver,
+      @NonNull String eventTo) {
+    this.konnektorContextProvider = konnektorContextProvider;
+    this.konnektorInterfaceAssembly = konnektorInterfaceAssembly;
+    this.eventReceiver = eventReceiver;
+    this.eventTo = eventTo;
+  }
+
+  public CardEventSubscription(
+      @NonNull KonnektorContextProvider konnektorContextProvider,
+      @NonNull KonnektorInterfaceAssembly konnektorInterfaceAssembly,
+      int port,
+      @NonNull String eventTo)
+      throws IOException {
+    this(
+        konnektorContextProvider,
+        konnektorInterfaceAssembly,
+        new CetpEventReceiver(port, konnektorContextProvider.cardInventory()::onEvent),
+        eventTo);
+  }
+
+  /**
+   * Start receiving events and subscribe for them at the Konnektor.
+   *
+   * @return Reference to the object itself, so the method can be used in chained method calls.
+   */
+  public CardEventSubscription start() {
+    eventReceiver.start();
+
+    try (var eventServiceClient = eventServiceClient()) {
+      TOPICS.forEach(
+          topic -> {
+            var response = eventServiceClient.subscribe(eventTo, topic);
+            subscriptionIds.add(response.getSubscriptionID());
+            scheduleRenewal(response.getSubscriptionID(), response.getTerminationTime());
+            log.info(
+                "Subscribed for Konnektor events of topic {} with ID {}",
+                topic,
+                response.getSubscriptionID());
+          });
+    } catch (Exception e) {
+      log.warn(
+          "Subscription for Konnektor card events failed. Card inventory relies on expiry only", e);
+    }
+
+    // Events of changes before the subscription got active are lost
+    konnektorContextProvider.cardInventory().invalidateAll();
+    return this;
+  }
+
+  @Override
+  public void close() throws IOException {
+    renewalScheduler.shutdownNow();
+
+    try (var eventServiceClient = eventServiceClient()) {
+      subscriptionIds.forEach(eventServiceClient::unsubscribe);
+    } catch (Exception e) {
+      log.warn("Failed to terminate the subscriptions for Konnektor card events", e);
+    }
+    subscriptionIds.clear();
+
+    eventReceiver.close();
+  }
+
+  // region private
+
+  private EventServiceClient eventServiceClient() {
+    return new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly);
+  }
+
+  private void scheduleRenewal(String subscriptionId, XMLGregorianCalendar terminationTime) {
+    if (terminationTime == null || renewalScheduler.isShutdown()) {
+      return;
+    }
+
+    var remaining =
+        Duration.between(Instant.now(), terminationTime.toGregorianCalendar().toInstant());
+
+    renewalScheduler.schedule(
+        () -> renew(subscriptionId),
+        Math.max(remaining.dividedBy(2).toMillis(), 0),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void renew(String subscriptionId) {
+    try (var eventServiceClient = eventServiceClient()) {
+      var renewal =
+          Optional.ofNullable(eventServiceClient.renewSubscription(subscriptionId))
+              .map(RenewSubscriptionsResponse::getSubscribeRenewals)
+              .stream()
+              .flatMap(renewals -> renewals.getSubscriptionRenewal().stream())
+              .filter(r -> subscriptionId.equals(r.getSubscriptionID()))
+              .findFirst();
+
+      renewal.ifPresent(r -> scheduleRenewal(subscriptionId, r.getTerminationTime()));
+      log.debug(
+          "Renewed subscription {} until {}",
+          subscriptionId,
+          renewal.map(SubscriptionRenewal::getTerminationTime).orElse(null));
+    } catch (Exception e) {
+      log.warn(
+          "Renewal of subscription {} failed. Card inventory relies on expiry only",
+          subscriptionId,
+          e);
+    }
+  }
+
+  // endregion private
+}
@@ -0,0 +1,202 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
+
+/**
+ * In memory inventory of the cards present in the Konnektor.<br>
+ * The GetCards responses are cached per Konnektor context and card type, so that card lookups do
+ * not need a round-trip to the Konnektor each time. Entries are invalidated by Konnektor events
+ * (see {@link #onEvent(Event)}) and, as fallback if no events are received, expire after the
+ * configured time to live.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class CardInventory {
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(30);
+
+  public static final String CARD_TOPIC = "CARD";
+
+  public static final String CARD_TERMINAL_TOPIC = "CT";
+
+  public static final String CARD_TYPE_PARAMETER = "CardType";
+
+  private final Map<InventoryKey, InventoryEntry> inventory = new ConcurrentHashMap<>();
+
+  private final Clock clock;
+
+  @Getter private volatile Duration timeToLive;
+
+  public CardInventory() {
+    this(DEFAULT_TIME_TO_LIVE, Clock.systemUTC());
+  }
+
+  public CardInventory(@NonNull Duration timeToLive, @NonNull Clock clock) {
+    this.timeToLive = timeToLive;
+    this.clock = clock;
+  }
+
+  public CardInventory timeToLive(@NonNull Duration timeToLive) {
+    this.timeToLive = timeToLive;
+    return this;
+  }
+
+  /**
+   * Get the cards of the given type from the inventory.<br>
+   * If the inventory holds no valid entry for the context and card type, the cards are retrieved
+   * using the given loader. Concurrent requests for the same entry wait for a single load.
+   *
+   * @param context the Konnektor context the cards are retrieved for
+   * @param cardType the type of the cards
+   * @param loader retrieves the cards from the Konnektor, if no valid entry exists
+   * @return the GetCardsResponse of the Konnektor, as returned by the loader. The response is
+   *     shared between all callers and must not be modified.
+   */
+  public GetCardsResponse getCards(
+      @NonNull ContextType context,
+      @NonNull CardTypeType cardType,
+      @NonNull Supplier<GetCardsResponse> loader) {
+    var key = InventoryKey.of(context, cardType);
+    var entry = inventory.get(key);
+    if (entry == null || !isValid(entry)) {
+      var loading = new InventoryEntry(new CompletableFuture<>(), clock.instant());
+      entry = inventory.merge(key, loading, (current, next) -> isValid(current) ? current : next);
+      if (entry == loading) {
+        // the Konnektor is called outside the map, so other entries are not blocked meanwhile
+        load(key, loading, loader);
+      }
+    }
+    try {
+      return entry.cards().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Remove all cards of the given type from the inventory, so they are retrieved from the Konnektor
+   * with the next lookup.
+   *
+   * @param cardType the type of the cards to invalidate
+   */
+  public void invalidate(@NonNull CardTypeType cardType) {
+    inventory.keySet().removeIf(key -> key.cardType() == cardType);
+  }
+
+  /** Remove all cards from the inventory. */
+  public void invalidateAll() {
+    inventory.clear();
+  }
+
+  /**
+   * Process an event sent by the Konnektor.<br>
+   * Card events (topic {@value #CARD_TOPIC}) invalidate the cards of the card type given in the
+   * event, or all cards if the event contains no card type. Card terminal events (topic {@value
+   * #CARD_TERMINAL_TOPIC}) invalidate all cards. All other events are ignored.
+   *
+   * @param event the event sent by the Konnektor
+   */
+  public void onEvent(@NonNull Event event) {
+    var topic = Objects.requireNonNullElse(event.getTopic(), "");
+    log.debug("Received Konnektor event {}", topic);
+
+    if (topic.startsWith(CARD_TOPIC + "/")) {
+      cardTypeOf(event).ifPresentOrElse(this::invalidate, this::invalidateAll);
+    } else if (topic.startsWith(CARD_TERMINAL_TOPIC + "/")) {
+      invalidateAll();
+    }
+  }
+
+  // region private
+
+  private boolean isValid(InventoryEntry entry) {
+    return !entry.cards().isCompletedExceptionally()
+        && entry.created().plus(timeToLive).isAfter(clock.instant());
+  }
+
+  private void load(InventoryKey key, InventoryEntry loading, Supplier<GetCardsResponse> loader) {
+    try {
+      loading.cards().complete(loader.get());
+    } catch (RuntimeException | Error e) {
+      // a failed load is not cached
+      inventory.remove(key, loading);
+      loading.cards().completeExceptionally(e);
+    }
+  }
+
+  private static Optional<CardTypeType> cardTypeOf(Event event) {
+    return Optional.ofNullable(event.getMessage()).stream()
+        .flatMap(message -> message.getParameter().stream())
+        .filter(parameter -> CARD_TYPE_PARAMETER.equals(parameter.getKey()))
+        .map(Event.Message.Parameter::getValue)
+        .flatMap(
+            value -> Arrays.stream(CardTypeType.values()).filter(ct -> ct.value().equals(value)))
+        .findFirst();
+  }
+
+  private record InventoryKey(
+      String mandantId,
+      String clientSystemId,
+      String workplaceId,
+      String userId,
+      CardTypeType cardType) {
+
+    static InventoryKey of(ContextType context, CardTypeType cardType) {
+      return new InventoryKey(
+          context.getMandantId(),
+          context.getClientSystemId(),
+          context.getWorkplaceId(),
+          context.getUserId(),
+          cardType);
+    }
+  }
+
+  private record InventoryEntry(CompletableFuture<GetCardsResponse> cards, Instant created) {}
+
+  // endregion private
+}
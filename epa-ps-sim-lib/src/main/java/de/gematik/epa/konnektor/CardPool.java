@@ -0,0 +1,192 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Scheduler for the operations on the cards of the Konnektor.<br>
+ * Operations like signing, externalAuthenticate or reading a certificate are processed by a card
+ * one after the other anyway. The pool keeps a queue per card handle, in which the operations wait
+ * for their turn, so that the load can be spread over equivalent cards (e.g. several SMC-Bs of the
+ * same institution) by {@link #select(Collection)}, and the depth of the queues can be observed.
+ * <br>
+ * Operations, which are run on a card by an operation on the same card, do not queue again.
+ */
+@Accessors(fluent = true)
+public class CardPool {
+
+  public static final int DEFAULT_OPERATIONS_PER_CARD = 1;
+
+  public static final Duration DEFAULT_QUEUE_TIMEOUT = Duration.ofSeconds(60);
+
+  /** Number of operations, which are run on one card at the same time */
+  @Getter @Setter private int operationsPerCard = DEFAULT_OPERATIONS_PER_CARD;
+
+  /** Time an operation waits in the queue of a card, before it fails */
+  @Getter @Setter private Duration queueTimeout = DEFAULT_QUEUE_TIMEOUT;
+
+  private final Map<String, CardQueue> queues = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextSelection = new AtomicInteger();
+
+  private final LongAdder operations = new LongAdder();
+
+  private final ThreadLocal<Set<String>> cardsOfCurrentThread =
+      ThreadLocal.withInitial(HashSet::new);
+
+  /**
+   * Select the card with the shortest queue out of equivalent cards.<br>
+   * If several cards have the shortest queue, they are selected in turns.
+   *
+   * @param cardHandles handles of the equivalent cards
+   * @return the handle of the selected card
+   * @throws NoSuchElementException if no card handle is given
+   */
+  public String select(@NonNull Collection<String> cardHandles) {
+    if (cardHandles.isEmpty()) {
+      throw new NoSuchElementException("No card to select from");
+    }
+    if (cardHandles.size() == 1) {
+      return cardHandles.iterator().next();
+    }
+
+    var candidates = List.copyOf(cardHandles);
+    var offset = Math.floorMod(nextSelection.getAndIncrement(), candidates.size());
+    var rotated =
+        IntStream.range(0, candidates.size())
+            .mapToObj(i -> candidates.get((i + offset) % candidates.size()));
+
+    return rotated.min(Comparator.comparingInt(this::queueDepth)).orElseThrow();
+  }
+
+  /**
+   * Run an operation on a card, after the operations queued before it are done.
+   *
+   * @param cardHandle handle of the card
+   * @param operation the operation
+   * @return the result of the operation
+   * @param <T> type of the result
+   * @throws IllegalStateException if the operation could not get its turn within {@link
+   *     #queueTimeout}
+   */
+  public <T> T execute(@NonNull String cardHandle, @NonNull Supplier<T> operation) {
+    var cardsOfThread = cardsOfCurrentThread.get();
+    if (cardsOfThread.contains(cardHandle)) {
+      return operation.get();
+    }
+
+    var queue = queues.computeIfAbsent(cardHandle, handle -> new CardQueue(operationsPerCard));
+    queue.depth().incrementAndGet();
+    try {
+      acquire(cardHandle, queue);
+      cardsOfThread.add(cardHandle);
+      try {
+        operations.increment();
+        return operation.get();
+      } finally {
+        cardsOfThread.remove(cardHandle);
+        queue.permits().release();
+      }
+    } finally {
+      queue.depth().decrementAndGet();
+    }
+  }
+
+  /**
+   * Number of operations, which are running on or waiting for a card.
+   *
+   * @param cardHandle handle of the card
+   * @return the depth of the queue of the card
+   */
+  public int queueDepth(@NonNull String cardHandle) {
+    var queue = queues.get(cardHandle);
+    return queue == null ? 0 : queue.depth().get();
+  }
+
+  /**
+   * Depth of the queues of all cards, which were used so far.
+   *
+   * @return the depth of the queue per card handle
+   */
+  public Map<String, Integer> queueDepths() {
+    var depths = new TreeMap<String, Integer>();
+    queues.forEach((cardHandle, queue) -> depths.put(cardHandle, queue.depth().get()));
+    return depths;
+  }
+
+  /**
+   * Number of operations run by the pool so far.
+   *
+   * @return the number of operations
+   */
+  public long operations() {
+    return operations.sum();
+  }
+
+  // region private
+
+  private void acquire(String cardHandle, CardQueue queue) {
+    try {
+      if (!queue.permits().tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException(
+            String.format(
+                "Card %s is busy, the operation did not get its turn within %s",
+                cardHandle, queueTimeout));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the card " + cardHandle, e);
+    }
+  }
+
+  private record CardQueue(Semaphore permits, AtomicInteger depth) {
+
+    CardQueue(int operationsPerCard) {
+      this(new Semaphore(Math.max(1, operationsPerCard), true), new AtomicInteger());
+    }
+  }
+
+  // endregion private
+}
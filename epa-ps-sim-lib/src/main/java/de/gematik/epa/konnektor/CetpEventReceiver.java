@@ -0,0 +1,167 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import de.gematik.epa.utils.XmlUtils;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import javax.net.ServerSocketFactory;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+
+/**
+ * Receiver for events, which the Konnektor sends using the CETP protocol (Connector Event Transport
+ * Protocol).<br>
+ * Each CETP message consists of the ASCII header {@code CETP}, the length of the content as 4 byte
+ * big-endian integer and the {@link Event} as XML. Every received event is passed to the given
+ * event consumer, e.g. {@link CardInventory#onEvent(Event)}.<br>
+ * Connections are handled on virtual threads. For TLS secured connections a suitable {@link
+ * ServerSocketFactory} (e.g. {@link javax.net.ssl.SSLServerSocketFactory}) can be supplied.
+ */
+@Slf4j
+public class CetpEventReceiver implements AutoCloseable {
+
+  private static final byte[] CETP_HEADER = "CETP".getBytes(StandardCharsets.US_ASCII);
+
+  /** Maximum length of the content of a CETP message, larger messages close the connection */
+  static final int MAX_EVENT_LENGTH = 1024 * 1024;
+
+  private static final Duration ACCEPT_RETRY_DELAY = Duration.ofSeconds(1);
+
+  private final ServerSocket serverSocket;
+
+  private final Consumer<Event> eventConsumer;
+
+  public CetpEventReceiver(int port, @NonNull Consumer<Event> eventConsumer) throws IOException {
+    this(ServerSocketFactory.getDefault(), port, eventConsumer);
+  }
+
+  public CetpEventReceiver(
+      @NonNull ServerSocketFactory serverSocketFactory,
+      int port,
+      @NonNull Consumer<Event> eventConsumer)
+      throws IOException {
+    this.serverSocket = serverSocketFactory.createServerSocket(port);
+    this.eventConsumer = eventConsumer;
+  }
+
+  /**
+   * Start accepting connections from the Konnektor.
+   *
+   * @return Reference to the object itself, so the method can be used in chained method calls.
+   */
+  public CetpEventReceiver start() {
+    Thread.ofVirtual().name("cetp-receiver").start(this::acceptConnections);
+    log.info("Listening for Konnektor events on port {}", port());
+    return this;
+  }
+
+  /**
+   * @return the port the receiver is listening on
+   */
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+
+  // region private
+
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      try {
+        final var socket = serverSocket.accept();
+        Thread.ofVirtual().name("cetp-connection").start(() -> readEvents(socket));
+      } catch (IOException e) {
+        if (serverSocket.isClosed()) {
+          log.debug("CETP receiver socket closed");
+          return;
+        }
+        log.warn("Failed to accept CETP connection", e);
+        if (!backOff()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /** Wait before accepting again, so a failing server socket does not spin the thread. */
+  private static boolean backOff() {
+    try {
+      Thread.sleep(ACCEPT_RETRY_DELAY);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void readEvents(Socket socket) {
+    try (socket;
+        var input = new DataInputStream(socket.getInputStream())) {
+      while (!socket.isClosed()) {
+        readEvent(input);
+      }
+    } catch (EOFException e) {
+      log.debug("CETP connection closed by the Konnektor");
+    } catch (Exception e) {
+      log.warn("Failed to read CETP event", e);
+    }
+  }
+
+  private void readEvent(DataInputStream input) throws IOException {
+    final var header = input.readNBytes(CETP_HEADER.length);
+    if (header.length < CETP_HEADER.length) {
+      throw new EOFException();
+    }
+    if (!Arrays.equals(CETP_HEADER, header)) {
+      throw new IOException("Invalid CETP header " + Arrays.toString(header));
+    }
+
+    final var length = input.readInt();
+    if (length < 0 || length > MAX_EVENT_LENGTH) {
+      // the connection is not authenticated, so the length is not trusted
+      throw new IOException("Invalid CETP content length " + length);
+    }
+    final var content = input.readNBytes(length);
+    if (content.length < length) {
+      throw new EOFException();
+    }
+    eventConsumer.accept(XmlUtils.unmarshal(Event.class, content));
+  }
+
+  // endregion private
+}
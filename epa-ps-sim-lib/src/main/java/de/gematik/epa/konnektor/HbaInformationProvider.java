@@ -47,11 +47,12 @@ public class HbaInformationProvider extends InformationProvider<HbaInformation>
 
   @Override
   protected HbaInformation retrieveCardInformation(final CardInfoType cardInfo) {
+    final var autCertificate = getAutCertificate(cardInfo);
     return new HbaInformation(
-        getTelematikId(cardInfo),
+        getTelematikId(autCertificate),
         cardInfo.getIccsn(),
         cardInfo.getCardHolderName(),
         cardInfo.getCardHandle(),
-        getProfessionOids(cardInfo));
+        getProfessionOids(autCertificate));
   }
 }
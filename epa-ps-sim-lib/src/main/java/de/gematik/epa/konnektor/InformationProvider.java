@@ -27,20 +27,39 @@ package de.gematik.epa.konnektor;
 import de.gematik.epa.data.CardInformation;
 import de.gematik.epa.konnektor.client.CertificateServiceClient;
 import de.gematik.epa.konnektor.client.EventServiceClient;
-import java.util.HashMap;
+import de.gematik.epa.utils.CertificateUtils;
+import java.security.cert.X509Certificate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import telematik.ws.conn.cardservice.xsd.v8_1.CardInfoType;
+import telematik.ws.conn.certificateservice.xsd.v6_0.CryptType;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
 
+/**
+ * Provider of the information of the cards of one type, which are inserted in the Konnektor.<br>
+ * The information of a card is retrieved once and then cached by its ICCSN, until the card is no
+ * longer present in the Konnektor. Unknown cards are resolved in parallel on virtual threads and
+ * concurrent requests for the same card share a single resolution.
+ *
+ * @param <T> type of the card information
+ */
 @Slf4j
 @Accessors(fluent = true)
 abstract class InformationProvider<T extends CardInformation> {
 
-  private final Map<String, T> knownCards = new HashMap<>();
+  private final Map<String, CompletableFuture<T>> knownCards = new ConcurrentHashMap<>();
+
+  private final ExecutorService cardResolver = Executors.newVirtualThreadPerTaskExecutor();
 
   protected final EventServiceClient eventServiceClient;
 
@@ -57,28 +76,63 @@ abstract class InformationProvider<T extends CardInformation> {
 
   protected abstract GetCardsResponse getCardsResponse();
 
-  protected String getTelematikId(final CardInfoType cardInfo) {
+  protected X509Certificate getAutCertificate(final CardInfoType cardInfo) {
     final var start = System.currentTimeMillis();
-    final var telematikId = certificateServiceClient.getTelematikIdFromCard(cardInfo);
-    log.info("Time to get telematikId: {}", System.currentTimeMillis() - start);
-    return telematikId;
+    final var certificate = certificateServiceClient.getX509Certificate(cardInfo, CryptType.ECC);
+    log.info("Time to get AUT certificate: {}", System.currentTimeMillis() - start);
+    return certificate;
   }
 
-  protected List<String> getProfessionOids(final CardInfoType cardInfo) {
-    return certificateServiceClient.getProfessionOidsFromCard(cardInfo);
+  protected String getTelematikId(final X509Certificate autCertificate) {
+    return CertificateUtils.getTelematikIdFromCertificate(autCertificate);
+  }
+
+  protected List<String> getProfessionOids(final X509Certificate autCertificate) {
+    return CertificateUtils.getProfessionOidsFromCertificate(autCertificate);
   }
 
   protected abstract T retrieveCardInformation(final CardInfoType cardInfo);
 
   public List<T> getCardsInformations() {
     final var inserted = getCardsResponse().getCards().getCard();
-    final var unknownCards =
-        inserted.stream().filter(cardInfo -> !knownCards.containsKey(cardInfo.getIccsn())).toList();
+    evictRemovedCards(inserted);
 
-    unknownCards.stream()
-        .map(this::retrieveCardInformation)
-        .forEach(cardInfo -> knownCards.put(cardInfo.iccsn(), cardInfo));
+    // start the resolution of all unknown cards, before waiting for the first one
+    final var resolutions = inserted.stream().map(this::resolve).toList();
 
-    return inserted.stream().map(cardInfo -> knownCards.get(cardInfo.getIccsn())).toList();
+    return resolutions.stream().map(this::await).toList();
   }
+
+  // region private
+
+  private void evictRemovedCards(final List<CardInfoType> inserted) {
+    final Set<String> insertedIccsns =
+        inserted.stream().map(CardInfoType::getIccsn).collect(Collectors.toSet());
+    knownCards.keySet().retainAll(insertedIccsns);
+  }
+
+  private Map.Entry<String, CompletableFuture<T>> resolve(final CardInfoType cardInfo) {
+    return Map.entry(
+        cardInfo.getIccsn(),
+        knownCards.computeIfAbsent(
+            cardInfo.getIccsn(),
+            iccsn ->
+                CompletableFuture.supplyAsync(
+                    () -> retrieveCardInformation(cardInfo), cardResolver)));
+  }
+
+  private T await(final Map.Entry<String, CompletableFuture<T>> resolution) {
+    try {
+      return resolution.getValue().join();
+    } catch (CompletionException e) {
+      // failed resolutions are not cached, so they are retried with the next request
+      knownCards.remove(resolution.getKey(), resolution.getValue());
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  // endregion private
 }
@@ -0,0 +1,226 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import de.gematik.epa.api.testdriver.config.AddressConfig;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
+
+/**
+ * Pool of job numbers for the SignDocument operation of the Konnektor.<br>
+ * Every SignDocument request needs a job number, which has to be requested from the Konnektor with
+ * GetJobNumber beforehand. The pool keeps up to {@code size} job numbers per Konnektor and context,
+ * which are fetched in the background, so that a signature does not have to wait for the
+ * GetJobNumber round-trip. Job numbers older than {@code timeToLive} are not handed out anymore.
+ * <br>
+ * If the pool of a context is empty, the job number is fetched right away. The pool is refilled,
+ * once it is down to half of its size.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class JobNumberPool {
+
+  public static final int DEFAULT_SIZE = 4;
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+  /** Number of job numbers kept per context. 0 disables the prefetching */
+  @Getter @Setter private volatile int size = DEFAULT_SIZE;
+
+  /** Time a prefetched job number is handed out */
+  @Getter @Setter private volatile Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+  private final Map<PoolKey, Deque<PooledJobNumber>> pools = new ConcurrentHashMap<>();
+
+  private final Set<PoolKey> refilling = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final Clock clock;
+
+  private final Executor executor;
+
+  public JobNumberPool() {
+    this(
+        Clock.systemUTC(),
+        runnable -> Thread.ofVirtual().name("job-number-prefetch").start(runnable));
+  }
+
+  public JobNumberPool(@NonNull Clock clock, @NonNull Executor executor) {
+    this.clock = clock;
+    this.executor = executor;
+  }
+
+  /**
+   * Take a job number for the given Konnektor and context out of the pool.<br>
+   * If the pool holds no valid job number, one is fetched using the given loader. If the pool is
+   * down to half of its size afterward, it is refilled in the background.
+   *
+   * @param konnektor the address of the Konnektor, which signs
+   * @param context the Konnektor context of the signature
+   * @param loader fetches a new job number from the Konnektor (GetJobNumber)
+   * @return a job number, which was not handed out before
+   */
+  public String take(
+      @NonNull AddressConfig konnektor,
+      @NonNull ContextType context,
+      @NonNull Supplier<String> loader) {
+    var key = PoolKey.of(konnektor, context);
+    var jobNumber = poll(key);
+    if (jobNumber == null) {
+      misses.increment();
+      jobNumber = loader.get();
+      refill(key, loader);
+    } else {
+      hits.increment();
+      if (available(key) <= size / 2) {
+        refill(key, loader);
+      }
+    }
+    return jobNumber;
+  }
+
+  /**
+   * Number of job numbers currently held for the given Konnektor and context.
+   *
+   * @param konnektor the address of the Konnektor
+   * @param context the Konnektor context
+   * @return the number of pooled job numbers
+   */
+  public int available(@NonNull AddressConfig konnektor, @NonNull ContextType context) {
+    return available(PoolKey.of(konnektor, context));
+  }
+
+  /** Number of job numbers, which were taken out of the pool */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /** Number of job numbers, which had to be fetched, because the pool was empty */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Drop all job numbers.<br>
+   * Must be called, whenever the Konnektor configuration changes, as the job numbers belong to the
+   * Konnektor they were fetched from. Refills running at that time are discarded.
+   */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    pools.clear();
+  }
+
+  // region private
+
+  private int available(PoolKey key) {
+    var pool = pools.get(key);
+    return pool == null ? 0 : pool.size();
+  }
+
+  private String poll(PoolKey key) {
+    var pool = pools.get(key);
+    if (pool == null) {
+      return null;
+    }
+    var oldestValid = clock.instant().minus(timeToLive);
+    PooledJobNumber pooled;
+    while ((pooled = pool.pollFirst()) != null) {
+      if (pooled.fetched().isAfter(oldestValid)) {
+        return pooled.jobNumber();
+      }
+    }
+    return null;
+  }
+
+  private void refill(PoolKey key, Supplier<String> loader) {
+    if (size <= 0 || !refilling.add(key)) {
+      return;
+    }
+    var refillGeneration = generation.get();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              var pool = pools.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+              while (pool.size() < size && generation.get() == refillGeneration) {
+                var jobNumber = new PooledJobNumber(loader.get(), clock.instant());
+                if (generation.get() == refillGeneration) {
+                  pool.addLast(jobNumber);
+                }
+              }
+            } catch (RuntimeException e) {
+              log.debug("Prefetching job numbers failed, they are fetched on demand", e);
+            } finally {
+              refilling.remove(key);
+            }
+          });
+    } catch (RuntimeException e) {
+      refilling.remove(key);
+      log.debug("Prefetching job numbers could not be started", e);
+    }
+  }
+
+  private record PoolKey(
+      AddressConfig konnektor,
+      String mandantId,
+      String clientSystemId,
+      String workplaceId,
+      String userId) {
+
+    static PoolKey of(AddressConfig konnektor, ContextType context) {
+      return new PoolKey(
+          konnektor,
+          context.getMandantId(),
+          context.getClientSystemId(),
+          context.getWorkplaceId(),
+          context.getUserId());
+    }
+  }
+
+  private record PooledJobNumber(String jobNumber, Instant fetched) {}
+
+  // endregion private
+}
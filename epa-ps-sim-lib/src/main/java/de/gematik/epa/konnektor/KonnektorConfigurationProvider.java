@@ -24,11 +24,17 @@
  */
 package de.gematik.epa.konnektor;
 
+import de.gematik.epa.api.testdriver.config.AddressConfig;
+import de.gematik.epa.api.testdriver.config.BasicAuthenticationConfig;
+import de.gematik.epa.api.testdriver.config.Context;
 import de.gematik.epa.api.testdriver.config.KonnektorConfiguration;
 import de.gematik.epa.api.testdriver.config.KonnektorConnectionConfiguration;
 import de.gematik.epa.api.testdriver.config.KonnektorConnectionConfigurationDTO;
+import de.gematik.epa.api.testdriver.config.ProxyAddressConfig;
+import de.gematik.epa.api.testdriver.config.TlsConfig;
 import de.gematik.epa.api.testdriver.dto.request.KonnektorConfigurationRequestDTO;
 import de.gematik.epa.konnektor.config.KonnektorConfigurationMutable;
+import de.gematik.epa.konnektor.config.KonnektorConnectionConfigurationMutable;
 import de.gematik.epa.utils.internal.Synchronizer;
 import java.util.Optional;
 import lombok.Getter;
@@ -55,31 +61,157 @@ public class KonnektorConfigurationProvider {
 
   public KonnektorConfiguration updateKonnektorConfigurations(
       @NonNull KonnektorConfigurationRequestDTO newKonnektorConfiguration) {
-    if (newKonnektorConfiguration.asUpdate() == Boolean.TRUE) {
-      mergeKonnektorConfigurations(newKonnektorConfiguration);
-    } else {
-      this.konnektorConfiguration.replace(newKonnektorConfiguration);
-    }
+    apply(this.konnektorConfiguration, newKonnektorConfiguration);
 
     return this.konnektorConfiguration;
   }
 
-  private void mergeKonnektorConfigurations(
-      KonnektorConfigurationRequestDTO newKonnektorConfiguration) {
-    Optional.ofNullable(newKonnektorConfiguration.connection())
-        .ifPresent(this::updateKonnektorConnectionKonfiguration);
-    Optional.ofNullable(newKonnektorConfiguration.context())
-        .ifPresent(this.konnektorConfiguration::context);
+  /**
+   * Determine the connection configuration, which results from the given configuration request,
+   * without changing the current configuration.<br>
+   * The request is applied to a copy of the current configuration, following the same rules as
+   * {@link #updateKonnektorConfigurations(KonnektorConfigurationRequestDTO)}. This allows to
+   * prepare the connection to a new Konnektor, before the new configuration is applied.
+   *
+   * @param newKonnektorConfiguration the configuration request
+   * @return the connection configuration after the request would be applied
+   */
+  public KonnektorConnectionConfiguration connectionAfterUpdate(
+      @NonNull KonnektorConfigurationRequestDTO newKonnektorConfiguration) {
+    final var copy = new KonnektorConfigurationCopy(this.konnektorConfiguration);
+    apply(copy, newKonnektorConfiguration);
+
+    return copy.connection();
   }
 
   public KonnektorConnectionConfiguration updateKonnektorConnectionKonfiguration(
       @NonNull KonnektorConnectionConfigurationDTO newConnectionConfiguration) {
+    updateConnection(this.konnektorConfiguration, newConnectionConfiguration);
+
+    return this.konnektorConfiguration.connection();
+  }
+
+  // region private
+
+  private static void apply(
+      KonnektorConfigurationMutable configuration,
+      KonnektorConfigurationRequestDTO newKonnektorConfiguration) {
+    if (newKonnektorConfiguration.asUpdate() == Boolean.TRUE) {
+      Optional.ofNullable(newKonnektorConfiguration.connection())
+          .ifPresent(connection -> updateConnection(configuration, connection));
+      Optional.ofNullable(newKonnektorConfiguration.context()).ifPresent(configuration::context);
+    } else {
+      configuration.replace(newKonnektorConfiguration);
+    }
+  }
+
+  private static void updateConnection(
+      KonnektorConfigurationMutable configuration,
+      KonnektorConnectionConfigurationDTO newConnectionConfiguration) {
     if (newConnectionConfiguration.asUpdate() == Boolean.TRUE) {
-      this.konnektorConfiguration.connection().update(newConnectionConfiguration);
+      configuration.connection().update(newConnectionConfiguration);
     } else {
-      this.konnektorConfiguration.connection().replace(newConnectionConfiguration);
+      configuration.connection().replace(newConnectionConfiguration);
     }
+  }
 
-    return this.konnektorConfiguration.connection();
+  /** Detached copy of a configuration, to which a request can be applied on trial */
+  private static final class KonnektorConfigurationCopy implements KonnektorConfigurationMutable {
+
+    private final KonnektorConnectionConfigurationCopy connection;
+
+    private Context context;
+
+    KonnektorConfigurationCopy(KonnektorConfiguration configuration) {
+      this.connection = new KonnektorConnectionConfigurationCopy(configuration.connection());
+      this.context = configuration.context();
+    }
+
+    @Override
+    public KonnektorConnectionConfigurationMutable connection() {
+      return connection;
+    }
+
+    @Override
+    public KonnektorConfigurationMutable connection(
+        KonnektorConnectionConfigurationMutable konnektorConnectionConfiguration) {
+      connection.replace(konnektorConnectionConfiguration);
+      return this;
+    }
+
+    @Override
+    public Context context() {
+      return context;
+    }
+
+    @Override
+    public KonnektorConfigurationMutable context(Context context) {
+      this.context = context;
+      return this;
+    }
+  }
+
+  private static final class KonnektorConnectionConfigurationCopy
+      implements KonnektorConnectionConfigurationMutable {
+
+    private AddressConfig address;
+
+    private TlsConfig tlsConfig;
+
+    private ProxyAddressConfig proxyAddress;
+
+    private BasicAuthenticationConfig basicAuthentication;
+
+    KonnektorConnectionConfigurationCopy(KonnektorConnectionConfiguration connection) {
+      replace(connection);
+    }
+
+    @Override
+    public AddressConfig address() {
+      return address;
+    }
+
+    @Override
+    public TlsConfig tlsConfig() {
+      return tlsConfig;
+    }
+
+    @Override
+    public ProxyAddressConfig proxyAddress() {
+      return proxyAddress;
+    }
+
+    @Override
+    public BasicAuthenticationConfig basicAuthentication() {
+      return basicAuthentication;
+    }
+
+    @Override
+    public KonnektorConnectionConfigurationMutable address(AddressConfig addressConfig) {
+      this.address = addressConfig;
+      return this;
+    }
+
+    @Override
+    public KonnektorConnectionConfigurationMutable tlsConfig(TlsConfig tlsConfig) {
+      this.tlsConfig = tlsConfig;
+      return this;
+    }
+
+    @Override
+    public KonnektorConnectionConfigurationMutable proxyAddress(
+        ProxyAddressConfig proxyAddressConfig) {
+      this.proxyAddress = proxyAddressConfig;
+      return this;
+    }
+
+    @Override
+    public KonnektorConnectionConfigurationMutable basicAuthentication(
+        BasicAuthenticationConfig basicAuthenticationConfig) {
+      this.basicAuthentication = basicAuthenticationConfig;
+      return this;
+    }
   }
+
+  // endregion private
 }
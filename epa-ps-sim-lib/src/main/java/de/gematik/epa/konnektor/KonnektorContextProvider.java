@@ -25,12 +25,16 @@
 package de.gematik.epa.konnektor;
 
 import de.gematik.epa.api.testdriver.config.Context;
+import de.gematik.epa.konnektor.client.KonnektorClientRegistry;
+import de.gematik.epa.konnektor.client.SignatureTimings;
 import java.util.MissingResourceException;
 import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
 
@@ -41,7 +45,10 @@ import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
  * A using application must supply a {@link KonnektorConfigurationProvider}.<br>
  * ContextType is created and cached in a ThreadLocal field, thus being multi threading capable. For
  * the creation of the {@link ContextType} the KVNR must be supplied, which should be included in
- * the clients request.
+ * the clients request.<br>
+ * The provider also holds the {@link CardInventory}, the {@link CardPool}, the {@link
+ * JobNumberPool}, the {@link SignatureTimings} and the {@link KonnektorClientRegistry}, which are
+ * shared by all clients using the same Konnektor.
  */
 @RequiredArgsConstructor
 @Accessors(fluent = true)
@@ -55,6 +62,19 @@ public class KonnektorContextProvider {
   @Getter(AccessLevel.PROTECTED)
   private final ThreadLocal<ContextType> contextType = new ThreadLocal<>();
 
+  private final CardInventory cardInventory = new CardInventory();
+
+  @EqualsAndHashCode.Exclude @ToString.Exclude private final CardPool cardPool = new CardPool();
+
+  @EqualsAndHashCode.Exclude @ToString.Exclude
+  private final JobNumberPool jobNumberPool = new JobNumberPool();
+
+  @EqualsAndHashCode.Exclude @ToString.Exclude
+  private final SignatureTimings signatureTimings = new SignatureTimings();
+
+  @EqualsAndHashCode.Exclude @ToString.Exclude
+  private final KonnektorClientRegistry clientRegistry = new KonnektorClientRegistry(this);
+
   public ContextType createContextType() {
     contextType.set(
         new ContextType()
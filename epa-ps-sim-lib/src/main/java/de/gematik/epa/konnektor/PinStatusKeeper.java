@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import de.gematik.epa.konnektor.client.CardServiceClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+
+/**
+ * Background service, which keeps the PINs of the cards of the Konnektor verified.<br>
+ * The PIN status of each card of the configured card types is polled periodically. Cards, whose PIN
+ * is {@link PinStatusEnum#VERIFIABLE} again, e.g. after a reset of the card, are verified right
+ * away. That way an operation, which needs the card, does not have to wait for the verification or
+ * fail.<br>
+ * The last known state of each card is available through {@link #states()}, e.g. for metrics and
+ * health checks.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class PinStatusKeeper implements AutoCloseable {
+
+  public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(60);
+
+  private final KonnektorContextProvider konnektorContextProvider;
+
+  /** The card types, whose PINs are kept verified, with the type of PIN to verify for each */
+  @Getter private final Map<CardTypeType, String> pinTypes;
+
+  @Getter private final Duration interval;
+
+  private final Map<String, CardPinState> states = new ConcurrentHashMap<>();
+
+  private final LongAdder verifications = new LongAdder();
+
+  private final LongAdder failedVerifications = new LongAdder();
+
+  private volatile Instant lastPoll;
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+
+  public PinStatusKeeper(
+      @NonNull KonnektorContextProvider konnektorContextProvider,
+      @NonNull Map<CardTypeType, String> pinTypes,
+      @NonNull Duration interval) {
+    this.konnektorContextProvider = konnektorContextProvider;
+    this.pinTypes = Collections.unmodifiableMap(new LinkedHashMap<>(pinTypes));
+    this.interval = interval;
+  }
+
+  /**
+   * Start polling the PIN status periodically. The first poll is done right away.
+   *
+   * @return Reference to the object itself, so the method can be used in chained method calls.
+   */
+  public PinStatusKeeper start() {
+    scheduler.scheduleWithFixedDelay(
+        this::poll, 0, Math.max(interval.toMillis(), 1), TimeUnit.MILLISECONDS);
+    return this;
+  }
+
+  /**
+   * Poll the PIN status of all cards once and verify the PINs, which are verifiable.<br>
+   * Failures are recorded in the state of the affected cards and never thrown.
+   */
+  public void poll() {
+    var seen = new HashSet<String>();
+    var clientRegistry = konnektorContextProvider.clientRegistry();
+
+    pinTypes.forEach(
+        (cardType, pinType) -> {
+          List<String> cardHandles;
+          try {
+            cardHandles = clientRegistry.eventService().getCardHandles(cardType);
+          } catch (Exception e) {
+            log.warn(
+                "Card handles of type {} could not be retrieved: {}", cardType, e.getMessage());
+            // Keep the last known state of these cards, as it cannot be determined now
+            states.values().stream()
+                .filter(state -> state.cardType() == cardType)
+                .forEach(state -> seen.add(state.cardHandle()));
+            return;
+          }
+
+          for (var cardHandle : cardHandles) {
+            seen.add(cardHandle);
+            states.put(
+                cardHandle, check(clientRegistry.cardService(), cardType, pinType, cardHandle));
+          }
+        });
+
+    states.keySet().retainAll(seen);
+    lastPoll = Instant.now();
+  }
+
+  /**
+   * The last known PIN state of each card.
+   *
+   * @return the states ordered by card handle
+   */
+  public List<CardPinState> states() {
+    return states.values().stream().sorted(Comparator.comparing(CardPinState::cardHandle)).toList();
+  }
+
+  public Optional<Instant> lastPoll() {
+    return Optional.ofNullable(lastPoll);
+  }
+
+  /**
+   * Number of PIN verifications done by this keeper.
+   *
+   * @return the number of verifications, successful or not
+   */
+  public long verifications() {
+    return verifications.sum();
+  }
+
+  /**
+   * Number of PIN verifications done by this keeper, which failed.
+   *
+   * @return the number of failed verifications
+   */
+  public long failedVerifications() {
+    return failedVerifications.sum();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  // region private
+
+  private CardPinState check(
+      CardServiceClient cardService, CardTypeType cardType, String pinType, String cardHandle) {
+    PinStatusEnum pinStatus;
+    try {
+      pinStatus = cardService.getPinStatusResponse(cardHandle, pinType).getPinStatus();
+    } catch (Exception e) {
+      log.warn("PIN status of card {} could not be retrieved: {}", cardHandle, e.getMessage());
+      return new CardPinState(cardHandle, cardType, null, Instant.now(), e.getMessage());
+    }
+
+    if (pinStatus != PinStatusEnum.VERIFIABLE) {
+      return new CardPinState(cardHandle, cardType, pinStatus, Instant.now(), null);
+    }
+
+    log.info("PIN of card {} is {} and is verified again", cardHandle, pinStatus);
+    verifications.increment();
+    try {
+      cardService.verifyCardPin(cardHandle, pinType);
+      return new CardPinState(cardHandle, cardType, PinStatusEnum.VERIFIED, Instant.now(), null);
+    } catch (Exception e) {
+      failedVerifications.increment();
+      return new CardPinState(cardHandle, cardType, pinStatus, Instant.now(), e.getMessage());
+    }
+  }
+
+  // endregion private
+
+  /**
+   * Last known PIN state of a card.
+   *
+   * @param cardHandle handle of the card
+   * @param cardType type of the card
+   * @param pinStatus PIN status of the card, or null if it could not be determined
+   * @param checkedAt time of the last check
+   * @param error reason, why the PIN status could not be determined or the PIN could not be
+   *     verified, or null
+   */
+  public record CardPinState(
+      String cardHandle,
+      CardTypeType cardType,
+      PinStatusEnum pinStatus,
+      Instant checkedAt,
+      String error) {
+
+    /**
+     * Whether the card can be used for operations, which require a verified PIN.
+     *
+     * @return true, if the PIN is verified or the PIN protection is switched off
+     */
+    public boolean isReady() {
+      return pinStatus == PinStatusEnum.VERIFIED || pinStatus == PinStatusEnum.DISABLED;
+    }
+  }
+}
@@ -58,12 +58,13 @@ public class SmbInformationProvider extends InformationProvider<SmbInformation>
 
   @Override
   protected SmbInformation retrieveCardInformation(final CardInfoType cardInfo) {
+    final var autCertificate = getAutCertificate(cardInfo);
     return new SmbInformation(
-        getTelematikId(cardInfo),
+        getTelematikId(autCertificate),
         cardInfo.getIccsn(),
         cardInfo.getCardHolderName(),
         cardInfo.getCardHandle(),
-        getProfessionOids(cardInfo));
+        getProfessionOids(autCertificate));
   }
 
   /**
@@ -78,6 +79,18 @@ public class SmbInformationProvider extends InformationProvider<SmbInformation>
         .findFirst();
   }
 
+  /**
+   * the Info for all cards having the specific telematikId, e.g. several SMC-Bs of one institution
+   *
+   * @param telematikId - telematikId of the cards
+   * @return List of SmbInformation, empty if there is no such card
+   */
+  public List<SmbInformation> getSmbInformationsForTelematikId(final String telematikId) {
+    return getCardsInformations().stream()
+        .filter(card -> card.telematikId().equals(telematikId))
+        .toList();
+  }
+
   public List<AuthorInstitution> getAuthorInstitutions() {
     return getCardsInformations().stream()
         .map(SmbInformationProvider::smbInformationToAuthorInstitution)
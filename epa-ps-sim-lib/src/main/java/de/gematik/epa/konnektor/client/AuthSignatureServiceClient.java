@@ -43,8 +43,8 @@ public class AuthSignatureServiceClient extends KonnektorServiceClient {
 
   public static final String SIGNATURE_TYPE_ECDSA = "urn:bsi:tr:03111:ecdsa";
 
-  private ContextType contextType;
-  private AuthSignatureServicePortType authSignatureService;
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  private volatile State state;
 
   public AuthSignatureServiceClient(
       KonnektorContextProvider konnektorContextProvider,
@@ -55,15 +55,17 @@ public class AuthSignatureServiceClient extends KonnektorServiceClient {
 
   @Override
   protected void initialize() {
-    contextType = konnektorContextProvider.getContext();
-    authSignatureService = konnektorInterfaceAssembly.authSignatureService();
+    state =
+        new State(
+            konnektorContextProvider.getContext(),
+            konnektorInterfaceAssembly.authSignatureService());
   }
 
   public Optional<ExternalAuthenticateResponse> externalAuthenticate(
       final String cardHandle, final byte[] dataToSign) {
     ExternalAuthenticate externalAuthenticate = new ExternalAuthenticate();
     externalAuthenticate
-        .withContext(contextType)
+        .withContext(state.contextType())
         .withCardHandle(cardHandle)
         .withOptionalInputs(
             new ExternalAuthenticate.OptionalInputs().withSignatureType(SIGNATURE_TYPE_ECDSA));
@@ -75,7 +77,9 @@ public class AuthSignatureServiceClient extends KonnektorServiceClient {
                     .withValue(DigestUtils.sha256(dataToSign))));
 
     ExternalAuthenticateResponse externalAuthenticateResponse =
-        authSignatureService.externalAuthenticate(externalAuthenticate);
+        runOnCard(
+            cardHandle,
+            () -> state.authSignatureService().externalAuthenticate(externalAuthenticate));
     if (externalAuthenticateResponse.getStatus().getError() != null
         || !externalAuthenticateResponse.getStatus().getResult().equals("OK")
         || externalAuthenticateResponse.getSignatureObject().getBase64Signature() == null
@@ -91,4 +95,11 @@ public class AuthSignatureServiceClient extends KonnektorServiceClient {
     }
     return Optional.of(externalAuthenticateResponse);
   }
+
+  // region private
+
+  private record State(
+      ContextType contextType, AuthSignatureServicePortType authSignatureService) {}
+
+  // endregion private
 }
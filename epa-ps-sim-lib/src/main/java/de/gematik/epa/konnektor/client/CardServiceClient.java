@@ -27,8 +27,21 @@ package de.gematik.epa.konnektor.client;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.KonnektorUtils;
+import de.gematik.epa.konnektor.client.PinVerificationResult.Outcome;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import telematik.ws.conn.cardservice.wsdl.v8_1.CardServicePortType;
@@ -45,15 +58,27 @@ import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
 @Accessors(fluent = true)
 @Slf4j
 public class CardServiceClient extends KonnektorServiceClient {
-  private CardServicePortType cardService;
-  private ContextType contextType;
-  private EventServiceClient eventServiceClient;
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  private volatile State state;
 
   public static final String PIN_SMC = "PIN.SMC";
+  public static final String PIN_CH = "PIN.CH";
   private static final String PIN_VERIFICATION_MESSAGE =
       "Please verify PIN manually via Konnektor management interface.";
   private static final String PIN_STATUS = "PIN status is ";
 
+  /** Default number of cards, whose PIN is verified at the same time */
+  public static final int DEFAULT_PIN_VERIFICATION_PARALLELISM = 8;
+
+  /** Default time the verification of the PIN of one card may take */
+  public static final Duration DEFAULT_PIN_VERIFICATION_TIMEOUT = Duration.ofSeconds(60);
+
+  /** Number of cards, whose PIN is verified at the same time by {@link #verifyAllPins} */
+  @Getter @Setter private int pinVerificationParallelism = DEFAULT_PIN_VERIFICATION_PARALLELISM;
+
+  /** Time the verification of the PIN of one card may take in {@link #verifyAllPins} */
+  @Getter @Setter private Duration pinVerificationTimeout = DEFAULT_PIN_VERIFICATION_TIMEOUT;
+
   public CardServiceClient(
       KonnektorContextProvider konnektorContextProvider,
       KonnektorInterfaceAssembly konnektorInterfaceAssembly) {
@@ -63,10 +88,11 @@ public class CardServiceClient extends KonnektorServiceClient {
 
   @Override
   protected void initialize() {
-    contextType = konnektorContextProvider.getContext();
-    cardService = konnektorInterfaceAssembly.cardService();
-    eventServiceClient =
-        new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly);
+    state =
+        new State(
+            konnektorContextProvider.getContext(),
+            konnektorInterfaceAssembly.cardService(),
+            new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly));
   }
 
   public GetPinStatusResponse getPinStatusResponse(String cardHandle, String pinType) {
@@ -79,16 +105,16 @@ public class CardServiceClient extends KonnektorServiceClient {
 
   // region private
   private GetPinStatusResponse getPinStatus(@NonNull GetPinStatus request) {
-    return cardService.getPinStatus(request);
+    return state.cardService().getPinStatus(request);
   }
 
   private PinResponseType getPinResult(@NonNull VerifyPin request) {
-    return cardService.verifyPin(request);
+    return state.cardService().verifyPin(request);
   }
 
   private GetPinStatus buildGetPinStatus(String cardHandle, String pinType) {
     GetPinStatus getPinStatusRequest = new ObjectFactory().createGetPinStatus();
-    getPinStatusRequest.setContext(contextType);
+    getPinStatusRequest.setContext(state.contextType());
     getPinStatusRequest.setCardHandle(cardHandle);
     getPinStatusRequest.setPinTyp(pinType);
     return getPinStatusRequest;
@@ -96,7 +122,7 @@ public class CardServiceClient extends KonnektorServiceClient {
 
   private VerifyPin buildVerifyPin(String cardHandle, String pinType) {
     VerifyPin verifyPinRequest = new ObjectFactory().createVerifyPin();
-    verifyPinRequest.setContext(contextType);
+    verifyPinRequest.setContext(state.contextType());
     verifyPinRequest.setCardHandle(cardHandle);
     verifyPinRequest.setPinTyp(pinType);
     return verifyPinRequest;
@@ -141,13 +167,69 @@ public class CardServiceClient extends KonnektorServiceClient {
     throw new IllegalStateException(String.format(logMessage, pinResult, status));
   }
 
+  private PinVerificationResult verifyPinWithPermit(
+      ExecutorService executor, Semaphore permits, String pinType, String cardHandle)
+      throws InterruptedException {
+    permits.acquire();
+    var start = Instant.now();
+    try {
+      log.debug("Verifying PIN for card handle: {}", cardHandle);
+      var verification = executor.submit(() -> doPinVerification(pinType, cardHandle));
+      try {
+        verification.get(pinVerificationTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        log.debug("PIN verification completed for card handle: {}", cardHandle);
+        return new PinVerificationResult(
+            cardHandle, Outcome.VERIFIED, null, Duration.between(start, Instant.now()));
+      } catch (TimeoutException e) {
+        // not interrupted, as an interrupt would break the CXF call and its connection
+        verification.cancel(false);
+        log.warn(
+            "PIN verification for card handle {} did not complete within {}",
+            cardHandle,
+            pinVerificationTimeout);
+        return new PinVerificationResult(
+            cardHandle,
+            Outcome.TIMED_OUT,
+            "no result within " + pinVerificationTimeout,
+            Duration.between(start, Instant.now()));
+      } catch (ExecutionException e) {
+        return new PinVerificationResult(
+            cardHandle,
+            Outcome.FAILED,
+            e.getCause().getMessage(),
+            Duration.between(start, Instant.now()));
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  private PinVerificationResult resultOf(Future<PinVerificationResult> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("PIN verification was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("PIN verification failed unexpectedly", e.getCause());
+    }
+  }
+
+  private record State(
+      ContextType contextType,
+      CardServicePortType cardService,
+      EventServiceClient eventServiceClient) {}
+
   // endregion private
 
   /**
-   * Verifies PIN for all cards of the specified type.
+   * Verifies PIN for all cards of the specified type.<br>
+   * All cards are tried, before an exception is thrown for the cards, whose PIN could not be
+   * verified.
    *
    * @param cardTypeType the type of card
    * @param pinType the type of PIN
+   * @throws IllegalStateException if the PIN of any card could not be verified
    */
   public void verifyPins(CardTypeType cardTypeType, String pinType) {
     verifyPin(cardTypeType, pinType, true);
@@ -173,20 +255,47 @@ public class CardServiceClient extends KonnektorServiceClient {
    */
   protected void verifyPin(CardTypeType cardTypeType, String pinType, boolean verifyAll) {
     if (verifyAll) {
-      eventServiceClient
-          .getCardHandles(cardTypeType)
-          .forEach(
-              cardHandle -> {
-                log.debug("Verifying PIN for card handle: {}", cardHandle);
-                doPinVerification(pinType, cardHandle);
-                log.debug("PIN verification completed for card handle: {}", cardHandle);
-              });
+      var summary = verifyAllPins(cardTypeType, pinType);
+      if (!summary.allVerified()) {
+        throw new IllegalStateException(summary.toString());
+      }
     } else {
-      String cardHandle = eventServiceClient.getCardHandle(cardTypeType);
+      String cardHandle = state.eventServiceClient().getCardHandle(cardTypeType);
       doPinVerification(pinType, cardHandle);
     }
   }
 
+  /**
+   * Verifies PIN for all cards of the specified type, without stopping at the first failure.<br>
+   * The cards are verified concurrently, at most {@link #pinVerificationParallelism} at a time. The
+   * verification of a card, which takes longer than {@link #pinVerificationTimeout}, is reported as
+   * {@link Outcome#TIMED_OUT}. Its call to the Konnektor is left to complete in the background and
+   * its late result is ignored.
+   *
+   * @param cardTypeType the type of card
+   * @param pinType the type of PIN
+   * @return the result of the verification for each card
+   */
+  public PinVerificationSummary verifyAllPins(CardTypeType cardTypeType, String pinType) {
+    var cardHandles = state.eventServiceClient().getCardHandles(cardTypeType);
+    var permits = new Semaphore(Math.max(1, pinVerificationParallelism));
+    // Not closed with try-with-resources, because close() would wait for timed out verifications
+    var executor = Executors.newVirtualThreadPerTaskExecutor();
+    try {
+      List<Future<PinVerificationResult>> results =
+          cardHandles.stream()
+              .map(
+                  cardHandle ->
+                      executor.submit(
+                          () -> verifyPinWithPermit(executor, permits, pinType, cardHandle)))
+              .toList();
+
+      return new PinVerificationSummary(results.stream().map(this::resultOf).toList());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   private void doPinVerification(String pinType, String cardHandle) {
     GetPinStatusResponse getResponse = getPinStatusResponse(cardHandle, pinType);
     PinStatusEnum pinStatus = getResponse.getPinStatus();
@@ -235,11 +344,28 @@ public class CardServiceClient extends KonnektorServiceClient {
     }
   }
 
+  /**
+   * Verifies the PIN of a single card, without checking its PIN status before.<br>
+   * Use this, if the PIN status is already known to be {@link PinStatusEnum#VERIFIABLE}.
+   *
+   * @param cardHandle handle of the card
+   * @param pinType the type of PIN
+   * @throws IllegalStateException if the PIN could not be verified
+   */
+  public void verifyCardPin(@NonNull String cardHandle, @NonNull String pinType) {
+    runVerifyPin(cardHandle, pinType);
+  }
+
   public void verifySmb() {
     verifyPin(CardTypeType.SM_B, PIN_SMC);
   }
 
-  public void verifySmbs() {
-    verifyPins(CardTypeType.SM_B, PIN_SMC);
+  /**
+   * Verifies the PIN.SMC of all SMC-Bs concurrently.
+   *
+   * @return the result of the verification for each SMC-B
+   */
+  public PinVerificationSummary verifySmbs() {
+    return verifyAllPins(CardTypeType.SM_B, PIN_SMC);
   }
 }
@@ -67,9 +67,8 @@ public class CertificateServiceClient extends KonnektorServiceClient {
   public static final String OID_INSTITUTION_ARBEITSMEDIZIN = "1.2.276.0.76.4.256";
   public static final String OID_INSTITUTION_VORSORGE_REHA = "1.2.276.0.76.4.257";
 
-  private CertificateServicePortType certificateService;
-
-  private ContextType context;
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  private volatile State state;
 
   public CertificateServiceClient(
       KonnektorContextProvider konnektorContextProvider,
@@ -79,7 +78,7 @@ public class CertificateServiceClient extends KonnektorServiceClient {
   }
 
   public ReadCardCertificateResponse readCardCertificate(@NonNull ReadCardCertificate request) {
-    return certificateService.readCardCertificate(request);
+    return state.certificateService().readCardCertificate(request);
   }
 
   @SneakyThrows
@@ -124,8 +123,9 @@ public class CertificateServiceClient extends KonnektorServiceClient {
 
   @Override
   protected void initialize() {
-    context = konnektorContextProvider.getContext();
-    certificateService = konnektorInterfaceAssembly.certificateService();
+    state =
+        new State(
+            konnektorContextProvider.getContext(), konnektorInterfaceAssembly.certificateService());
   }
 
   private ReadCardCertificate buildReadCardCertificateRequest(
@@ -135,8 +135,14 @@ public class CertificateServiceClient extends KonnektorServiceClient {
     final var readCardCertificateRequest = new ObjectFactory().createReadCardCertificate();
     readCardCertificateRequest.setCardHandle(cardInfo.getCardHandle());
     readCardCertificateRequest.setCertRefList(certRefList);
-    readCardCertificateRequest.setContext(context);
+    readCardCertificateRequest.setContext(state.context());
     readCardCertificateRequest.setCrypt(cryptType);
     return readCardCertificateRequest;
   }
+
+  // region private
+
+  private record State(ContextType context, CertificateServicePortType certificateService) {}
+
+  // endregion private
 }
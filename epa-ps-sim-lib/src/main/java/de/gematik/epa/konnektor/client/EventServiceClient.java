@@ -24,12 +24,14 @@
  */
 package de.gematik.epa.konnektor.client;
 
+import de.gematik.epa.konnektor.CardInventory;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.KonnektorUtils;
 import de.gematik.epa.utils.CardLogger;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
@@ -40,14 +42,22 @@ import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCards;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
 import telematik.ws.conn.eventservice.xsd.v6_1.ObjectFactory;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptions;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptionsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Subscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscriptionType;
+import telematik.ws.conn.eventservice.xsd.v6_1.Unsubscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.UnsubscribeResponse;
 
 @Accessors(fluent = true)
 @Slf4j
 public class EventServiceClient extends KonnektorServiceClient {
 
   private final CardLogger cardLogger = new CardLogger();
-  private EventServicePortType eventService;
-  private ContextType context;
+
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  private volatile State state;
 
   public EventServiceClient(
       final KonnektorContextProvider konnektorContextProvider,
@@ -68,15 +78,21 @@ public class EventServiceClient extends KonnektorServiceClient {
     return getCardsInfo(CardTypeType.EGK);
   }
 
+  /**
+   * Retrieves the information of the eGK with the given KVNR.<br>
+   * If the eGK is not found in the card inventory, the inventory is refreshed once, as the eGK may
+   * have been inserted just now.
+   *
+   * @param kvnr the KVNR of the insurant
+   * @return the card information of the eGK or null, if no eGK with this KVNR is present
+   */
   public CardInfoType getEgkInfoToKvnr(@NonNull final String kvnr) {
-    final var response = getEgkInfo();
-
-    KonnektorUtils.logWarningIfPresent(
-        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("getCards"));
-
-    return response.getCards().getCard().stream()
-        .filter(ci -> kvnr.equals(ci.getKvnr()))
-        .findFirst()
+    return findEgkInfoToKvnr(kvnr)
+        .or(
+            () -> {
+              cardInventory().invalidate(CardTypeType.EGK);
+              return findEgkInfoToKvnr(kvnr);
+            })
         .orElse(null);
   }
 
@@ -113,6 +129,11 @@ public class EventServiceClient extends KonnektorServiceClient {
   protected List<String> getCardHandles(final CardTypeType cardType, final boolean firstOnly) {
     var cards = getCardsInfo(cardType).getCards().getCard();
 
+    if (firstOnly && cards.isEmpty()) {
+      cardInventory().invalidate(cardType);
+      cards = getCardsInfo(cardType).getCards().getCard();
+    }
+
     if (firstOnly) {
       return cards.stream()
           .peek(cardLogger)
@@ -128,30 +149,106 @@ public class EventServiceClient extends KonnektorServiceClient {
     return cards.stream().peek(cardLogger).map(CardInfoType::getCardHandle).toList();
   }
 
+  /**
+   * Subscribes for the Konnektor events of the given topic.<br>
+   * The Konnektor sends the events via CETP to the given address (see {@link
+   * de.gematik.epa.konnektor.CetpEventReceiver}).
+   *
+   * @param eventTo address the events are sent to, e.g. cetp://192.168.1.10:9017
+   * @param topic the topic to subscribe to, e.g. {@value CardInventory#CARD_TOPIC}
+   * @return the SubscribeResponse of the Konnektor, containing the subscriptionID
+   */
+  public SubscribeResponse subscribe(@NonNull final String eventTo, @NonNull final String topic) {
+    final var response =
+        state
+            .eventService()
+            .subscribe(
+                new Subscribe()
+                    .withContext(state.context())
+                    .withSubscription(
+                        new SubscriptionType().withEventTo(eventTo).withTopic(topic)));
+
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("subscribe"));
+
+    return response;
+  }
+
+  /**
+   * Renews the subscription with the given ID, before it is terminated by the Konnektor.
+   *
+   * @param subscriptionId the ID of the subscription to renew
+   * @return the RenewSubscriptionsResponse of the Konnektor, containing the new termination time
+   */
+  public RenewSubscriptionsResponse renewSubscription(@NonNull final String subscriptionId) {
+    final var response =
+        state
+            .eventService()
+            .renewSubscriptions(
+                new RenewSubscriptions()
+                    .withContext(state.context())
+                    .withSubscriptionID(subscriptionId));
+
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("renewSubscriptions"));
+
+    return response;
+  }
+
+  /**
+   * Terminates the subscription with the given ID.
+   *
+   * @param subscriptionId the ID of the subscription to terminate
+   * @return the UnsubscribeResponse of the Konnektor
+   */
+  public UnsubscribeResponse unsubscribe(@NonNull final String subscriptionId) {
+    return state
+        .eventService()
+        .unsubscribe(
+            new Unsubscribe().withContext(state.context()).withSubscriptionID(subscriptionId));
+  }
+
   GetCardsResponse getCards(@NonNull final GetCards request) {
-    return eventService.getCards(request);
+    return state.eventService().getCards(request);
   }
 
   @Override
   protected void initialize() {
-    context = konnektorContextProvider.getContext();
-    eventService = konnektorInterfaceAssembly.eventService();
+    state =
+        new State(konnektorContextProvider.getContext(), konnektorInterfaceAssembly.eventService());
   }
 
+  // region private
+
   private GetCardsResponse getCardsInfo(final CardTypeType cardType) {
-    final var request = buildGetCards(true, cardType);
-    return getCards(request);
+    return cardInventory()
+        .getCards(state.context(), cardType, () -> getCards(buildGetCards(true, cardType)));
   }
 
-  // region private
+  private Optional<CardInfoType> findEgkInfoToKvnr(final String kvnr) {
+    final var response = getEgkInfo();
+
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("getCards"));
+
+    return response.getCards().getCard().stream()
+        .filter(ci -> kvnr.equals(ci.getKvnr()))
+        .findFirst();
+  }
+
+  private CardInventory cardInventory() {
+    return konnektorContextProvider.cardInventory();
+  }
 
   private GetCards buildGetCards(final boolean mandantWide, final CardTypeType cardType) {
     final var getCardsRequest = new ObjectFactory().createGetCards();
     getCardsRequest.setCardType(cardType);
-    getCardsRequest.setContext(context);
+    getCardsRequest.setContext(state.context());
     getCardsRequest.setMandantWide(mandantWide);
     return getCardsRequest;
   }
 
+  private record State(ContextType context, EventServicePortType eventService) {}
+
   // endregion private
 }
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import de.gematik.epa.konnektor.KonnektorContextProvider;
+import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of long-lived Konnektor service clients.<br>
+ * The clients only hold the Konnektor context and the web service ports, both of which only change
+ * with the Konnektor configuration. So there is no need to create and initialize new clients for
+ * every operation. Instead, one instance of each client is created on first use and handed out to
+ * all callers, until the registry is invalidated by a configuration change (see {@link
+ * #invalidateAll()}).<br>
+ * The clients are created with the {@link KonnektorInterfaceAssembly} of the {@link
+ * KonnektorContextProvider}, which holds the registry.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class KonnektorClientRegistry {
+
+  private final KonnektorContextProvider konnektorContextProvider;
+
+  private final Map<Class<? extends KonnektorServiceClient>, KonnektorServiceClient> clients =
+      new ConcurrentHashMap<>();
+
+  public KonnektorClientRegistry(@NonNull KonnektorContextProvider konnektorContextProvider) {
+    this.konnektorContextProvider = konnektorContextProvider;
+  }
+
+  public EventServiceClient eventService() {
+    return get(EventServiceClient.class, EventServiceClient::new);
+  }
+
+  public CardServiceClient cardService() {
+    return get(CardServiceClient.class, CardServiceClient::new);
+  }
+
+  public CertificateServiceClient certificateService() {
+    return get(CertificateServiceClient.class, CertificateServiceClient::new);
+  }
+
+  public SignatureServiceClient signatureService() {
+    return get(SignatureServiceClient.class, SignatureServiceClient::new);
+  }
+
+  public AuthSignatureServiceClient authSignatureService() {
+    return get(AuthSignatureServiceClient.class, AuthSignatureServiceClient::new);
+  }
+
+  public VSDServiceClient vsdService() {
+    return get(VSDServiceClient.class, VSDServiceClient::new);
+  }
+
+  /**
+   * Drop all clients, so that new ones are created on next use.<br>
+   * Must be called, whenever the Konnektor configuration (context or connection) changes. Callers
+   * currently holding a client can finish their operation with it.
+   */
+  public void invalidateAll() {
+    log.debug("Invalidating {} Konnektor service clients", clients.size());
+    clients.clear();
+  }
+
+  // region private
+
+  private <T extends KonnektorServiceClient> T get(
+      Class<T> clientType,
+      BiFunction<KonnektorContextProvider, KonnektorInterfaceAssembly, T> factory) {
+    var client = clients.get(clientType);
+    if (Objects.isNull(client)) {
+      // not created within computeIfAbsent, because clients may create further clients
+      var newClient =
+          factory.apply(
+              konnektorContextProvider, konnektorContextProvider.konnektorInterfaceAssembly());
+      client = Objects.requireNonNullElse(clients.putIfAbsent(clientType, newClient), newClient);
+    }
+    return clientType.cast(client);
+  }
+
+  // endregion private
+}
@@ -27,6 +27,7 @@ package de.gematik.epa.konnektor.client;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.utils.internal.Synchronizer;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -38,6 +39,8 @@ public abstract class KonnektorServiceClient implements AutoCloseable {
 
   private final Synchronizer synchronizer;
 
+  private volatile long initializedEpoch = -1;
+
   protected KonnektorServiceClient(
       KonnektorContextProvider konnektorContextProvider,
       KonnektorInterfaceAssembly konnektorInterfaceAssembly) {
@@ -47,20 +50,51 @@ public abstract class KonnektorServiceClient implements AutoCloseable {
         konnektorContextProvider.konnektorConfigurationProvider().configurationChangeSynchronizer();
   }
 
+  /**
+   * Initialize the client for the current Konnektor configuration.<br>
+   * Clients are shared between threads and are initialized again, while other threads run
+   * operations with them. So implementations publish everything they derive from the configuration
+   * as one immutable object in a volatile field, instead of assigning several fields.
+   */
   protected abstract void initialize();
 
   protected final void runInitializationSynchronized() {
-    synchronizer.runNonBlocking(this::initialize);
+    synchronizer.runNonBlocking(this::initializeForCurrentEpoch);
   }
 
+  /**
+   * Run an operation of the client.<br>
+   * If the Konnektor configuration changed since the client was initialized, the client is
+   * initialized again before the operation is run.
+   *
+   * @param operation the operation to run
+   */
   public final void runOperation(Runnable operation) {
     synchronizer.runNonBlocking(
         () -> {
-          initialize();
+          if (initializedEpoch != synchronizer.epoch()) {
+            initializeForCurrentEpoch();
+          }
           operation.run();
         });
   }
 
+  /**
+   * Run an operation on a card in the turn of the {@link de.gematik.epa.konnektor.CardPool}.<br>
+   * Operations without a card handle are run right away.
+   *
+   * @param cardHandle handle of the card, may be null
+   * @param operation the operation to run
+   * @return the result of the operation
+   * @param <T> type of the result
+   */
+  protected final <T> T runOnCard(String cardHandle, Supplier<T> operation) {
+    if (Objects.isNull(cardHandle)) {
+      return operation.get();
+    }
+    return konnektorContextProvider.cardPool().execute(cardHandle, operation);
+  }
+
   public final <T> T runOperation(Supplier<T> operation) {
     final AtomicReference<T> response = new AtomicReference<>();
     runOperation(() -> response.set(operation.get()));
@@ -71,4 +105,14 @@ public abstract class KonnektorServiceClient implements AutoCloseable {
   public void close() {
     konnektorContextProvider.removeContextHeader();
   }
+
+  // region private
+
+  private void initializeForCurrentEpoch() {
+    final var epoch = synchronizer.epoch();
+    initialize();
+    initializedEpoch = epoch;
+  }
+
+  // endregion private
 }
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import java.time.Duration;
+import lombok.NonNull;
+
+/**
+ * Result of the PIN verification for one card.
+ *
+ * @param cardHandle handle of the card
+ * @param outcome whether the PIN is verified now
+ * @param message reason, why the PIN could not be verified, or null if it is verified
+ * @param duration time the verification took
+ */
+public record PinVerificationResult(
+    @NonNull String cardHandle, @NonNull Outcome outcome, String message, Duration duration) {
+
+  public boolean isVerified() {
+    return outcome == Outcome.VERIFIED;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s: %s%s (%d ms)",
+        cardHandle,
+        outcome,
+        message == null ? "" : " - " + message,
+        duration == null ? 0 : duration.toMillis());
+  }
+
+  public enum Outcome {
+    /** The PIN was verified or does not need to be verified */
+    VERIFIED,
+    /** The PIN could not be verified */
+    FAILED,
+    /** The verification did not complete in time */
+    TIMED_OUT
+  }
+}
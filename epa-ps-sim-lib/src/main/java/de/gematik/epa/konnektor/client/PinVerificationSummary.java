@@ -0,0 +1,77 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+
+/**
+ * Results of the PIN verification for several cards, e.g. all SMC-Bs of a Konnektor.
+ *
+ * @param results the result for each card, in the order of the card handles
+ */
+public record PinVerificationSummary(@NonNull List<PinVerificationResult> results) {
+
+  public PinVerificationSummary {
+    results = List.copyOf(results);
+  }
+
+  public List<PinVerificationResult> verified() {
+    return results.stream().filter(PinVerificationResult::isVerified).toList();
+  }
+
+  public List<PinVerificationResult> notVerified() {
+    return results.stream().filter(result -> !result.isVerified()).toList();
+  }
+
+  public boolean allVerified() {
+    return results.stream().allMatch(PinVerificationResult::isVerified);
+  }
+
+  /**
+   * Whether there were cards, but the PIN of none of them could be verified.
+   *
+   * @return true, if no card can be used
+   */
+  public boolean noneVerified() {
+    return !results.isEmpty() && results.stream().noneMatch(PinVerificationResult::isVerified);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "PIN verified for %d of %d cards%s",
+        verified().size(),
+        results.size(),
+        results.isEmpty()
+            ? ""
+            : results.stream()
+                .map(PinVerificationResult::toString)
+                .collect(
+                    Collectors.joining(
+                        System.lineSeparator() + "  ", ":" + System.lineSeparator() + "  ", "")));
+  }
+}
@@ -24,22 +24,37 @@
  */
 package de.gematik.epa.konnektor.client;
 
+import de.gematik.epa.api.testdriver.config.AddressConfig;
 import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentsRequest;
 import de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse.SignatureForm;
+import de.gematik.epa.data.CardInformation;
 import de.gematik.epa.ihe.model.simple.ByteArray;
+import de.gematik.epa.konnektor.HbaInformationProvider;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.KonnektorUtils;
+import de.gematik.epa.konnektor.SmbInformationProvider;
+import de.gematik.epa.konnektor.client.SignatureTimings.Phase;
 import de.gematik.epa.utils.XmlUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
 import oasis.names.tc.dss._1_0.core.schema.Base64Data;
 import oasis.names.tc.dss._1_0.core.schema.Base64Signature;
 import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.connectorcommon.xsd.v5_0.Status;
 import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
 import telematik.ws.conn.signatureservice.wsdl.v7_5.SignatureServicePortType;
 import telematik.ws.conn.signatureservice.xsd.v7_5.DocumentType;
@@ -51,15 +66,16 @@ import telematik.ws.conn.signatureservice.xsd.v7_5.SignRequest.OptionalInputs;
 import telematik.ws.conn.signatureservice.xsd.v7_5.SignResponse;
 
 @Accessors(fluent = true)
+@Slf4j
 public class SignatureServiceClient extends KonnektorServiceClient {
 
   public static final String TV_MODE_DEFAULT = "NONE";
 
-  private SignatureServicePortType signatureService;
+  /** Default for the number of documents signed with one SignDocument call */
+  public static final int DEFAULT_MAX_DOCUMENTS_PER_REQUEST = 20;
 
-  private EventServiceClient eventServiceClient;
-
-  private ContextType context;
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  private volatile State state;
 
   public SignatureServiceClient(
       KonnektorContextProvider konnektorContextProvider,
@@ -70,26 +86,65 @@ public class SignatureServiceClient extends KonnektorServiceClient {
 
   @Override
   protected void initialize() {
-    context = konnektorContextProvider.getContext();
-    signatureService = konnektorInterfaceAssembly.signatureService();
-    eventServiceClient =
-        new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly);
+    state =
+        new State(
+            konnektorContextProvider.getContext(),
+            konnektorContextProvider.konnektorConfigurationProvider().connection().address(),
+            konnektorInterfaceAssembly.signatureService(),
+            new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly),
+            new SmbInformationProvider(konnektorContextProvider, konnektorInterfaceAssembly),
+            new HbaInformationProvider(konnektorContextProvider, konnektorInterfaceAssembly));
   }
 
   public SignDocument transformRequest(SignDocumentRequest request) {
-    var cardHandle =
-        eventServiceClient.getCardHandle(
-            request.performQES() ? CardTypeType.HB_AX : CardTypeType.SM_B);
-    var jobNumber =
-        signatureService.getJobNumber(new GetJobNumber().withContext(context)).getJobNumber();
+    var cardType = request.performQES() ? CardTypeType.HB_AX : CardTypeType.SM_B;
 
-    return new SignDocument()
-        .withTvMode(TV_MODE_DEFAULT)
-        .withContext(context)
-        .withCardHandle(cardHandle)
-        .withJobNumber(jobNumber)
-        .withCrypt(request.signatureAlgorithm().name())
-        .withSignRequest(buildSignRequest(request.document(), request.signatureType()));
+    return buildSignDocument(
+        selectCardHandle(cardType),
+        request.signatureAlgorithm(),
+        Collections.singletonList(buildSignRequest(request.document(), request.signatureType())));
+  }
+
+  /**
+   * Transform a request to sign several documents into SignDocument requests for the Konnektor.
+   * <br>
+   * All documents are signed with the same card. Each SignDocument request contains up to {@code
+   * maxDocumentsPerRequest} documents, which are told apart by the RequestID of their SignRequest.
+   *
+   * @param request the request to sign several documents
+   * @param maxDocumentsPerRequest maximum number of documents in one SignDocument request
+   * @return the SignDocument requests, which together contain all documents in the order of the
+   *     request
+   */
+  public List<SignDocument> transformRequest(
+      @NonNull SignDocumentsRequest request, int maxDocumentsPerRequest) {
+    if (maxDocumentsPerRequest < 1) {
+      throw new IllegalArgumentException(
+          "maxDocumentsPerRequest must be positive, but was " + maxDocumentsPerRequest);
+    }
+    var documents = Objects.requireNonNullElse(request.documents(), List.<ByteArray>of());
+    for (int i = 0; i < documents.size(); i++) {
+      if (Objects.isNull(documents.get(i)) || Objects.isNull(documents.get(i).value())) {
+        throw new IllegalArgumentException("Document " + i + " of the request is missing");
+      }
+    }
+    if (documents.isEmpty()) {
+      return List.of();
+    }
+
+    var cardType = request.performQES() ? CardTypeType.HB_AX : CardTypeType.SM_B;
+    var cardHandle = selectCardHandle(cardType);
+    var signDocuments = new ArrayList<SignDocument>();
+    for (int from = 0; from < documents.size(); from += maxDocumentsPerRequest) {
+      var signRequests =
+          documents
+              .subList(from, Math.min(from + maxDocumentsPerRequest, documents.size()))
+              .stream()
+              .map(document -> buildSignRequest(document, request.signatureType()))
+              .toList();
+      signDocuments.add(buildSignDocument(cardHandle, request.signatureAlgorithm(), signRequests));
+    }
+    return signDocuments;
   }
 
   public de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse transformResponse(
@@ -97,19 +152,214 @@ public class SignatureServiceClient extends KonnektorServiceClient {
     return Optional.ofNullable(konResponse).map(SignDocumentResponse::getSignResponse).stream()
         .flatMap(Collection::stream)
         .findFirst()
-        .map(
-            sr ->
-                new de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse(
-                    KonnektorUtils.fromStatus(sr.getStatus()),
-                    getSignatureObject(sr),
-                    Objects.nonNull(sr.getSignatureObject().getSignaturePtr())
-                        ? SignatureForm.DOCUMENT_WITH_SIGNATURE
-                        : SignatureForm.SIGNATURE))
+        .map(this::transformSignResponse)
         .orElse(null);
   }
 
+  /**
+   * Transform the response of the Konnektor for a SignDocument request with several documents.<br>
+   * The signatures are assigned to the documents by the RequestID, so the order in which the
+   * Konnektor returns them does not matter.
+   *
+   * @param konRequest the SignDocument request sent to the Konnektor
+   * @param konResponse the response of the Konnektor
+   * @return one response per document of the request, in the order of the request
+   */
+  public List<de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse> transformResponse(
+      @NonNull SignDocument konRequest, SignDocumentResponse konResponse) {
+    Map<String, SignResponse> signResponsesById =
+        Optional.ofNullable(konResponse).map(SignDocumentResponse::getSignResponse).stream()
+            .flatMap(Collection::stream)
+            .filter(signResponse -> Objects.nonNull(signResponse.getRequestID()))
+            .collect(
+                Collectors.toMap(
+                    SignResponse::getRequestID, Function.identity(), (first, second) -> first));
+
+    return konRequest.getSignRequest().stream()
+        .map(
+            signRequest ->
+                Optional.ofNullable(signResponsesById.get(signRequest.getRequestID()))
+                    .map(this::transformSignResponse)
+                    .orElseGet(
+                        () ->
+                            new de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse(
+                                false,
+                                "The Konnektor returned no signature for the request "
+                                    + signRequest.getRequestID(),
+                                (ByteArray) null,
+                                null)))
+        .toList();
+  }
+
   public SignDocumentResponse signDocument(@NonNull SignDocument request) {
-    return signatureService.signDocument(request);
+    return timings()
+        .time(
+            Phase.SIGN_DOCUMENT,
+            () ->
+                runOnCard(
+                    request.getCardHandle(), () -> state.signatureService().signDocument(request)));
+  }
+
+  /**
+   * Sign several documents with as few SignDocument calls to the Konnektor as possible.<br>
+   * If a SignDocument call fails, the documents of this call are reported as not signed, while the
+   * results of the other calls are kept.
+   *
+   * @param request the request to sign several documents
+   * @param maxDocumentsPerRequest maximum number of documents in one SignDocument call
+   * @return one response per document of the request, in the order of the request
+   */
+  public List<de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse> signDocuments(
+      @NonNull SignDocumentsRequest request, int maxDocumentsPerRequest) {
+    var results = new ArrayList<de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse>();
+    for (var konRequest : transformRequest(request, maxDocumentsPerRequest)) {
+      try {
+        results.addAll(transformResponse(konRequest, signDocument(konRequest)));
+      } catch (RuntimeException e) {
+        log.warn(
+            "SignDocument for {} documents failed, continuing with the remaining documents",
+            konRequest.getSignRequest().size(),
+            e);
+        var failure = KonnektorUtils.fromThrowable(e);
+        konRequest
+            .getSignRequest()
+            .forEach(
+                signRequest ->
+                    results.add(
+                        new de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse(
+                            failure, null, null)));
+      }
+    }
+    return results;
+  }
+
+  // region private
+
+  private SignatureTimings timings() {
+    return konnektorContextProvider.signatureTimings();
+  }
+
+  /**
+   * Select the card to sign with.<br>
+   * This is the first card of the type, as reported by the Konnektor. If further cards sign on
+   * behalf of the same holder, the signature is put on the one of them with the shortest queue in
+   * the {@link de.gematik.epa.konnektor.CardPool}.
+   *
+   * @param cardType the type of the card
+   * @return the handle of the card to sign with
+   */
+  private String selectCardHandle(CardTypeType cardType) {
+    return timings()
+        .time(
+            Phase.CARD_HANDLE,
+            () -> {
+              // the card handles come from the card inventory, so usually no GetCards is needed
+              var cardHandle = state.eventServiceClient().getCardHandle(cardType);
+              var cardHandles = state.eventServiceClient().getCardHandles(cardType);
+              if (cardHandles.size() < 2) {
+                return cardHandle;
+              }
+              var equivalentCardHandles = equivalentCardHandles(cardType, cardHandle, cardHandles);
+              return equivalentCardHandles.size() > 1
+                  ? konnektorContextProvider.cardPool().select(equivalentCardHandles)
+                  : cardHandle;
+            });
+  }
+
+  /**
+   * Determine the cards, which are interchangeable with the given card for signing.<br>
+   * SMC-Bs are, if they have the same telematik-ID. HBAs are, if they have the same holder and the
+   * same profession OIDs. The information is taken from the authentication certificates, which are
+   * read once per card.
+   *
+   * @param cardType the type of the cards
+   * @param cardHandle the handle of the card, for which equivalent cards are searched
+   * @param cardHandles the handles of all cards of the type
+   * @return the handles of the equivalent cards, including the given one
+   */
+  private List<String> equivalentCardHandles(
+      CardTypeType cardType, String cardHandle, List<String> cardHandles) {
+    var cardsInformations =
+        switch (cardType) {
+          case SM_B, SMC_B -> state.smbInformationProvider().getCardsInformations();
+          case HBA, HB_AX -> state.hbaInformationProvider().getCardsInformations();
+          default -> List.<CardInformation>of();
+        };
+    Function<CardInformation, Object> identity =
+        cardType == CardTypeType.SM_B || cardType == CardTypeType.SMC_B
+            ? CardInformation::telematikId
+            : card -> Arrays.asList(card.cardHolderName(), card.professionOids());
+
+    return cardsInformations.stream()
+        .filter(card -> cardHandle.equals(card.cardHandle()))
+        .findFirst()
+        .map(identity)
+        .map(
+            selected ->
+                cardsInformations.stream()
+                    .filter(card -> cardHandles.contains(card.cardHandle()))
+                    .filter(card -> selected.equals(identity.apply(card)))
+                    .map(CardInformation::cardHandle)
+                    .toList())
+        .orElse(List.of(cardHandle));
+  }
+
+  private String takeJobNumber() {
+    // the pool is keyed by address and context, so the job number is fetched with the same ones
+    var current = state;
+    return timings()
+        .time(
+            Phase.JOB_NUMBER,
+            () ->
+                konnektorContextProvider
+                    .jobNumberPool()
+                    .take(
+                        current.konnektorAddress(),
+                        current.context(),
+                        () ->
+                            current
+                                .signatureService()
+                                .getJobNumber(new GetJobNumber().withContext(current.context()))
+                                .getJobNumber()));
+  }
+
+  private SignDocument buildSignDocument(
+      String cardHandle,
+      SignDocumentRequest.SignatureAlgorithm signatureAlgorithm,
+      List<SignRequest> signRequests) {
+    var jobNumber = takeJobNumber();
+
+    return new SignDocument()
+        .withTvMode(TV_MODE_DEFAULT)
+        .withContext(state.context())
+        .withCardHandle(cardHandle)
+        .withJobNumber(jobNumber)
+        .withCrypt(signatureAlgorithm.name())
+        .withSignRequest(signRequests);
+  }
+
+  private de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse transformSignResponse(
+      SignResponse signResponse) {
+    var signatureObject = signResponse.getSignatureObject();
+    if (Objects.isNull(signatureObject) || Objects.isNull(signResponse.getStatus())) {
+      // the Konnektor reports the failure of a single document without a signature
+      return new de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse(
+          false,
+          Optional.ofNullable(signResponse.getStatus())
+              .map(Status::getError)
+              .map(Object::toString)
+              .orElse(
+                  "The Konnektor returned no signature for the request "
+                      + signResponse.getRequestID()),
+          (ByteArray) null,
+          null);
+    }
+    return new de.gematik.epa.api.testdriver.dto.response.SignDocumentResponse(
+        KonnektorUtils.fromStatus(signResponse.getStatus()),
+        getSignatureObject(signResponse),
+        Objects.nonNull(signatureObject.getSignaturePtr())
+            ? SignatureForm.DOCUMENT_WITH_SIGNATURE
+            : SignatureForm.SIGNATURE);
   }
 
   private SignRequest buildSignRequest(
@@ -131,6 +381,9 @@ public class SignatureServiceClient extends KonnektorServiceClient {
   }
 
   private ByteArray getSignatureObject(SignResponse signResponse) {
+    var documentWithSignature =
+        Optional.ofNullable(signResponse.getOptionalOutputs())
+            .map(SignResponse.OptionalOutputs::getDocumentWithSignature);
     return Optional.ofNullable(signResponse.getSignatureObject().getSignature())
         .map(XmlUtils::marshal)
         .or(
@@ -139,13 +392,24 @@ public class SignatureServiceClient extends KonnektorServiceClient {
                     .map(Base64Signature::getValue))
         .or(
             () ->
-                Optional.ofNullable(signResponse.getOptionalOutputs().getDocumentWithSignature())
-                    .map(telematik.ws.conn.connectorcommon.xsd.v5_0.DocumentType::getBase64XML))
+                documentWithSignature.map(
+                    telematik.ws.conn.connectorcommon.xsd.v5_0.DocumentType::getBase64XML))
         .or(
             () ->
-                Optional.ofNullable(signResponse.getOptionalOutputs().getDocumentWithSignature())
-                    .map(docWithSig -> docWithSig.getBase64Data().getValue()))
+                documentWithSignature
+                    .map(telematik.ws.conn.connectorcommon.xsd.v5_0.DocumentType::getBase64Data)
+                    .map(Base64Data::getValue))
         .map(ByteArray::of)
         .orElse(null);
   }
+
+  private record State(
+      ContextType context,
+      AddressConfig konnektorAddress,
+      SignatureServicePortType signatureService,
+      EventServiceClient eventServiceClient,
+      SmbInformationProvider smbInformationProvider,
+      HbaInformationProvider hbaInformationProvider) {}
+
+  // endregion private
 }
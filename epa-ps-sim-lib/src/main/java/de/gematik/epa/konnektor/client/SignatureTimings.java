@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Latency of the phases of a signature by the {@link SignatureServiceClient}.<br>
+ * For each {@link Phase} the number of runs and their total duration are counted, so that e.g. the
+ * time spent on waiting for a card can be told apart from the time the Konnektor needs for the
+ * actual signature.
+ */
+@Accessors(fluent = true)
+public class SignatureTimings {
+
+  /** Phases of a signature */
+  public enum Phase {
+    /** Determine the card handle of the signing card */
+    CARD_HANDLE,
+    /** Get a job number for the SignDocument request */
+    JOB_NUMBER,
+    /** The SignDocument round-trip, including the wait for the card */
+    SIGN_DOCUMENT;
+
+    public String tagValue() {
+      return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+  }
+
+  private final Map<Phase, Timing> timings = new EnumMap<>(Phase.class);
+
+  public SignatureTimings() {
+    for (var phase : Phase.values()) {
+      timings.put(phase, new Timing(new LongAdder(), new LongAdder()));
+    }
+  }
+
+  /**
+   * Run a phase of a signature and record its duration.
+   *
+   * @param phase the phase
+   * @param operation the operation of the phase
+   * @return the result of the operation
+   * @param <T> type of the result
+   */
+  public <T> T time(@NonNull Phase phase, @NonNull Supplier<T> operation) {
+    var start = System.nanoTime();
+    try {
+      return operation.get();
+    } finally {
+      var timing = timings.get(phase);
+      timing.totalNanos().add(System.nanoTime() - start);
+      timing.count().increment();
+    }
+  }
+
+  /**
+   * Number of runs of a phase.
+   *
+   * @param phase the phase
+   * @return the number of runs
+   */
+  public long count(@NonNull Phase phase) {
+    return timings.get(phase).count().sum();
+  }
+
+  /**
+   * Total duration of all runs of a phase.
+   *
+   * @param phase the phase
+   * @param unit the unit of the returned duration
+   * @return the total duration
+   */
+  public double totalTime(@NonNull Phase phase, @NonNull TimeUnit unit) {
+    return (double) timings.get(phase).totalNanos().sum() / unit.toNanos(1);
+  }
+
+  // region private
+
+  private record Timing(LongAdder count, LongAdder totalNanos) {}
+
+  // endregion private
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import de.gematik.epa.konnektor.conversion.VSDServiceUtils;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import telematik.ws.conn.vsds.vsdservice.xsd.v5_2.ReadVSDResponse;
+import telematik.ws.fa.vsds.pruefungsnachweis.xsd.v1_0.PN;
+import telematik.ws.fa.vsds.schema_vsd.xsd.v5_2_0.UCAllgemeineVersicherungsdatenXML;
+import telematik.ws.fa.vsds.schema_vsd.xsd.v5_2_0.UCPersoenlicheVersichertendatenXML;
+
+/**
+ * The result of one ReadVSD operation for an eGK and an SMC-B.<br>
+ * The parts of the response (Pruefungsnachweis, allgemeine and persoenliche Versichertendaten) are
+ * only decoded when they are first requested, and then kept for subsequent calls. That way several
+ * steps of a use case, like setting an entitlement, can work on the data of a single card read.
+ */
+@Getter
+@Accessors(fluent = true)
+public class VSDReadSession {
+
+  private final String kvnr;
+
+  private final String telematikId;
+
+  private final ReadVSDResponse response;
+
+  private final Instant readAt;
+
+  @Getter(lazy = true)
+  private final PN pn = VSDServiceUtils.getPn(response);
+
+  @Getter(lazy = true)
+  private final UCAllgemeineVersicherungsdatenXML allgemeineVersicherungsdaten =
+      VSDServiceUtils.getAllgemeineVersicherungsdatenXml(response);
+
+  @Getter(lazy = true)
+  private final UCPersoenlicheVersichertendatenXML persoenlicheVersichertendaten =
+      VSDServiceUtils.getPersoenlicheVersichertendatenXml(response);
+
+  public VSDReadSession(
+      @NonNull String kvnr,
+      @NonNull String telematikId,
+      @NonNull ReadVSDResponse response,
+      @NonNull Instant readAt) {
+    this.kvnr = kvnr;
+    this.telematikId = telematikId;
+    this.response = response;
+    this.readAt = readAt;
+  }
+
+  /**
+   * Whether the data of this session is older than the given point in time.
+   *
+   * @param notBefore the earliest accepted read time
+   * @return true, if the data was read before {@code notBefore}
+   */
+  public boolean isReadBefore(@NonNull Instant notBefore) {
+    return readAt.isBefore(notBefore);
+  }
+}
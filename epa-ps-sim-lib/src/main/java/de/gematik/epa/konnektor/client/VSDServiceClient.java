@@ -34,8 +34,16 @@ import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.SmbInformationProvider;
 import de.gematik.epa.konnektor.conversion.VSDServiceUtils;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -51,16 +59,35 @@ import telematik.ws.fa.vsds.pruefungsnachweis.xsd.v1_0.PN;
 import telematik.ws.fa.vsds.schema_vsd.xsd.v5_2_0.UCAllgemeineVersicherungsdatenXML;
 import telematik.ws.fa.vsds.schema_vsd.xsd.v5_2_0.UCPersoenlicheVersichertendatenXML;
 
+/**
+ * Client for the VSDService of the Konnektor.<br>
+ * Every ReadVSD performs an online check of the eGK, which is slow. Therefore the result of a read
+ * is kept as {@link VSDReadSession} per KVNR and telematik-ID for a short time (see {@link
+ * #readSessionTimeToLive(Duration)}), so that all steps of one use case work on a single card read.
+ */
 @Accessors(fluent = true)
 @Slf4j
 @Getter
 @Service
 public class VSDServiceClient extends KonnektorServiceClient {
 
-  private VSDServicePortType vsdService;
-  private ContextType context;
-  private EventServiceClient eventService;
-  private CardAuthenticationService cardAuthenticationService;
+  public static final Duration DEFAULT_READ_SESSION_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+  /** Context and ports of the current configuration, replaced as a whole on a change */
+  @Getter(AccessLevel.NONE)
+  private volatile State state;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<ReadSessionKey, CompletableFuture<VSDReadSession>> readSessions =
+      new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  private final Clock clock = Clock.systemUTC();
+
+  @Getter(AccessLevel.NONE)
+  private volatile Instant lastExpiry = Instant.EPOCH;
+
+  private volatile Duration readSessionTimeToLive = DEFAULT_READ_SESSION_TIME_TO_LIVE;
 
   public VSDServiceClient(
       KonnektorContextProvider konnektorContextProvider,
@@ -71,31 +98,95 @@ public class VSDServiceClient extends KonnektorServiceClient {
 
   @Override
   protected void initialize() {
-    context = konnektorContextProvider.getContext();
-    vsdService = konnektorInterfaceAssembly.vsdService();
-    eventService = new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly);
+    state =
+        new State(
+            konnektorContextProvider.getContext(),
+            konnektorInterfaceAssembly.vsdService(),
+            new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly),
+            new CardAuthenticationService(
+                new SmbInformationProvider(konnektorContextProvider, konnektorInterfaceAssembly),
+                new AuthSignatureServiceClient(
+                    konnektorContextProvider, konnektorInterfaceAssembly),
+                konnektorContextProvider.cardPool()));
+  }
 
-    cardAuthenticationService =
-        new CardAuthenticationService(
-            new SmbInformationProvider(konnektorContextProvider, konnektorInterfaceAssembly),
-            new AuthSignatureServiceClient(konnektorContextProvider, konnektorInterfaceAssembly));
+  public VSDServiceClient readSessionTimeToLive(@NonNull Duration readSessionTimeToLive) {
+    this.readSessionTimeToLive = readSessionTimeToLive;
+    return this;
   }
 
   public ReadVSDResponseDTO readVSDAndConvertToDto(
       @NonNull String kvnr, @NonNull String telematikId) {
-    return transformResponse(readVSD(kvnr, telematikId));
+    final var session = newReadSession(kvnr, telematikId);
+    readSessions.put(
+        new ReadSessionKey(kvnr, telematikId), CompletableFuture.completedFuture(session));
+    return transformResponse(session.response());
+  }
+
+  /**
+   * Get the VSD read session for the eGK and the SMC-B.<br>
+   * If a read for the same KVNR and telematik-ID happened within the read session time to live, its
+   * result is returned. Otherwise a new ReadVSD with online check is performed. Concurrent callers
+   * for the same key wait for the one read in progress.
+   *
+   * @param kvnr KVNR of the insurant, whose eGK is to be read
+   * @param telematikId telematik-ID of the SMC-B used for the read
+   * @return {@link VSDReadSession} with the response of the ReadVSD operation
+   */
+  public VSDReadSession readSession(@NonNull String kvnr, @NonNull String telematikId) {
+    final var key = new ReadSessionKey(kvnr, telematikId);
+    final var notBefore = clock.instant().minus(readSessionTimeToLive);
+    var session = readSessions.get(key);
+    if (session == null || !isValid(session, notBefore)) {
+      expireReadSessions(notBefore);
+      final var reading = new CompletableFuture<VSDReadSession>();
+      session =
+          readSessions.merge(
+              key, reading, (current, next) -> isValid(current, notBefore) ? current : next);
+      if (session == reading) {
+        // the card is read outside the map, so reads for other keys are not blocked meanwhile
+        read(key, reading);
+      }
+    }
+    try {
+      return session.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Discard the VSD read session for the eGK and the SMC-B, so that the next access reads the card
+   * again.
+   *
+   * @param kvnr KVNR of the insurant
+   * @param telematikId telematik-ID of the SMC-B
+   */
+  public void invalidateReadSession(@NonNull String kvnr, @NonNull String telematikId) {
+    readSessions.remove(new ReadSessionKey(kvnr, telematikId));
   }
 
   public byte[] getPruefziffer(@NonNull String kvnr, @NonNull String telematikId)
       throws IOException {
-    ReadVSDResponse response = readVSD(kvnr, telematikId);
-    PN pn = VSDServiceUtils.getPn(response);
-    int result = VSDServiceUtils.getResultOfOnlineCheckEGK(pn);
-    boolean isSuccess = VSDServiceUtils.isResultSuccessful(result);
-    if (!isSuccess) {
-      throw new IOException("ReadVSD operation failed. Result: " + result);
+    final var session = readSession(kvnr, telematikId);
+    try {
+      PN pn = session.pn();
+      int result = VSDServiceUtils.getResultOfOnlineCheckEGK(pn);
+      boolean isSuccess = VSDServiceUtils.isResultSuccessful(result);
+      if (!isSuccess) {
+        throw new IOException("ReadVSD operation failed. Result: " + result);
+      }
+      return VSDServiceUtils.getPruefziffer(pn);
+    } catch (IOException | RuntimeException e) {
+      // a failed read must not be served to the next attempt
+      readSessions.computeIfPresent(
+          new ReadSessionKey(kvnr, telematikId),
+          (key, current) -> current.getNow(null) == session ? null : current);
+      throw e;
     }
-    return VSDServiceUtils.getPruefziffer(pn);
   }
 
   public String createHcv(String kvnr, String testCase, @NonNull String telematikId) {
@@ -122,17 +213,15 @@ public class VSDServiceClient extends KonnektorServiceClient {
   }
 
   byte[] getVersicherungsbeginn(@NonNull String kvnr, @NonNull String telematikId) {
-    ReadVSDResponse response = readVSD(kvnr, telematikId);
     UCAllgemeineVersicherungsdatenXML allgemeineVersicherungsdatenXML =
-        VSDServiceUtils.getAllgemeineVersicherungsdatenXml(response);
+        readSession(kvnr, telematikId).allgemeineVersicherungsdaten();
     return toISO885915(
         allgemeineVersicherungsdatenXML.getVersicherter().getVersicherungsschutz().getBeginn());
   }
 
   byte[] getStrassenAdresse(@NonNull String kvnr, @NonNull String telematikId) {
-    ReadVSDResponse response = readVSD(kvnr, telematikId);
     UCPersoenlicheVersichertendatenXML persoenlicheVersichertendatenXML =
-        VSDServiceUtils.getPersoenlicheVersichertendatenXml(response);
+        readSession(kvnr, telematikId).persoenlicheVersichertendaten();
 
     String strassenAdresse =
         persoenlicheVersichertendatenXML
@@ -144,12 +233,12 @@ public class VSDServiceClient extends KonnektorServiceClient {
   }
 
   public ReadVSDResponse readVSD(String kvnr, String telematikId) {
-    return vsdService.readVSD(transformRequest(kvnr, telematikId));
+    return state.vsdService().readVSD(transformRequest(kvnr, telematikId));
   }
 
   protected ReadVSD transformRequest(String kvnr, String telematikId) {
     return new ReadVSD()
-        .withContext(context)
+        .withContext(state.context())
         .withEhcHandle(getEhcHandle(kvnr))
         .withHpcHandle(getHcpHandle(telematikId))
         .withReadOnlineReceipt(true)
@@ -166,8 +255,47 @@ public class VSDServiceClient extends KonnektorServiceClient {
   }
 
   // region private
+
+  private VSDReadSession newReadSession(String kvnr, String telematikId) {
+    return new VSDReadSession(kvnr, telematikId, readVSD(kvnr, telematikId), clock.instant());
+  }
+
+  private void read(ReadSessionKey key, CompletableFuture<VSDReadSession> reading) {
+    try {
+      reading.complete(newReadSession(key.kvnr(), key.telematikId()));
+    } catch (RuntimeException | Error e) {
+      // a failed read is not served to the next attempt
+      readSessions.remove(key, reading);
+      reading.completeExceptionally(e);
+    }
+  }
+
+  /** A read in progress is valid, so that concurrent callers wait for it. */
+  private static boolean isValid(CompletableFuture<VSDReadSession> session, Instant notBefore) {
+    if (!session.isDone()) {
+      return true;
+    }
+    return !session.isCompletedExceptionally() && !session.join().isReadBefore(notBefore);
+  }
+
+  /** Drop expired read sessions, at most once per time to live and only when a card is read. */
+  private void expireReadSessions(Instant notBefore) {
+    if (lastExpiry.isAfter(notBefore)) {
+      return;
+    }
+    lastExpiry = clock.instant();
+    readSessions.forEach(
+        (key, session) -> {
+          if (!isValid(session, notBefore)) {
+            readSessions.remove(key, session);
+          }
+        });
+  }
+
+  private record ReadSessionKey(String kvnr, String telematikId) {}
+
   String getHcpHandle(String telematikId) {
-    return cardAuthenticationService.getCardHandle(telematikId);
+    return state.cardAuthenticationService().getCardHandle(telematikId);
   }
 
   private String getEhcHandle(String kvnr) {
@@ -176,16 +304,21 @@ public class VSDServiceClient extends KonnektorServiceClient {
   }
 
   private CardInfoType retrieveCardInfo(String kvnr) throws NoSuchElementException {
-    try (EventServiceClient eventServiceClient =
-        new EventServiceClient(konnektorContextProvider, konnektorInterfaceAssembly)) {
+    try {
       return Objects.requireNonNull(
-          eventServiceClient.getEgkInfoToKvnr(kvnr),
+          state.eventService().getEgkInfoToKvnr(kvnr),
           "No egkInfo could be retrieved for KVNR " + Objects.toString(kvnr, "null"));
     } catch (Exception e) {
       throw new NoSuchElementException(e.getMessage());
     }
   }
 
+  private record State(
+      ContextType context,
+      VSDServicePortType vsdService,
+      EventServiceClient eventService,
+      CardAuthenticationService cardAuthenticationService) {}
+
   // endregion private
 
 }
@@ -26,6 +26,7 @@ package de.gematik.epa.konnektor.conversion;
 
 import de.gematik.epa.utils.XmlUtils;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.security.MessageDigest;
@@ -37,6 +38,7 @@ import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import telematik.ws.conn.vsds.vsdservice.xsd.v5_2.ReadVSDResponse;
 import telematik.ws.fa.vsds.pruefungsnachweis.xsd.v1_0.PN;
 import telematik.ws.fa.vsds.schema_vsd.xsd.v5_2_0.UCAllgemeineVersicherungsdatenXML;
@@ -78,22 +80,19 @@ public class VSDServiceUtils {
   }
 
   public static PN getPn(ReadVSDResponse response) {
-    byte[] pruefungsnachweis = getPruefungsnachweis(response);
-    return VSDServiceUtils.unmarshalXmlBytes(PN.class, pruefungsnachweis);
+    return unmarshalGzippedXml(PN.class, response.getPruefungsnachweis());
   }
 
   public static UCPersoenlicheVersichertendatenXML getPersoenlicheVersichertendatenXml(
       ReadVSDResponse response) {
-    byte[] persoenlicheVersichertendatenStr = getPersoenlicheVersichertendaten(response);
-    return VSDServiceUtils.unmarshalXmlBytes(
-        UCPersoenlicheVersichertendatenXML.class, persoenlicheVersichertendatenStr);
+    return unmarshalGzippedXml(
+        UCPersoenlicheVersichertendatenXML.class, response.getPersoenlicheVersichertendaten());
   }
 
   public static UCAllgemeineVersicherungsdatenXML getAllgemeineVersicherungsdatenXml(
       ReadVSDResponse response) {
-    byte[] allgemeineVersicherungsdatenStr = getAllgemeineVersicherungsdaten(response);
-    return VSDServiceUtils.unmarshalXmlBytes(
-        UCAllgemeineVersicherungsdatenXML.class, allgemeineVersicherungsdatenStr);
+    return unmarshalGzippedXml(
+        UCAllgemeineVersicherungsdatenXML.class, response.getAllgemeineVersicherungsdaten());
   }
 
   public static byte[] getPz(PN pn) {
@@ -102,29 +101,17 @@ public class VSDServiceUtils {
 
   @SneakyThrows
   public byte[] getPruefungsnachweis(ReadVSDResponse response) {
-    return decodeAndUnzipData(response.getPruefungsnachweis());
+    return unzipDecodedData(response.getPruefungsnachweis());
   }
 
   @SneakyThrows
   public byte[] getAllgemeineVersicherungsdaten(ReadVSDResponse response) {
-    return decodeAndUnzipData(response.getAllgemeineVersicherungsdaten());
+    return unzipDecodedData(response.getAllgemeineVersicherungsdaten());
   }
 
   @SneakyThrows
   public byte[] getPersoenlicheVersichertendaten(ReadVSDResponse response) {
-    return decodeAndUnzipData(response.getPersoenlicheVersichertendaten());
-  }
-
-  @SneakyThrows
-  private byte[] decodeAndUnzipData(byte[] data) {
-    var dataAsBase64 = Base64.getEncoder().encodeToString(data);
-    byte[] decodedData = decodeData(dataAsBase64);
-
-    return unzipDecodedData(decodedData);
-  }
-
-  byte[] decodeData(String base64Data) {
-    return Base64.getDecoder().decode(base64Data);
+    return unzipDecodedData(response.getPersoenlicheVersichertendaten());
   }
 
   byte[] unzipDecodedData(byte[] data) throws IOException {
@@ -140,6 +127,36 @@ public class VSDServiceUtils {
     return XmlUtils.unmarshal(clazz, new ByteArrayInputStream(xmlBytes));
   }
 
+  /**
+   * Unmarshal a gzip compressed XML container of a ReadVSD response.<br>
+   * The data is decompressed while it is parsed, so neither the decompressed XML nor any other copy
+   * of the container is held in memory. Decompression errors, which occur while the XML is read,
+   * reach this method wrapped by the XML parser and are unwrapped to the causing {@link
+   * ZipException} or {@link EOFException}. Other errors are thrown as they are.
+   *
+   * @param clazz the class type of the object, which is to be created from the XML
+   * @param gzippedXml the gzip compressed XML, as contained in the ReadVSD response
+   * @return the created object
+   * @param <T> the type of the object, which is to be created from the XML
+   */
+  @SneakyThrows
+  public <T> T unmarshalGzippedXml(Class<T> clazz, byte[] gzippedXml) {
+    try (GZIPInputStream gzipInputStream =
+        new GZIPInputStream(new ByteArrayInputStream(gzippedXml))) {
+      return XmlUtils.unmarshal(clazz, gzipInputStream);
+    } catch (Exception e) {
+      IOException unzipException = ExceptionUtils.throwableOfType(e, ZipException.class);
+      if (unzipException == null) {
+        unzipException = ExceptionUtils.throwableOfType(e, EOFException.class);
+      }
+      if (unzipException == null) {
+        throw e;
+      }
+      log.error("Failed to unzip data: ", unzipException);
+      throw unzipException;
+    }
+  }
+
   public static boolean isResultSuccessful(int result) {
     if (result == UPDATES_SUCCESSFUL) {
       log.info(
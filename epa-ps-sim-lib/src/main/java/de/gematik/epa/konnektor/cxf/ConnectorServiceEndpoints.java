@@ -0,0 +1,155 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.cxf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.EndpointType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.ServicesType;
+
+/**
+ * Index of the service endpoints, which are published by the Konnektor in its connection
+ * information (connector.sds).<br>
+ * The service list is traversed once, when the index is created. Each lookup of a service in a
+ * version is then answered from the index and the result is memoized.<br>
+ * Whether the TLS endpoint or the plain endpoint of a service version is used, is decided when the
+ * index is created, so an index has to be created anew, whenever the connection configuration
+ * changes.
+ */
+@Accessors(fluent = true)
+public class ConnectorServiceEndpoints {
+
+  @Getter private final ConnectorServices connectorServices;
+
+  private final Map<String, List<VersionedEndpoint>> endpointsByService;
+
+  private final Map<ServiceVersion, Optional<String>> resolvedEndpoints = new ConcurrentHashMap<>();
+
+  /**
+   * Create the index of the service endpoints.
+   *
+   * @param connectorServices the connection information of the Konnektor
+   * @param tlsPreferred whether the TLS endpoint of a service is to be used, if there is one. If
+   *     the Konnektor makes TLS mandatory, the TLS endpoint is used anyway.
+   */
+  public ConnectorServiceEndpoints(
+      @NonNull ConnectorServices connectorServices, boolean tlsPreferred) {
+    this.connectorServices = connectorServices;
+    this.endpointsByService =
+        indexEndpoints(connectorServices, connectorServices.isTLSMandatory() || tlsPreferred);
+  }
+
+  /**
+   * Get the endpoint of a service in the first version, which starts with one of the given version
+   * prefixes.<br>
+   * The prefixes are tried in the given order, so the most specific prefix should be given first.
+   *
+   * @param serviceName name of the service e.g. CardService
+   * @param serviceVersionsStartWith version prefixes e.g. "8.1.2", "8.1", "8"
+   * @return the location of the service endpoint
+   * @throws IllegalArgumentException if there is no endpoint for the service in any of the versions
+   */
+  public String endpoint(String serviceName, String... serviceVersionsStartWith) {
+    for (String serviceVersionStartsWith : serviceVersionsStartWith) {
+      var endpoint = endpoint(serviceName, serviceVersionStartsWith);
+      if (endpoint.isPresent()) {
+        return endpoint.get();
+      }
+    }
+
+    throw new IllegalArgumentException(
+        String.format(
+            "No usable service endpoint configuration found for service %s in version %s",
+            serviceName, Arrays.toString(serviceVersionsStartWith)));
+  }
+
+  /**
+   * Get the endpoint of a service in the first version, which starts with the given version prefix.
+   *
+   * @param serviceName name of the service e.g. CardService
+   * @param serviceVersionStartsWith version prefix e.g. "8.1"
+   * @return the location of the service endpoint or an empty Optional, if there is none
+   */
+  public Optional<String> endpoint(String serviceName, String serviceVersionStartsWith) {
+    return resolvedEndpoints.computeIfAbsent(
+        new ServiceVersion(serviceName, serviceVersionStartsWith), this::findEndpoint);
+  }
+
+  // region private
+
+  private Optional<String> findEndpoint(ServiceVersion serviceVersion) {
+    return endpointsByService.getOrDefault(serviceVersion.serviceName(), List.of()).stream()
+        .filter(endpoint -> endpoint.version().startsWith(serviceVersion.versionStartsWith()))
+        .map(VersionedEndpoint::location)
+        .findFirst();
+  }
+
+  private static Map<String, List<VersionedEndpoint>> indexEndpoints(
+      ConnectorServices connectorServices, boolean useTls) {
+    var index = new LinkedHashMap<String, List<VersionedEndpoint>>();
+    var services =
+        Optional.ofNullable(connectorServices.getServiceInformation())
+            .map(ServicesType::getService)
+            .orElse(List.of());
+
+    for (var service : services) {
+      if (Objects.isNull(service.getVersions())) {
+        continue;
+      }
+      for (var versionedService : service.getVersions().getVersion()) {
+        Optional.ofNullable(versionedService.getEndpointTLS())
+            .filter(endpoint -> useTls)
+            .or(() -> Optional.ofNullable(versionedService.getEndpoint()))
+            .map(EndpointType::getLocation)
+            .filter(location -> Objects.nonNull(versionedService.getVersion()))
+            .ifPresent(
+                location ->
+                    index
+                        .computeIfAbsent(service.getName(), name -> new ArrayList<>())
+                        .add(new VersionedEndpoint(versionedService.getVersion(), location)));
+      }
+    }
+
+    index.replaceAll((name, endpoints) -> Collections.unmodifiableList(endpoints));
+    return Collections.unmodifiableMap(index);
+  }
+
+  private record VersionedEndpoint(String version, String location) {}
+
+  private record ServiceVersion(String serviceName, String versionStartsWith) {}
+
+  // endregion private
+}
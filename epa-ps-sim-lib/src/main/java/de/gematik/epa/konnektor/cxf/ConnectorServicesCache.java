@@ -0,0 +1,268 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.cxf;
+
+import de.gematik.epa.utils.XmlUtils;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.Response.Status.Family;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import telematik.ws.conn.SdsApi;
+import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
+
+/**
+ * Cache for the connection information (connector.sds) of Konnektors.<br>
+ * The connection information is kept per Konnektor address and revalidated with the Konnektor on
+ * each retrieval, using the ETag and Last-Modified validators of the previous response. If the
+ * Konnektor answers with 304 (Not Modified), the cached connection information is used, without
+ * transferring and parsing the document again. If the Konnektor cannot be reached at all, the
+ * cached connection information is used as well.<br>
+ * If a directory is given, the cache entries are also persisted there, so they survive a restart of
+ * the application.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class ConnectorServicesCache {
+
+  private static final String SDS_FILE_SUFFIX = ".sds.xml";
+  private static final String VALIDATORS_FILE_SUFFIX = ".sds.properties";
+  private static final String ETAG_PROPERTY = "etag";
+  private static final String LAST_MODIFIED_PROPERTY = "lastModified";
+  private static final String ADDRESS_PROPERTY = "address";
+
+  /** Directory in which the cache entries are persisted, or null if they are kept in memory only */
+  @Getter private final Path directory;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Create a cache, which keeps the connection information in memory only. */
+  public ConnectorServicesCache() {
+    this(null);
+  }
+
+  /**
+   * Create a cache, which persists the connection information in the given directory.
+   *
+   * @param directory the directory to use, or null to keep the connection information in memory
+   *     only
+   */
+  public ConnectorServicesCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Get the connection information of a Konnektor.<br>
+   * The cached connection information is revalidated with the Konnektor. Only if it changed, the
+   * new connection information is read and stored in the cache.
+   *
+   * @param konnektorAddress address of the Konnektor, which is used as key of the cache entry
+   * @param sdsApi client for the retrieval of the connection information from this Konnektor
+   * @return the current connection information of the Konnektor
+   */
+  public ConnectorServices get(@NonNull String konnektorAddress, @NonNull SdsApi sdsApi) {
+    var cached =
+        Optional.ofNullable(entries.get(konnektorAddress)).or(() -> load(konnektorAddress));
+
+    Response response;
+    try {
+      response =
+          sdsApi.getConnectorSds(
+              cached.map(Entry::etag).orElse(null), cached.map(Entry::lastModified).orElse(null));
+    } catch (ProcessingException e) {
+      if (cached.isEmpty()) {
+        throw e;
+      }
+      log.warn(
+          "Connection information of the Konnektor {} could not be retrieved, the cached one is used. Reason: {}",
+          konnektorAddress,
+          e.getMessage());
+      entries.putIfAbsent(konnektorAddress, cached.get());
+      return cached.get().connectorServices();
+    }
+
+    try (response) {
+      if (response.getStatus() == Status.NOT_MODIFIED.getStatusCode() && cached.isPresent()) {
+        log.debug("Connection information of the Konnektor {} is unchanged", konnektorAddress);
+        entries.putIfAbsent(konnektorAddress, cached.get());
+        return cached.get().connectorServices();
+      }
+
+      if (response.getStatusInfo().getFamily() != Family.SUCCESSFUL) {
+        throw new WebApplicationException(
+            String.format(
+                "Retrieval of the connection information of the Konnektor %s failed with status %d",
+                konnektorAddress, response.getStatus()),
+            response.getStatus());
+      }
+
+      var sds = response.readEntity(byte[].class);
+      var entry =
+          new Entry(
+              XmlUtils.unmarshal(ConnectorServices.class, sds),
+              sds,
+              response.getHeaderString(HttpHeaders.ETAG),
+              response.getHeaderString(HttpHeaders.LAST_MODIFIED));
+      entries.put(konnektorAddress, entry);
+      store(konnektorAddress, entry);
+      return entry.connectorServices();
+    }
+  }
+
+  /** Remove all cache entries, including the persisted ones. */
+  public void invalidateAll() {
+    entries.keySet().forEach(this::delete);
+    entries.clear();
+  }
+
+  // region private
+
+  private Optional<Entry> load(String konnektorAddress) {
+    if (Objects.isNull(directory)) {
+      return Optional.empty();
+    }
+
+    var sdsFile = file(konnektorAddress, SDS_FILE_SUFFIX);
+    var validatorsFile = file(konnektorAddress, VALIDATORS_FILE_SUFFIX);
+    if (!Files.isRegularFile(sdsFile) || !Files.isRegularFile(validatorsFile)) {
+      return Optional.empty();
+    }
+
+    try (InputStream validatorsStream = Files.newInputStream(validatorsFile)) {
+      var validators = new Properties();
+      validators.load(validatorsStream);
+      if (!konnektorAddress.equals(validators.getProperty(ADDRESS_PROPERTY))) {
+        return Optional.empty();
+      }
+      var sds = Files.readAllBytes(sdsFile);
+      return Optional.of(
+          new Entry(
+              XmlUtils.unmarshal(ConnectorServices.class, sds),
+              sds,
+              validators.getProperty(ETAG_PROPERTY),
+              validators.getProperty(LAST_MODIFIED_PROPERTY)));
+    } catch (Exception e) {
+      log.warn(
+          "Persisted connection information of the Konnektor {} could not be read and is ignored",
+          konnektorAddress,
+          e);
+      return Optional.empty();
+    }
+  }
+
+  private void store(String konnektorAddress, Entry entry) {
+    if (Objects.isNull(directory)) {
+      return;
+    }
+
+    var validators = new Properties();
+    validators.setProperty(ADDRESS_PROPERTY, konnektorAddress);
+    Optional.ofNullable(entry.etag()).ifPresent(v -> validators.setProperty(ETAG_PROPERTY, v));
+    Optional.ofNullable(entry.lastModified())
+        .ifPresent(v -> validators.setProperty(LAST_MODIFIED_PROPERTY, v));
+
+    try {
+      Files.createDirectories(directory);
+      // The document is written before its validators. If only the document gets written, the old
+      // validators do not match it anymore and the Konnektor sends the document again.
+      replace(file(konnektorAddress, SDS_FILE_SUFFIX), entry.sds());
+      var validatorsTmp = Files.createTempFile(directory, null, VALIDATORS_FILE_SUFFIX);
+      try (OutputStream validatorsStream = Files.newOutputStream(validatorsTmp)) {
+        validators.store(validatorsStream, null);
+      }
+      move(validatorsTmp, file(konnektorAddress, VALIDATORS_FILE_SUFFIX));
+    } catch (IOException e) {
+      log.warn(
+          "Connection information of the Konnektor {} could not be persisted in {}",
+          konnektorAddress,
+          directory,
+          e);
+    }
+  }
+
+  private void delete(String konnektorAddress) {
+    if (Objects.isNull(directory)) {
+      return;
+    }
+
+    try {
+      Files.deleteIfExists(file(konnektorAddress, VALIDATORS_FILE_SUFFIX));
+      Files.deleteIfExists(file(konnektorAddress, SDS_FILE_SUFFIX));
+    } catch (IOException e) {
+      log.warn(
+          "Persisted connection information of the Konnektor {} could not be deleted",
+          konnektorAddress,
+          e);
+    }
+  }
+
+  private void replace(Path target, byte[] content) throws IOException {
+    var tmp = Files.createTempFile(directory, null, SDS_FILE_SUFFIX);
+    Files.write(tmp, content);
+    move(tmp, target);
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(
+          source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(source);
+    }
+  }
+
+  @SneakyThrows
+  private Path file(String konnektorAddress, String suffix) {
+    var hash =
+        MessageDigest.getInstance("SHA-256")
+            .digest(konnektorAddress.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve(HexFormat.of().formatHex(hash) + suffix);
+  }
+
+  private record Entry(
+      ConnectorServices connectorServices, byte[] sds, String etag, String lastModified) {}
+
+  // endregion private
+}
@@ -36,6 +36,7 @@ import de.gematik.epa.api.testdriver.config.ProxyAddressConfig;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.KonnektorInterfaceAssembly;
 import de.gematik.epa.konnektor.client.CardServiceClient;
+import de.gematik.epa.konnektor.client.PinVerificationSummary;
 import de.gematik.epa.utils.ThrowingFunction;
 import de.gematik.epa.utils.XmlUtils;
 import jakarta.ws.rs.InternalServerErrorException;
@@ -43,18 +44,27 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.security.KeyStore;
 import java.security.cert.X509Certificate;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.SneakyThrows;
+import lombok.With;
 import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.configuration.security.AuthorizationPolicy;
 import org.apache.cxf.ext.logging.LoggingFeature;
@@ -75,7 +85,6 @@ import telematik.ws.conn.eventservice.wsdl.v6_1.EventService;
 import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
 import telematik.ws.conn.plus.ObjectFactory;
 import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
-import telematik.ws.conn.serviceinformation.xsd.v2_0.EndpointType;
 import telematik.ws.conn.signatureservice.wsdl.v7_5.SignatureService;
 import telematik.ws.conn.signatureservice.wsdl.v7_5.SignatureServicePortType;
 import telematik.ws.conn.vsds.vsdservice.wsdl.v5_2.VSDService;
@@ -88,27 +97,38 @@ import telematik.ws.conn.vsds.vsdservice.wsdl.v5_2.VSDServicePortType;
 @Getter
 @Setter
 @Accessors(fluent = true)
+@Slf4j
 public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
 
   public static final String HTTPS_PROTOCOL = "https";
 
-  protected KonnektorConnectionConfiguration configuration;
-
   private final FileLoader fileLoader;
 
   @Getter(lazy = true)
   private final LoggingFeature loggingFeature = newLoggingFeature(Level.DEBUG);
 
-  Boolean isTlsPreferred = Boolean.TRUE;
+  /** Cache of the connection information (connector.sds), which is revalidated on each update */
+  private ConnectorServicesCache connectorServicesCache = new ConnectorServicesCache();
+
+  /**
+   * Whether {@link #update(KonnektorConnectionConfiguration)} creates all client proxies upfront
+   * (in parallel). If not, each proxy is created on its first use.
+   */
+  boolean preWarmProxies = false;
+
+  /** Number of SMC-Bs, whose PIN is verified at the same time by {@link #unlockSmbs} */
+  int pinVerificationParallelism = CardServiceClient.DEFAULT_PIN_VERIFICATION_PARALLELISM;
+
+  /** Time the verification of the PIN of one SMC-B may take in {@link #unlockSmbs} */
+  Duration pinVerificationTimeout = CardServiceClient.DEFAULT_PIN_VERIFICATION_TIMEOUT;
 
-  protected ConnectorServices connectorServices;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile Connection connection = Connection.NONE;
 
-  protected EventServicePortType eventService;
-  protected CardServicePortType cardService;
-  protected CertificateServicePortType certificateService;
-  protected SignatureServicePortType signatureService;
-  protected VSDServicePortType vsdService;
-  protected AuthSignatureServicePortType authSignatureService;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final ReentrantLock updateLock = new ReentrantLock();
 
   public KonnektorInterfacesCxfImpl(FileLoader fileLoader) {
     this.fileLoader = fileLoader;
@@ -117,21 +137,151 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
   /**
    * Change the configuration used for establishing connections to the Konnektor webservices<br>
    * Recreates all client proxies for the Konnektor web services, thus making configuration change
-   * at runtime possible.
+   * at runtime possible.<br>
+   * The connection information (connector.sds) is taken from the {@link #connectorServicesCache},
+   * which only transfers and parses it again, if the Konnektor reports a change.<br>
+   * Creating a proxy is expensive (WSDL service model and JAXB context), so by default each proxy
+   * is only created, when its service is first used. With {@link #preWarmProxies} all proxies are
+   * created right away in parallel, and a failure keeps the current proxies in place.<br>
+   * Either way, the proxies are swapped in at once, so an operation never sees a mix of proxies for
+   * the old and the new Konnektor. Operations, which already obtained a proxy, complete with it.
    *
    * @param newConfiguration the new configuration data to be used for connecting to the Konnektor
    * @return Reference to the object itself, so the method can be used in chained method calls.
    */
   public KonnektorInterfacesCxfImpl update(KonnektorConnectionConfiguration newConfiguration) {
-    this.configuration = newConfiguration;
-    isTlsPreferred = determineIfTlsPreferred();
-    connectorServices = sdsApi().getConnectorSds();
-    eventService = createEventService();
-    cardService = createCardService();
-    certificateService = createCertificateService();
-    signatureService = createSignatureService();
-    vsdService = createVSDService();
-    authSignatureService = createAuthSignatureService();
+    updateLock.lock();
+    try {
+      return publish(connect(newConfiguration));
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Prepare the connection to the Konnektor with the given configuration, without using it yet.<br>
+   * The connection information is read, and the client proxies are created as described for {@link
+   * #update(KonnektorConnectionConfiguration)}. If this fails, nothing has changed.
+   *
+   * @param newConfiguration the configuration data to be used for connecting to the Konnektor
+   * @return the prepared connection, which can be put into use with {@link #publish(Connection)}
+   */
+  @SneakyThrows
+  public Connection connect(@NonNull KonnektorConnectionConfiguration newConfiguration) {
+    var tlsPreferred = determineIfTlsPreferred(newConfiguration);
+    var newConnectorServices =
+        connectorServicesCache.get(
+            newConfiguration.address().createUrl().toString(), sdsApi(newConfiguration));
+    var newConnection =
+        new Connection(
+            newConfiguration,
+            newConnectorServices,
+            new ConnectorServiceEndpoints(newConnectorServices, tlsPreferred),
+            ServicePorts.NONE);
+    return newConnection.withServicePorts(
+        preWarmProxies ? createServicePorts(newConnection) : lazyServicePorts(newConnection));
+  }
+
+  /**
+   * Put a connection, prepared with {@link #connect(KonnektorConnectionConfiguration)}, into use.
+   * <br>
+   * The configuration, connection information and client proxies are swapped in with a single
+   * write.
+   *
+   * @param newConnection the prepared connection
+   * @return Reference to the object itself, so the method can be used in chained method calls.
+   */
+  public KonnektorInterfacesCxfImpl publish(@NonNull Connection newConnection) {
+    updateLock.lock();
+    try {
+      this.connection = newConnection;
+      return this;
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Configuration of the connection in use.
+   *
+   * @return the connection configuration, or null, if no connection was established yet
+   */
+  public KonnektorConnectionConfiguration configuration() {
+    return connection.configuration();
+  }
+
+  /**
+   * Connection information (connector.sds) of the Konnektor in use.
+   *
+   * @return the connection information, or null, if no connection was established yet
+   */
+  public ConnectorServices connectorServices() {
+    return connection.connectorServices();
+  }
+
+  public Boolean isTlsPreferred() {
+    return determineIfTlsPreferred(connection.configuration());
+  }
+
+  @Override
+  public EventServicePortType eventService() {
+    return connection.servicePorts().eventService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl eventService(EventServicePortType eventService) {
+    updatePorts(ports -> ports.withEventService(() -> eventService));
+    return this;
+  }
+
+  @Override
+  public CardServicePortType cardService() {
+    return connection.servicePorts().cardService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl cardService(CardServicePortType cardService) {
+    updatePorts(ports -> ports.withCardService(() -> cardService));
+    return this;
+  }
+
+  @Override
+  public CertificateServicePortType certificateService() {
+    return connection.servicePorts().certificateService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl certificateService(
+      CertificateServicePortType certificateService) {
+    updatePorts(ports -> ports.withCertificateService(() -> certificateService));
+    return this;
+  }
+
+  @Override
+  public SignatureServicePortType signatureService() {
+    return connection.servicePorts().signatureService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl signatureService(SignatureServicePortType signatureService) {
+    updatePorts(ports -> ports.withSignatureService(() -> signatureService));
+    return this;
+  }
+
+  @Override
+  public VSDServicePortType vsdService() {
+    return connection.servicePorts().vsdService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl vsdService(VSDServicePortType vsdService) {
+    updatePorts(ports -> ports.withVsdService(() -> vsdService));
+    return this;
+  }
+
+  @Override
+  public AuthSignatureServicePortType authSignatureService() {
+    return connection.servicePorts().authSignatureService().get();
+  }
+
+  public KonnektorInterfacesCxfImpl authSignatureService(
+      AuthSignatureServicePortType authSignatureService) {
+    updatePorts(ports -> ports.withAuthSignatureService(() -> authSignatureService));
     return this;
   }
 
@@ -144,13 +294,37 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
     }
   }
 
-  public void unlockSmbs(KonnektorContextProvider contextProvider)
+  /**
+   * Verify the PIN of all SMC-Bs concurrently.<br>
+   * The result for each SMC-B is logged. Only if there are SMC-Bs, but none of them could be
+   * unlocked, the operation fails.
+   *
+   * @param contextProvider provider of the context for the card operations
+   * @return the result of the verification for each SMC-B
+   * @throws InternalServerErrorException if no SMC-B could be unlocked
+   */
+  public PinVerificationSummary unlockSmbs(KonnektorContextProvider contextProvider)
       throws InternalServerErrorException {
+    PinVerificationSummary summary;
     try (CardServiceClient cardServiceClient = new CardServiceClient(contextProvider, this)) {
-      cardServiceClient.verifySmbs();
+      summary =
+          cardServiceClient
+              .pinVerificationParallelism(pinVerificationParallelism)
+              .pinVerificationTimeout(pinVerificationTimeout)
+              .verifySmbs();
     } catch (Exception e) {
       throw new InternalServerErrorException("Operation unlockSmb failed with an exception", e);
     }
+
+    if (summary.noneVerified()) {
+      throw new InternalServerErrorException(
+          "Operation unlockSmb failed for all SMC-Bs. " + summary);
+    } else if (!summary.allVerified()) {
+      log.warn("Not all SMC-Bs could be unlocked. {}", summary);
+    } else {
+      log.info("{}", summary);
+    }
+    return summary;
   }
 
   /**
@@ -161,10 +335,11 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
    * Overwrite this method (e.g. for test purposes), if the client implementation should be created
    * another way.
    *
+   * @param configuration the configuration of the connection to the Konnektor
    * @return the client implementation of the SdsApi
    */
   @SneakyThrows
-  protected SdsApi sdsApi() {
+  protected SdsApi sdsApi(KonnektorConnectionConfiguration configuration) {
     var factoryBean = new JAXRSClientFactoryBean();
     factoryBean.setServiceClass(SdsApi.class);
     factoryBean.getFeatures().add(loggingFeature());
@@ -176,13 +351,13 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
 
     var sdsHttpConduit = WebClient.getConfig(sdsApi).getHttpConduit();
 
-    if (isTlsPreferred) {
-      configureTls(sdsHttpConduit);
+    if (determineIfTlsPreferred(configuration)) {
+      configureTls(sdsHttpConduit, configuration);
     }
 
-    configureBasicAuthenticationIfEnabled(sdsHttpConduit);
+    configureBasicAuthenticationIfEnabled(sdsHttpConduit, configuration);
 
-    configureProxyIfEnabled(sdsHttpConduit);
+    configureProxyIfEnabled(sdsHttpConduit, configuration);
 
     return sdsApi;
   }
@@ -193,6 +368,7 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
    * If the way the client implementations are created, is to be changed, e.g. for testing purposes,
    * this method can be overwritten.
    *
+   * @param configuration the configuration of the connection to the Konnektor
    * @param portType the class type, for which the client implementation is to be created
    * @param soapBinding the SOAP Binding to use (see {@link jakarta.xml.ws.soap.SOAPBinding} for
    *     possible values)
@@ -204,6 +380,7 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
    * @return T returns the created client implementation of the given class type
    */
   protected <T> T getClientProxyImpl(
+      @NonNull final KonnektorConnectionConfiguration configuration,
       @NonNull final Class<T> portType,
       @NonNull final String soapBinding,
       @NonNull final String endpointAddress,
@@ -215,13 +392,13 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
 
     var httpConduit = (HTTPConduit) ClientProxy.getClient(proxy).getConduit();
 
-    if (isTlsPreferred) {
-      configureTls(httpConduit);
+    if (determineIfTlsPreferred(configuration)) {
+      configureTls(httpConduit, configuration);
     }
 
-    configureBasicAuthenticationIfEnabled(httpConduit);
+    configureBasicAuthenticationIfEnabled(httpConduit, configuration);
 
-    configureProxyIfEnabled(httpConduit);
+    configureProxyIfEnabled(httpConduit, configuration);
 
     return proxy;
   }
@@ -255,23 +432,88 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
     return tlsParams;
   }
 
-  private <T> T getClientProxyImpl(final Class<T> portType, final String endpointAddress) {
-    return getClientProxyImpl(portType, SOAP11HTTP_BINDING, endpointAddress, null);
+  /**
+   * Creates the client proxies for all Konnektor web services in parallel, as each creation has to
+   * build the WSDL service model and JAXB context of its service.
+   *
+   * @param target the connection, for which the client proxies are created
+   * @return {@link ServicePorts} with the new client proxies
+   */
+  @SneakyThrows
+  private ServicePorts createServicePorts(Connection target) {
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var eventServiceFuture = executor.submit(() -> createEventService(target));
+      var cardServiceFuture = executor.submit(() -> createCardService(target));
+      var certificateServiceFuture = executor.submit(() -> createCertificateService(target));
+      var signatureServiceFuture = executor.submit(() -> createSignatureService(target));
+      var vsdServiceFuture = executor.submit(() -> createVSDService(target));
+      var authSignatureServiceFuture = executor.submit(() -> createAuthSignatureService(target));
+
+      return ServicePorts.of(
+          join(eventServiceFuture),
+          join(cardServiceFuture),
+          join(certificateServiceFuture),
+          join(signatureServiceFuture),
+          join(vsdServiceFuture),
+          join(authSignatureServiceFuture));
+    }
+  }
+
+  /**
+   * Client proxies, which are created on first use.<br>
+   * Each proxy is created for the given connection, even if another one is in use by then.
+   *
+   * @param target the connection, for which the client proxies are created
+   * @return {@link ServicePorts} with the lazily created client proxies
+   */
+  private ServicePorts lazyServicePorts(Connection target) {
+    return new ServicePorts(
+        new LazyPort<>(() -> createEventService(target)),
+        new LazyPort<>(() -> createCardService(target)),
+        new LazyPort<>(() -> createCertificateService(target)),
+        new LazyPort<>(() -> createSignatureService(target)),
+        new LazyPort<>(() -> createVSDService(target)),
+        new LazyPort<>(() -> createAuthSignatureService(target)));
+  }
+
+  private void updatePorts(UnaryOperator<ServicePorts> change) {
+    updateLock.lock();
+    try {
+      connection = connection.withServicePorts(change.apply(connection.servicePorts()));
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  private static <T> T join(Future<T> future) throws Throwable {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
+  private <T> T getClientProxyImpl(
+      final Connection target, final Class<T> portType, final String endpointAddress) {
+    return getClientProxyImpl(
+        target.configuration(), portType, SOAP11HTTP_BINDING, endpointAddress, null);
   }
 
   /**
    * Creates the actual client implementation of the Konnektors {@link SignatureServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return SignatureServicePortType implementation
    */
-  private SignatureServicePortType createSignatureService() {
+  private SignatureServicePortType createSignatureService(Connection target) {
     return getClientProxyImpl(
+        target.configuration(),
         SignatureServicePortType.class,
         SOAP11HTTP_BINDING,
-        readServiceEndpoint(SignatureService.SERVICE.getLocalPart(), "7.5", "7"),
+        target.endpoint(SignatureService.SERVICE.getLocalPart(), "7.5", "7"),
         jaxWsProxyFactory ->
             XmlUtils.registerObjectFactory(jaxWsProxyFactory, ObjectFactory.class));
   }
@@ -279,102 +521,82 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
   /**
    * Creates the actual client implementation of the Konnektors {@link EventServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return EventServicePortType implementation
    */
-  private EventServicePortType createEventService() {
+  private EventServicePortType createEventService(Connection target) {
     return getClientProxyImpl(
-        EventServicePortType.class, readServiceEndpoint(EventService.SERVICE.getLocalPart(), ""));
+        target,
+        EventServicePortType.class,
+        target.endpoint(EventService.SERVICE.getLocalPart(), ""));
   }
 
   /**
    * Creates the actual client implementation of the Konnektors {@link VSDServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return VSDServicePortType implementation
    */
-  private VSDServicePortType createVSDService() {
+  private VSDServicePortType createVSDService(Connection target) {
     return getClientProxyImpl(
-        VSDServicePortType.class, readServiceEndpoint(VSDService.SERVICE.getLocalPart(), ""));
+        target, VSDServicePortType.class, target.endpoint(VSDService.SERVICE.getLocalPart(), ""));
   }
 
   /**
    * Creates the actual client implementation of the Konnektors {@link CertificateServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return CertificateServicePortType implementation
    */
-  private CertificateServicePortType createCertificateService() {
+  private CertificateServicePortType createCertificateService(Connection target) {
     return getClientProxyImpl(
+        target,
         CertificateServicePortType.class,
-        readServiceEndpoint(CertificateService.SERVICE.getLocalPart(), "6.0.1", "6"));
+        target.endpoint(CertificateService.SERVICE.getLocalPart(), "6.0.1", "6"));
   }
 
   /**
    * Creates the actual client implementation of the Konnektors {@link CardServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return CardServicePortType implementation
    */
-  private CardServicePortType createCardService() {
+  private CardServicePortType createCardService(Connection target) {
     return getClientProxyImpl(
+        target,
         CardServicePortType.class,
-        readServiceEndpoint(CardService.SERVICE.getLocalPart(), "8.1.2", "8.1", "8"));
+        target.endpoint(CardService.SERVICE.getLocalPart(), "8.1.2", "8.1", "8"));
   }
 
   /**
    * Creates the actual client implementation of the Konnektors {@link AuthSignatureServicePortType}
    * interface.<br>
-   * Endpoint of the Konnektor Service to talk to is retrieved from the information in the {@link
-   * #connectorServices()} bean.
+   * Endpoint of the Konnektor Service to talk to is retrieved from the connection information of
+   * the given connection.
    *
+   * @param target the connection, for which the client implementation is created
    * @return AuthSignatureServicePortType implementation
    */
-  private AuthSignatureServicePortType createAuthSignatureService() {
+  private AuthSignatureServicePortType createAuthSignatureService(Connection target) {
     return getClientProxyImpl(
+        target,
         AuthSignatureServicePortType.class,
-        readServiceEndpoint(AuthSignatureService.SERVICE.getLocalPart(), "7.4.1", "7.4", "7"));
+        target.endpoint(AuthSignatureService.SERVICE.getLocalPart(), "7.4.1", "7.4", "7"));
   }
 
-  private String readServiceEndpoint(String serviceName, String... serviceVersionStartsWith) {
-    for (String svsw : serviceVersionStartsWith) {
-      var endpoint = readSingleServiceEndpoint(serviceName, svsw);
-      if (Objects.nonNull(endpoint)) {
-        return endpoint;
-      }
-    }
-
-    throw new IllegalArgumentException(
-        String.format(
-            "No usable service endpoint configuration found for service %s in version %s",
-            serviceName, Arrays.toString(serviceVersionStartsWith)));
-  }
-
-  private String readSingleServiceEndpoint(String serviceName, String serviceVersionStartsWith) {
-    return connectorServices().getServiceInformation().getService().stream()
-        .filter(service -> serviceName.equals(service.getName()))
-        .flatMap(service -> service.getVersions().getVersion().stream())
-        .filter(
-            versionedService -> versionedService.getVersion().startsWith(serviceVersionStartsWith))
-        .map(
-            versionedService ->
-                Optional.ofNullable(versionedService.getEndpointTLS())
-                    .filter(endpoint -> connectorServices().isTLSMandatory() || isTlsPreferred)
-                    .orElse(versionedService.getEndpoint()))
-        .map(EndpointType::getLocation)
-        .findFirst()
-        .orElse(null);
-  }
-
-  private Boolean determineIfTlsPreferred() {
+  private static Boolean determineIfTlsPreferred(KonnektorConnectionConfiguration configuration) {
     return Optional.ofNullable(configuration)
         .map(KonnektorConnectionConfiguration::address)
         .map(AddressConfig::protocol)
@@ -383,7 +605,8 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
   }
 
   @SneakyThrows
-  private void configureTls(final HTTPConduit httpConduit) {
+  private void configureTls(
+      final HTTPConduit httpConduit, final KonnektorConnectionConfiguration configuration) {
     var tlsConfig =
         Objects.requireNonNull(
             configuration.tlsConfig(),
@@ -418,7 +641,8 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
     httpConduit.setTlsClientParameters(tlsParams);
   }
 
-  private void configureBasicAuthenticationIfEnabled(HTTPConduit httpConduit) {
+  private void configureBasicAuthenticationIfEnabled(
+      HTTPConduit httpConduit, KonnektorConnectionConfiguration configuration) {
     Optional.ofNullable(configuration.basicAuthentication())
         .filter(BasicAuthenticationConfig::enabled)
         .ifPresent(
@@ -432,7 +656,8 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
             });
   }
 
-  private void configureProxyIfEnabled(HTTPConduit httpConduit) {
+  private void configureProxyIfEnabled(
+      HTTPConduit httpConduit, KonnektorConnectionConfiguration configuration) {
     Optional.ofNullable(configuration.proxyAddress())
         .filter(ProxyAddressConfig::enabled)
         .ifPresent(
@@ -443,4 +668,93 @@ public class KonnektorInterfacesCxfImpl implements KonnektorInterfaceAssembly {
   }
 
   public interface FileLoader extends ThrowingFunction<String, InputStream> {}
+
+  /**
+   * Connection to the Konnektor, with all state derived from its configuration.<br>
+   * It is immutable and put into use as a whole, so operations never see parts of two connections.
+   *
+   * @param configuration the configuration of the connection
+   * @param connectorServices the connection information (connector.sds) of the Konnektor
+   * @param serviceEndpoints the endpoints of the Konnektor web services
+   * @param servicePorts the client proxies of the Konnektor web services
+   */
+  @With
+  public record Connection(
+      KonnektorConnectionConfiguration configuration,
+      ConnectorServices connectorServices,
+      ConnectorServiceEndpoints serviceEndpoints,
+      ServicePorts servicePorts) {
+
+    static final Connection NONE = new Connection(null, null, null, ServicePorts.NONE);
+
+    String endpoint(String serviceName, String... serviceVersionStartsWith) {
+      return serviceEndpoints.endpoint(serviceName, serviceVersionStartsWith);
+    }
+  }
+
+  /** Client proxies of the Konnektor web services, which are published together. */
+  @With
+  protected record ServicePorts(
+      Supplier<EventServicePortType> eventService,
+      Supplier<CardServicePortType> cardService,
+      Supplier<CertificateServicePortType> certificateService,
+      Supplier<SignatureServicePortType> signatureService,
+      Supplier<VSDServicePortType> vsdService,
+      Supplier<AuthSignatureServicePortType> authSignatureService) {
+
+    static final ServicePorts NONE = of(null, null, null, null, null, null);
+
+    static ServicePorts of(
+        EventServicePortType eventService,
+        CardServicePortType cardService,
+        CertificateServicePortType certificateService,
+        SignatureServicePortType signatureService,
+        VSDServicePortType vsdService,
+        AuthSignatureServicePortType authSignatureService) {
+      return new ServicePorts(
+          () -> eventService,
+          () -> cardService,
+          () -> certificateService,
+          () -> signatureService,
+          () -> vsdService,
+          () -> authSignatureService);
+    }
+  }
+
+  /**
+   * Client proxy, which is created on first use.<br>
+   * The factory holds the connection, for which the proxy is to be created, so the creation does
+   * not depend on the connection in use at that time.
+   *
+   * @param <T> type of the Konnektor service
+   */
+  private static final class LazyPort<T> implements Supplier<T> {
+
+    private final Supplier<T> factory;
+
+    private final ReentrantLock creationLock = new ReentrantLock();
+
+    private volatile T port;
+
+    LazyPort(Supplier<T> factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T get() {
+      var current = port;
+      if (Objects.isNull(current)) {
+        creationLock.lock();
+        try {
+          if (Objects.isNull(port)) {
+            port = factory.get();
+          }
+          current = port;
+        } finally {
+          creationLock.unlock();
+        }
+      }
+      return current;
+    }
+  }
 }
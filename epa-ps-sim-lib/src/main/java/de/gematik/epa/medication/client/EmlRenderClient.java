@@ -30,6 +30,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.gematik.epa.api.medication_render.client.dto.*;
 import de.gematik.epa.client.JaxRsOutgoingRequestInterceptor;
+import de.gematik.epa.client.SharedJsonProvider;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -64,7 +65,7 @@ public class EmlRenderClient {
   private final String updateEmpEntryPath;
   private final String medicationPlanLogPath;
   private final WebClient webClient;
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ObjectMapper objectMapper = SharedJsonProvider.objectMapper();
   private String linkEmpPath;
 
   public EmlRenderClient(
@@ -0,0 +1,469 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link HealthRecordLocationCache} with a bounded number of entries, each valid for a limited
+ * time. <br>
+ * If more than {@code maxEntries} insurants are cached, the least recently used ones are dropped.
+ * The cache is not ordered by use, so that reads do not need a lock. Instead, a pass over all
+ * entries drops the least recently used tenth of them, whenever the bound is exceeded.<br>
+ * A location is used for {@code timeToLive}, or until it is replaced or removed, if this time is 0
+ * (the default). A missing health record is remembered for {@code missingTimeToLive}. Missing
+ * health records are not remembered at all, if this time is 0.<br>
+ * If a file is given, each change of the cache, including the drop of least recently used entries,
+ * is appended to it and the cache is restored from it on creation, so the locations survive a
+ * restart of the application. The file is written by a background thread, so a change does not wait
+ * for the file. It is compacted, when it holds much more changes than entries.
+ */
+@Slf4j
+@Accessors(fluent = true)
+public class BoundedHealthRecordLocationCache implements HealthRecordLocationCache, AutoCloseable {
+
+  public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+  /** Locations are used until they are replaced or removed */
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ZERO;
+
+  private static final String PUT = "put";
+  private static final String MISSING = "missing";
+  private static final String REMOVE = "remove";
+  private static final String CLEAR = "clear";
+  private static final String SEPARATOR = "\t";
+  private static final String END_OF_JOURNAL = "";
+  private static final int MIN_JOURNAL_LINES_TO_COMPACT = 1_000;
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+  // latest time, which can be written to the file
+  private static final Instant NO_EXPIRY = Instant.ofEpochMilli(Long.MAX_VALUE);
+
+  /** Maximum number of cached insurants */
+  @Getter private final int maxEntries;
+
+  /** Time a location is used, 0 if it is used until it is replaced or removed */
+  @Getter private final Duration timeToLive;
+
+  /** Time a missing health record is remembered, 0 if missing health records are not remembered */
+  @Getter private final Duration missingTimeToLive;
+
+  /** File the cache is persisted in, or null if it is kept in memory only */
+  @Getter private final Path file;
+
+  private final Clock clock;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private final ReentrantLock eviction = new ReentrantLock();
+
+  private final BlockingQueue<String> pendingLines = new LinkedBlockingQueue<>();
+
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private final Thread journalWriter;
+
+  // only used on creation and by the journal writer afterward
+  private BufferedWriter journal;
+
+  private int journalLines;
+
+  /** Create a cache with the default bounds, which is kept in memory only. */
+  public BoundedHealthRecordLocationCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE, Duration.ZERO, null);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param maxEntries maximum number of cached insurants
+   * @param timeToLive time a location is used, 0 to use it until it is replaced or removed
+   * @param missingTimeToLive time a missing health record is remembered, 0 to not remember them
+   * @param file file the cache is persisted in, or null to keep the cache in memory only
+   */
+  public BoundedHealthRecordLocationCache(
+      int maxEntries,
+      @NonNull Duration timeToLive,
+      @NonNull Duration missingTimeToLive,
+      Path file) {
+    this(maxEntries, timeToLive, missingTimeToLive, file, Clock.systemUTC());
+  }
+
+  public BoundedHealthRecordLocationCache(
+      int maxEntries,
+      @NonNull Duration timeToLive,
+      @NonNull Duration missingTimeToLive,
+      Path file,
+      @NonNull Clock clock) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive, but is " + maxEntries);
+    }
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.missingTimeToLive = missingTimeToLive;
+    this.file = file;
+    this.clock = clock;
+    restore();
+    this.journalWriter =
+        journal == null
+            ? null
+            : Thread.ofPlatform().name("health-record-journal").daemon().start(this::writeJournal);
+  }
+
+  @Override
+  public Optional<String> get(String insurantId) {
+    return valid(insurantId).map(Entry::url);
+  }
+
+  @Override
+  public boolean isMissing(String insurantId) {
+    return valid(insurantId).map(entry -> entry.url() == null).orElse(false);
+  }
+
+  @Override
+  public void put(@NonNull String insurantId, @NonNull String url) {
+    var expires =
+        timeToLive.isZero() || timeToLive.isNegative()
+            ? NO_EXPIRY
+            : clock.instant().plus(timeToLive);
+    store(insurantId, new Entry(url, expires), PUT);
+  }
+
+  @Override
+  public void putMissing(@NonNull String insurantId) {
+    if (missingTimeToLive.isZero() || missingTimeToLive.isNegative()) {
+      return;
+    }
+    var entry = new Entry(null, clock.instant().plus(missingTimeToLive));
+    store(insurantId, entry, MISSING);
+  }
+
+  @Override
+  public void remove(String insurantId) {
+    entries.computeIfPresent(
+        insurantId,
+        (key, current) -> {
+          append(REMOVE, key, "", Instant.EPOCH);
+          return null;
+        });
+  }
+
+  @Override
+  public void clear() {
+    entries.clear();
+    append(CLEAR, "", "", Instant.EPOCH);
+  }
+
+  @Override
+  public Map<String, String> locations() {
+    var now = clock.instant();
+    return entries.entrySet().stream()
+        .filter(entry -> entry.getValue().url() != null && entry.getValue().expires().isAfter(now))
+        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().url()));
+  }
+
+  /** Number of cached insurants, including expired ones, which were not dropped yet */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Write the pending changes to the file and close it. */
+  @Override
+  public void close() {
+    if (journalWriter == null || !closed.compareAndSet(false, true)) {
+      return;
+    }
+    pendingLines.add(END_OF_JOURNAL);
+    try {
+      journalWriter.join(CLOSE_TIMEOUT);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // region private
+
+  private Optional<Entry> valid(String insurantId) {
+    var entry = entries.get(insurantId);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (!entry.expires().isAfter(clock.instant())) {
+      entries.remove(insurantId, entry);
+      return Optional.empty();
+    }
+    entry.used();
+    return Optional.of(entry);
+  }
+
+  private void store(String insurantId, Entry entry, String operation) {
+    // the line is queued within the update of the key, so the file gets the changes of a key in
+    // the order of the cache
+    entries.compute(
+        insurantId,
+        (key, current) -> {
+          append(operation, key, Objects.requireNonNullElse(entry.url(), ""), entry.expires());
+          return entry;
+        });
+    evictIfFull();
+  }
+
+  /** Drop the expired and the least recently used entries, if the cache holds too many. */
+  private void evictIfFull() {
+    if (entries.size() <= maxEntries || !eviction.tryLock()) {
+      return;
+    }
+    try {
+      var now = clock.instant();
+      entries.values().removeIf(entry -> !entry.expires().isAfter(now));
+      var lastUses = entries.values().stream().mapToLong(Entry::lastUsed).sorted().toArray();
+      var excess = lastUses.length - maxEntries + maxEntries / 10;
+      if (excess > 0) {
+        // entries used during the pass are newer than the threshold and are kept
+        var threshold = lastUses[excess - 1];
+        entries.forEach(
+            (insurantId, entry) -> {
+              if (entry.lastUsed() <= threshold) {
+                drop(insurantId, entry);
+              }
+            });
+      }
+    } finally {
+      eviction.unlock();
+    }
+  }
+
+  /**
+   * Remove the entry of the insurant, unless it was replaced meanwhile. The removal is appended to
+   * the file, as a dropped entry is not expired and would be restored otherwise.
+   */
+  private void drop(String insurantId, Entry entry) {
+    entries.computeIfPresent(
+        insurantId,
+        (key, current) -> {
+          if (current != entry) {
+            return current;
+          }
+          append(REMOVE, key, "", Instant.EPOCH);
+          return null;
+        });
+  }
+
+  private void restore() {
+    if (Objects.isNull(file) || !Files.isRegularFile(file)) {
+      compact();
+      return;
+    }
+    try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+      var now = clock.instant();
+      lines.forEach(line -> replay(line, now));
+      evictIfFull();
+      log.info("Restored the locations of {} health records from {}", entries.size(), file);
+    } catch (IOException | RuntimeException e) {
+      log.warn(
+          "Persisted health record locations in {} could not be read and are ignored", file, e);
+      entries.clear();
+    }
+    compact();
+  }
+
+  private void replay(String line, Instant now) {
+    var fields = line.split(SEPARATOR, -1);
+    switch (fields[0]) {
+      case PUT, MISSING -> {
+        var expires = Instant.ofEpochMilli(Long.parseLong(fields[3]));
+        if (expires.isAfter(now)) {
+          entries.put(fields[1], new Entry(PUT.equals(fields[0]) ? fields[2] : null, expires));
+        } else {
+          entries.remove(fields[1]);
+        }
+      }
+      case REMOVE -> entries.remove(fields[1]);
+      case CLEAR -> entries.clear();
+      default -> log.debug("Unknown line in {} is ignored: {}", file, line);
+    }
+  }
+
+  private void append(String operation, String insurantId, String url, Instant expires) {
+    if (journalWriter != null && !closed.get()) {
+      pendingLines.add(line(operation, insurantId, url, expires));
+    }
+  }
+
+  /** Loop of the journal writer, which writes the queued lines in batches. */
+  private void writeJournal() {
+    var batch = new ArrayList<String>();
+    var open = true;
+    while (open) {
+      try {
+        batch.add(pendingLines.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      pendingLines.drainTo(batch);
+      open = !batch.remove(END_OF_JOURNAL);
+      write(batch);
+      batch.clear();
+    }
+    closeJournal();
+  }
+
+  private void write(List<String> lines) {
+    if (journal == null || lines.isEmpty()) {
+      return;
+    }
+    try {
+      for (var line : lines) {
+        journal.write(line);
+      }
+      journal.flush();
+      journalLines += lines.size();
+    } catch (IOException e) {
+      log.warn(
+          "Health record locations could not be persisted in {}, only kept in memory", file, e);
+      closeJournal();
+      return;
+    }
+    if (journalLines > Math.max(MIN_JOURNAL_LINES_TO_COMPACT, 2 * entries.size())) {
+      compact();
+    }
+  }
+
+  /**
+   * Rewrite the file with the current entries and continue appending to it.<br>
+   * Changes made while the entries are written are queued and appended afterward, so they are
+   * replayed on top of the written entries.
+   */
+  private void compact() {
+    if (Objects.isNull(file)) {
+      return;
+    }
+    closeJournal();
+    try {
+      var directory = Objects.requireNonNullElse(file.toAbsolutePath().getParent(), Path.of("."));
+      Files.createDirectories(directory);
+      var tmp = Files.createTempFile(directory, null, ".tmp");
+      var written = 0;
+      try {
+        try (var writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+          for (var entry : entries.entrySet()) {
+            var value = entry.getValue();
+            writer.write(
+                line(
+                    value.url() == null ? MISSING : PUT,
+                    entry.getKey(),
+                    Objects.requireNonNullElse(value.url(), ""),
+                    value.expires()));
+            written++;
+          }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      journal =
+          Files.newBufferedWriter(
+              file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      journalLines = written;
+    } catch (IOException e) {
+      log.warn(
+          "Health record locations could not be persisted in {}, only kept in memory", file, e);
+    }
+  }
+
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      log.debug("Closing {} failed", file, e);
+    }
+    journal = null;
+  }
+
+  private static String line(String operation, String insurantId, String url, Instant expires) {
+    return String.join(
+            SEPARATOR, operation, insurantId, url, String.valueOf(expires.toEpochMilli()))
+        + System.lineSeparator();
+  }
+
+  private static final class Entry {
+
+    private final String url;
+
+    private final Instant expires;
+
+    private volatile long lastUsed = System.nanoTime();
+
+    Entry(String url, Instant expires) {
+      this.url = url;
+      this.expires = expires;
+    }
+
+    String url() {
+      return url;
+    }
+
+    Instant expires() {
+      return expires;
+    }
+
+    long lastUsed() {
+      return lastUsed;
+    }
+
+    void used() {
+      lastUsed = System.nanoTime();
+    }
+  }
+
+  // endregion private
+}
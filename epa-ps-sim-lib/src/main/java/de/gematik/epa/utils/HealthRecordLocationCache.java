@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.utils;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache of the locations of health records, i.e. the URL of the health record system, which holds
+ * the health record of an insurant.<br>
+ * Besides the locations of known health records, the cache may also remember insurants without a
+ * health record, so that the information servers are not asked again and again for them.
+ *
+ * @see HealthRecordProvider
+ */
+public interface HealthRecordLocationCache {
+
+  /**
+   * @param insurantId KVNR of the insurant
+   * @return the URL of the health record system holding the health record of the insurant, if known
+   */
+  Optional<String> get(String insurantId);
+
+  /**
+   * @param insurantId KVNR of the insurant
+   * @return true, if no information server knew a health record of the insurant recently
+   */
+  boolean isMissing(String insurantId);
+
+  /**
+   * Remember the location of the health record of the insurant.
+   *
+   * @param insurantId KVNR of the insurant
+   * @param url URL of the health record system
+   */
+  void put(String insurantId, String url);
+
+  /**
+   * Remember, that no information server knows a health record of the insurant.
+   *
+   * @param insurantId KVNR of the insurant
+   */
+  void putMissing(String insurantId);
+
+  /**
+   * Forget the insurant, whether a location or a missing health record is remembered.
+   *
+   * @param insurantId KVNR of the insurant
+   */
+  void remove(String insurantId);
+
+  /** Forget all insurants */
+  void clear();
+
+  /**
+   * @return copy of the known locations, by KVNR of the insurant
+   */
+  Map<String, String> locations();
+}
@@ -24,40 +24,145 @@
  */
 package de.gematik.epa.utils;
 
-import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.NonNull;
 import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Provides the locations of the health records of insurants, as found by getRecordStatus.<br>
+ * The locations are kept in a {@link HealthRecordLocationCache}, by default a {@link
+ * BoundedHealthRecordLocationCache} held in memory, which can be replaced using {@link
+ * #setLocationCache(HealthRecordLocationCache)}.<br>
+ * If a record lookup is set, {@link #resolveHealthRecordUrl(String)} looks up the health record of
+ * an unknown insurant itself, instead of failing.
+ */
+@Slf4j
 @UtilityClass
 public class HealthRecordProvider {
 
-  private static final ConcurrentHashMap<String, String> INSURANT_ID_TO_URL =
+  private static final ConcurrentHashMap<String, CompletableFuture<Void>> RUNNING_LOOKUPS =
       new ConcurrentHashMap<>();
 
+  private static volatile HealthRecordLocationCache locationCache =
+      new BoundedHealthRecordLocationCache();
+
+  private static volatile Consumer<String> recordLookup;
+
   public static String getHealthRecordUrl(String insurantId) {
-    if (!INSURANT_ID_TO_URL.containsKey(insurantId)) {
-      throw new IllegalStateException(
-          "No health record found for insurantId: "
-              + insurantId
-              + ". Try to call getRecordStatus. If still no record was found then there is no one configured for the given insurantId.");
+    return locationCache
+        .get(insurantId)
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    "No health record found for insurantId: "
+                        + insurantId
+                        + ". Try to call getRecordStatus. If still no record was found then there is no one configured for the given insurantId."));
+  }
+
+  /**
+   * Get the URL of the health record system holding the health record of the insurant.<br>
+   * If the health record is not known yet, it is looked up using the record lookup, if one is set.
+   * Concurrent calls for the same insurant wait for one lookup. Insurants known to have no health
+   * record are not looked up again.
+   *
+   * @param insurantId KVNR of the insurant
+   * @return the URL of the health record system
+   * @throws IllegalStateException if no health record was found for the insurant
+   */
+  public static String resolveHealthRecordUrl(String insurantId) {
+    var lookup = recordLookup;
+    if (lookup != null && !hasHealthRecord(insurantId) && !isHealthRecordMissing(insurantId)) {
+      lookupHealthRecord(insurantId, lookup);
     }
-    return INSURANT_ID_TO_URL.get(insurantId);
+    return getHealthRecordUrl(insurantId);
   }
 
   public static boolean hasHealthRecord(String insurantId) {
-    return INSURANT_ID_TO_URL.containsKey(insurantId);
+    return locationCache.get(insurantId).isPresent();
   }
 
   public static void clearHealthRecord(String insurantId) {
-    INSURANT_ID_TO_URL.remove(insurantId);
+    locationCache.remove(insurantId);
   }
 
   public static void addHealthRecord(String insurantId, String url) {
-    INSURANT_ID_TO_URL.put(insurantId, url);
+    locationCache.put(insurantId, url);
+  }
+
+  /**
+   * Remember, that no information server knows a health record of the insurant.
+   *
+   * @param insurantId KVNR of the insurant
+   */
+  public static void addMissingHealthRecord(String insurantId) {
+    locationCache.putMissing(insurantId);
+  }
+
+  /**
+   * @param insurantId KVNR of the insurant
+   * @return true, if no information server knew a health record of the insurant recently
+   */
+  public static boolean isHealthRecordMissing(String insurantId) {
+    return locationCache.isMissing(insurantId);
+  }
+
+  public static void clearAllHealthRecords() {
+    locationCache.clear();
   }
 
   public static Map<String, String> getAllHealthRecords() {
-    return Collections.unmodifiableMap(INSURANT_ID_TO_URL);
+    return locationCache.locations();
   }
+
+  /**
+   * Set the lookup used by {@link #resolveHealthRecordUrl(String)} for unknown insurants.<br>
+   * The lookup is expected to add the health record, if it finds one, e.g. by the getRecordStatus
+   * of the InformationService.
+   *
+   * @param lookup the record lookup, or null to not look up unknown insurants
+   */
+  public static void setRecordLookup(Consumer<String> lookup) {
+    recordLookup = lookup;
+  }
+
+  public static HealthRecordLocationCache getLocationCache() {
+    return locationCache;
+  }
+
+  /**
+   * Replace the cache holding the health record locations.<br>
+   * Locations in the previous cache are not taken over.
+   *
+   * @param cache the new cache
+   */
+  public static void setLocationCache(@NonNull HealthRecordLocationCache cache) {
+    locationCache = cache;
+  }
+
+  // region private
+
+  private static void lookupHealthRecord(String insurantId, Consumer<String> lookup) {
+    var ownLookup = new CompletableFuture<Void>();
+    var runningLookup = RUNNING_LOOKUPS.putIfAbsent(insurantId, ownLookup);
+    if (runningLookup != null) {
+      runningLookup.exceptionally(e -> null).join();
+      return;
+    }
+    try {
+      log.info("Health record of {} is unknown, looking it up", insurantId);
+      lookup.accept(insurantId);
+      ownLookup.complete(null);
+    } catch (RuntimeException e) {
+      log.warn("Looking up the health record of {} failed", insurantId, e);
+      ownLookup.completeExceptionally(e);
+    } finally {
+      RUNNING_LOOKUPS.remove(insurantId, ownLookup);
+    }
+  }
+
+  // endregion private
 }
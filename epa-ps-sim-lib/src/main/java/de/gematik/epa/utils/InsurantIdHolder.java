@@ -24,6 +24,8 @@
  */
 package de.gematik.epa.utils;
 
+import java.util.function.Supplier;
+import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -42,4 +44,25 @@ public class InsurantIdHolder {
   public static void clear() {
     INSURANTID.remove();
   }
+
+  /**
+   * Wrap a task, so that it runs with the insurant ID of the current thread, whichever thread runs
+   * it.
+   *
+   * @param task the task
+   * @return the wrapped task
+   * @param <T> type of the result of the task
+   */
+  public static <T> Supplier<T> wrap(@NonNull Supplier<T> task) {
+    var insurantId = INSURANTID.get();
+    return () -> {
+      var previous = INSURANTID.get();
+      INSURANTID.set(insurantId);
+      try {
+        return task.get();
+      } finally {
+        INSURANTID.set(previous);
+      }
+    };
+  }
 }
@@ -42,6 +42,7 @@ public class MiscUtils {
   public static final String X_INSURANT_ID = "x-insurantid";
   public static final String X_USER_AGENT = "x-useragent";
   public static final String X_ACTOR_ID = "x-actorId";
+  public static final List<String> ACTOR_ID_KEYS = List.of(X_ACTOR_ID, "telematikId");
 
   public static <T> T safeCast(Object obj, Class<T> castType) {
     return castType.isAssignableFrom(obj.getClass()) ? castType.cast(obj) : null;
@@ -24,15 +24,87 @@
  */
 package de.gematik.epa.utils;
 
-import lombok.Getter;
-import lombok.Setter;
+import java.util.function.Supplier;
+import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
+/**
+ * Holder of the telematik-ID of the actor (the institution resp. its SMC-B), on whose behalf the
+ * current operation runs. It is sent e.g. as header {@value MiscUtils#X_ACTOR_ID} to the health
+ * record system.<br>
+ * Like the {@link InsurantIdHolder} the telematik-ID belongs to the current thread only, so one
+ * instance can serve several institutions concurrently. Threads do not inherit it, tasks handed to
+ * other threads take it along only, if they are wrapped with one of the {@code wrap} methods.<br>
+ * There is no fallback: if the current thread has no telematik-ID, none is known.
+ */
 @UtilityClass
 public class TelematikIdHolder {
-  @Setter @Getter private volatile String telematikId;
 
+  private static final ThreadLocal<String> TELEMATIKID = new ThreadLocal<>();
+
+  /**
+   * Set the telematik-ID for the current thread.
+   *
+   * @param telematikId telematik-ID of the actor, null to forget it
+   */
+  public static void setTelematikId(String telematikId) {
+    if (telematikId == null) {
+      TELEMATIKID.remove();
+    } else {
+      TELEMATIKID.set(telematikId);
+    }
+  }
+
+  /**
+   * @return the telematik-ID of the actor of the current thread, or null if none is set
+   */
+  public static String getTelematikId() {
+    return TELEMATIKID.get();
+  }
+
+  /** Forget the telematik-ID of the current thread, e.g. when its request is completed. */
   public static void clearTelematikId() {
-    telematikId = null;
+    TELEMATIKID.remove();
+  }
+
+  /**
+   * Wrap a task, so that it runs with the telematik-ID of the current thread, whichever thread runs
+   * it.
+   *
+   * @param task the task
+   * @return the wrapped task
+   */
+  public static Runnable wrap(@NonNull Runnable task) {
+    var telematikId = TELEMATIKID.get();
+    return () -> {
+      var previous = TELEMATIKID.get();
+      setTelematikId(telematikId);
+      try {
+        task.run();
+      } finally {
+        setTelematikId(previous);
+      }
+    };
+  }
+
+  /**
+   * Wrap a task, so that it runs with the telematik-ID of the current thread, whichever thread runs
+   * it.
+   *
+   * @param task the task
+   * @return the wrapped task
+   * @param <T> type of the result of the task
+   */
+  public static <T> Supplier<T> wrap(@NonNull Supplier<T> task) {
+    var telematikId = TELEMATIKID.get();
+    return () -> {
+      var previous = TELEMATIKID.get();
+      setTelematikId(telematikId);
+      try {
+        return task.get();
+      } finally {
+        setTelematikId(previous);
+      }
+    };
   }
 }
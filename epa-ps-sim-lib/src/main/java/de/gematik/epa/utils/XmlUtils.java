@@ -28,19 +28,27 @@ import static de.gematik.epa.utils.LoggingFeatureUtil.newLoggingFeature;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlElementDecl;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.GregorianCalendar;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -63,6 +71,23 @@ public class XmlUtils {
       "jaxb.additionalContextClasses";
   private static final String OBJECT_FACTORY_CLASS_NAME = "ObjectFactory";
 
+  /**
+   * Maximum number of idle (un)marshallers kept per class.<br>
+   * Pooled instances are created with the default settings of their context and never leave this
+   * class, so no caller can set a schema, an event handler or a listener on them. An instance is
+   * only returned to its pool after a successful call, an instance that failed is dropped.
+   */
+  static final int MAX_POOLED_PER_TYPE = 16;
+
+  private static final Map<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>();
+
+  private static final Map<Class<?>, Queue<Marshaller>> MARSHALLERS = new ConcurrentHashMap<>();
+
+  private static final Map<Class<?>, Queue<Unmarshaller>> UNMARSHALLERS = new ConcurrentHashMap<>();
+
+  private static final Map<Class<?>, JaxbElementFactory> JAXB_ELEMENT_FACTORIES =
+      new ConcurrentHashMap<>();
+
   @Getter(lazy = true)
   private static final XMLInputFactory xmlInputFactory = newXmlInputFactory();
 
@@ -87,8 +112,9 @@ public class XmlUtils {
    */
   @SneakyThrows
   public static byte[] marshal(@NonNull Object xmlObject) {
-    var jaxbCtx = JAXBContext.newInstance(xmlObject.getClass());
-    var jaxbMarshaller = jaxbCtx.createMarshaller();
+    var objectType = xmlObject.getClass();
+    var jaxbCtx = getJaxbContext(objectType);
+    var jaxbMarshaller = borrow(MARSHALLERS, objectType, jaxbCtx::createMarshaller);
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
     if (jaxbCtx.createJAXBIntrospector().isElement(xmlObject)) {
@@ -96,6 +122,7 @@ public class XmlUtils {
     } else {
       jaxbMarshaller.marshal(toJaxbElement(xmlObject), outputStream);
     }
+    release(MARSHALLERS, objectType, jaxbMarshaller);
     return outputStream.toByteArray();
   }
 
@@ -113,10 +140,14 @@ public class XmlUtils {
   @SneakyThrows
   public static <T> T unmarshal(
       @NonNull Class<T> objectType, @NonNull InputStream marshalledObject) {
-    var jaxbUnmarshaller = JAXBContext.newInstance(objectType).createUnmarshaller();
-    return jaxbUnmarshaller
-        .unmarshal(xmlInputFactory().createXMLStreamReader(marshalledObject), objectType)
-        .getValue();
+    var jaxbUnmarshaller =
+        borrow(UNMARSHALLERS, objectType, getJaxbContext(objectType)::createUnmarshaller);
+    var result =
+        jaxbUnmarshaller
+            .unmarshal(xmlInputFactory().createXMLStreamReader(marshalledObject), objectType)
+            .getValue();
+    release(UNMARSHALLERS, objectType, jaxbUnmarshaller);
+    return result;
   }
 
   /**
@@ -135,6 +166,21 @@ public class XmlUtils {
     return unmarshal(objectType, new ByteArrayInputStream(marshalledObject));
   }
 
+  /**
+   * Get the {@link JAXBContext} for the given class.<br>
+   * Creating a JAXBContext is expensive, so each context is created once and then reused. This is
+   * safe, because JAXBContext instances are thread safe.<br>
+   * (Un)marshallers created from the returned context belong to the caller and may be configured
+   * freely, they are never put into the pools used by {@link #marshal(Object)} and {@link
+   * #unmarshal(Class, InputStream)}.
+   *
+   * @param objectType the class type for which the context is required
+   * @return {@link JAXBContext} bound to the given class
+   */
+  public static JAXBContext getJaxbContext(@NonNull Class<?> objectType) {
+    return JAXB_CONTEXTS.computeIfAbsent(objectType, XmlUtils::newJaxbContext);
+  }
+
   /**
    * Convert a date in the {@link LocalDate} format into the {@link XMLGregorianCalendar} format.
    * <br>
@@ -191,6 +237,29 @@ public class XmlUtils {
 
   // region private
 
+  @SneakyThrows
+  private static JAXBContext newJaxbContext(Class<?> objectType) {
+    return JAXBContext.newInstance(objectType);
+  }
+
+  /**
+   * Take an idle (un)marshaller for the class from the pool or create a new one.<br>
+   * (Un)marshallers are not thread safe, so each one is used by one caller at a time and only given
+   * back to the pool after it completed successfully.
+   */
+  private static <T> T borrow(
+      Map<Class<?>, Queue<T>> pool, Class<?> objectType, JaxbSupplier<T> factory)
+      throws JAXBException {
+    var idle = pool.get(objectType);
+    var pooled = Objects.nonNull(idle) ? idle.poll() : null;
+    return Objects.nonNull(pooled) ? pooled : factory.get();
+  }
+
+  private static <T> void release(Map<Class<?>, Queue<T>> pool, Class<?> objectType, T instance) {
+    pool.computeIfAbsent(objectType, type -> new ArrayBlockingQueue<>(MAX_POOLED_PER_TYPE))
+        .offer(instance);
+  }
+
   private static XMLInputFactory newXmlInputFactory() {
     XMLInputFactory factory = XMLInputFactory.newInstance();
     factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
@@ -213,7 +282,25 @@ public class XmlUtils {
   @SneakyThrows
   @SuppressWarnings("unchecked")
   private static <T> JAXBElement<T> toJaxbElement(@NonNull T xmlObject) {
-    Class<T> objClass = (Class<T>) xmlObject.getClass();
+    var jaxbElementFactory =
+        JAXB_ELEMENT_FACTORIES.computeIfAbsent(
+            xmlObject.getClass(), XmlUtils::findJaxbElementFactory);
+
+    var result = jaxbElementFactory.method().invoke(jaxbElementFactory.objectFactory(), xmlObject);
+
+    return (JAXBElement<T>) result;
+  }
+
+  /**
+   * Look up the ObjectFactory method, which creates a {@link JAXBElement} for objects of the given
+   * class. The lookup uses reflection, which is why its result is kept in {@link
+   * #JAXB_ELEMENT_FACTORIES}.
+   *
+   * @param objClass class type of the objects
+   * @return {@link JaxbElementFactory} with the ObjectFactory instance and its factory method
+   */
+  @SneakyThrows
+  private static JaxbElementFactory findJaxbElementFactory(Class<?> objClass) {
     var pckg = objClass.getPackageName();
     var objFac =
         objClass
@@ -247,9 +334,14 @@ public class XmlUtils {
                     new NoSuchElementException(
                         "No JAXBElement factory method found for class " + objClass));
 
-    var result = jaxbElementMethod.invoke(objFac, xmlObject);
+    return new JaxbElementFactory(objFac, jaxbElementMethod);
+  }
+
+  private record JaxbElementFactory(Object objectFactory, Method method) {}
 
-    return (JAXBElement<T>) result;
+  @FunctionalInterface
+  private interface JaxbSupplier<T> {
+    T get() throws JAXBException;
   }
 
   // endregion private
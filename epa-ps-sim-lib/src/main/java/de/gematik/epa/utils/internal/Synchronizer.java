@@ -24,82 +24,137 @@
  */
 package de.gematik.epa.utils.internal;
 
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import lombok.SneakyThrows;
 
+/**
+ * Coordinates operations, which use a configuration, with the rare changes of that configuration.
+ * <br>
+ * Operations are run with {@link #runNonBlocking(Runnable)} and do not block each other. The read
+ * path takes no lock: it registers the operation in an {@link AtomicLong} and checks a volatile
+ * gate. Configuration changes are run with {@link #runBlocking(Runnable)}. They close the gate for
+ * new operations, wait until the last running operation signals that it is done, and then run
+ * exclusively.<br>
+ * Every completed configuration change increments the {@link #epoch()}, so users can recognize that
+ * state derived from the configuration needs to be rebuilt.
+ */
 public class Synchronizer {
 
-  private final ReentrantLock lock = new ReentrantLock();
+  private final ReentrantLock writerLock = new ReentrantLock();
+
+  private final AtomicLong activeOperations = new AtomicLong();
+
+  private final AtomicLong epoch = new AtomicLong();
+
+  private volatile CountDownLatch writerGate;
 
-  private final CountLatch nonBlockingCount = new CountLatch();
+  private volatile Thread writer;
+
+  private volatile CountDownLatch drained;
 
   @SneakyThrows
   public void runBlocking(Runnable code) {
+    writerLock.lock();
+    try {
+      final var gate = new CountDownLatch(1);
+      writerGate = gate;
+      writer = Thread.currentThread();
+      try {
+        awaitDrained();
+        code.run();
+      } finally {
+        epoch.incrementAndGet();
+        writer = null;
+        writerGate = null;
+        gate.countDown();
+      }
+    } finally {
+      writerLock.unlock();
+    }
+  }
+
+  /**
+   * Run a configuration change without waiting for running operations and without holding up new
+   * ones.<br>
+   * Changes are serialized with each other and with {@link #runBlocking(Runnable)}. The code must
+   * publish its result atomically, as operations keep running while it is executed.
+   *
+   * @param code the configuration change
+   */
+  public void runChange(Runnable code) {
+    writerLock.lock();
     try {
-      lock.lock();
-      nonBlockingCount.await();
       code.run();
     } finally {
-      lock.unlock();
+      epoch.incrementAndGet();
+      writerLock.unlock();
     }
   }
 
   @SneakyThrows
   public void runNonBlocking(Runnable code) {
+    if (writer == Thread.currentThread()) {
+      // operation triggered by the configuration change itself
+      code.run();
+      return;
+    }
+    enter();
     try {
-      nonBlockingCount.countUp();
-      if (lock.isLocked()) {
-        nonBlockingCount.countDown();
-        lock.lock();
-        nonBlockingCount.countUp();
-        lock.unlock();
-      }
       code.run();
     } finally {
-      nonBlockingCount.countDown();
+      exit();
     }
   }
 
-  static class CountLatch {
+  /**
+   * Number of configuration changes run so far.
+   *
+   * @return the current configuration epoch
+   */
+  public long epoch() {
+    return epoch.get();
+  }
 
-    private final Lock lock = new ReentrantLock();
-    private final Condition condition = lock.newCondition();
-    private int count = 0;
+  // region private
 
-    public void countDown() {
-      lock.lock();
-      try {
-        if (count > 0) {
-          count--;
-          if (count == 0) {
-            condition.signalAll();
-          }
-        }
-      } finally {
-        lock.unlock();
+  private void enter() throws InterruptedException {
+    while (true) {
+      activeOperations.incrementAndGet();
+      final var gate = writerGate;
+      if (gate == null) {
+        return;
       }
+      exit();
+      gate.await();
     }
+  }
 
-    public void countUp() {
-      lock.lock();
-      try {
-        count++;
-      } finally {
-        lock.unlock();
+  private void exit() {
+    if (activeOperations.decrementAndGet() == 0) {
+      final var latch = drained;
+      if (latch != null) {
+        latch.countDown();
       }
     }
+  }
 
-    public void await() throws InterruptedException {
-      lock.lock();
-      try {
-        while (count > 0) {
-          condition.await();
+  /** Wait until no operation runs, the gate has to be closed already. */
+  private void awaitDrained() throws InterruptedException {
+    try {
+      while (activeOperations.get() > 0) {
+        final var latch = new CountDownLatch(1);
+        drained = latch;
+        // the latch is published before the counter is read again, so the last exit counts it down
+        if (activeOperations.get() > 0) {
+          latch.await();
         }
-      } finally {
-        lock.unlock();
       }
+    } finally {
+      drained = null;
     }
   }
+
+  // endregion private
 }
@@ -31,6 +31,7 @@ import de.gematik.epa.api.testdriver.dto.request.KonnektorConfigurationRequestDT
 import de.gematik.epa.konnektor.KonnektorConfigurationProvider;
 import de.gematik.epa.konnektor.KonnektorContextProvider;
 import de.gematik.epa.konnektor.cxf.KonnektorInterfacesCxfImpl;
+import de.gematik.epa.konnektor.cxf.KonnektorInterfacesCxfImpl.Connection;
 import de.gematik.epa.unit.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -76,8 +77,8 @@ class ConfigurationApiImplTest {
 
   @Test
   void configureKonnektorTest() {
-    Mockito.when(konnektorInterfaces.update(requestDTO.connection()))
-        .thenReturn(konnektorInterfaces);
+    Mockito.when(konnektorInterfaces.connect(Mockito.any()))
+        .thenReturn(new Connection(requestDTO.connection(), null, null, null));
 
     var tstObj =
         new ConfigurationApiImpl(cfgProvider, konnektorInterfaces, konnektorContextProvider);
@@ -86,12 +87,26 @@ class ConfigurationApiImplTest {
 
     assertNotNull(result);
     assertTrue(result.success());
+    Mockito.verify(konnektorInterfaces).publish(Mockito.any());
+  }
+
+  @Test
+  void configureKonnektorRenewsServiceClientsTest() {
+    Mockito.when(konnektorInterfaces.connect(Mockito.any()))
+        .thenReturn(new Connection(requestDTO.connection(), null, null, null));
+    var eventServiceClient = konnektorContextProvider.clientRegistry().eventService();
+
+    var tstObj =
+        new ConfigurationApiImpl(cfgProvider, konnektorInterfaces, konnektorContextProvider);
+
+    assertTrue(tstObj.configureKonnektor(requestDTO).success());
+    assertNotSame(eventServiceClient, konnektorContextProvider.clientRegistry().eventService());
   }
 
   @Test
   void configureKonnektorExceptionTest() {
     var exceptionMsg = "I am the expected exception";
-    Mockito.when(konnektorInterfaces.update(Mockito.any()))
+    Mockito.when(konnektorInterfaces.connect(Mockito.any()))
         .thenThrow(new IllegalArgumentException(exceptionMsg));
 
     var tstObj =
@@ -103,6 +118,7 @@ class ConfigurationApiImplTest {
     assertFalse(result.success());
     assertNotNull(result.statusMessage());
     assertTrue(result.statusMessage().contains(exceptionMsg));
+    Mockito.verify(konnektorInterfaces, Mockito.never()).publish(Mockito.any());
   }
 
   @Test
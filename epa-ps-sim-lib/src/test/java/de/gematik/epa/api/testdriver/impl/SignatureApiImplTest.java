@@ -25,14 +25,19 @@
 package de.gematik.epa.api.testdriver.impl;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest.SignatureAlgorithm;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentsRequest;
+import de.gematik.epa.ihe.model.simple.ByteArray;
 import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import telematik.ws.conn.eventservice.wsdl.v6_1.FaultMessage;
@@ -79,4 +84,46 @@ class SignatureApiImplTest extends TestBase {
     assertNotNull(response.statusMessage());
     assertTrue(response.statusMessage().contains(exceptionMsg));
   }
+
+  @Test
+  void signDocumentsTest() {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+    // the test response only contains a signature for an unknown RequestID
+    Mockito.when(konnektorInterfaceAssembly().signatureService().signDocument(Mockito.any()))
+        .thenReturn(TestDataFactory.getSignDocumentResponse());
+
+    final var signRequest =
+        new SignDocumentsRequest(
+            List.of(ByteArray.of(new byte[] {1}), ByteArray.of(new byte[] {2})),
+            false,
+            SignatureAlgorithm.ECC);
+
+    final var response = assertDoesNotThrow(() -> documentApi.signDocuments(signRequest));
+
+    assertNotNull(response);
+    assertFalse(response.success());
+    assertEquals(2, response.signatures().size());
+    assertTrue(response.statusMessage().contains("0 of 2"));
+  }
+
+  @Test
+  void signDocumentsExceptionTest() {
+    final var exceptionMsg = "No card terminal active";
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenThrow(new FaultMessage(exceptionMsg, TestDataFactory.getTelematikError()));
+
+    final var signRequest =
+        new SignDocumentsRequest(
+            List.of(ByteArray.of(new byte[] {1})), false, SignatureAlgorithm.ECC);
+
+    final var response = assertDoesNotThrow(() -> documentApi.signDocuments(signRequest));
+
+    assertNotNull(response);
+    assertFalse(response.success());
+    assertTrue(response.signatures().isEmpty());
+    assertTrue(response.statusMessage().contains(exceptionMsg));
+  }
 }
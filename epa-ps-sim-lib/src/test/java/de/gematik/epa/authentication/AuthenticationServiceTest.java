@@ -44,6 +44,7 @@ import de.gematik.epa.api.authorization.client.dto.GetNonce200Response;
 import de.gematik.epa.api.authorization.client.dto.SendAuthCodeSC200Response;
 import de.gematik.epa.api.vau.client.VauApi;
 import de.gematik.epa.api.vau.client.dto.VauStatus;
+import de.gematik.epa.authentication.LoginResult.Step;
 import de.gematik.epa.authentication.exception.TelematikIdNotFoundException;
 import de.gematik.epa.client.JaxRsClientWrapper;
 import de.gematik.epa.konnektor.CardAuthenticationService;
@@ -53,12 +54,21 @@ import de.gematik.epa.konnektor.SmbInformationProvider;
 import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestDataFactory;
 import de.gematik.epa.utils.CertificateUtils;
+import de.gematik.epa.utils.HealthRecordProvider;
+import de.gematik.epa.utils.InsurantIdHolder;
+import de.gematik.epa.utils.TelematikIdHolder;
 import de.gematik.idp.client.AuthorizationCodeResult;
 import de.gematik.idp.client.IdpClient;
 import de.gematik.idp.client.IdpClientRuntimeException;
 import jakarta.ws.rs.core.Response;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import oasis.names.tc.dss._1_0.core.schema.Base64Signature;
 import oasis.names.tc.dss._1_0.core.schema.SignatureObject;
@@ -80,6 +90,7 @@ class AuthenticationServiceTest {
       "https://localhost:8082/authz?client_id=ePA&response_type=code&redirect_uri=http%3A%2F%2Ftest-ps.gematik.de%2FePA&state=ABCVDFGHT564&code_challenge=IMevy8z9hyfFsDad6JM0E20MQ_jLInJ6GtE55sGyH3Y&code_challenge_method=S256&scope=openid%20epa&nonce=7721435277f5d0137b17ef8b835ca03cf09dc23926aa1766e4f8132433ff37d6";
   private final String userAgent = "PS_SIM_123";
   private final VauApi vauApiMock = mock(VauApi.class);
+  private final VauSessionRegistry vauSessions = new VauSessionRegistry();
   private AuthenticationService authenticationService;
 
   @BeforeEach
@@ -94,7 +105,8 @@ class AuthenticationServiceTest {
     authenticationService =
         new AuthenticationService(
             authorizationSmcBApi,
-            idpClientBuilder,
+            new IdpClientCache(() -> idpClientBuilder),
+            vauSessions,
             konnektorContextProvider,
             konnektorInterfaceAssembly,
             smbInformationProvider,
@@ -368,6 +380,10 @@ class AuthenticationServiceTest {
     assertThat(result.success()).isTrue();
     assertThat(result.httpStatusCode()).isEqualTo(200);
     assertThat(result.errorMessage()).isNull();
+    assertThat(result.stepDurations()).containsOnlyKeys(Step.values());
+    assertThat(result.duration()).isPositive();
+    // without an insurant the login is sent without target, the session is registered for none
+    assertThat(vauSessions.find(telematikId, null)).isPresent();
   }
 
   @Test
@@ -577,6 +593,127 @@ class AuthenticationServiceTest {
     }
   }
 
+  @Test
+  void loginShouldReportCardHandleErrorWhenConcurrentStepsSucceed() {
+    getMockVauStatusResponseAuthenticationNone();
+    // given
+    final var telematikId = "2-883110000118994";
+    mockNonceHandle("7721435277f5d0137b17ef8b835ca03cf09dc23926aa1766e4f8132433ff37d6");
+    when(authorizationSmcBApi.sendAuthorizationRequestSC(anyString()))
+        .thenReturn(Response.status(302).header("Location", redirectUrl).build());
+    when(idpClientBuilder.scopes(anySet())).thenReturn(idpClientBuilder);
+    when(idpClientBuilder.redirectUrl(anyString())).thenReturn(idpClientBuilder);
+    when(idpClientBuilder.codeChallengeMethod(any())).thenReturn(idpClientBuilder);
+    when(idpClientBuilder.clientId(anyString())).thenReturn(idpClientBuilder);
+    final var idpClient = mock(IdpClient.class);
+    when(idpClientBuilder.build()).thenReturn(idpClient);
+    when(cardAuthenticationService.getCardHandle(telematikId))
+        .thenThrow(
+            new TelematikIdNotFoundException(
+                "TelematikId " + telematikId + " was not found in connector slots"));
+
+    // when
+    final var result = authenticationService.login(telematikId, "FQDN");
+
+    // then
+    assertThat(result.success()).isFalse();
+    assertThat(result.errorMessage())
+        .isEqualTo("TelematikId " + telematikId + " was not found in connector slots");
+    verify(cardAuthenticationService, never()).getX509Certificate(any());
+    verify(cardAuthenticationService, never()).getContentSigner(any());
+    verify(idpClient, never()).login(any(), any(), any(), any(), any());
+    verify(authorizationSmcBApi, never()).sendAuthCodeSC(any(), any());
+  }
+
+  @Test
+  void loginShouldReportNonceErrorWhenAllConcurrentStepsFail() {
+    getMockVauStatusResponseAuthenticationNone();
+    // given
+    final var telematikId = "2-883110000118994";
+    final var errorInNonce = new ErrorType().errorDetail("error in nonce");
+    when(authorizationSmcBApi.getNonce(anyString()))
+        .thenReturn(Response.status(500).entity(errorInNonce).build());
+    when(authorizationSmcBApi.sendAuthorizationRequestSC(anyString()))
+        .thenReturn(
+            Response.status(403)
+                .entity(new ErrorType().errorCode("authorization_failure"))
+                .build());
+    when(cardAuthenticationService.getCardHandle(telematikId))
+        .thenThrow(new TelematikIdNotFoundException("card not found"));
+
+    // when
+    final var result = authenticationService.login(telematikId, "FQDN");
+
+    // then
+    assertThat(result.success()).isFalse();
+    assertThat(result.httpStatusCode()).isEqualTo(500);
+    assertThat(result.errorMessage()).contains(errorInNonce.getErrorDetail());
+    verify(cardAuthenticationService, never()).getContentSigner(any());
+    verify(idpClientBuilder, never()).build();
+    verify(authorizationSmcBApi, never()).sendAuthCodeSC(any(), any());
+  }
+
+  @Test
+  void loginShouldReportAuthorizationErrorWhenCardHandleSucceeds() {
+    getMockVauStatusResponseAuthenticationNone();
+    // given
+    final var telematikId = "2-883110000118994";
+    mockNonceHandle("7721435277f5d0137b17ef8b835ca03cf09dc23926aa1766e4f8132433ff37d6");
+    final var error = new ErrorType().errorCode("authorization_failure");
+    when(authorizationSmcBApi.sendAuthorizationRequestSC(anyString()))
+        .thenReturn(Response.status(403).entity(error).build());
+    when(cardAuthenticationService.getCardHandle(telematikId)).thenReturn("cardHandle");
+
+    // when
+    final var result = authenticationService.login(telematikId, "FQDN");
+
+    // then
+    assertThat(result.success()).isFalse();
+    assertThat(result.httpStatusCode()).isEqualTo(403);
+    assertThat(result.errorMessage()).contains(error.getErrorCode());
+    verify(cardAuthenticationService, never()).getContentSigner(any());
+    verify(idpClientBuilder, never()).build();
+    verify(authorizationSmcBApi, never()).sendAuthCodeSC(any(), any());
+  }
+
+  @Test
+  void loginStepsShouldRunWithInsurantAndActorOfLogin() {
+    getMockVauStatusResponseAuthenticationNone();
+    // given
+    final var telematikId = "2-883110000118994";
+    final var insurantId = "X110435031";
+    final var nonceContext = new ArrayList<String>();
+    final var authorizationContext = new ArrayList<String>();
+    when(authorizationSmcBApi.getNonce(anyString()))
+        .thenAnswer(
+            invocation -> {
+              nonceContext.add(InsurantIdHolder.getInsurantId());
+              nonceContext.add(TelematikIdHolder.getTelematikId());
+              return Response.status(500).build();
+            });
+    when(authorizationSmcBApi.sendAuthorizationRequestSC(anyString()))
+        .thenAnswer(
+            invocation -> {
+              authorizationContext.add(InsurantIdHolder.getInsurantId());
+              authorizationContext.add(TelematikIdHolder.getTelematikId());
+              return Response.status(500).build();
+            });
+    when(cardAuthenticationService.getCardHandle(telematikId)).thenReturn("cardHandle");
+
+    // when
+    InsurantIdHolder.setInsurantId(insurantId);
+    try {
+      authenticationService.login(telematikId, "FQDN");
+    } finally {
+      InsurantIdHolder.clear();
+      TelematikIdHolder.clearTelematikId();
+    }
+
+    // then
+    assertThat(nonceContext).containsExactly(insurantId, telematikId);
+    assertThat(authorizationContext).containsExactly(insurantId, telematikId);
+  }
+
   @Test
   void loginShouldSkipAuthFlowBecauseVauStatusOk() {
     String telematikId = "2-883110000118994";
@@ -597,6 +734,7 @@ class AuthenticationServiceTest {
     assertThat(result.success()).isTrue();
     assertThat(result.httpStatusCode()).isEqualTo(200);
     assertThat(result.errorMessage()).isBlank();
+    assertThat(result.stepDurations()).containsOnlyKeys(Step.VAU_STATUS);
 
     verify(idpClientBuilder, never()).build();
     verify(authorizationSmcBApi, never()).getNonce(userAgent);
@@ -626,6 +764,149 @@ class AuthenticationServiceTest {
     assertThat(result.errorMessage()).isNotBlank();
   }
 
+  @Test
+  @SneakyThrows
+  void concurrentLoginsForSameTelematikIdShouldBeCoalesced() {
+    var telematikId = "2-883110000118994";
+    var loginStarted = new CountDownLatch(1);
+    var releaseLogin = new CountDownLatch(1);
+    when(vauApiMock.getVauStatus(userAgent))
+        .thenAnswer(
+            invocation -> {
+              loginStarted.countDown();
+              releaseLogin.await(5, TimeUnit.SECONDS);
+              return simulateInbound(Response.status(403).build());
+            });
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first = executor.submit(() -> authenticationService.login(telematikId, "FQDN"));
+      assertThat(loginStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      var others =
+          IntStream.range(0, 3)
+              .mapToObj(
+                  i -> executor.submit(() -> authenticationService.login(telematikId, "FQDN")))
+              .toList();
+      while (authenticationService.coalescedLogins() < 3) {
+        Thread.onSpinWait();
+      }
+      releaseLogin.countDown();
+
+      var firstResult = first.get(5, TimeUnit.SECONDS);
+      for (var other : others) {
+        var otherResult = other.get(5, TimeUnit.SECONDS);
+        assertThat(otherResult).isEqualTo(firstResult).isNotSameAs(firstResult);
+      }
+      assertThat(firstResult.httpStatusCode()).isEqualTo(403);
+    }
+
+    verify(vauApiMock, Mockito.times(1)).getVauStatus(userAgent);
+  }
+
+  @Test
+  @SneakyThrows
+  void concurrentLoginsForOtherHealthRecordSystemsShouldNotBeCoalesced() {
+    var telematikId = "2-883110000118994";
+    HealthRecordProvider.addHealthRecord("X110435031", "epa-as-1.dev.epa4all.de");
+    HealthRecordProvider.addHealthRecord("X110435032", "epa-as-2.dev.epa4all.de");
+    var bothStarted = new CountDownLatch(2);
+    when(vauApiMock.getVauStatus(userAgent))
+        .thenAnswer(
+            invocation -> {
+              bothStarted.countDown();
+              bothStarted.await(5, TimeUnit.SECONDS);
+              return simulateInbound(Response.status(403).build());
+            });
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var logins =
+          Stream.of("X110435031", "X110435032")
+              .map(
+                  insurantId ->
+                      executor.submit(
+                          () -> {
+                            InsurantIdHolder.setInsurantId(insurantId);
+                            return authenticationService.login(telematikId, "<unused parameters>");
+                          }))
+              .toList();
+      for (var login : logins) {
+        assertThat(login.get(5, TimeUnit.SECONDS).httpStatusCode()).isEqualTo(403);
+      }
+    } finally {
+      HealthRecordProvider.clearAllHealthRecords();
+    }
+
+    assertThat(authenticationService.coalescedLogins()).isZero();
+    verify(vauApiMock, Mockito.times(2)).getVauStatus(userAgent);
+  }
+
+  @Test
+  void loginsAfterCompletionShouldNotBeCoalesced() {
+    var simulatedResponse = simulateInbound(Response.status(403).build());
+    when(vauApiMock.getVauStatus(userAgent)).thenReturn(simulatedResponse);
+
+    authenticationService.login("2-883110000118994", "FQDN");
+    authenticationService.login("2-883110000118994", "FQDN");
+    authenticationService.login("2-883110000118994", "OTHER-FQDN");
+
+    assertThat(authenticationService.coalescedLogins()).isZero();
+    verify(vauApiMock, Mockito.times(3)).getVauStatus(userAgent);
+  }
+
+  @Test
+  void loginShouldReuseRegisteredVauSession() {
+    var telematikId = "2-883110000118994";
+    vauSessions.register(telematikId, "epa-as-1.dev.epa4all.de", () -> {});
+
+    final var result = loginForInsurantAt(telematikId, "epa-as-1.dev.epa4all.de");
+
+    assertThat(result.success()).isTrue();
+    assertThat(result.httpStatusCode()).isEqualTo(200);
+    assertThat(vauSessions.reusedSessions()).isOne();
+    verify(vauApiMock, never()).getVauStatus(anyString());
+    verify(authorizationSmcBApi, never()).getNonce(anyString());
+  }
+
+  @Test
+  void loginShouldNotReuseVauSessionAtOtherHealthRecordSystem() {
+    var telematikId = "2-883110000118994";
+    vauSessions.register(telematikId, "epa-as-1.dev.epa4all.de", () -> {});
+    var simulatedResponse = simulateInbound(Response.status(403).build());
+    when(vauApiMock.getVauStatus(userAgent)).thenReturn(simulatedResponse);
+
+    // the FQDN given by the caller does not matter, the resolved health record system does
+    final var result = loginForInsurantAt(telematikId, "epa-as-2.dev.epa4all.de");
+
+    assertThat(result.success()).isFalse();
+    assertThat(vauSessions.reusedSessions()).isZero();
+    verify(vauApiMock).getVauStatus(userAgent);
+  }
+
+  @Test
+  void loginShouldCheckVauStatusAfterSessionsWereInvalidated() {
+    var telematikId = "2-883110000118994";
+    vauSessions.register(telematikId, "epa-as-1.dev.epa4all.de", () -> {});
+    var simulatedResponse = simulateInbound(Response.status(403).build());
+    when(vauApiMock.getVauStatus(userAgent)).thenReturn(simulatedResponse);
+
+    authenticationService.invalidateSessions(telematikId);
+    final var result = loginForInsurantAt(telematikId, "epa-as-1.dev.epa4all.de");
+
+    assertThat(result.success()).isFalse();
+    verify(vauApiMock).getVauStatus(userAgent);
+  }
+
+  private LoginResult loginForInsurantAt(final String telematikId, final String healthRecordFqdn) {
+    final var insurantId = "X110435031";
+    HealthRecordProvider.addHealthRecord(insurantId, healthRecordFqdn);
+    InsurantIdHolder.setInsurantId(insurantId);
+    try {
+      return authenticationService.login(telematikId, "<unused parameters>");
+    } finally {
+      InsurantIdHolder.clear();
+      HealthRecordProvider.clearAllHealthRecords();
+    }
+  }
+
   private void getMockVauStatusResponseAuthenticationNone() {
     var mockVauStatus =
         new VauStatus()
@@ -0,0 +1,209 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.authentication.IdpClientCache.IdpClientSettings;
+import de.gematik.idp.client.IdpClient;
+import de.gematik.idp.client.IdpClientRuntimeException;
+import de.gematik.idp.field.CodeChallengeMethod;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class IdpClientCacheTest {
+
+  private final MutableClock clock = new MutableClock();
+
+  private final List<Runnable> refreshs = new ArrayList<>();
+
+  private final List<IdpClient.IdpClientBuilder> builders = new ArrayList<>();
+
+  private final List<IdpClient> idpClients = new ArrayList<>();
+
+  private final IdpClientCache tstObj =
+      new IdpClientCache(this::newBuilder, clock, refreshs::add).timeToLive(Duration.ofHours(1));
+
+  private final IdpClientSettings settings =
+      new IdpClientSettings(Set.of("openid", "epa"), "https://redirect", "ePA");
+
+  @Test
+  void getInitializesClientOnceTest() {
+    var first = tstObj.get(settings);
+    var second =
+        tstObj.get(new IdpClientSettings(Set.of("epa", "openid"), "https://redirect", "ePA"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(idpClients).hasSize(1);
+    verify(first).initialize();
+    verify(builders.getFirst()).scopes(Set.of("openid", "epa"));
+    verify(builders.getFirst()).redirectUrl("https://redirect");
+    verify(builders.getFirst()).clientId("ePA");
+    verify(builders.getFirst()).codeChallengeMethod(CodeChallengeMethod.S256);
+  }
+
+  @Test
+  void getUsesOwnClientPerSettingsTest() {
+    var first = tstObj.get(settings);
+    var second = tstObj.get(new IdpClientSettings(Set.of("openid"), "https://redirect", "other"));
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(builders).hasSize(2);
+    assertThat(tstObj.size()).isEqualTo(2);
+  }
+
+  @Test
+  void getRefreshesClientInBackgroundTest() {
+    var first = tstObj.get(settings);
+    clock.advance(Duration.ofMinutes(31));
+
+    assertThat(tstObj.get(settings)).isSameAs(first);
+    assertThat(tstObj.get(settings)).isSameAs(first);
+    assertThat(refreshs).hasSize(1);
+
+    refreshs.removeFirst().run();
+
+    assertThat(tstObj.get(settings)).isNotSameAs(first).isSameAs(idpClients.getLast());
+    assertThat(refreshs).isEmpty();
+  }
+
+  @Test
+  void getReplacesExpiredClientTest() {
+    var first = tstObj.get(settings);
+    clock.advance(Duration.ofMinutes(61));
+
+    assertThat(tstObj.get(settings)).isNotSameAs(first);
+    assertThat(refreshs).isEmpty();
+  }
+
+  @Test
+  void failedInitializationIsNotCachedTest() {
+    var failingClient = mock(IdpClient.class);
+    doThrow(new IdpClientRuntimeException("IdP not reachable")).when(failingClient).initialize();
+    var failingBuilder = mock(IdpClient.IdpClientBuilder.class, RETURNS_SELF);
+    when(failingBuilder.build()).thenReturn(failingClient);
+    var cache = new IdpClientCache(() -> failingBuilder, clock, refreshs::add);
+
+    assertThatThrownBy(() -> cache.get(settings))
+        .isInstanceOf(IdpClientRuntimeException.class)
+        .hasMessageContaining("IdP not reachable");
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void invalidateDropsOnlyGivenClientTest() {
+    var first = tstObj.get(settings);
+    var other = tstObj.get(new IdpClientSettings(Set.of("openid"), "https://redirect", "other"));
+
+    tstObj.invalidate(first);
+
+    assertThat(tstObj.size()).isEqualTo(1);
+    assertThat(tstObj.get(settings)).isNotSameAs(first).isSameAs(idpClients.getLast());
+    assertThat(tstObj.get(new IdpClientSettings(Set.of("openid"), "https://redirect", "other")))
+        .isSameAs(other);
+  }
+
+  @Test
+  void invalidateDiscardsRunningRefreshTest() {
+    var first = tstObj.get(settings);
+    clock.advance(Duration.ofMinutes(31));
+    tstObj.get(settings);
+
+    tstObj.invalidate(first);
+    refreshs.removeFirst().run();
+
+    assertThat(tstObj.size()).isZero();
+    assertThat(tstObj.get(settings)).isNotSameAs(first).isSameAs(idpClients.getLast());
+    assertThat(idpClients).hasSize(3);
+  }
+
+  @Test
+  void invalidateAllDiscardsRunningRefreshTest() {
+    var first = tstObj.get(settings);
+    clock.advance(Duration.ofMinutes(31));
+    tstObj.get(settings);
+
+    tstObj.invalidateAll();
+    refreshs.removeFirst().run();
+
+    assertThat(tstObj.size()).isZero();
+    assertThat(tstObj.get(settings)).isNotSameAs(first).isSameAs(idpClients.getLast());
+    assertThat(idpClients).hasSize(3);
+  }
+
+  // region private
+
+  private IdpClient.IdpClientBuilder newBuilder() {
+    var builder = mock(IdpClient.IdpClientBuilder.class, RETURNS_SELF);
+    var idpClient = mock(IdpClient.class);
+    when(builder.build())
+        .thenAnswer(
+            invocation -> {
+              idpClients.add(idpClient);
+              return idpClient;
+            });
+    builders.add(builder);
+    return builder;
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+
+  // endregion private
+}
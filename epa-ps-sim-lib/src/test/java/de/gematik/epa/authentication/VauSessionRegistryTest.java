@@ -0,0 +1,221 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class VauSessionRegistryTest {
+
+  private static final String TELEMATIK_ID = "1-SMC-B-Testkarte-883110000116873";
+
+  private static final String FQDN = "epa-as-1.dev.epa4all.de";
+
+  private final MutableClock clock = new MutableClock();
+
+  private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+
+  private final List<Runnable> scheduled = new ArrayList<>();
+
+  private final ScheduledFuture<?> renewal = mock(ScheduledFuture.class);
+
+  private final VauSessionRegistry tstObj =
+      new VauSessionRegistry(clock, scheduler)
+          .sessionLifetime(Duration.ofMinutes(20))
+          .reLoginLeadTime(Duration.ofMinutes(2));
+
+  {
+    when(scheduler.schedule(any(Runnable.class), anyLong(), any()))
+        .thenAnswer(
+            invocation -> {
+              scheduled.add(invocation.getArgument(0));
+              return renewal;
+            });
+  }
+
+  @Test
+  void findReturnsSessionUntilItExpiresTest() {
+    tstObj.register(TELEMATIK_ID, FQDN, () -> {});
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN))
+        .hasValueSatisfying(
+            session ->
+                assertThat(session.expires())
+                    .isEqualTo(clock.instant().plus(Duration.ofMinutes(20))));
+    assertThat(tstObj.find(TELEMATIK_ID, "other-fqdn")).isEmpty();
+
+    clock.advance(Duration.ofMinutes(20));
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isEmpty();
+    assertThat(tstObj.reusedSessions()).isOne();
+  }
+
+  @Test
+  @SneakyThrows
+  void registerSchedulesReLoginBeforeExpiryTest() {
+    var reLogin = new CountDownLatch(1);
+    tstObj.register(TELEMATIK_ID, FQDN, reLogin::countDown);
+
+    verify(scheduler)
+        .schedule(
+            any(Runnable.class), eq(Duration.ofMinutes(18).toMillis()), eq(TimeUnit.MILLISECONDS));
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isPresent();
+    scheduled.getFirst().run();
+
+    assertThat(reLogin.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void idleSessionIsNotRenewedTest() {
+    var reLogin = new CountDownLatch(1);
+    tstObj.register(TELEMATIK_ID, FQDN, reLogin::countDown);
+
+    scheduled.getFirst().run();
+
+    assertThat(reLogin.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isPresent();
+    clock.advance(Duration.ofMinutes(21));
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isEmpty();
+  }
+
+  @Test
+  void registerReplacesSessionAndCancelsItsRenewalTest() {
+    var reLogins = new ArrayList<String>();
+    tstObj.register(TELEMATIK_ID, FQDN, () -> reLogins.add("first"));
+    clock.advance(Duration.ofMinutes(5));
+    tstObj.register(TELEMATIK_ID, FQDN, () -> reLogins.add("second"));
+
+    verify(renewal).cancel(false);
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN))
+        .hasValueSatisfying(session -> assertThat(session.created()).isEqualTo(clock.instant()));
+
+    // the renewal of the replaced session does not run anymore
+    scheduled.getFirst().run();
+    assertThat(reLogins).isEmpty();
+  }
+
+  @Test
+  void invalidateRemovesAllSessionsOfTelematikIdTest() {
+    tstObj.register(TELEMATIK_ID, FQDN, () -> {});
+    tstObj.register(TELEMATIK_ID, "other-fqdn", () -> {});
+
+    tstObj.invalidate("other-telematik-id");
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isPresent();
+    assertThat(tstObj.find(TELEMATIK_ID, "other-fqdn")).isPresent();
+
+    tstObj.invalidate(TELEMATIK_ID);
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isEmpty();
+    assertThat(tstObj.find(TELEMATIK_ID, "other-fqdn")).isEmpty();
+  }
+
+  @Test
+  void loginOfOtherTelematikIdRemovesSessionsTest() {
+    var reLogins = new ArrayList<String>();
+    tstObj.register(TELEMATIK_ID, FQDN, () -> reLogins.add("first"));
+    tstObj.register(TELEMATIK_ID, "other-fqdn", () -> reLogins.add("first"));
+
+    tstObj.register("other-telematik-id", FQDN, () -> reLogins.add("other"));
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isEmpty();
+    assertThat(tstObj.find(TELEMATIK_ID, "other-fqdn")).isEmpty();
+    assertThat(tstObj.find("other-telematik-id", FQDN)).isPresent();
+    // the renewals of the removed sessions do not run anymore
+    scheduled.get(0).run();
+    scheduled.get(1).run();
+    assertThat(reLogins).isEmpty();
+  }
+
+  @Test
+  void zeroLifetimeDisablesRegistryTest() {
+    tstObj.sessionLifetime(Duration.ZERO);
+
+    tstObj.register(TELEMATIK_ID, FQDN, () -> {});
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isEmpty();
+    verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+  }
+
+  @Test
+  void zeroLeadTimeDisablesRenewalTest() {
+    tstObj.reLoginLeadTime(Duration.ZERO);
+
+    tstObj.register(TELEMATIK_ID, FQDN, () -> {});
+
+    assertThat(tstObj.find(TELEMATIK_ID, FQDN)).isPresent();
+    verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+  }
+
+  // region private
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+
+  // endregion private
+}
@@ -0,0 +1,217 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.api.information.client.AccountInformationApi;
+import de.gematik.epa.api.information.client.ConsentDecisionsApi;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class JaxRsClientRegistryTest {
+
+  private static final String URL = "http://epa-as-1.dev.epa4all.de:443";
+
+  private final MutableClock clock = new MutableClock();
+  private final AtomicInteger createdClients = new AtomicInteger();
+
+  private final JaxRsClientRegistry tstObj =
+      new JaxRsClientRegistry(this::createClient, Duration.ofMinutes(30), clock);
+
+  @Test
+  void getCreatesClientOnceTest() {
+    var client = tstObj.get(URL, AccountInformationApi.class);
+
+    assertThat(client.getUrl()).isEqualTo(URL);
+    assertThat(tstObj.get(URL, AccountInformationApi.class)).isSameAs(client);
+    assertThat(createdClients).hasValue(1);
+  }
+
+  @Test
+  void getCreatesClientPerApiTest() {
+    var informationClient = tstObj.get(URL, AccountInformationApi.class);
+    var consentClient = tstObj.get(URL, ConsentDecisionsApi.class);
+
+    assertThat(consentClient).isNotSameAs(informationClient);
+    assertThat(tstObj.size()).isEqualTo(2);
+  }
+
+  @Test
+  void getReturnsRegisteredClientTest() {
+    JaxRsClientWrapper<AccountInformationApi> configured = client(URL);
+    tstObj.register(configured, AccountInformationApi.class);
+
+    assertThat(tstObj.get(URL, AccountInformationApi.class)).isSameAs(configured);
+    assertThat(tstObj.find(URL, AccountInformationApi.class)).containsSame(configured);
+    assertThat(createdClients).hasValue(0);
+  }
+
+  @Test
+  void findDoesNotCreateClientTest() {
+    assertThat(tstObj.find(URL, AccountInformationApi.class)).isEmpty();
+    assertThat(tstObj.size()).isZero();
+  }
+
+  @Test
+  void getCreatesClientOnceForConcurrentCallsTest() throws Exception {
+    var creationStarted = new CountDownLatch(1);
+    var releaseCreation = new CountDownLatch(1);
+    var registry =
+        new JaxRsClientRegistry(
+            (url, serviceClass) -> {
+              creationStarted.countDown();
+              try {
+                releaseCreation.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return createClient(url, serviceClass);
+            },
+            Duration.ofMinutes(30),
+            clock);
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first =
+          CompletableFuture.supplyAsync(
+              () -> registry.get(URL, AccountInformationApi.class), executor);
+      assertThat(creationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      var second =
+          CompletableFuture.supplyAsync(
+              () -> registry.get(URL, AccountInformationApi.class), executor);
+      releaseCreation.countDown();
+
+      assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+    }
+    assertThat(createdClients).hasValue(1);
+  }
+
+  @Test
+  void idleCreatedClientsAreDroppedTest() {
+    JaxRsClientWrapper<AccountInformationApi> configured = client("http://configured");
+    tstObj.register(configured, AccountInformationApi.class);
+    tstObj.get(URL, AccountInformationApi.class);
+    clock.advance(Duration.ofMinutes(20));
+    var usedClient = tstObj.get("http://used", AccountInformationApi.class);
+    clock.advance(Duration.ofMinutes(20));
+    tstObj.get("http://used", AccountInformationApi.class);
+
+    var evicted = tstObj.evictIdle();
+
+    assertThat(evicted).isEqualTo(1);
+    assertThat(tstObj.find(URL, AccountInformationApi.class)).isEmpty();
+    assertThat(tstObj.find("http://used", AccountInformationApi.class)).containsSame(usedClient);
+    assertThat(tstObj.find("http://configured", AccountInformationApi.class))
+        .containsSame(configured);
+  }
+
+  @Test
+  void clientUsedDuringEvictionIsNotDroppedTest() throws Exception {
+    var usedClient = tstObj.get(URL, AccountInformationApi.class);
+    clock.advance(Duration.ofMinutes(40));
+    var eviction = new CompletableFuture<Integer>();
+    var evictionThread = new Thread(() -> eviction.complete(tstObj.evictIdle()));
+    clock.onNextInstant(
+        () -> {
+          // the eviction runs, while the client is handed out again
+          evictionThread.start();
+          awaitBlockedOrDone(evictionThread);
+        });
+
+    var client = tstObj.get(URL, AccountInformationApi.class);
+
+    assertThat(eviction.get(5, TimeUnit.SECONDS)).isZero();
+    assertThat(client).isSameAs(usedClient);
+    assertThat(tstObj.find(URL, AccountInformationApi.class)).containsSame(usedClient);
+  }
+
+  // region private
+
+  private JaxRsClientWrapper<?> createClient(String url, Class<?> serviceClass) {
+    createdClients.incrementAndGet();
+    return client(url);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> JaxRsClientWrapper<T> client(String url) {
+    JaxRsClientWrapper<T> client = mock(JaxRsClientWrapper.class);
+    when(client.getUrl()).thenReturn(url);
+    return client;
+  }
+
+  private static void awaitBlockedOrDone(Thread thread) {
+    var deadline = Instant.now().plusSeconds(5);
+    while (thread.getState() != Thread.State.BLOCKED
+        && thread.getState() != Thread.State.TERMINATED
+        && Instant.now().isBefore(deadline)) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private volatile Instant instant = Instant.now();
+    private final AtomicReference<Runnable> onNextInstant = new AtomicReference<>();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    void onNextInstant(Runnable action) {
+      onNextInstant.set(action);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      Optional.ofNullable(onNextInstant.getAndSet(null)).ifPresent(Runnable::run);
+      return instant;
+    }
+  }
+
+  // endregion private
+}
@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.gematik.epa.api.testdriver.audit.dto.GetAuditEventResponseDTO;
+import de.gematik.epa.api.testdriver.audit.dto.SearchSetBundleEntryInner;
+import de.gematik.epa.api.testdriver.audit.dto.SearchSetBundleEntryInnerSearch;
+import de.gematik.epa.api.testdriver.medication.dto.GetMedicationListAsFhirResponseDTO;
+import de.gematik.epa.api.testdriver.medication.dto.GetMedicationListAsPdfResponseDTO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the (de)serialization throughput of the large response DTOs with the {@link
+ * SharedJsonProvider}, and the cost of the first (de)serialization by a newly created mapper, as
+ * each client had one before.<br>
+ * Not run by the build, start it with {@code main}, optionally passing the measuring time per case
+ * in seconds (default 5).
+ */
+public class JsonSerializationBenchmark {
+
+  private static final int AUDIT_EVENTS = 200;
+  private static final int PDF_BYTES = 1024 * 1024;
+
+  public static void main(String[] args) throws IOException {
+    var seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    var mapper = SharedJsonProvider.objectMapper();
+
+    var auditEvents = auditEvents();
+    var medicationList =
+        new GetMedicationListAsFhirResponseDTO()
+            .success(true)
+            .eml(resource("/response/medication-list-fhir.json"));
+    var pdf = new byte[PDF_BYTES];
+    new Random(42).nextBytes(pdf);
+    var medicationPdf = new GetMedicationListAsPdfResponseDTO().success(true).eml(pdf);
+
+    firstUse("audit events", auditEvents);
+    firstUse("medication list FHIR", medicationList);
+    firstUse("medication list PDF", medicationPdf);
+
+    measure("audit events", mapper, auditEvents, seconds);
+    measure("medication list FHIR", mapper, medicationList, seconds);
+    measure("medication list PDF", mapper, medicationPdf, seconds);
+  }
+
+  // region private
+
+  private static GetAuditEventResponseDTO auditEvents() throws IOException {
+    var auditEvent = resource("/response/auditEvent.json");
+    var result =
+        new GetAuditEventResponseDTO()
+            .success(true)
+            .type(GetAuditEventResponseDTO.TypeEnum.SEARCHSET)
+            .total(AUDIT_EVENTS);
+    for (int i = 0; i < AUDIT_EVENTS; i++) {
+      result.addEntryItem(
+          new SearchSetBundleEntryInner()
+              .fullUrl("https://epa-as-1.dev.epa4all.de/AuditEvent/" + i)
+              .search(
+                  new SearchSetBundleEntryInnerSearch()
+                      .mode(SearchSetBundleEntryInnerSearch.ModeEnum.MATCH))
+              .resource(auditEvent));
+      result.addAuditEventsItem(auditEvent);
+    }
+    return result;
+  }
+
+  /** Time of the first serialization and deserialization by a new and by the shared mapper */
+  private static void firstUse(String name, Object value) throws IOException {
+    var newMapper = SharedJsonProvider.objectMapper().copy();
+    var start = System.nanoTime();
+    roundTrip(newMapper, value);
+    var newMapperNanos = System.nanoTime() - start;
+
+    SharedJsonProvider.warmUp(value.getClass());
+    start = System.nanoTime();
+    roundTrip(SharedJsonProvider.objectMapper(), value);
+    var sharedMapperNanos = System.nanoTime() - start;
+
+    System.out.printf(
+        "%-22s first use: new mapper %8.3f ms, shared mapper %8.3f ms%n",
+        name, newMapperNanos / 1e6, sharedMapperNanos / 1e6);
+  }
+
+  private static void measure(String name, ObjectMapper mapper, Object value, int seconds)
+      throws IOException {
+    var json = mapper.writeValueAsBytes(value);
+    // warm up the JIT
+    var end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (System.nanoTime() < end) {
+      roundTrip(mapper, value);
+    }
+
+    var writes = 0L;
+    var start = System.nanoTime();
+    end = start + TimeUnit.SECONDS.toNanos(seconds);
+    while (System.nanoTime() < end) {
+      mapper.writeValueAsBytes(value);
+      writes++;
+    }
+    var writeSeconds = (System.nanoTime() - start) / 1e9;
+
+    var reads = 0L;
+    start = System.nanoTime();
+    end = start + TimeUnit.SECONDS.toNanos(seconds);
+    while (System.nanoTime() < end) {
+      mapper.readValue(json, value.getClass());
+      reads++;
+    }
+    var readSeconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf(
+        "%-22s %8d bytes: serialize %10.1f ops/s (%7.1f MB/s), deserialize %10.1f ops/s (%7.1f"
+            + " MB/s)%n",
+        name,
+        json.length,
+        writes / writeSeconds,
+        writes * json.length / writeSeconds / 1e6,
+        reads / readSeconds,
+        reads * json.length / readSeconds / 1e6);
+  }
+
+  private static void roundTrip(ObjectMapper mapper, Object value) throws IOException {
+    mapper.readValue(mapper.writeValueAsBytes(value), value.getClass());
+  }
+
+  private static String resource(String name) throws IOException {
+    try (InputStream in =
+        Objects.requireNonNull(JsonSerializationBenchmark.class.getResourceAsStream(name))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  // endregion private
+}
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.epa.api.testdriver.information.dto.GetRecordStatusResponseDTO;
+import de.gematik.epa.api.testdriver.information.dto.RecordStatusLookupType;
+import jakarta.ws.rs.core.MediaType;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class SharedJsonProviderTest {
+
+  @Test
+  void jsonProviderUsesSharedObjectMapperTest() {
+    var provider = SharedJsonProvider.jsonProvider();
+
+    assertThat(SharedJsonProvider.jsonProvider()).isSameAs(provider);
+    assertThat(
+            provider.locateMapper(
+                GetRecordStatusResponseDTO.class, MediaType.APPLICATION_JSON_TYPE))
+        .isSameAs(SharedJsonProvider.objectMapper());
+  }
+
+  @SneakyThrows
+  @Test
+  void absentValuesAreNotSerializedTest() {
+    var json =
+        SharedJsonProvider.objectMapper()
+            .writeValueAsString(
+                new GetRecordStatusResponseDTO()
+                    .success(true)
+                    .addServerLookupsItem(new RecordStatusLookupType().cancelled(true)));
+
+    assertThat(json).isEqualTo("{\"success\":true,\"serverLookups\":[{\"cancelled\":true}]}");
+  }
+
+  @SneakyThrows
+  @Test
+  void datesAreSerializedAsTextTest() {
+    var json =
+        SharedJsonProvider.objectMapper()
+            .writeValueAsString(
+                Map.of("date", OffsetDateTime.of(2025, 1, 15, 14, 43, 33, 0, ZoneOffset.UTC)));
+
+    assertThat(json).isEqualTo("{\"date\":\"2025-01-15T14:43:33Z\"}");
+  }
+}
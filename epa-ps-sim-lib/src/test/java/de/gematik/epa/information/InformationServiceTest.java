@@ -27,6 +27,7 @@ package de.gematik.epa.information;
 import static de.gematik.epa.information.InformationService.*;
 import static de.gematik.epa.unit.util.TestDataFactory.simulateInbound;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -39,13 +40,19 @@ import de.gematik.epa.api.information.client.dto.ErrorType;
 import de.gematik.epa.api.information.client.dto.GetConsentDecisionInformation200Response;
 import de.gematik.epa.api.information.client.dto.UxRequestType;
 import de.gematik.epa.api.testdriver.information.dto.ConsentDecisionsResponseType;
+import de.gematik.epa.api.testdriver.information.dto.RecordStatusLookupType;
 import de.gematik.epa.api.testdriver.information.dto.ResponseDTO;
 import de.gematik.epa.api.testdriver.information.dto.SetFqdnRequestDTO;
+import de.gematik.epa.client.JaxRsClientRegistry;
 import de.gematik.epa.client.JaxRsClientWrapper;
+import de.gematik.epa.utils.BoundedHealthRecordLocationCache;
 import de.gematik.epa.utils.HealthRecordProvider;
 import jakarta.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.*;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -67,11 +74,7 @@ class InformationServiceTest {
       List.of(consentDecisionsClient);
   private final List<JaxRsClientWrapper<UserExperienceApi>> userExperienceClientWrapper =
       List.of(userExperienceClient);
-  private final InformationService informationService =
-      new InformationService(
-          accountInformationClientWrapper,
-          consentDecisionsClientWrapper,
-          userExperienceClientWrapper);
+  private InformationService informationService;
   private final AccountInformationApi accountInformationApi = mock(AccountInformationApi.class);
   private final ConsentDecisionsApi consentDecisionsApi = mock(ConsentDecisionsApi.class);
   private final UserExperienceApi userExperienceApi = mock(UserExperienceApi.class);
@@ -88,6 +91,11 @@ class InformationServiceTest {
     when(userExperienceClient.getServiceApi()).thenReturn(userExperienceApi);
     when(userExperienceClient.getUserAgent()).thenReturn(PS_SIM_AGENT);
     when(userExperienceClient.getUrl()).thenReturn(EXAMPLE_COM);
+    informationService =
+        new InformationService(
+            accountInformationClientWrapper,
+            consentDecisionsClientWrapper,
+            userExperienceClientWrapper);
 
     HealthRecordProvider.addHealthRecord("123", accountInformationClient.getUrl());
   }
@@ -256,6 +264,126 @@ class InformationServiceTest {
     assertThat(result.getSuccess()).isFalse();
   }
 
+  @Test
+  void shouldReturnFirstServerKnowingTheRecordAndCancelOtherLookups() throws InterruptedException {
+    var slowServerStarted = new CountDownLatch(1);
+    var releaseSlowServer = new CountDownLatch(1);
+    var slowServerInterrupted = new CountDownLatch(1);
+    var slowServer = recordStatusClient("http://slow.example.com");
+    when(slowServer.getServiceApi().getRecordStatus(anyString(), anyString()))
+        .thenAnswer(
+            invocation -> {
+              slowServerStarted.countDown();
+              try {
+                releaseSlowServer.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                slowServerInterrupted.countDown();
+                throw e;
+              }
+              return Response.status(404).build();
+            });
+    var recordServer = recordStatusClient("http://record.example.com");
+    when(recordServer.getServiceApi().getRecordStatus(anyString(), anyString()))
+        .thenAnswer(
+            invocation -> {
+              slowServerStarted.await(5, TimeUnit.SECONDS);
+              return Response.status(204).build();
+            });
+    var service = new InformationService(List.of(slowServer, recordServer), List.of(), List.of());
+
+    var result = service.getRecordStatus("X110611629");
+
+    assertThat(slowServerInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    releaseSlowServer.countDown();
+    assertThat(result.getSuccess()).isTrue();
+    assertThat(result.getFqdn()).isEqualTo("http://record.example.com");
+    assertThat(result.getServerLookups())
+        .containsExactly(
+            new RecordStatusLookupType().fqdn("http://slow.example.com").cancelled(true),
+            new RecordStatusLookupType()
+                .fqdn("http://record.example.com")
+                .httpStatusCode(204)
+                .latencyMillis(result.getServerLookups().get(1).getLatencyMillis())
+                .cancelled(false));
+  }
+
+  @Test
+  void shouldReportLookupOfEachServerWhenNoServerKnowsTheRecord() {
+    var firstServer = recordStatusClient("http://first.example.com");
+    var errorType = new ErrorType().errorCode("noHealthRecord");
+    var notFound = simulateInbound(Response.status(404).entity(errorType).build());
+    when(firstServer.getServiceApi().getRecordStatus(anyString(), anyString()))
+        .thenReturn(notFound);
+    var secondServer = recordStatusClient("http://second.example.com");
+    when(secondServer.getServiceApi().getRecordStatus(anyString(), anyString()))
+        .thenThrow(new IllegalStateException("not reachable"));
+    var service = new InformationService(List.of(firstServer, secondServer), List.of(), List.of());
+
+    var result = service.getRecordStatus("X110611630");
+
+    assertThat(result.getSuccess()).isFalse();
+    assertThat(result.getStatusMessage()).isEqualTo(UNKNOWN_ERROR);
+    assertThat(result.getServerLookups())
+        .extracting(
+            RecordStatusLookupType::getFqdn,
+            RecordStatusLookupType::getHttpStatusCode,
+            RecordStatusLookupType::getCancelled)
+        .containsExactly(
+            tuple("http://first.example.com", 404, false),
+            tuple("http://second.example.com", null, false));
+    assertThat(result.getServerLookups())
+        .allSatisfy(lookup -> assertThat(lookup.getLatencyMillis()).isNotNull());
+  }
+
+  @Test
+  void shouldRememberMissingRecordWhenNoServerKnowsIt() {
+    var server = recordStatusClient("http://first.example.com");
+    var errorType = new ErrorType().errorCode("noHealthRecord");
+    var notFound = simulateInbound(Response.status(404).entity(errorType).build());
+    when(server.getServiceApi().getRecordStatus(anyString(), anyString())).thenReturn(notFound);
+    var service = new InformationService(List.of(server), List.of(), List.of());
+    var locationCache = HealthRecordProvider.getLocationCache();
+    HealthRecordProvider.setLocationCache(
+        new BoundedHealthRecordLocationCache(10, Duration.ofHours(1), Duration.ofMinutes(5), null));
+    try {
+      var first = service.getRecordStatus("X110611631");
+      var second = service.getRecordStatus("X110611631");
+
+      assertThat(first.getStatusMessage()).isEqualTo("noHealthRecord");
+      assertThat(second.getSuccess()).isFalse();
+      assertThat(second.getStatusMessage()).isEqualTo(NO_RECORD_FOUND);
+      verify(server.getServiceApi(), times(1)).getRecordStatus(anyString(), anyString());
+    } finally {
+      HealthRecordProvider.setLocationCache(locationCache);
+    }
+  }
+
+  @Test
+  void shouldCreateConsentDecisionsClientForHealthRecordSystemSetByFqdn() {
+    JaxRsClientWrapper<ConsentDecisionsApi> consentClient = mock(JaxRsClientWrapper.class);
+    var consentApi = mock(ConsentDecisionsApi.class);
+    when(consentClient.getServiceApi()).thenReturn(consentApi);
+    when(consentClient.getUserAgent()).thenReturn(PS_SIM_AGENT);
+    when(consentApi.getConsentDecisionInformation(anyString(), anyString()))
+        .thenReturn(Response.status(300).build());
+    JaxRsClientWrapper<AccountInformationApi> informationClient = mock(JaxRsClientWrapper.class);
+    when(informationClient.getUrl()).thenReturn("http://new.example.com");
+    var registry =
+        new JaxRsClientRegistry(
+            (url, serviceClass) ->
+                serviceClass == ConsentDecisionsApi.class ? consentClient : informationClient);
+    var service = new InformationService(List.of(), List.of(), List.of(), registry);
+
+    service.setFqdn(
+        new SetFqdnRequestDTO().fqdn("http://new.example.com").insurantId("X110611632"));
+    var result = service.getConsentDecisionInformation("X110611632");
+
+    assertThat(result.getStatusMessage()).isEqualTo(UNKNOWN_ERROR);
+    assertThat(registry.find("http://new.example.com", ConsentDecisionsApi.class))
+        .containsSame(consentClient);
+    verify(consentApi).getConsentDecisionInformation("X110611632", PS_SIM_AGENT);
+  }
+
   @Test
   void shouldSetFqdn() {
     final SetFqdnRequestDTO requestDTO =
@@ -294,4 +422,12 @@ class InformationServiceTest {
       assertEquals("Test Exception", response.getStatusMessage());
     }
   }
+
+  private JaxRsClientWrapper<AccountInformationApi> recordStatusClient(final String url) {
+    final JaxRsClientWrapper<AccountInformationApi> client = mock(JaxRsClientWrapper.class);
+    when(client.getServiceApi()).thenReturn(mock(AccountInformationApi.class));
+    when(client.getUserAgent()).thenReturn(PS_SIM_AGENT);
+    when(client.getUrl()).thenReturn(url);
+    return client;
+  }
 }
@@ -33,6 +33,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import de.gematik.epa.authentication.exception.TelematikIdNotFoundException;
+import de.gematik.epa.data.SmbInformation;
 import de.gematik.epa.konnektor.client.AuthSignatureServiceClient;
 import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestDataFactory;
@@ -40,6 +41,7 @@ import de.gematik.epa.utils.CertificateUtils;
 import de.gematik.idp.field.ClaimName;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 import oasis.names.tc.dss._1_0.core.schema.Base64Signature;
@@ -59,8 +61,8 @@ class CardAuthenticationServiceTest {
 
   @Test
   void shouldReturnCardHandle() {
-    when(smbInformationProvider.getSmbInformationForTelematikId(SMB_AUT_TELEMATIK_ID))
-        .thenReturn(Optional.of(TestDataFactory.createSmbInformation(SMB_AUT_TELEMATIK_ID)));
+    when(smbInformationProvider.getSmbInformationsForTelematikId(SMB_AUT_TELEMATIK_ID))
+        .thenReturn(List.of(TestDataFactory.createSmbInformation(SMB_AUT_TELEMATIK_ID)));
 
     assertThat(cardAuthenticationService.getCardHandle(SMB_AUT_TELEMATIK_ID))
         .isEqualTo(CARD_HANDLE);
@@ -68,14 +70,28 @@ class CardAuthenticationServiceTest {
 
   @Test
   void shouldThrowExceptionWhenTelematikIdDoesNotExist() {
-    when(smbInformationProvider.getSmbInformationForTelematikId(SMB_AUT_TELEMATIK_ID))
-        .thenReturn(Optional.empty());
+    when(smbInformationProvider.getSmbInformationsForTelematikId(SMB_AUT_TELEMATIK_ID))
+        .thenReturn(List.of());
 
     assertThrows(
         TelematikIdNotFoundException.class,
         () -> cardAuthenticationService.getCardHandle(SMB_AUT_TELEMATIK_ID));
   }
 
+  @Test
+  void shouldSpreadCardHandlesOverEquivalentCards() {
+    var otherSmb =
+        new SmbInformation(SMB_AUT_TELEMATIK_ID, "iccsn2", "cardHolderName", "SMB2", List.of());
+    when(smbInformationProvider.getSmbInformationsForTelematikId(SMB_AUT_TELEMATIK_ID))
+        .thenReturn(List.of(TestDataFactory.createSmbInformation(SMB_AUT_TELEMATIK_ID), otherSmb));
+
+    assertThat(
+            List.of(
+                cardAuthenticationService.getCardHandle(SMB_AUT_TELEMATIK_ID),
+                cardAuthenticationService.getCardHandle(SMB_AUT_TELEMATIK_ID)))
+        .containsExactlyInAnyOrder(CARD_HANDLE, "SMB2");
+  }
+
   @Test
   void shouldReturnSignature() {
     byte[] dataToSign = "testData".getBytes();
@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.unit.util.TestBase;
+import de.gematik.epa.unit.util.TestDataFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.eventservice.xsd.v6_1.Subscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Unsubscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.UnsubscribeResponse;
+
+class CardEventSubscriptionTest extends TestBase {
+
+  private static final String EVENT_TO = "cetp://localhost:9017";
+
+  @SneakyThrows
+  @Test
+  void startSubscribesAndCloseUnsubscribes() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    final var subscriptionCount = new AtomicInteger();
+    when(eventServiceMock.subscribe(any()))
+        .then(
+            invocation ->
+                new SubscribeResponse()
+                    .withStatus(TestDataFactory.getStatusOk())
+                    .withSubscriptionID("id" + subscriptionCount.incrementAndGet()));
+    when(eventServiceMock.unsubscribe(any()))
+        .thenReturn(new UnsubscribeResponse().withStatus(TestDataFactory.getStatusOk()));
+
+    final var tstObj =
+        new CardEventSubscription(
+            konnektorContextProvider(),
+            konnektorInterfaceAssembly(),
+            new CetpEventReceiver(0, konnektorContextProvider().cardInventory()::onEvent),
+            EVENT_TO);
+
+    assertDoesNotThrow(tstObj::start);
+    assertDoesNotThrow(tstObj::close);
+
+    final var subscribeCaptor = ArgumentCaptor.forClass(Subscribe.class);
+    verify(eventServiceMock, times(2)).subscribe(subscribeCaptor.capture());
+    assertThat(subscribeCaptor.getAllValues())
+        .map(subscribe -> subscribe.getSubscription().getTopic())
+        .containsExactlyElementsOf(CardEventSubscription.TOPICS);
+    assertThat(subscribeCaptor.getAllValues())
+        .allMatch(subscribe -> EVENT_TO.equals(subscribe.getSubscription().getEventTo()));
+
+    final var unsubscribeCaptor = ArgumentCaptor.forClass(Unsubscribe.class);
+    verify(eventServiceMock, times(2)).unsubscribe(unsubscribeCaptor.capture());
+    assertThat(unsubscribeCaptor.getAllValues())
+        .map(Unsubscribe::getSubscriptionID)
+        .containsExactly("id1", "id2");
+  }
+
+  @SneakyThrows
+  @Test
+  void startInvalidatesCardInventoryEvenIfSubscriptionFails() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    when(eventServiceMock.subscribe(any())).thenThrow(new IllegalStateException("no Konnektor"));
+
+    final var cardInventory = konnektorContextProvider().cardInventory();
+    cardInventory.getCards(
+        TestDataFactory.contextType(), CardTypeType.SM_B, TestDataFactory::getCardsSmbResponse);
+
+    try (final var tstObj =
+        new CardEventSubscription(
+            konnektorContextProvider(),
+            konnektorInterfaceAssembly(),
+            new CetpEventReceiver(0, cardInventory::onEvent),
+            EVENT_TO)) {
+      assertDoesNotThrow(tstObj::start);
+    }
+
+    final var reloaded = new AtomicInteger();
+    cardInventory.getCards(
+        TestDataFactory.contextType(),
+        CardTypeType.SM_B,
+        () -> {
+          reloaded.incrementAndGet();
+          return TestDataFactory.getCardsSmbResponse();
+        });
+    assertThat(reloaded).hasValue(1);
+  }
+}
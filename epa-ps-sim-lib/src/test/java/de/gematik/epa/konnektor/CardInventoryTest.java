@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.epa.unit.util.TestDataFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
+
+class CardInventoryTest {
+
+  private final MutableClock clock = new MutableClock();
+
+  private final CardInventory tstObj = new CardInventory(Duration.ofSeconds(30), clock);
+
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private final Supplier<GetCardsResponse> loader =
+      () -> {
+        loadCount.incrementAndGet();
+        return TestDataFactory.getCardsSmbResponse();
+      };
+
+  @Test
+  void getCardsLoadsOnlyOnce() {
+    var first = tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    var second = tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(second).isSameAs(first);
+    assertThat(loadCount).hasValue(1);
+  }
+
+  @Test
+  void getCardsLoadsPerCardTypeAndContext() {
+    var otherContext = TestDataFactory.contextType().withMandantId("Other_Mandant");
+
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.HBA, loader);
+    tstObj.getCards(otherContext, CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(3);
+  }
+
+  @Test
+  void getCardsReloadsAfterTimeToLive() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    clock.advance(Duration.ofSeconds(31));
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void invalidateRemovesOnlyGivenCardType() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.EGK, loader);
+
+    tstObj.invalidate(CardTypeType.EGK);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.EGK, loader);
+
+    assertThat(loadCount).hasValue(3);
+  }
+
+  @Test
+  void cardEventInvalidatesCardTypeOfEvent() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.EGK, loader);
+
+    tstObj.onEvent(cardEvent("CARD/INSERTED", CardTypeType.EGK.value()));
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.EGK, loader);
+
+    assertThat(loadCount).hasValue(3);
+  }
+
+  @Test
+  void cardEventWithoutKnownCardTypeInvalidatesAll() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    tstObj.onEvent(cardEvent("CARD/REMOVED", "NO_CARD_TYPE"));
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void cardTerminalEventInvalidatesAll() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    tstObj.onEvent(new Event().withTopic("CT/DISCONNECTED"));
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void otherEventsAreIgnored() {
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    tstObj.onEvent(new Event().withTopic("KT/INFO"));
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(1);
+  }
+
+  @Test
+  void failedLoadIsNotCached() {
+    Supplier<GetCardsResponse> failingLoader =
+        () -> {
+          throw new IllegalStateException("Konnektor not reachable");
+        };
+
+    assertThatThrownBy(
+            () -> tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, failingLoader))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Konnektor not reachable");
+    tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader);
+
+    assertThat(loadCount).hasValue(1);
+  }
+
+  @Test
+  void runningLoadDoesNotBlockOtherCardTypes() throws Exception {
+    var loadStarted = new CountDownLatch(1);
+    var releaseLoad = new CountDownLatch(1);
+    Supplier<GetCardsResponse> slowLoader =
+        () -> {
+          loadStarted.countDown();
+          try {
+            releaseLoad.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return loader.get();
+        };
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var slow =
+          executor.submit(
+              () -> tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, slowLoader));
+      var waiting =
+          executor.submit(
+              () -> tstObj.getCards(TestDataFactory.contextType(), CardTypeType.SM_B, loader));
+      assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      tstObj.getCards(TestDataFactory.contextType(), CardTypeType.HBA, loader);
+      tstObj.invalidate(CardTypeType.HBA);
+      releaseLoad.countDown();
+
+      assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(slow.get(5, TimeUnit.SECONDS));
+    }
+    assertThat(loadCount).hasValue(2);
+  }
+
+  static Event cardEvent(String topic, String cardType) {
+    return new Event()
+        .withTopic(topic)
+        .withMessage(
+            new Event.Message()
+                .withParameter(
+                    new Event.Message.Parameter()
+                        .withKey(CardInventory.CARD_TYPE_PARAMETER)
+                        .withValue(cardType)));
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CardPoolTest {
+
+  private final CardPool tstObj = new CardPool();
+
+  @Test
+  void selectTakesTurnsBetweenIdleCardsTest() {
+    var cardHandles = List.of("SMB1", "SMB2", "SMB3");
+
+    var selected =
+        List.of(tstObj.select(cardHandles), tstObj.select(cardHandles), tstObj.select(cardHandles));
+
+    assertThat(selected).containsExactlyInAnyOrderElementsOf(cardHandles);
+  }
+
+  @Test
+  void selectAvoidsBusyCardTest() throws Exception {
+    var running = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(
+          () ->
+              tstObj.execute(
+                  "SMB1",
+                  () -> {
+                    running.countDown();
+                    return await(release);
+                  }));
+      assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(tstObj.queueDepth("SMB1")).isOne();
+      assertThat(tstObj.select(List.of("SMB1", "SMB2"))).isEqualTo("SMB2");
+      assertThat(tstObj.select(List.of("SMB1", "SMB2"))).isEqualTo("SMB2");
+
+      release.countDown();
+    }
+
+    assertThat(tstObj.queueDepths()).containsEntry("SMB1", 0);
+    assertThat(tstObj.operations()).isOne();
+  }
+
+  @Test
+  void selectWithoutCardsThrowsTest() {
+    assertThatThrownBy(() -> tstObj.select(List.of())).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void executeRunsOneOperationPerCardAtATimeTest() {
+    var concurrent = new AtomicInteger();
+    var maxConcurrent = new AtomicInteger();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 20; i++) {
+        executor.submit(
+            () ->
+                tstObj.execute(
+                    "SMB1",
+                    () -> {
+                      maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                      sleep();
+                      return concurrent.decrementAndGet();
+                    }));
+      }
+    }
+
+    assertThat(maxConcurrent.get()).isOne();
+    assertThat(tstObj.operations()).isEqualTo(20);
+  }
+
+  @Test
+  void executeIsReentrantTest() {
+    var result = tstObj.execute("SMB1", () -> tstObj.execute("SMB1", () -> "nested"));
+
+    assertThat(result).isEqualTo("nested");
+  }
+
+  @Test
+  void executeFailsIfCardStaysBusyTest() throws Exception {
+    var running = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    tstObj.queueTimeout(Duration.ofMillis(50));
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(
+          () ->
+              tstObj.execute(
+                  "SMB1",
+                  () -> {
+                    running.countDown();
+                    return await(release);
+                  }));
+      assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThatThrownBy(() -> tstObj.execute("SMB1", () -> "late"))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("SMB1");
+
+      release.countDown();
+    }
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(2);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.epa.utils.XmlUtils;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+
+class CetpEventReceiverTest {
+
+  @SneakyThrows
+  @Test
+  void receivesEvents() {
+    var received = new LinkedBlockingQueue<Event>();
+
+    try (var tstObj = new CetpEventReceiver(0, received::add).start();
+        var socket = new Socket(InetAddress.getLoopbackAddress(), tstObj.port());
+        var output = new DataOutputStream(socket.getOutputStream())) {
+      writeEvent(output, CardInventoryTest.cardEvent("CARD/INSERTED", CardTypeType.EGK.value()));
+      writeEvent(output, new Event().withTopic("CARD/REMOVED"));
+
+      var first = received.poll(5, TimeUnit.SECONDS);
+      var second = received.poll(5, TimeUnit.SECONDS);
+
+      assertThat(first).isNotNull();
+      assertThat(first.getTopic()).isEqualTo("CARD/INSERTED");
+      assertThat(first.getMessage().getParameter().getFirst().getValue())
+          .isEqualTo(CardTypeType.EGK.value());
+      assertThat(second).isNotNull();
+      assertThat(second.getTopic()).isEqualTo("CARD/REMOVED");
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  void ignoresInvalidMessages() {
+    var received = new LinkedBlockingQueue<Event>();
+
+    try (var tstObj = new CetpEventReceiver(0, received::add).start()) {
+      try (var socket = new Socket(InetAddress.getLoopbackAddress(), tstObj.port())) {
+        socket.getOutputStream().write("INVALID".getBytes(StandardCharsets.US_ASCII));
+      }
+
+      try (var socket = new Socket(InetAddress.getLoopbackAddress(), tstObj.port());
+          var output = new DataOutputStream(socket.getOutputStream())) {
+        writeEvent(output, new Event().withTopic("CT/CONNECTED"));
+
+        var event = received.poll(5, TimeUnit.SECONDS);
+
+        assertThat(event).isNotNull();
+        assertThat(event.getTopic()).isEqualTo("CT/CONNECTED");
+        assertThat(received).isEmpty();
+      }
+    }
+  }
+
+  @SneakyThrows
+  @ParameterizedTest
+  @ValueSource(ints = {-1, CetpEventReceiver.MAX_EVENT_LENGTH + 1, Integer.MAX_VALUE})
+  void closesConnectionOnInvalidLength(int length) {
+    try (var tstObj = new CetpEventReceiver(0, event -> {}).start();
+        var socket = new Socket(InetAddress.getLoopbackAddress(), tstObj.port());
+        var output = new DataOutputStream(socket.getOutputStream())) {
+      socket.setSoTimeout(5000);
+      output.write("CETP".getBytes(StandardCharsets.US_ASCII));
+      output.writeInt(length);
+      output.flush();
+
+      assertThat(socket.getInputStream().read()).isEqualTo(-1);
+    }
+  }
+
+  @SneakyThrows
+  private static void writeEvent(DataOutputStream output, Event event) {
+    var content = XmlUtils.marshal(event);
+    output.write("CETP".getBytes(StandardCharsets.US_ASCII));
+    output.writeInt(content.length);
+    output.write(content);
+    output.flush();
+  }
+}
@@ -0,0 +1,207 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.epa.api.testdriver.config.AddressConfig;
+import de.gematik.epa.unit.util.TestDataFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
+
+class JobNumberPoolTest {
+
+  private final MutableClock clock = new MutableClock();
+
+  private final List<Runnable> refills = new ArrayList<>();
+
+  private final JobNumberPool tstObj = new JobNumberPool(clock, refills::add).size(2);
+
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private final Supplier<String> loader = () -> "JOB-" + loadCount.incrementAndGet();
+
+  private final ContextType context = TestDataFactory.contextType();
+
+  private final AddressConfig konnektor = TestDataFactory.createAddress();
+
+  @Test
+  void takeFetchesIfPoolIsEmptyTest() {
+    assertThat(tstObj.take(konnektor, context, loader)).isEqualTo("JOB-1");
+
+    assertThat(tstObj.misses()).isOne();
+    assertThat(refills).hasSize(1);
+  }
+
+  @Test
+  void takeUsesPrefetchedJobNumbersTest() {
+    tstObj.take(konnektor, context, loader);
+    runRefills();
+
+    assertThat(tstObj.available(konnektor, context)).isEqualTo(2);
+    assertThat(tstObj.take(konnektor, context, loader)).isEqualTo("JOB-2");
+    assertThat(tstObj.take(konnektor, context, loader)).isEqualTo("JOB-3");
+    assertThat(tstObj.hits()).isEqualTo(2);
+    assertThat(loadCount).hasValue(3);
+  }
+
+  @Test
+  void onlyOneRefillAtATimeTest() {
+    tstObj.take(konnektor, context, loader);
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).hasSize(1);
+
+    runRefills();
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).hasSize(1);
+  }
+
+  @Test
+  void expiredJobNumbersAreNotUsedTest() {
+    tstObj.take(konnektor, context, loader);
+    runRefills();
+    clock.advance(JobNumberPool.DEFAULT_TIME_TO_LIVE.plusSeconds(1));
+
+    assertThat(tstObj.take(konnektor, context, loader)).isEqualTo("JOB-4");
+    assertThat(tstObj.misses()).isEqualTo(2);
+  }
+
+  @Test
+  void poolsAreKeptPerContextTest() {
+    tstObj.take(konnektor, context, loader);
+    runRefills();
+
+    var otherContext = TestDataFactory.contextType().withWorkplaceId("OtherWorkplace");
+
+    assertThat(tstObj.available(konnektor, otherContext)).isZero();
+    assertThat(tstObj.take(konnektor, otherContext, loader)).isEqualTo("JOB-4");
+  }
+
+  @Test
+  void poolsAreKeptPerKonnektorTest() {
+    tstObj.take(konnektor, context, loader);
+    runRefills();
+
+    var otherKonnektor = new AddressConfig("other-konnektor", 443, "https", "connector.sds");
+
+    assertThat(tstObj.available(otherKonnektor, context)).isZero();
+    assertThat(tstObj.take(otherKonnektor, context, loader)).isEqualTo("JOB-4");
+  }
+
+  @Test
+  void refillStartsAtHalfOfTheSizeTest() {
+    tstObj.size(4);
+    tstObj.take(konnektor, context, loader);
+    runRefills();
+
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).isEmpty();
+
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).hasSize(1);
+  }
+
+  @Test
+  void invalidateAllDiscardsRunningRefillsTest() {
+    tstObj.take(konnektor, context, loader);
+    tstObj.invalidateAll();
+    runRefills();
+
+    assertThat(tstObj.available(konnektor, context)).isZero();
+  }
+
+  @Test
+  void sizeZeroDisablesPrefetchingTest() {
+    tstObj.size(0);
+
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).isEmpty();
+  }
+
+  @Test
+  void failingRefillIsIgnoredTest() {
+    var calls = new AtomicInteger();
+    Supplier<String> failingAfterFirstCall =
+        () -> {
+          if (calls.incrementAndGet() > 1) {
+            throw new IllegalStateException("Konnektor not reachable");
+          }
+          return "JOB";
+        };
+
+    tstObj.take(konnektor, context, failingAfterFirstCall);
+    runRefills();
+
+    assertThat(tstObj.available(konnektor, context)).isZero();
+
+    tstObj.take(konnektor, context, loader);
+
+    assertThat(refills).hasSize(1);
+  }
+
+  private void runRefills() {
+    var pending = List.copyOf(refills);
+    refills.clear();
+    pending.forEach(Runnable::run);
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -81,4 +81,61 @@ class KonnektorConfigurationProviderTest {
     assertNull(tstData2.basicAuthentication());
     assertNull(tstData2.tlsConfig());
   }
+
+  @Test
+  void connectionAfterUpdateMergesWithoutChangingConfiguration() {
+    var tstData = TestDataFactory.createKonnektorConfigurationMutable();
+    var currentAddress = tstData.connection().address();
+    var tstObj = new KonnektorConfigurationProvider(tstData);
+    var tstDto =
+        new KonnektorConfigurationRequestDTO(
+            new KonnektorConnectionConfigurationDTO(null, null, null, null, Boolean.TRUE),
+            null,
+            Boolean.TRUE);
+
+    var connection = tstObj.connectionAfterUpdate(tstDto);
+
+    assertEquals(currentAddress, connection.address());
+    assertEquals(tstData.connection().tlsConfig(), connection.tlsConfig());
+    assertSame(currentAddress, tstData.connection().address());
+  }
+
+  @Test
+  void connectionAfterUpdateReplacesWithoutChangingConfiguration() {
+    var tstData = TestDataFactory.createKonnektorConfigurationMutable();
+    var currentAddress = tstData.connection().address();
+    var tstObj = new KonnektorConfigurationProvider(tstData);
+    var tstDto =
+        new KonnektorConfigurationRequestDTO(
+            new KonnektorConnectionConfigurationDTO(null, null, null, null, Boolean.TRUE),
+            tstData.context(),
+            Boolean.FALSE);
+
+    var connection = tstObj.connectionAfterUpdate(tstDto);
+
+    assertNull(connection.address());
+    assertNull(connection.tlsConfig());
+    assertSame(currentAddress, tstData.connection().address());
+  }
+
+  @Test
+  void connectionAfterUpdateMatchesAppliedUpdate() {
+    var tstData = TestDataFactory.createKonnektorConfigurationMutable();
+    var tstObj = new KonnektorConfigurationProvider(tstData);
+    var tstDto =
+        new KonnektorConfigurationRequestDTO(
+            new KonnektorConnectionConfigurationDTO(
+                null, null, null, tstData.connection().basicAuthentication(), Boolean.FALSE),
+            null,
+            Boolean.TRUE);
+
+    var connection = tstObj.connectionAfterUpdate(tstDto);
+    var applied = tstObj.updateKonnektorConfigurations(tstDto).connection();
+
+    assertEquals(applied.address(), connection.address());
+    assertEquals(applied.tlsConfig(), connection.tlsConfig());
+    assertEquals(applied.proxyAddress(), connection.proxyAddress());
+    assertEquals(applied.basicAuthentication(), connection.basicAuthentication());
+    assertNull(connection.address());
+  }
 }
@@ -0,0 +1,155 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.konnektor.PinStatusKeeper.CardPinState;
+import de.gematik.epa.konnektor.client.CardServiceClient;
+import de.gematik.epa.unit.util.TestBase;
+import de.gematik.epa.unit.util.TestDataFactory;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import telematik.ws.conn.cardservice.xsd.v8_1.Cards;
+import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.PinResultEnum;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
+
+class PinStatusKeeperTest extends TestBase {
+
+  private PinStatusKeeper tstObj;
+
+  @BeforeEach
+  void beforeEach() {
+    when(konnektorInterfaceAssembly().eventService().getCards(any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    tstObj =
+        new PinStatusKeeper(
+            konnektorContextProvider(),
+            Map.of(CardTypeType.SM_B, CardServiceClient.PIN_SMC),
+            Duration.ofMinutes(1));
+  }
+
+  @Test
+  void pollKeepsVerifiedCardTest() {
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    when(cardServiceMock.getPinStatus(any()))
+        .thenReturn(TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIED));
+
+    tstObj.poll();
+
+    assertThat(tstObj.states())
+        .singleElement()
+        .satisfies(
+            state -> {
+              assertThat(state.cardHandle())
+                  .isEqualTo(TestDataFactory.cardInfoSmb().getCardHandle());
+              assertThat(state.isReady()).isTrue();
+            });
+    assertThat(tstObj.lastPoll()).isPresent();
+    assertThat(tstObj.verifications()).isZero();
+    verify(cardServiceMock, never()).verifyPin(any());
+  }
+
+  @Test
+  void pollVerifiesVerifiableCardTest() {
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    when(cardServiceMock.getPinStatus(any()))
+        .thenReturn(TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIABLE));
+    when(cardServiceMock.verifyPin(any()))
+        .thenReturn(TestDataFactory.verifyPin(TestDataFactory.getStatusOk(), PinResultEnum.OK));
+
+    tstObj.poll();
+
+    assertThat(tstObj.states())
+        .singleElement()
+        .extracting(CardPinState::pinStatus)
+        .isEqualTo(PinStatusEnum.VERIFIED);
+    assertThat(tstObj.verifications()).isOne();
+    assertThat(tstObj.failedVerifications()).isZero();
+  }
+
+  @Test
+  void pollRecordsFailedVerificationTest() {
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    when(cardServiceMock.getPinStatus(any()))
+        .thenReturn(TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIABLE));
+    when(cardServiceMock.verifyPin(any()))
+        .thenReturn(
+            TestDataFactory.verifyPin(TestDataFactory.getStatusOk(), PinResultEnum.REJECTED));
+
+    tstObj.poll();
+
+    assertThat(tstObj.states())
+        .singleElement()
+        .satisfies(
+            state -> {
+              assertThat(state.isReady()).isFalse();
+              assertThat(state.error()).isNotBlank();
+            });
+    assertThat(tstObj.failedVerifications()).isOne();
+  }
+
+  @Test
+  void pollForgetsRemovedCardsTest() {
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    when(cardServiceMock.getPinStatus(any()))
+        .thenReturn(TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIED));
+    tstObj.poll();
+
+    when(konnektorInterfaceAssembly().eventService().getCards(any()))
+        .thenReturn(
+            new GetCardsResponse()
+                .withStatus(TestDataFactory.getStatusOk())
+                .withCards(new Cards()));
+    konnektorContextProvider().cardInventory().invalidateAll();
+    tstObj.poll();
+
+    assertThat(tstObj.states()).isEmpty();
+  }
+
+  @Test
+  void pollRecordsUnreadablePinStatusTest() {
+    when(konnektorInterfaceAssembly().cardService().getPinStatus(any()))
+        .thenThrow(new IllegalStateException("Konnektor not reachable"));
+
+    tstObj.poll();
+
+    assertThat(tstObj.states())
+        .singleElement()
+        .satisfies(
+            state -> {
+              assertThat(state.pinStatus()).isNull();
+              assertThat(state.error()).contains("Konnektor not reachable");
+            });
+  }
+}
@@ -25,14 +25,24 @@
 package de.gematik.epa.konnektor;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import de.gematik.epa.authentication.exception.TelematikIdNotFoundException;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
 import de.gematik.epa.utils.TelematikIdHolder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import telematik.ws.conn.cardservice.xsd.v8_1.Cards;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
 
 class SmbInformationProviderTest extends TestBase {
 
@@ -95,4 +105,79 @@ class SmbInformationProviderTest extends TestBase {
     assertTrue(smbInformation.isPresent());
     assertEquals(TestDataFactory.cardInfoSmb().getIccsn(), smbInformation.get().iccsn());
   }
+
+  @Test
+  void resolvesCardInformationOnlyOnce() {
+    TestDataFactory.setupMocksForSmbInformationProvider(konnektorInterfaceAssembly());
+    final var certificateServiceMock = konnektorInterfaceAssembly().certificateService();
+
+    final var first = tstObj.getCardsInformations();
+    konnektorContextProvider().cardInventory().invalidateAll();
+    final var second = tstObj.getCardsInformations();
+
+    assertEquals(first, second);
+    verify(certificateServiceMock, times(1)).readCardCertificate(any());
+  }
+
+  @Test
+  void concurrentRequestsShareOneResolution() {
+    TestDataFactory.setupMocksForSmbInformationProvider(konnektorInterfaceAssembly());
+    final var certificateServiceMock = konnektorInterfaceAssembly().certificateService();
+    final var release = new CountDownLatch(1);
+    when(certificateServiceMock.readCardCertificate(any()))
+        .then(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return TestDataFactory.readCardCertificateResponse();
+            });
+
+    try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final var results =
+          IntStream.range(0, 10)
+              .mapToObj(i -> executor.submit(() -> tstObj.getCardsInformations()))
+              .toList();
+      release.countDown();
+
+      results.forEach(result -> assertDoesNotThrow(() -> result.get(5, TimeUnit.SECONDS)));
+    }
+
+    verify(certificateServiceMock, times(1)).readCardCertificate(any());
+  }
+
+  @Test
+  void evictsCardInformationOfRemovedCards() {
+    TestDataFactory.setupMocksForSmbInformationProvider(konnektorInterfaceAssembly());
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    final var certificateServiceMock = konnektorInterfaceAssembly().certificateService();
+
+    tstObj.getCardsInformations();
+
+    when(eventServiceMock.getCards(any()))
+        .thenReturn(
+            new GetCardsResponse()
+                .withStatus(TestDataFactory.getStatusOk())
+                .withCards(new Cards()));
+    konnektorContextProvider().cardInventory().invalidateAll();
+    assertTrue(tstObj.getCardsInformations().isEmpty());
+
+    when(eventServiceMock.getCards(any())).thenReturn(TestDataFactory.getCardsSmbResponse());
+    konnektorContextProvider().cardInventory().invalidateAll();
+    assertEquals(1, tstObj.getCardsInformations().size());
+
+    verify(certificateServiceMock, times(2)).readCardCertificate(any());
+  }
+
+  @Test
+  void retriesFailedResolution() {
+    TestDataFactory.setupMocksForSmbInformationProvider(konnektorInterfaceAssembly());
+    final var certificateServiceMock = konnektorInterfaceAssembly().certificateService();
+    when(certificateServiceMock.readCardCertificate(any()))
+        .thenThrow(new IllegalStateException("card not reachable"))
+        .thenReturn(TestDataFactory.readCardCertificateResponse());
+
+    assertThrows(IllegalStateException.class, () -> tstObj.getCardsInformations());
+
+    final var smbInformations = assertDoesNotThrow(() -> tstObj.getCardsInformations());
+    assertEquals(TestDataFactory.SMB_AUT_TELEMATIK_ID, smbInformations.getFirst().telematikId());
+  }
 }
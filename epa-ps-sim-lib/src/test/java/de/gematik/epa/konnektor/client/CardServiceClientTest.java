@@ -35,7 +35,12 @@ import de.gematik.epa.konnektor.KonnektorUtils;
 import de.gematik.epa.unit.util.KonnektorInterfaceAnswer;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -276,4 +281,127 @@ class CardServiceClientTest extends TestBase {
     verify(cardServiceMock, times(2)).getPinStatus(any());
     verify(cardServiceMock, times(2)).verifyPin(any());
   }
+
+  @Test
+  void verifyAllPinsReportsEveryCardTest() {
+    var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+
+    when(eventServiceMock.getCards(any())).thenReturn(twoSmbsResponse());
+    when(cardServiceMock.getPinStatus(any()))
+        .thenAnswer(
+            invocation ->
+                TestDataFactory.getPinStatusResponse(
+                    "SMB456".equals(invocation.<GetPinStatus>getArgument(0).getCardHandle())
+                        ? PinStatusEnum.BLOCKED
+                        : PinStatusEnum.VERIFIED));
+
+    var summary = testObj.verifyAllPins(CardTypeType.SM_B, CardServiceClient.PIN_SMC);
+
+    assertThat(summary.results()).hasSize(2);
+    assertThat(summary.verified())
+        .extracting(PinVerificationResult::cardHandle)
+        .containsExactly("SMB123");
+    assertThat(summary.notVerified())
+        .singleElement()
+        .satisfies(
+            result -> {
+              assertThat(result.cardHandle()).isEqualTo("SMB456");
+              assertThat(result.outcome()).isEqualTo(PinVerificationResult.Outcome.FAILED);
+              assertThat(result.message()).contains("BLOCKED");
+            });
+    assertThat(summary.allVerified()).isFalse();
+    assertThat(summary.noneVerified()).isFalse();
+  }
+
+  @Test
+  void verifyAllPinsRunsConcurrentlyTest() {
+    var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    var bothStarted = new CountDownLatch(2);
+
+    when(eventServiceMock.getCards(any())).thenReturn(twoSmbsResponse());
+    when(cardServiceMock.getPinStatus(any()))
+        .thenAnswer(
+            invocation -> {
+              bothStarted.countDown();
+              assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+              return TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIED);
+            });
+
+    var summary =
+        testObj
+            .pinVerificationParallelism(2)
+            .verifyAllPins(CardTypeType.SM_B, CardServiceClient.PIN_SMC);
+
+    assertThat(summary.allVerified()).isTrue();
+  }
+
+  @Test
+  void verifyAllPinsTimesOutTest() {
+    var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+
+    when(eventServiceMock.getCards(any())).thenReturn(TestDataFactory.getCardsSmbResponse());
+    when(cardServiceMock.getPinStatus(any()))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(5000);
+              return TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIED);
+            });
+
+    var summary =
+        testObj
+            .pinVerificationTimeout(Duration.ofMillis(100))
+            .verifyAllPins(CardTypeType.SM_B, CardServiceClient.PIN_SMC);
+
+    assertThat(summary.results())
+        .singleElement()
+        .extracting(PinVerificationResult::outcome)
+        .isEqualTo(PinVerificationResult.Outcome.TIMED_OUT);
+    assertThat(summary.noneVerified()).isTrue();
+  }
+
+  @SneakyThrows
+  @Test
+  void verifyAllPinsDoesNotInterruptTimedOutVerificationTest() {
+    var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    var cardServiceMock = konnektorInterfaceAssembly().cardService();
+    var interrupted = new AtomicBoolean();
+    var completed = new CountDownLatch(1);
+
+    when(eventServiceMock.getCards(any())).thenReturn(TestDataFactory.getCardsSmbResponse());
+    when(cardServiceMock.getPinStatus(any()))
+        .thenAnswer(
+            invocation -> {
+              try {
+                Thread.sleep(500);
+                return TestDataFactory.getPinStatusResponse(PinStatusEnum.VERIFIED);
+              } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+              } finally {
+                completed.countDown();
+              }
+            });
+
+    var summary =
+        testObj
+            .pinVerificationTimeout(Duration.ofMillis(100))
+            .verifyAllPins(CardTypeType.SM_B, CardServiceClient.PIN_SMC);
+
+    assertThat(summary.noneVerified()).isTrue();
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(interrupted).isFalse();
+  }
+
+  private static GetCardsResponse twoSmbsResponse() {
+    return new GetCardsResponse()
+        .withStatus(TestDataFactory.getStatusOk())
+        .withCards(
+            new Cards()
+                .withCard(
+                    TestDataFactory.cardInfoSmb(),
+                    TestDataFactory.cardInfoSmb().withCardHandle("SMB456")));
+  }
 }
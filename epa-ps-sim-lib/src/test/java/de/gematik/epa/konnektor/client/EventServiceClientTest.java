@@ -28,8 +28,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import de.gematik.epa.konnektor.CardInventory;
 import de.gematik.epa.unit.util.KonnektorInterfaceAnswer;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
@@ -41,6 +44,12 @@ import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
 import telematik.ws.conn.eventservice.wsdl.v6_1.FaultMessage;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCards;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptions;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptionsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Subscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Unsubscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.UnsubscribeResponse;
 
 class EventServiceClientTest extends TestBase {
 
@@ -245,4 +254,83 @@ class EventServiceClientTest extends TestBase {
         NoSuchElementException.class,
         () -> eventServiceClient.getCardHandles(CardTypeType.HBA, true));
   }
+
+  @Test
+  void getCardsInfoIsServedFromCardInventory() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    when(eventServiceMock.getCards(any())).thenReturn(TestDataFactory.getCardsSmbResponse());
+
+    final var first = eventServiceClient.getSmbInfo();
+    final var second = eventServiceClient.getCardHandle(CardTypeType.SM_B);
+
+    assertThat(second).isEqualTo(first.getCards().getCard().getFirst().getCardHandle());
+    verify(eventServiceMock, times(1)).getCards(any());
+  }
+
+  @Test
+  void getEgkInfoToKvnrRefreshesCardInventoryIfNotFound() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    when(eventServiceMock.getCards(any()))
+        .thenReturn(
+            new GetCardsResponse().withStatus(TestDataFactory.getStatusOk()).withCards(new Cards()))
+        .thenReturn(TestDataFactory.getCardsEgkResponse(TestDataFactory.KVNR));
+
+    assertThat(eventServiceClient.getEgkInfo().getCards().getCard()).isEmpty();
+
+    final var result = eventServiceClient.getEgkInfoToKvnr(TestDataFactory.KVNR);
+
+    assertThat(result).isNotNull();
+    assertThat(result.getKvnr()).isEqualTo(TestDataFactory.KVNR);
+    verify(eventServiceMock, times(2)).getCards(any());
+  }
+
+  @Test
+  void subscribeTest() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    final var answer =
+        new KonnektorInterfaceAnswer<Subscribe, SubscribeResponse>()
+            .setAnswer(
+                new SubscribeResponse()
+                    .withStatus(TestDataFactory.getStatusOk())
+                    .withSubscriptionID("subscriptionId"));
+    when(eventServiceMock.subscribe(any())).then(answer);
+
+    final var result =
+        assertDoesNotThrow(
+            () -> eventServiceClient.subscribe("cetp://localhost:9017", CardInventory.CARD_TOPIC));
+
+    assertThat(result.getSubscriptionID()).isEqualTo("subscriptionId");
+    final var request = answer.getRequest();
+    assertThat(request.getContext())
+        .usingRecursiveComparison()
+        .isEqualTo(TestDataFactory.contextType());
+    assertThat(request.getSubscription().getEventTo()).isEqualTo("cetp://localhost:9017");
+    assertThat(request.getSubscription().getTopic()).isEqualTo(CardInventory.CARD_TOPIC);
+  }
+
+  @Test
+  void renewSubscriptionTest() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    final var answer =
+        new KonnektorInterfaceAnswer<RenewSubscriptions, RenewSubscriptionsResponse>()
+            .setAnswer(new RenewSubscriptionsResponse().withStatus(TestDataFactory.getStatusOk()));
+    when(eventServiceMock.renewSubscriptions(any())).then(answer);
+
+    assertDoesNotThrow(() -> eventServiceClient.renewSubscription("subscriptionId"));
+
+    assertThat(answer.getRequest().getSubscriptionID()).containsExactly("subscriptionId");
+  }
+
+  @Test
+  void unsubscribeTest() {
+    final var eventServiceMock = konnektorInterfaceAssembly().eventService();
+    final var answer =
+        new KonnektorInterfaceAnswer<Unsubscribe, UnsubscribeResponse>()
+            .setAnswer(new UnsubscribeResponse().withStatus(TestDataFactory.getStatusOk()));
+    when(eventServiceMock.unsubscribe(any())).then(answer);
+
+    assertDoesNotThrow(() -> eventServiceClient.unsubscribe("subscriptionId"));
+
+    assertThat(answer.getRequest().getSubscriptionID()).isEqualTo("subscriptionId");
+  }
 }
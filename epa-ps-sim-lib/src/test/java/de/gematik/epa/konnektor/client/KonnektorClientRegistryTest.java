@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.epa.unit.util.TestBase;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class KonnektorClientRegistryTest extends TestBase {
+
+  private final KonnektorClientRegistry tstObj = konnektorContextProvider().clientRegistry();
+
+  @Test
+  void returnsSameClientOnEveryCall() {
+    assertThat(tstObj.eventService()).isSameAs(tstObj.eventService());
+    assertThat(tstObj.cardService()).isSameAs(tstObj.cardService());
+    assertThat(tstObj.certificateService()).isSameAs(tstObj.certificateService());
+    assertThat(tstObj.signatureService()).isSameAs(tstObj.signatureService());
+    assertThat(tstObj.authSignatureService()).isSameAs(tstObj.authSignatureService());
+    assertThat(tstObj.vsdService()).isSameAs(tstObj.vsdService());
+  }
+
+  @Test
+  void createsNewClientsAfterInvalidation() {
+    var eventService = tstObj.eventService();
+    var vsdService = tstObj.vsdService();
+
+    tstObj.invalidateAll();
+
+    assertThat(tstObj.eventService()).isNotSameAs(eventService);
+    assertThat(tstObj.vsdService()).isNotSameAs(vsdService);
+  }
+
+  @SneakyThrows
+  @Test
+  void handsOutOneClientToConcurrentCallers() {
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var clients =
+          IntStream.range(0, 20).mapToObj(i -> executor.submit(tstObj::signatureService)).toList();
+
+      var first = clients.getFirst().get();
+      for (Future<SignatureServiceClient> client : clients) {
+        assertThat(client.get()).isSameAs(first);
+      }
+    }
+  }
+}
@@ -27,15 +27,31 @@ package de.gematik.epa.konnektor.client;
 import static org.junit.jupiter.api.Assertions.*;
 
 import de.gematik.epa.api.testdriver.dto.request.SignDocumentRequest;
+import de.gematik.epa.api.testdriver.dto.request.SignDocumentsRequest;
 import de.gematik.epa.ihe.model.simple.ByteArray;
+import de.gematik.epa.konnektor.client.SignatureTimings.Phase;
 import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import telematik.ws.conn.cardservice.xsd.v8_1.Cards;
+import telematik.ws.conn.certificateservice.xsd.v6_0.ReadCardCertificate;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
 import telematik.ws.conn.signatureservice.xsd.v7_5.GetJobNumberResponse;
 import telematik.ws.conn.signatureservice.xsd.v7_5.SignDocument;
+import telematik.ws.conn.signatureservice.xsd.v7_5.SignDocumentResponse;
+import telematik.ws.conn.signatureservice.xsd.v7_5.SignRequest;
+import telematik.ws.conn.signatureservice.xsd.v7_5.SignResponse;
+import telematik.ws.tel.error.telematikerror.xsd.v2_0.Error;
 
 class SignatureServiceClientTest extends TestBase {
 
@@ -119,4 +135,238 @@ class SignatureServiceClientTest extends TestBase {
 
     assertNotNull(response);
   }
+
+  @Test
+  void transformRequestForSeveralDocumentsTest() {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+
+    var request = signDocumentsRequest(5);
+
+    var konRequests = assertDoesNotThrow(() -> tstObj.transformRequest(request, 2));
+
+    assertEquals(
+        List.of(2, 2, 1), konRequests.stream().map(r -> r.getSignRequest().size()).toList());
+    assertEquals(1, konRequests.stream().map(SignDocument::getCardHandle).distinct().count());
+    var signedDocuments =
+        konRequests.stream()
+            .flatMap(r -> r.getSignRequest().stream())
+            .map(sr -> ByteArray.of(sr.getDocument().getBase64Data().getValue()))
+            .toList();
+    assertEquals(request.documents(), signedDocuments);
+    assertEquals(
+        5,
+        konRequests.stream()
+            .flatMap(r -> r.getSignRequest().stream())
+            .map(SignRequest::getRequestID)
+            .distinct()
+            .count());
+  }
+
+  @Test
+  void transformRequestForSeveralDocumentsMissingDocumentTest() {
+    var request =
+        new SignDocumentsRequest(
+            Arrays.asList(ByteArray.of(new byte[] {1}), null),
+            false,
+            SignDocumentRequest.SignatureAlgorithm.ECC);
+
+    assertThrows(IllegalArgumentException.class, () -> tstObj.transformRequest(request, 2));
+  }
+
+  @Test
+  void transformResponseForSeveralDocumentsTest() {
+    var konSignResponse = TestDataFactory.getSignDocumentResponse().getSignResponse().get(0);
+    var konRequest =
+        new SignDocument()
+            .withSignRequest(
+                new SignRequest().withRequestID("1"),
+                new SignRequest().withRequestID("2"),
+                new SignRequest().withRequestID("3"));
+    // answered in a different order and without an answer for request 2
+    var konResponse =
+        new SignDocumentResponse()
+            .withSignResponse(
+                copyWithRequestId(konSignResponse, "3"), copyWithRequestId(konSignResponse, "1"));
+
+    var responses = assertDoesNotThrow(() -> tstObj.transformResponse(konRequest, konResponse));
+
+    assertEquals(3, responses.size());
+    assertTrue(responses.get(0).success());
+    assertFalse(responses.get(1).success());
+    assertTrue(responses.get(1).statusMessage().contains("2"));
+    assertTrue(responses.get(2).success());
+  }
+
+  @Test
+  void signDocumentsTest() {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+    var konSignResponse = TestDataFactory.getSignDocumentResponse().getSignResponse().get(0);
+    Mockito.when(konnektorInterfaceAssembly().signatureService().signDocument(Mockito.any()))
+        .thenAnswer(
+            invocation ->
+                new SignDocumentResponse()
+                    .withSignResponse(
+                        invocation.<SignDocument>getArgument(0).getSignRequest().stream()
+                            .map(sr -> copyWithRequestId(konSignResponse, sr.getRequestID()))
+                            .toList()));
+
+    var responses = assertDoesNotThrow(() -> tstObj.signDocuments(signDocumentsRequest(7), 3));
+
+    assertEquals(7, responses.size());
+    assertTrue(responses.stream().allMatch(r -> r.success()));
+    Mockito.verify(konnektorInterfaceAssembly().signatureService(), Mockito.times(3))
+        .signDocument(Mockito.any());
+  }
+
+  @Test
+  void transformResponseWithoutSignatureTest() {
+    var konRequest = new SignDocument().withSignRequest(new SignRequest().withRequestID("1"));
+    var konResponse =
+        new SignDocumentResponse()
+            .withSignResponse(
+                new SignResponse()
+                    .withRequestID("1")
+                    .withStatus(
+                        TestDataFactory.getStatusOk()
+                            .withResult("ERROR")
+                            .withError(new Error().withMessageID("4111"))));
+
+    var responses = assertDoesNotThrow(() -> tstObj.transformResponse(konRequest, konResponse));
+
+    assertEquals(1, responses.size());
+    assertFalse(responses.getFirst().success());
+    assertNull(responses.getFirst().signatureObject());
+    assertTrue(responses.getFirst().statusMessage().contains("4111"));
+  }
+
+  @Test
+  void signDocumentsKeepsResultsOfOtherCallsTest() {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+    var konSignResponse = TestDataFactory.getSignDocumentResponse().getSignResponse().get(0);
+    Mockito.when(konnektorInterfaceAssembly().signatureService().signDocument(Mockito.any()))
+        .thenAnswer(
+            invocation ->
+                new SignDocumentResponse()
+                    .withSignResponse(
+                        invocation.<SignDocument>getArgument(0).getSignRequest().stream()
+                            .map(sr -> copyWithRequestId(konSignResponse, sr.getRequestID()))
+                            .toList()))
+        .thenThrow(new IllegalStateException("Konnektor not reachable"))
+        .thenAnswer(
+            invocation ->
+                new SignDocumentResponse()
+                    .withSignResponse(
+                        invocation.<SignDocument>getArgument(0).getSignRequest().stream()
+                            .map(sr -> copyWithRequestId(konSignResponse, sr.getRequestID()))
+                            .toList()));
+
+    var responses = assertDoesNotThrow(() -> tstObj.signDocuments(signDocumentsRequest(5), 2));
+
+    assertEquals(
+        List.of(true, true, false, false, true), responses.stream().map(r -> r.success()).toList());
+    assertTrue(responses.get(2).statusMessage().contains("Konnektor not reachable"));
+  }
+
+  @Test
+  void signaturePhasesAreTimedTest() {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(TestDataFactory.getCardsSmbResponse());
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+    Mockito.when(konnektorInterfaceAssembly().signatureService().signDocument(Mockito.any()))
+        .thenReturn(TestDataFactory.getSignDocumentResponse());
+
+    tstObj.signDocument(tstObj.transformRequest(ResourceLoader.signDocumentRequest()));
+
+    var timings = konnektorContextProvider().signatureTimings();
+    assertEquals(1, timings.count(Phase.CARD_HANDLE));
+    assertEquals(1, timings.count(Phase.JOB_NUMBER));
+    assertEquals(1, timings.count(Phase.SIGN_DOCUMENT));
+    assertTrue(timings.totalTime(Phase.SIGN_DOCUMENT, TimeUnit.NANOSECONDS) > 0);
+    assertEquals(1, konnektorContextProvider().jobNumberPool().misses());
+  }
+
+  @Test
+  void signsWithEquivalentCardsInTurnsTest() {
+    mockTwoSmbs(ResourceLoader.AUT_CERTIFICATE);
+
+    var cardHandles =
+        IntStream.range(0, 4)
+            .mapToObj(
+                i -> tstObj.transformRequest(ResourceLoader.signDocumentRequest()).getCardHandle())
+            .collect(Collectors.toSet());
+
+    assertEquals(Set.of("SMB123", "SMB456"), cardHandles);
+  }
+
+  @Test
+  void signsOnlyWithFirstCardIfCardsAreNotEquivalentTest() {
+    mockTwoSmbs(ResourceLoader.PKI_PATH + "80276883110000117894-C_SMCB_HCI_AUT_E256.crt");
+
+    var cardHandles =
+        IntStream.range(0, 4)
+            .mapToObj(
+                i -> tstObj.transformRequest(ResourceLoader.signDocumentRequest()).getCardHandle())
+            .collect(Collectors.toSet());
+
+    assertEquals(Set.of("SMB123"), cardHandles);
+  }
+
+  private void mockTwoSmbs(String certificateOfSecondCard) {
+    Mockito.when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(
+            new GetCardsResponse()
+                .withStatus(TestDataFactory.getStatusOk())
+                .withCards(
+                    new Cards()
+                        .withCard(
+                            TestDataFactory.cardInfoSmb(),
+                            TestDataFactory.cardInfoSmb()
+                                .withCardHandle("SMB456")
+                                .withIccsn("80276883110000117894"))));
+    Mockito.when(
+            konnektorInterfaceAssembly().certificateService().readCardCertificate(Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              var response = TestDataFactory.readCardCertificateResponse();
+              if ("SMB456".equals(invocation.<ReadCardCertificate>getArgument(0).getCardHandle())) {
+                response
+                    .getX509DataInfoList()
+                    .getX509DataInfo()
+                    .getFirst()
+                    .getX509Data()
+                    .setX509Certificate(
+                        ResourceLoader.readBytesFromResource(certificateOfSecondCard));
+              }
+              return response;
+            });
+    Mockito.when(konnektorInterfaceAssembly().signatureService().getJobNumber(Mockito.any()))
+        .thenReturn(new GetJobNumberResponse().withJobNumber("Job001"));
+  }
+
+  private static SignDocumentsRequest signDocumentsRequest(int numberOfDocuments) {
+    return new SignDocumentsRequest(
+        IntStream.range(0, numberOfDocuments)
+            .mapToObj(i -> ByteArray.of(("Document " + i).getBytes(StandardCharsets.UTF_8)))
+            .toList(),
+        false,
+        SignDocumentRequest.SignatureAlgorithm.ECC);
+  }
+
+  private static SignResponse copyWithRequestId(SignResponse signResponse, String requestId) {
+    return new SignResponse()
+        .withRequestID(requestId)
+        .withStatus(signResponse.getStatus())
+        .withSignatureObject(signResponse.getSignatureObject())
+        .withOptionalOutputs(signResponse.getOptionalOutputs());
+  }
 }
@@ -27,6 +27,8 @@ package de.gematik.epa.konnektor.client;
 import static de.gematik.epa.unit.util.TestDataFactory.*;
 import static de.gematik.epa.utils.StringUtils.toISO885915;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import de.gematik.epa.api.testdriver.entitlement.dto.PostEntitlementRequestDTO;
@@ -34,8 +36,12 @@ import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestBase;
 import de.gematik.epa.unit.util.TestDataFactory;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -249,6 +255,108 @@ class VSDServiceClientTest extends TestBase {
     assertEquals("Not in GZIP format", e.getMessage());
   }
 
+  @SneakyThrows
+  @Test
+  void shouldReadVsdOnceForEntitlementSteps() {
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenReturn(TestDataFactory.createReadVSDResponse());
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+
+    tstObj.getPruefziffer(KVNR, SMB_AUT_TELEMATIK_ID);
+    var actualHcv =
+        tstObj.createHcv(
+            KVNR, PostEntitlementRequestDTO.TestCaseEnum.VALID_HCV.value(), SMB_AUT_TELEMATIK_ID);
+
+    assertEquals("Yu+dhTA=", actualHcv);
+    verify(konnektorInterfaceAssembly().vsdService(), times(1)).readVSD(Mockito.any());
+  }
+
+  @SneakyThrows
+  @Test
+  void shouldReadVsdAgainWhenSessionExpired() {
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenReturn(TestDataFactory.createReadVSDResponse());
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+    tstObj.readSessionTimeToLive(Duration.ZERO);
+
+    var first = tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID);
+    Thread.sleep(5);
+    var second = tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID);
+
+    assertNotSame(first, second);
+    verify(konnektorInterfaceAssembly().vsdService(), times(2)).readVSD(Mockito.any());
+  }
+
+  @Test
+  void shouldKeepReadSessionsApartPerKvnr() {
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenReturn(TestDataFactory.createReadVSDResponse());
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+
+    var session = tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID);
+
+    assertSame(session, tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID));
+    assertThrows(
+        NoSuchElementException.class, () -> tstObj.readSession("X000000000", SMB_AUT_TELEMATIK_ID));
+  }
+
+  @SneakyThrows
+  @Test
+  void shouldWaitForReadInProgress() {
+    var readStarted = new CountDownLatch(1);
+    var releaseRead = new CountDownLatch(1);
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              readStarted.countDown();
+              releaseRead.await(5, TimeUnit.SECONDS);
+              return TestDataFactory.createReadVSDResponse();
+            });
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first = executor.submit(() -> tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID));
+      assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+      var second = executor.submit(() -> tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID));
+      releaseRead.countDown();
+
+      assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    }
+    verify(konnektorInterfaceAssembly().vsdService(), times(1)).readVSD(Mockito.any());
+  }
+
+  @Test
+  void shouldReadVsdAgainAfterFailedRead() {
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenThrow(new IllegalStateException("Konnektor not reachable"))
+        .thenReturn(TestDataFactory.createReadVSDResponse());
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+
+    assertThrows(IllegalStateException.class, () -> tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID));
+    assertNotNull(tstObj.readSession(KVNR, SMB_AUT_TELEMATIK_ID));
+
+    verify(konnektorInterfaceAssembly().vsdService(), times(2)).readVSD(Mockito.any());
+  }
+
+  @SneakyThrows
+  @Test
+  void shouldDiscardReadSessionWhenVsdResultIsNotSuccessful() {
+    when(konnektorInterfaceAssembly().vsdService().readVSD(Mockito.any()))
+        .thenReturn(readVSDWithUpdateNotPossible());
+    when(konnektorInterfaceAssembly().eventService().getCards(Mockito.any()))
+        .thenReturn(getCardsEgkResponse(KVNR));
+
+    assertThrows(IOException.class, () -> tstObj.getPruefziffer(KVNR, SMB_AUT_TELEMATIK_ID));
+    assertThrows(IOException.class, () -> tstObj.getPruefziffer(KVNR, SMB_AUT_TELEMATIK_ID));
+
+    verify(konnektorInterfaceAssembly().vsdService(), times(2)).readVSD(Mockito.any());
+  }
+
   /**
    * Checks if a string is a valid Base64 string.
    *
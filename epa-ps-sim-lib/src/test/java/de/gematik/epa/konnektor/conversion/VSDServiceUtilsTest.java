@@ -27,27 +27,26 @@ package de.gematik.epa.konnektor.conversion;
 import static de.gematik.epa.konnektor.conversion.VSDServiceUtils.NO_UPDATES;
 import static de.gematik.epa.konnektor.conversion.VSDServiceUtils.UPDATES_SUCCESSFUL;
 import static de.gematik.epa.utils.StringUtils.toISO885915;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import de.gematik.epa.unit.util.TestDataFactory;
+import de.gematik.epa.utils.XmlUtils;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import telematik.ws.conn.connectorcontext.xsd.v2_0.ContextType;
 
 class VSDServiceUtilsTest {
 
-  @Test
-  void decodeDataTest() {
-    String validBase64 = "SGVsbG8gV29ybGQ=";
-    byte[] expectedBytes = "Hello World".getBytes();
-    byte[] actual = VSDServiceUtils.decodeData(validBase64);
-    assertArrayEquals(expectedBytes, actual);
-  }
-
   @Test
   void unzipAndDecodeTest() throws IOException {
     String testData = "This is some compressed data.";
@@ -57,6 +56,66 @@ class VSDServiceUtilsTest {
     assertArrayEquals(toISO885915(testData), unzippedData);
   }
 
+  @Test
+  void unmarshalGzippedXmlTest() throws IOException {
+    var compressedXml = compressData(new String(XmlUtils.marshal(TestDataFactory.contextType())));
+
+    var contextType = VSDServiceUtils.unmarshalGzippedXml(ContextType.class, compressedXml);
+
+    assertThat(contextType).usingRecursiveComparison().isEqualTo(TestDataFactory.contextType());
+  }
+
+  @Test
+  void unmarshalGzippedXmlFailsForUncompressedData() {
+    var uncompressedXml = XmlUtils.marshal(TestDataFactory.contextType());
+
+    var exception =
+        assertThrows(
+            ZipException.class,
+            () -> VSDServiceUtils.unmarshalGzippedXml(ContextType.class, uncompressedXml));
+    assertEquals("Not in GZIP format", exception.getMessage());
+  }
+
+  @Test
+  void unmarshalGzippedXmlFailsForTruncatedData() throws IOException {
+    var compressedXml = compressData(new String(XmlUtils.marshal(TestDataFactory.contextType())));
+    var truncatedXml = Arrays.copyOf(compressedXml, compressedXml.length / 2);
+
+    assertThrows(
+        EOFException.class,
+        () -> VSDServiceUtils.unmarshalGzippedXml(ContextType.class, truncatedXml));
+  }
+
+  @Test
+  void unmarshalGzippedXmlFailsForCorruptData() throws IOException {
+    var compressedXml = compressData(new String(XmlUtils.marshal(TestDataFactory.contextType())));
+    // keep the gzip header intact, so the error occurs while the XML is read
+    Arrays.fill(compressedXml, 10, compressedXml.length, (byte) 0xFF);
+
+    assertThrows(
+        ZipException.class,
+        () -> VSDServiceUtils.unmarshalGzippedXml(ContextType.class, compressedXml));
+  }
+
+  @Test
+  void unmarshalGzippedXmlKeepsXmlErrors() throws IOException {
+    var compressedXml = compressData("<ContextType");
+
+    var exception =
+        assertThrows(
+            Exception.class,
+            () -> VSDServiceUtils.unmarshalGzippedXml(ContextType.class, compressedXml));
+    assertThat(exception).isNotInstanceOf(IOException.class);
+  }
+
+  @Test
+  void getPnTest() {
+    var pn = VSDServiceUtils.getPn(TestDataFactory.createReadVSDResponse());
+
+    assertEquals(NO_UPDATES, VSDServiceUtils.getResultOfOnlineCheckEGK(pn));
+    assertNotNull(VSDServiceUtils.getPruefziffer(pn));
+  }
+
   private byte[] compressData(String data) throws IOException {
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
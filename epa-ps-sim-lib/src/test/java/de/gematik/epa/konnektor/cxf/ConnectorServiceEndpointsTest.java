@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.cxf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.epa.unit.util.ResourceLoader;
+import org.junit.jupiter.api.Test;
+
+class ConnectorServiceEndpointsTest {
+
+  @Test
+  void endpointUsesFirstMatchingVersionPrefixTest() {
+    var tstObj = new ConnectorServiceEndpoints(ResourceLoader.connectorServices(), true);
+
+    assertThat(tstObj.endpoint("CertificateService", "6.0.1", "6"))
+        .isEqualTo("https://localhost:9016/services/certificateservice");
+    assertThat(tstObj.endpoint("CardService", "8.1.1")).isPresent();
+    assertThat(tstObj.endpoint("CardService", "9")).isEmpty();
+  }
+
+  @Test
+  void endpointWithoutTlsTest() {
+    var tstObj = new ConnectorServiceEndpoints(ResourceLoader.connectorServices(), false);
+
+    assertThat(tstObj.endpoint("EventService", ""))
+        .contains("http://localhost:9016/services/eventservice");
+  }
+
+  @Test
+  void endpointWithMandatoryTlsTest() {
+    var connectorServices = ResourceLoader.connectorServices().withTLSMandatory(true);
+    try {
+      var tstObj = new ConnectorServiceEndpoints(connectorServices, false);
+
+      assertThat(tstObj.endpoint("EventService", ""))
+          .contains("https://localhost:9016/services/eventservice");
+    } finally {
+      connectorServices.setTLSMandatory(false);
+    }
+  }
+
+  @Test
+  void endpointForUnknownServiceThrowsTest() {
+    var tstObj = new ConnectorServiceEndpoints(ResourceLoader.connectorServices(), true);
+
+    assertThatThrownBy(() -> tstObj.endpoint("PhrService", "2.0", "2"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("PhrService");
+  }
+}
@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.konnektor.cxf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.gematik.epa.unit.util.ResourceLoader;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import telematik.ws.conn.SdsApi;
+
+class ConnectorServicesCacheTest {
+
+  private static final String KONNEKTOR_ADDRESS = "https://localhost:9016/";
+  private static final String ETAG = "\"sds-1\"";
+  private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+  @TempDir Path cacheDirectory;
+
+  @Test
+  void getRevalidatesWithValidatorsTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(isNull(), isNull())).thenAnswer(invocation -> sdsResponse());
+    when(sdsApi.getConnectorSds(ETAG, LAST_MODIFIED))
+        .thenAnswer(invocation -> Response.notModified().build());
+    var tstObj = new ConnectorServicesCache();
+
+    var first = tstObj.get(KONNEKTOR_ADDRESS, sdsApi);
+    var second = tstObj.get(KONNEKTOR_ADDRESS, sdsApi);
+
+    assertThat(first.getProductInformation()).isNotNull();
+    assertThat(second).isSameAs(first);
+    verify(sdsApi).getConnectorSds(ETAG, LAST_MODIFIED);
+  }
+
+  @Test
+  void getUsesPersistedEntryTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(isNull(), isNull())).thenAnswer(invocation -> sdsResponse());
+    new ConnectorServicesCache(cacheDirectory).get(KONNEKTOR_ADDRESS, sdsApi);
+
+    var restartedSdsApi = mock(SdsApi.class);
+    when(restartedSdsApi.getConnectorSds(ETAG, LAST_MODIFIED))
+        .thenAnswer(invocation -> Response.notModified().build());
+
+    var result = new ConnectorServicesCache(cacheDirectory).get(KONNEKTOR_ADDRESS, restartedSdsApi);
+
+    assertThat(result.getServiceInformation().getService()).isNotEmpty();
+    verify(restartedSdsApi).getConnectorSds(ETAG, LAST_MODIFIED);
+  }
+
+  @Test
+  void getFallsBackToCacheIfKonnektorIsUnreachableTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(isNull(), isNull())).thenAnswer(invocation -> sdsResponse());
+    when(sdsApi.getConnectorSds(ETAG, LAST_MODIFIED))
+        .thenThrow(new ProcessingException("Connection refused"));
+    var tstObj = new ConnectorServicesCache();
+
+    var first = tstObj.get(KONNEKTOR_ADDRESS, sdsApi);
+
+    assertThat(tstObj.get(KONNEKTOR_ADDRESS, sdsApi)).isSameAs(first);
+  }
+
+  @Test
+  void getThrowsWithoutCacheEntryTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(any(), any()))
+        .thenThrow(new ProcessingException("Connection refused"));
+    var tstObj = new ConnectorServicesCache(cacheDirectory);
+
+    assertThatThrownBy(() -> tstObj.get(KONNEKTOR_ADDRESS, sdsApi))
+        .isInstanceOf(ProcessingException.class);
+  }
+
+  @Test
+  void getThrowsForErrorStatusTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(any(), any()))
+        .thenAnswer(invocation -> Response.status(Response.Status.UNAUTHORIZED).build());
+    var tstObj = new ConnectorServicesCache();
+
+    assertThatThrownBy(() -> tstObj.get(KONNEKTOR_ADDRESS, sdsApi))
+        .isInstanceOf(WebApplicationException.class)
+        .hasMessageContaining("401");
+  }
+
+  @Test
+  void invalidateAllRemovesPersistedEntriesTest() {
+    var sdsApi = mock(SdsApi.class);
+    when(sdsApi.getConnectorSds(any(), any())).thenAnswer(invocation -> sdsResponse());
+    var tstObj = new ConnectorServicesCache(cacheDirectory);
+    tstObj.get(KONNEKTOR_ADDRESS, sdsApi);
+
+    tstObj.invalidateAll();
+    tstObj.get(KONNEKTOR_ADDRESS, sdsApi);
+
+    verify(sdsApi, times(2)).getConnectorSds(null, null);
+  }
+
+  private static Response sdsResponse() {
+    return Response.ok(ResourceLoader.readBytesFromResource(ResourceLoader.CONNECTOR_SDS_PATH))
+        .header(HttpHeaders.ETAG, ETAG)
+        .header(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED)
+        .build();
+  }
+}
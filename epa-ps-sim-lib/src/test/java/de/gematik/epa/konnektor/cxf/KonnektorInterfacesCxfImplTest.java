@@ -25,6 +25,7 @@
 package de.gematik.epa.konnektor.cxf;
 
 import static de.gematik.epa.unit.util.Assertions.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -35,6 +36,9 @@ import de.gematik.epa.api.testdriver.config.KonnektorConnectionConfiguration;
 import de.gematik.epa.konnektor.cxf.KonnektorInterfacesCxfImpl.FileLoader;
 import de.gematik.epa.unit.util.ResourceLoader;
 import de.gematik.epa.unit.util.TestDataFactory;
+import de.gematik.epa.utils.XmlUtils;
+import jakarta.ws.rs.InternalServerErrorException;
+import jakarta.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import lombok.experimental.Accessors;
@@ -47,6 +51,7 @@ import telematik.ws.conn.cardservice.wsdl.v8_1.CardServicePortType;
 import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
 import telematik.ws.conn.cardservicecommon.xsd.v2_0.PinResultEnum;
 import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
+import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
 
 class KonnektorInterfacesCxfImplTest {
 
@@ -57,9 +62,11 @@ class KonnektorInterfacesCxfImplTest {
 
     var alsoTstObj = assertDoesNotThrow(() -> tstObj.update(connCfg));
 
-    assertEquals(connCfg, alsoTstObj.configuration);
+    assertEquals(connCfg, alsoTstObj.configuration());
     assertTrue(alsoTstObj.isTlsPreferred());
-    assertEquals(ResourceLoader.connectorServices(), alsoTstObj.connectorServices());
+    assertThat(alsoTstObj.connectorServices())
+        .usingRecursiveComparison()
+        .isEqualTo(ResourceLoader.connectorServices());
     assertClientProxy(alsoTstObj.eventService(), connCfg);
     assertClientProxy(alsoTstObj.certificateService(), connCfg);
     assertClientProxy(alsoTstObj.cardService(), connCfg);
@@ -67,6 +74,101 @@ class KonnektorInterfacesCxfImplTest {
     assertClientProxy(alsoTstObj.authSignatureService(), connCfg);
   }
 
+  @Test
+  void updateReplacesAllProxiesTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+    var eventServiceMock = mock(EventServicePortType.class);
+    var cardServiceMock = mock(CardServicePortType.class);
+    tstObj.eventService(eventServiceMock).cardService(cardServiceMock);
+
+    tstObj.update(connCfg);
+
+    assertNotSame(eventServiceMock, tstObj.eventService());
+    assertNotSame(cardServiceMock, tstObj.cardService());
+    assertNotNull(tstObj.vsdService());
+  }
+
+  @Test
+  void updateWithPreWarmTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest().preWarmProxies(true);
+
+    tstObj.update(connCfg);
+
+    assertClientProxy(tstObj.eventService(), connCfg);
+    assertClientProxy(tstObj.vsdService(), connCfg);
+  }
+
+  @Test
+  void updateCreatesProxiesOnFirstUseTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+    tstObj.connectorServicesForTest = new ConnectorServices();
+
+    assertDoesNotThrow(() -> tstObj.update(connCfg));
+
+    assertThrows(Exception.class, tstObj::vsdService);
+  }
+
+  @Test
+  void lazyProxyIsCreatedOnceTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+
+    tstObj.update(connCfg);
+
+    assertSame(tstObj.signatureService(), tstObj.signatureService());
+  }
+
+  @Test
+  void failedUpdateKeepsProxiesTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+    tstObj.connectorServicesForTest = new ConnectorServices();
+    tstObj.preWarmProxies(true);
+    var eventServiceMock = mock(EventServicePortType.class);
+    tstObj.eventService(eventServiceMock);
+
+    assertThrows(Exception.class, () -> tstObj.update(connCfg));
+
+    assertSame(eventServiceMock, tstObj.eventService());
+  }
+
+  @Test
+  void connectDoesNotChangeConnectionInUseTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+    var eventServiceMock = mock(EventServicePortType.class);
+    tstObj.eventService(eventServiceMock);
+
+    var connection = tstObj.connect(connCfg);
+
+    assertSame(eventServiceMock, tstObj.eventService());
+    assertNull(tstObj.configuration());
+
+    tstObj.publish(connection);
+
+    assertSame(connCfg, tstObj.configuration());
+    assertClientProxy(tstObj.eventService(), connCfg);
+  }
+
+  @Test
+  void lazyProxyIsCreatedForItsConnectionTest() {
+    var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    var otherCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
+    otherCfg.address(new AddressConfig("localhost", 80, "http", "the/path"));
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+
+    var connection = tstObj.connect(connCfg);
+    tstObj.update(otherCfg);
+
+    assertClientProxy(connection.servicePorts().eventService().get(), connCfg);
+    assertNull(
+        ((HTTPConduit) ClientProxy.getClient(tstObj.eventService()).getConduit())
+            .getTlsClientParameters());
+  }
+
   @Test
   void unlockSmbTest() {
     var konnektorContextProvider = TestDataFactory.konnektorContextProvider();
@@ -106,7 +208,28 @@ class KonnektorInterfacesCxfImplTest {
     var verifyPinResponse =
         TestDataFactory.verifyPin(TestDataFactory.getStatusOk(), PinResultEnum.OK);
     when(cardServiceMock.verifyPin(any())).thenReturn(verifyPinResponse);
-    assertDoesNotThrow(() -> tstObj.unlockSmbs(konnektorContextProvider));
+    var summary = assertDoesNotThrow(() -> tstObj.unlockSmbs(konnektorContextProvider));
+    assertTrue(summary.allVerified());
+  }
+
+  @Test
+  void unlockSmbsFailsIfNoSmbCanBeUnlocked() {
+    var konnektorContextProvider = TestDataFactory.konnektorContextProvider();
+    var tstObj = new KonnektorInterfacesCxfImplForTest();
+    EventServicePortType eventServiceMock = mock(EventServicePortType.class);
+    tstObj.eventService(eventServiceMock);
+
+    CardServicePortType cardServiceMock = mock(CardServicePortType.class);
+    tstObj.cardService(cardServiceMock);
+
+    when(eventServiceMock.getCards(any())).thenReturn(TestDataFactory.getCardsSmbResponse());
+    when(cardServiceMock.getPinStatus(any()))
+        .thenReturn(TestDataFactory.getPinStatusResponse(PinStatusEnum.BLOCKED));
+
+    var exception =
+        assertThrows(
+            InternalServerErrorException.class, () -> tstObj.unlockSmbs(konnektorContextProvider));
+    assertTrue(exception.getMessage().contains("SMB123"));
   }
 
   @Test
@@ -114,9 +237,7 @@ class KonnektorInterfacesCxfImplTest {
     var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
     var konnektorInterface = new KonnektorInterfacesCxfImpl(new TestFileLoader());
 
-    konnektorInterface.configuration = connCfg;
-
-    var sdsApi = assertDoesNotThrow(konnektorInterface::sdsApi);
+    var sdsApi = assertDoesNotThrow(() -> konnektorInterface.sdsApi(connCfg));
 
     assertNotNull(sdsApi);
 
@@ -130,10 +251,7 @@ class KonnektorInterfacesCxfImplTest {
     var connCfg = TestDataFactory.createKonnektorConnectionConfigurationMutable();
     connCfg.address(new AddressConfig("localhost", 80, "http", "the/path"));
     var konnektorInterface = new KonnektorInterfacesCxfImpl(new TestFileLoader());
-    konnektorInterface.configuration = connCfg;
-    konnektorInterface.isTlsPreferred = Boolean.FALSE;
-
-    var sdsApi = assertDoesNotThrow(konnektorInterface::sdsApi);
+    var sdsApi = assertDoesNotThrow(() -> konnektorInterface.sdsApi(connCfg));
 
     assertNotNull(sdsApi);
 
@@ -165,15 +283,20 @@ class KonnektorInterfacesCxfImplTest {
   @Accessors(fluent = true)
   static class KonnektorInterfacesCxfImplForTest extends KonnektorInterfacesCxfImpl {
 
+    ConnectorServices connectorServicesForTest = ResourceLoader.connectorServices();
+
     public KonnektorInterfacesCxfImplForTest() {
       super(new TestFileLoader());
     }
 
     @Override
-    protected SdsApi sdsApi() {
+    protected SdsApi sdsApi(KonnektorConnectionConfiguration configuration) {
       var thisSdsApi = mock(SdsApi.class);
 
-      when(thisSdsApi.getConnectorSds()).thenReturn(ResourceLoader.connectorServices());
+      when(thisSdsApi.getConnectorSds()).thenReturn(connectorServicesForTest);
+      when(thisSdsApi.getConnectorSds(any(), any()))
+          .thenAnswer(
+              invocation -> Response.ok(XmlUtils.marshal(connectorServicesForTest)).build());
 
       return thisSdsApi;
     }
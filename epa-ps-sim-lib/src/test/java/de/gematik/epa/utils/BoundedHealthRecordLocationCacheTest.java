@@ -0,0 +1,302 @@
+/*-
+ * #%L
+ * epa-ps-sim-lib
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.epa.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BoundedHealthRecordLocationCacheTest {
+
+  private static final String INSURANT_ID = "X110435031";
+  private static final String URL = "http://epa-as-1.dev.epa4all.de:443";
+
+  private final MutableClock clock = new MutableClock();
+
+  @TempDir Path directory;
+
+  @Test
+  void putAndGetTest() {
+    var tstObj = memoryCache(10, Duration.ZERO);
+
+    tstObj.put(INSURANT_ID, URL);
+
+    assertThat(tstObj.get(INSURANT_ID)).contains(URL);
+    assertThat(tstObj.isMissing(INSURANT_ID)).isFalse();
+    assertThat(tstObj.locations()).containsEntry(INSURANT_ID, URL).hasSize(1);
+  }
+
+  @Test
+  void locationExpiresTest() {
+    var tstObj = memoryCache(10, Duration.ZERO);
+    tstObj.put(INSURANT_ID, URL);
+
+    clock.advance(Duration.ofHours(1));
+
+    assertThat(tstObj.get(INSURANT_ID)).isEmpty();
+    assertThat(tstObj.locations()).isEmpty();
+    assertThat(tstObj.size()).isZero();
+  }
+
+  @Test
+  void locationDoesNotExpireByDefaultTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj =
+        new BoundedHealthRecordLocationCache(
+            10,
+            BoundedHealthRecordLocationCache.DEFAULT_TIME_TO_LIVE,
+            Duration.ZERO,
+            file,
+            clock)) {
+      tstObj.put(INSURANT_ID, URL);
+
+      clock.advance(Duration.ofDays(365));
+
+      assertThat(tstObj.get(INSURANT_ID)).contains(URL);
+    }
+
+    try (var tstObj =
+        new BoundedHealthRecordLocationCache(
+            10,
+            BoundedHealthRecordLocationCache.DEFAULT_TIME_TO_LIVE,
+            Duration.ZERO,
+            file,
+            clock)) {
+      assertThat(tstObj.get(INSURANT_ID)).contains(URL);
+    }
+  }
+
+  @Test
+  void leastRecentlyUsedIsDroppedTest() {
+    var tstObj = memoryCache(2, Duration.ZERO);
+    tstObj.put("A", URL);
+    tstObj.put("B", URL);
+    tstObj.get("A");
+
+    tstObj.put("C", URL);
+
+    assertThat(tstObj.locations()).containsOnlyKeys("A", "C");
+  }
+
+  @Test
+  void evictionDropsLeastRecentlyUsedTenthTest() {
+    var tstObj = memoryCache(20, Duration.ZERO);
+    for (var i = 0; i < 20; i++) {
+      tstObj.put("K" + i, URL);
+    }
+    for (var i = 0; i < 5; i++) {
+      tstObj.get("K" + i);
+    }
+
+    tstObj.put("K20", URL);
+
+    assertThat(tstObj.size()).isEqualTo(18);
+    assertThat(tstObj.locations())
+        .containsKeys("K0", "K1", "K2", "K3", "K4", "K8", "K20")
+        .doesNotContainKeys("K5", "K6", "K7");
+  }
+
+  @Test
+  void missingIsNotRememberedByDefaultTest() {
+    var tstObj = memoryCache(10, Duration.ZERO);
+
+    tstObj.putMissing(INSURANT_ID);
+
+    assertThat(tstObj.isMissing(INSURANT_ID)).isFalse();
+    assertThat(tstObj.size()).isZero();
+  }
+
+  @Test
+  void missingIsRememberedTest() {
+    var tstObj = memoryCache(10, Duration.ofMinutes(5));
+
+    tstObj.putMissing(INSURANT_ID);
+
+    assertThat(tstObj.isMissing(INSURANT_ID)).isTrue();
+    assertThat(tstObj.get(INSURANT_ID)).isEmpty();
+    assertThat(tstObj.locations()).isEmpty();
+
+    clock.advance(Duration.ofMinutes(5));
+
+    assertThat(tstObj.isMissing(INSURANT_ID)).isFalse();
+  }
+
+  @Test
+  void putReplacesMissingTest() {
+    var tstObj = memoryCache(10, Duration.ofMinutes(5));
+    tstObj.putMissing(INSURANT_ID);
+
+    tstObj.put(INSURANT_ID, URL);
+
+    assertThat(tstObj.isMissing(INSURANT_ID)).isFalse();
+    assertThat(tstObj.get(INSURANT_ID)).contains(URL);
+  }
+
+  @Test
+  void removeAndClearTest() {
+    var tstObj = memoryCache(10, Duration.ZERO);
+    tstObj.put("A", URL);
+    tstObj.put("B", URL);
+
+    tstObj.remove("A");
+    assertThat(tstObj.locations()).containsOnlyKeys("B");
+
+    tstObj.clear();
+    assertThat(tstObj.locations()).isEmpty();
+  }
+
+  @Test
+  void restoreFromFileTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj = fileCache(file)) {
+      tstObj.put("A", URL);
+      tstObj.put("B", URL);
+      tstObj.putMissing("C");
+      tstObj.remove("B");
+    }
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.get("A")).contains(URL);
+      assertThat(tstObj.get("B")).isEmpty();
+      assertThat(tstObj.isMissing("C")).isTrue();
+    }
+  }
+
+  @Test
+  void droppedEntriesAreNotRestoredTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj =
+        new BoundedHealthRecordLocationCache(2, Duration.ofHours(1), Duration.ZERO, file, clock)) {
+      tstObj.put("A", URL);
+      tstObj.put("B", URL);
+      tstObj.get("A");
+      tstObj.put("C", URL);
+    }
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.locations()).containsOnlyKeys("A", "C");
+    }
+  }
+
+  @Test
+  void expiredEntriesAreNotRestoredTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj = fileCache(file)) {
+      tstObj.put(INSURANT_ID, URL);
+    }
+
+    clock.advance(Duration.ofHours(1));
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.size()).isZero();
+    }
+  }
+
+  @Test
+  void clearIsPersistedTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj = fileCache(file)) {
+      tstObj.put(INSURANT_ID, URL);
+      tstObj.clear();
+    }
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.size()).isZero();
+    }
+  }
+
+  @Test
+  void changesAfterClearArePersistedTest() {
+    var file = directory.resolve("health-records");
+    try (var tstObj = fileCache(file)) {
+      tstObj.put("A", URL);
+      tstObj.clear();
+      tstObj.put("B", URL);
+    }
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.locations()).containsOnlyKeys("B");
+    }
+  }
+
+  @Test
+  void unreadableFileIsIgnoredTest() throws Exception {
+    var file = directory.resolve("health-records");
+    Files.writeString(file, "put\tA\n");
+
+    try (var tstObj = fileCache(file)) {
+      assertThat(tstObj.size()).isZero();
+
+      tstObj.put(INSURANT_ID, URL);
+      assertThat(tstObj.get(INSURANT_ID)).contains(URL);
+    }
+  }
+
+  // region private
+
+  private BoundedHealthRecordLocationCache memoryCache(int maxEntries, Duration missingTtl) {
+    return new BoundedHealthRecordLocationCache(
+        maxEntries, Duration.ofHours(1), missingTtl, null, clock);
+  }
+
+  private BoundedHealthRecordLocationCache fileCache(Path file) {
+    return new BoundedHealthRecordLocationCache(
+        10, Duration.ofHours(1), Duration.ofMinutes(5), file, clock);
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+
+  // endregion private
+}
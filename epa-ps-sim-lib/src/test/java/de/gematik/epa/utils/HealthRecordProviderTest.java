@@ -31,6 +31,12 @@ import static org.mockito.Mockito.when;
 
 import de.gematik.epa.api.information.client.AccountInformationApi;
 import de.gematik.epa.client.JaxRsClientWrapper;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -43,6 +49,11 @@ class HealthRecordProviderTest {
     when(client.getUrl()).thenReturn("http://example.com");
   }
 
+  @AfterEach
+  void tearDown() {
+    HealthRecordProvider.setRecordLookup(null);
+  }
+
   @Test
   void shouldThrowExceptionWhenNoClientForInsurantIdExists() {
     var insurantId = "192021";
@@ -106,4 +117,72 @@ class HealthRecordProviderTest {
 
     assertThat(HealthRecordProvider.hasHealthRecord(insurantId)).isTrue();
   }
+
+  @Test
+  void shouldClearAllHealthRecords() {
+    HealthRecordProvider.addHealthRecord("192122", client.getUrl());
+    HealthRecordProvider.addHealthRecord("232425", client.getUrl());
+
+    HealthRecordProvider.clearAllHealthRecords();
+
+    assertThat(HealthRecordProvider.getAllHealthRecords()).isEmpty();
+  }
+
+  @Test
+  void shouldResolveUnknownHealthRecordUsingRecordLookup() {
+    var insurantId = "262728";
+    HealthRecordProvider.setRecordLookup(
+        id -> HealthRecordProvider.addHealthRecord(id, client.getUrl()));
+
+    String result = HealthRecordProvider.resolveHealthRecordUrl(insurantId);
+
+    assertThat(result).isEqualTo("http://example.com");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenRecordLookupFindsNoHealthRecord() {
+    var insurantId = "293031";
+    HealthRecordProvider.setRecordLookup(
+        id -> {
+          throw new IllegalStateException("information server not reachable");
+        });
+
+    assertThatThrownBy(() -> HealthRecordProvider.resolveHealthRecordUrl(insurantId))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("No health record found for insurantId: " + insurantId);
+  }
+
+  @Test
+  void shouldLookUpHealthRecordOnceForConcurrentResolutions() throws Exception {
+    var insurantId = "323334";
+    var lookups = new AtomicInteger();
+    var lookupStarted = new CountDownLatch(1);
+    var releaseLookup = new CountDownLatch(1);
+    HealthRecordProvider.setRecordLookup(
+        id -> {
+          lookups.incrementAndGet();
+          lookupStarted.countDown();
+          try {
+            releaseLookup.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          HealthRecordProvider.addHealthRecord(id, client.getUrl());
+        });
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first =
+          CompletableFuture.supplyAsync(
+              () -> HealthRecordProvider.resolveHealthRecordUrl(insurantId), executor);
+      assertThat(lookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      var second =
+          CompletableFuture.supplyAsync(
+              () -> HealthRecordProvider.resolveHealthRecordUrl(insurantId), executor);
+      releaseLookup.countDown();
+
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("http://example.com");
+      assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("http://example.com");
+    }
+    assertThat(lookups).hasValue(1);
+  }
 }
@@ -26,6 +26,10 @@ package de.gematik.epa.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -61,4 +65,60 @@ class TelematikIdHolderTest {
     TelematikIdHolder.setTelematikId("67890");
     assertThat(TelematikIdHolder.getTelematikId()).isEqualTo("67890");
   }
+
+  @Test
+  @SneakyThrows
+  void telematikIdsOfConcurrentRequestsDoNotMix() {
+    try (var executor = Executors.newFixedThreadPool(2)) {
+      var first =
+          executor.submit(
+              () -> {
+                TelematikIdHolder.setTelematikId("first");
+                Thread.sleep(50);
+                return TelematikIdHolder.getTelematikId();
+              });
+      var second =
+          executor.submit(
+              () -> {
+                TelematikIdHolder.setTelematikId("second");
+                Thread.sleep(50);
+                return TelematikIdHolder.getTelematikId();
+              });
+
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+      assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void wrappedTaskRunsWithTelematikIdOfRequestOnPooledThread() {
+    try (var executor = Executors.newSingleThreadExecutor()) {
+      TelematikIdHolder.setTelematikId("request");
+
+      var wrapped =
+          CompletableFuture.supplyAsync(
+              TelematikIdHolder.wrap(TelematikIdHolder::getTelematikId), executor);
+      var notWrapped = CompletableFuture.supplyAsync(TelematikIdHolder::getTelematikId, executor);
+
+      assertThat(wrapped.get(5, TimeUnit.SECONDS)).isEqualTo("request");
+      // the pooled thread does not keep the telematik-ID after the wrapped task
+      assertThat(notWrapped.get(5, TimeUnit.SECONDS)).isNull();
+    } finally {
+      TelematikIdHolder.clearTelematikId();
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void threadsDoNotInheritTelematikId() {
+    TelematikIdHolder.setTelematikId("request");
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var telematikId = executor.submit(TelematikIdHolder::getTelematikId);
+
+      assertThat(telematikId.get(5, TimeUnit.SECONDS)).isNull();
+    } finally {
+      TelematikIdHolder.clearTelematikId();
+    }
+  }
 }
@@ -31,6 +31,8 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.junit.jupiter.api.Test;
 import telematik.ws.conn.cardservice.xsd.v8_1.GetPinStatus;
@@ -80,6 +82,43 @@ class XmlUtilsTest {
     assertContext(GET_PIN_STATUS.getContext(), getPinStatusAgain.getContext());
   }
 
+  @Test
+  void getJaxbContextReusesContext() {
+    var context = XmlUtils.getJaxbContext(ContextType.class);
+
+    assertSame(context, XmlUtils.getJaxbContext(ContextType.class));
+    assertNotSame(context, XmlUtils.getJaxbContext(GetPinStatus.class));
+  }
+
+  @Test
+  void marshalConcurrently() {
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var results =
+          IntStream.range(0, 50)
+              .mapToObj(
+                  i ->
+                      executor.submit(
+                          () ->
+                              XmlUtils.unmarshal(
+                                  GetPinStatus.class, XmlUtils.marshal(GET_PIN_STATUS))))
+              .toList();
+
+      results.forEach(
+          result -> {
+            var getPinStatusAgain = assertDoesNotThrow(() -> result.get());
+            assertEquals(GET_PIN_STATUS.getCardHandle(), getPinStatusAgain.getCardHandle());
+            assertContext(GET_PIN_STATUS.getContext(), getPinStatusAgain.getContext());
+          });
+    }
+  }
+
+  @Test
+  void marshalWithoutJaxbElementFactoryFails() {
+    var noXmlType = new Object();
+
+    assertThrows(Exception.class, () -> XmlUtils.marshal(noXmlType));
+  }
+
   private static GetPinStatus createGetPinStatus() {
     var result = new GetPinStatus();
     result.setCardHandle("card_handle_01");
@@ -27,10 +27,14 @@ package de.gematik.epa.utils.internal;
 import static org.junit.jupiter.api.Assertions.*;
 
 import de.gematik.epa.utils.internal.SynchronizerTest.LogEntry.Phase;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.Data;
 import lombok.SneakyThrows;
 import lombok.experimental.Accessors;
@@ -92,6 +96,129 @@ class SynchronizerTest {
     assertBefore(find(Phase.DONE, threadNameB), find(Phase.RUNNING, threadName3));
   }
 
+  @Test
+  void epochIsIncrementedByBlockingRuns() {
+    assertEquals(0, synchronizer.epoch());
+
+    synchronizer.runNonBlocking(() -> {});
+    assertEquals(0, synchronizer.epoch());
+
+    synchronizer.runBlocking(() -> {});
+    assertEquals(1, synchronizer.epoch());
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            synchronizer.runBlocking(
+                () -> {
+                  throw new IllegalStateException("failed change");
+                }));
+    assertEquals(2, synchronizer.epoch());
+  }
+
+  @Test
+  void changeDoesNotWaitForRunningOperations() {
+    var operationRunning = new CountDownLatch(1);
+    var changeDone = new CountDownLatch(1);
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(
+                () ->
+                    synchronizer.runNonBlocking(
+                        () -> {
+                          operationRunning.countDown();
+                          await(changeDone);
+                        }));
+            await(operationRunning);
+            synchronizer.runChange(changeDone::countDown);
+          }
+        });
+
+    assertEquals(1, synchronizer.epoch());
+  }
+
+  @Test
+  void blockingRunStartsWhenLastOperationIsDone() {
+    var operationsRunning = new CountDownLatch(2);
+    var releaseOperations = new CountDownLatch(1);
+    var operationsDone = new AtomicBoolean();
+    var changeSawOperationsDone = new AtomicBoolean();
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < 2; i++) {
+              executor.submit(
+                  () ->
+                      synchronizer.runNonBlocking(
+                          () -> {
+                            operationsRunning.countDown();
+                            await(releaseOperations);
+                          }));
+            }
+            await(operationsRunning);
+            var change =
+                executor.submit(
+                    () ->
+                        synchronizer.runBlocking(
+                            () -> changeSawOperationsDone.set(operationsDone.get())));
+            Thread.sleep(50);
+            assertFalse(change.isDone());
+
+            operationsDone.set(true);
+            releaseOperations.countDown();
+            change.get();
+          }
+        });
+
+    assertTrue(changeSawOperationsDone.get());
+    assertEquals(1, synchronizer.epoch());
+  }
+
+  @Test
+  void nonBlockingRunInsideBlockingRunDoesNotWait() {
+    var nestedRun = new AtomicBoolean();
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () ->
+            synchronizer.runBlocking(() -> synchronizer.runNonBlocking(() -> nestedRun.set(true))));
+
+    assertTrue(nestedRun.get());
+  }
+
+  @Test
+  void nonBlockingRunsDoNotWaitForEachOther() {
+    var allRunning = new CountDownLatch(10);
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+              executor.submit(
+                  () ->
+                      synchronizer.runNonBlocking(
+                          () -> {
+                            allRunning.countDown();
+                            await(allRunning);
+                          }));
+            }
+          }
+        });
+
+    assertEquals(0, allRunning.getCount());
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+
   private final Runnable nonBlockingThreadRunnable =
       () -> {
         log(Phase.CREATED);